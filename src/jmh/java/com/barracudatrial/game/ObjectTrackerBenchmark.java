@@ -0,0 +1,67 @@
+package com.barracudatrial.game;
+
+import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.TrialType;
+import com.barracudatrial.pathfinding.SyntheticTrialMap;
+import com.barracudatrial.world.InMemoryTrialWorldView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Per-tick scene scanning over a synthetic world, with the scene loaded around the route's start.
+ * Cold scans into an empty state, as on the first tick of a trial; warm rescans a scene that's already been tracked.
+ * Dense rock settings are a load test: far more objects than a real trial puts in one scene.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+public class ObjectTrackerBenchmark
+{
+	@Param({"TEMPOR_TANTRUM", "JUBBLY_JIVE", "GWENITH_GLIDE"})
+	public TrialType trialType;
+
+	@Param({"0.04", "0.3"})
+	public double rockDensity;
+
+	private SyntheticTrialMap map;
+	private InMemoryTrialWorldView world;
+	private State warmState;
+	private ObjectTracker warmTracker;
+
+	@Setup(Level.Trial)
+	public void createWorld()
+	{
+		map = SyntheticTrialMap.generate(trialType, Difficulty.MARLIN, 42, rockDensity);
+		world = map.getWorld();
+		world.loadSceneAround(map.getStartLocation());
+
+		warmState = new State();
+		map.startTrial(warmState);
+		warmTracker = new ObjectTracker(world, warmState);
+		warmTracker.updateHazardsSpeedBoostsAndToadPillars();
+	}
+
+	@Benchmark
+	public State scanCold()
+	{
+		State state = new State();
+		map.startTrial(state);
+		new ObjectTracker(world, state).updateHazardsSpeedBoostsAndToadPillars();
+		return state;
+	}
+
+	@Benchmark
+	public State scanWarm()
+	{
+		warmTracker.updateHazardsSpeedBoostsAndToadPillars();
+		return warmState;
+	}
+
+	@Benchmark
+	public State trackClouds()
+	{
+		warmTracker.updateLightningCloudTracking();
+		return warmState;
+	}
+}
@@ -0,0 +1,85 @@
+package com.barracudatrial.game;
+
+import com.barracudatrial.BarracudaTrialConfig;
+import com.barracudatrial.CachedConfig;
+import com.barracudatrial.atlas.RouteBaselines;
+import com.barracudatrial.diagnostics.PathfindingMetrics;
+import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.RouteWaypoint;
+import com.barracudatrial.game.route.TrialType;
+import com.barracudatrial.pathfinding.SyntheticTrialMap;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.callback.ClientThread;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+
+/**
+ * Full multi-waypoint planning as run on the pathfinding thread, through the configured lookahead.
+ * Cold clears the stabilizer first so every segment is searched; warm keeps it, as consecutive recalculations do.
+ * The map's world has no scene loaded, so waypoints are targeted at their route location.
+ * With baselines, the route's static distance fields are generated up front, as they'd be loaded from disk.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+public class PathPlannerBenchmark
+{
+	@Param({"TEMPOR_TANTRUM", "JUBBLY_JIVE", "GWENITH_GLIDE"})
+	public TrialType trialType;
+
+	@Param({"MARLIN"})
+	public Difficulty difficulty;
+
+	@Param({"3", "6"})
+	public int lookahead;
+
+	@Param({"false", "true"})
+	public boolean baselines;
+
+	private PathPlanner pathPlanner;
+	private WorldPoint start;
+	private List<RouteWaypoint> waypoints;
+
+	@Setup(Level.Trial)
+	public void createPlanner()
+	{
+		SyntheticTrialMap map = SyntheticTrialMap.generate(trialType, difficulty, 42);
+
+		State state = new State();
+		map.populateState(state);
+
+		CachedConfig cachedConfig = new CachedConfig(new BarracudaTrialConfig() {});
+		pathPlanner = new PathPlanner(map.getWorld(), state, cachedConfig, new ClientThread(), new PathfindingMetrics());
+		if (baselines)
+		{
+			pathPlanner.setRouteBaselines(RouteBaselines.generate(state.getCurrentStaticRoute(), state.getKnownRockLocations(),
+				state.getKnownFetidPoolLocations(), state.getKnownToadPillarLocations(), cachedConfig.getRouteOptimization()));
+		}
+
+		start = map.getStartLocation();
+		waypoints = map.getLookaheadWaypoints(lookahead);
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdownPlanner()
+	{
+		pathPlanner.shutdown();
+	}
+
+	@Benchmark
+	public List<WorldPoint> planCold()
+	{
+		pathPlanner.reset();
+		return pathPlanner.planPath(start, 0, 0, waypoints);
+	}
+
+	@Benchmark
+	public List<WorldPoint> planWarm()
+	{
+		return pathPlanner.planPath(start, 0, 0, waypoints);
+	}
+}
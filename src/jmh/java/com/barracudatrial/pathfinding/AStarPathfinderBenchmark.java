@@ -0,0 +1,60 @@
+package com.barracudatrial.pathfinding;
+
+import com.barracudatrial.RouteOptimization;
+import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.TrialType;
+import net.runelite.api.coords.WorldPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+
+/**
+ * One A* search per operation, cycling through the legs of the route.
+ * The cost calculator tracks consumed boosts, so each search gets a fresh one (built outside the measurement).
+ */
+@State(Scope.Thread)
+public class AStarPathfinderBenchmark
+{
+	@Param({"TEMPOR_TANTRUM", "JUBBLY_JIVE", "GWENITH_GLIDE"})
+	public TrialType trialType;
+
+	@Param({"SWORDFISH", "MARLIN"})
+	public Difficulty difficulty;
+
+	@Param({"EFFICIENT"})
+	public RouteOptimization routeOptimization;
+
+	private final AStarPathfinder pathfinder = new AStarPathfinder();
+	private SyntheticTrialMap map;
+	private BarracudaTileCostCalculator costCalculator;
+	private WorldPoint[] leg;
+	private int legIndex = -1;
+
+	@Setup(Level.Trial)
+	public void createMap()
+	{
+		map = SyntheticTrialMap.generate(trialType, difficulty, 42);
+	}
+
+	@Setup(Level.Invocation)
+	public void nextLeg()
+	{
+		legIndex = (legIndex + 1) % map.getLegs().size();
+		leg = map.getLegs().get(legIndex);
+		costCalculator = map.createCostCalculator(routeOptimization, Collections.emptySet());
+	}
+
+	@Benchmark
+	public PathResult findPath()
+	{
+		WorldPoint start = leg[0];
+		WorldPoint goal = leg[1];
+		int maxSearchDistance = Math.max(35, Math.min(80, start.distanceTo(goal) * 8));
+		return pathfinder.findPath(costCalculator, routeOptimization, start, goal, maxSearchDistance, 0, 0, 1);
+	}
+}
@@ -0,0 +1,95 @@
+package com.barracudatrial.pathfinding;
+
+import com.barracudatrial.RouteOptimization;
+import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.TrialType;
+import net.runelite.api.coords.WorldPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Calculator construction (the danger zone precomputation done for every planned segment)
+ * and single-step cost lookups along the route's legs, including the tiles beside them.
+ */
+@State(Scope.Thread)
+public class BarracudaTileCostCalculatorBenchmark
+{
+	private static final int STEPS = 4096;
+
+	@Param({"TEMPOR_TANTRUM", "JUBBLY_JIVE", "GWENITH_GLIDE"})
+	public TrialType trialType;
+
+	@Param({"MARLIN"})
+	public Difficulty difficulty;
+
+	@Param({"EFFICIENT"})
+	public RouteOptimization routeOptimization;
+
+	private SyntheticTrialMap map;
+	private BarracudaTileCostCalculator costCalculator;
+	private final WorldPoint[] stepFrom = new WorldPoint[STEPS];
+	private final WorldPoint[] stepTo = new WorldPoint[STEPS];
+
+	@Setup(Level.Trial)
+	public void createMap()
+	{
+		map = SyntheticTrialMap.generate(trialType, difficulty, 42);
+
+		// Walk each leg in a straight line, then sweep the row beside it, until the step budget is filled
+		List<WorldPoint> walk = new ArrayList<>();
+		for (WorldPoint[] leg : map.getLegs())
+		{
+			WorldPoint from = leg[0];
+			WorldPoint to = leg[1];
+			int steps = Math.max(1, from.distanceTo(to));
+			for (int offset = -1; offset <= 1; offset++)
+			{
+				for (int i = 0; i <= steps; i++)
+				{
+					int x = from.getX() + (to.getX() - from.getX()) * i / steps;
+					int y = from.getY() + (to.getY() - from.getY()) * i / steps + offset;
+					walk.add(new WorldPoint(x, y, from.getPlane()));
+				}
+			}
+		}
+
+		for (int i = 0; i < STEPS; i++)
+		{
+			stepFrom[i] = walk.get(i % walk.size());
+			stepTo[i] = walk.get((i + 1) % walk.size());
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void createCalculator()
+	{
+		costCalculator = map.createCostCalculator(routeOptimization, Collections.emptySet());
+	}
+
+	@Benchmark
+	public BarracudaTileCostCalculator construct()
+	{
+		return map.createCostCalculator(routeOptimization, Collections.emptySet());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(STEPS)
+	public double getTileCost()
+	{
+		double total = 0;
+		for (int i = 0; i < STEPS; i++)
+		{
+			total += costCalculator.getTileCost(stepFrom[i], stepTo[i]);
+		}
+		return total;
+	}
+}
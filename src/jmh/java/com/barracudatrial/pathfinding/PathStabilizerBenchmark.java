@@ -0,0 +1,79 @@
+package com.barracudatrial.pathfinding;
+
+import com.barracudatrial.RouteOptimization;
+import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.TrialType;
+import net.runelite.api.coords.WorldPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Repeated requests for the same goal while the boat follows the returned path, one tile per request,
+ * which is what the planner does between waypoints. Starts the next leg once the boat arrives.
+ */
+@State(Scope.Thread)
+public class PathStabilizerBenchmark
+{
+	@Param({"TEMPOR_TANTRUM", "JUBBLY_JIVE", "GWENITH_GLIDE"})
+	public TrialType trialType;
+
+	@Param({"MARLIN"})
+	public Difficulty difficulty;
+
+	@Param({"EFFICIENT"})
+	public RouteOptimization routeOptimization;
+
+	private SyntheticTrialMap map;
+	private PathStabilizer pathStabilizer;
+	private BarracudaTileCostCalculator costCalculator;
+	private int legIndex = 0;
+	private WorldPoint boatLocation;
+	private List<WorldPoint> lastPath = Collections.emptyList();
+
+	@Setup(Level.Trial)
+	public void createMap()
+	{
+		map = SyntheticTrialMap.generate(trialType, difficulty, 42);
+		pathStabilizer = new PathStabilizer(new AStarPathfinder());
+		boatLocation = map.getLegs().get(0)[0];
+	}
+
+	@Setup(Level.Invocation)
+	public void advanceBoat()
+	{
+		WorldPoint[] leg = map.getLegs().get(legIndex);
+		if (lastPath.size() > 1 && !lastPath.get(1).equals(leg[1]))
+		{
+			boatLocation = lastPath.get(1);
+		}
+		else if (!lastPath.isEmpty())
+		{
+			legIndex = (legIndex + 1) % map.getLegs().size();
+			boatLocation = map.getLegs().get(legIndex)[0];
+			lastPath = Collections.emptyList();
+		}
+
+		costCalculator = map.createCostCalculator(routeOptimization, Collections.emptySet());
+	}
+
+	@Benchmark
+	public PathResult findPath()
+	{
+		WorldPoint goal = map.getLegs().get(legIndex)[1];
+		int maxSearchDistance = Math.max(35, Math.min(80, boatLocation.distanceTo(goal) * 8));
+
+		pathStabilizer.beginRecalculation();
+		PathResult result = pathStabilizer.findPath(costCalculator, routeOptimization, boatLocation, goal, maxSearchDistance, 0, 0, 1, true);
+		pathStabilizer.endRecalculation();
+
+		lastPath = result.getPath();
+		return result;
+	}
+}
@@ -0,0 +1,268 @@
+package com.barracudatrial.pathfinding;
+
+import com.barracudatrial.RouteOptimization;
+import com.barracudatrial.game.ObjectTracker;
+import com.barracudatrial.game.ProgressTracker;
+import com.barracudatrial.game.State;
+import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.RouteWaypoint;
+import com.barracudatrial.game.route.TemporTantrumConfig;
+import com.barracudatrial.game.route.TrialConfig;
+import com.barracudatrial.game.route.TrialType;
+import com.barracudatrial.world.InMemoryTrialWorldView;
+import net.runelite.api.NPC;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.gameval.NpcID;
+import net.runelite.api.gameval.ObjectID;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic pathfinding world built around a real trial route, for benchmarks.
+ * The route's waypoints are kept as-is; rocks, lightning clouds and speed boosts are scattered over the route's
+ * bounding box from a fixed seed, never within a couple of tiles of a waypoint so every leg stays reachable.
+ * The same hazards are also placed as objects and NPCs in an in-memory world, with no scene loaded.
+ */
+public class SyntheticTrialMap
+{
+	// Tiles of open water kept around the route's bounding box
+	private static final int MARGIN = 12;
+	// No hazards this close (Chebyshev) to a waypoint
+	private static final int WAYPOINT_CLEARANCE = 2;
+	public static final double DEFAULT_ROCK_DENSITY = 0.04;
+	private static final int CLOUD_COUNT = 8;
+	private static final int BOOST_COUNT = 12;
+
+	private final TrialConfig trial;
+	private final List<RouteWaypoint> route;
+	private final List<WorldPoint[]> legs = new ArrayList<>();
+	private final Set<WorldPoint> rocks = new HashSet<>();
+	private final Map<WorldPoint, List<WorldPoint>> boosts = new HashMap<>();
+	private final Set<WorldPoint> toadPillars = new HashSet<>();
+	private final Set<NPC> clouds = new HashSet<>();
+	private final InMemoryTrialWorldView world = new InMemoryTrialWorldView();
+
+	private SyntheticTrialMap(TrialConfig trial, List<RouteWaypoint> route)
+	{
+		this.trial = trial;
+		this.route = route;
+	}
+
+	public static SyntheticTrialMap generate(TrialType trialType, Difficulty difficulty, long seed)
+	{
+		return generate(trialType, difficulty, seed, DEFAULT_ROCK_DENSITY);
+	}
+
+	/**
+	 * @param rockDensity Fraction of the bounding box covered in rocks; well above the default makes a load test
+	 */
+	public static SyntheticTrialMap generate(TrialType trialType, Difficulty difficulty, long seed, double rockDensity)
+	{
+		TrialConfig trial = ProgressTracker.createTrialConfig(trialType);
+		SyntheticTrialMap map = new SyntheticTrialMap(trial, trial.getRoute(difficulty));
+		map.populate(new Random(seed), rockDensity);
+		return map;
+	}
+
+	private void populate(Random random, double rockDensity)
+	{
+		List<WorldPoint> navigable = new ArrayList<>();
+		for (RouteWaypoint waypoint : route)
+		{
+			if (waypoint.getType() == RouteWaypoint.WaypointType.TOAD_PILLAR)
+			{
+				toadPillars.add(waypoint.getLocation());
+			}
+			if (!waypoint.getType().isNonNavigableHelper())
+			{
+				navigable.add(waypoint.getLocation());
+			}
+		}
+
+		for (int i = 1; i < navigable.size(); i++)
+		{
+			WorldPoint from = navigable.get(i - 1);
+			WorldPoint to = navigable.get(i);
+			// Portals jump across the map; those legs are never searched
+			if (from.getPlane() == to.getPlane() && from.distanceTo(to) <= 80)
+			{
+				legs.add(new WorldPoint[] {from, to});
+			}
+		}
+
+		if (navigable.isEmpty())
+		{
+			return;
+		}
+
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		for (WorldPoint p : navigable)
+		{
+			minX = Math.min(minX, p.getX());
+			minY = Math.min(minY, p.getY());
+			maxX = Math.max(maxX, p.getX());
+			maxY = Math.max(maxY, p.getY());
+		}
+		minX -= MARGIN;
+		minY -= MARGIN;
+		maxX += MARGIN;
+		maxY += MARGIN;
+		int plane = navigable.get(0).getPlane();
+
+		int width = maxX - minX + 1;
+		int height = maxY - minY + 1;
+		int rockCount = (int) (width * height * rockDensity);
+		for (int i = 0; i < rockCount; i++)
+		{
+			WorldPoint tile = randomClearTile(random, navigable, minX, minY, width, height, plane);
+			if (tile != null && rocks.add(tile))
+			{
+				world.addGameObject(ObjectID.OCEAN_OUTCROP_ROCK02, tile, 1, 1);
+			}
+		}
+
+		for (int i = 0; i < BOOST_COUNT; i++)
+		{
+			WorldPoint tile = randomClearTile(random, navigable, minX, minY, width, height, plane);
+			if (tile != null && !rocks.contains(tile))
+			{
+				boosts.put(tile, ObjectTracker.getTilesWithTolerance(tile, 1));
+				world.addGameObject(ObjectID.SAILING_RAPIDS, tile, 1, 1);
+			}
+		}
+
+		// Clouds drift near the route, so they actually get in the way
+		for (int i = 0; i < CLOUD_COUNT; i++)
+		{
+			WorldPoint anchor = navigable.get(random.nextInt(navigable.size()));
+			int dx = (random.nextBoolean() ? 1 : -1) * (4 + random.nextInt(5));
+			int dy = (random.nextBoolean() ? 1 : -1) * (4 + random.nextInt(5));
+			clouds.add(world.addNpc(NpcID.SAILING_SEA_STORMY_CLOUD, new WorldPoint(anchor.getX() + dx, anchor.getY() + dy, plane), 0));
+		}
+	}
+
+	private WorldPoint randomClearTile(Random random, List<WorldPoint> navigable, int minX, int minY, int width, int height, int plane)
+	{
+		WorldPoint tile = new WorldPoint(minX + random.nextInt(width), minY + random.nextInt(height), plane);
+		for (WorldPoint waypoint : navigable)
+		{
+			if (waypoint.distanceTo(tile) <= WAYPOINT_CLEARANCE)
+			{
+				return null;
+			}
+		}
+		return tile;
+	}
+
+	/**
+	 * Calculator for the whole map, built the way the planner builds one for a segment
+	 */
+	public BarracudaTileCostCalculator createCostCalculator(RouteOptimization routeOptimization, Set<WorldPoint> pathfindingHints)
+	{
+		return new BarracudaTileCostCalculator(
+			TileHazards.copyOf(boosts, rocks, Collections.emptySet(), toadPillars, clouds, null),
+			0,
+			0,
+			0,
+			0,
+			null,
+			null,
+			routeOptimization,
+			TemporTantrumConfig.BOAT_EXCLUSION_WIDTH,
+			TemporTantrumConfig.BOAT_EXCLUSION_HEIGHT,
+			pathfindingHints,
+			null,
+			0
+		);
+	}
+
+	/**
+	 * Loads the map's hazards and route into a fresh trial state, as the object tracker would have
+	 */
+	public void populateState(State state)
+	{
+		startTrial(state);
+		state.updateKnownRockLocations(rocks);
+		state.updateKnownSpeedBoostLocations(boosts);
+		state.updateKnownToadPillarLocations(toadPillars);
+		for (NPC cloud : clouds)
+		{
+			state.addLightningCloud(cloud);
+			state.addDangerousCloud(cloud);
+		}
+	}
+
+	/**
+	 * Puts a fresh state in this map's trial and route, with nothing tracked yet
+	 */
+	public void startTrial(State state)
+	{
+		state.setCurrentTrial(trial);
+		state.setInTrial(true);
+		state.setCurrentStaticRoute(route);
+	}
+
+	/**
+	 * Where the planner benchmarks start: the route's first navigable waypoint
+	 */
+	public WorldPoint getStartLocation()
+	{
+		return legs.isEmpty() ? route.get(0).getLocation() : legs.get(0)[0];
+	}
+
+	/**
+	 * @return Waypoints after the start location, up to and including the given number of navigable ones
+	 */
+	public List<RouteWaypoint> getLookaheadWaypoints(int navigableCount)
+	{
+		List<RouteWaypoint> waypoints = new ArrayList<>();
+		boolean pastStart = false;
+		int navigable = 0;
+		for (RouteWaypoint waypoint : route)
+		{
+			if (navigable >= navigableCount)
+			{
+				break;
+			}
+
+			boolean isNavigable = !waypoint.getType().isNonNavigableHelper();
+			if (!pastStart)
+			{
+				pastStart = isNavigable;
+				continue;
+			}
+
+			waypoints.add(waypoint);
+			if (isNavigable)
+			{
+				navigable++;
+			}
+		}
+		return waypoints;
+	}
+
+	public List<WorldPoint[]> getLegs()
+	{
+		return legs;
+	}
+
+	public Set<WorldPoint> getRocks()
+	{
+		return rocks;
+	}
+
+	public InMemoryTrialWorldView getWorld()
+	{
+		return world;
+	}
+}
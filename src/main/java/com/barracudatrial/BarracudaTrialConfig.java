@@ -33,6 +33,14 @@ public interface BarracudaTrialConfig extends Config
 	)
 	String objectHighlightingSection = "objectHighlightingSection";
 
+	@ConfigSection(
+		name = "Diagnostics",
+		description = "Tools for measuring and debugging the pathfinder",
+		position = 3,
+		closedByDefault = true
+	)
+	String diagnosticsSection = "diagnosticsSection";
+
 	@ConfigItem(
 		keyName = "showOptimalPath",
 		name = "Show Optimal Path",
@@ -70,12 +78,37 @@ public interface BarracudaTrialConfig extends Config
 		return 3;
 	}
 
+	@ConfigItem(
+		keyName = "farSegmentGridSize",
+		name = "Far Segment Grid",
+		description = "Plan lookahead segments past the current one on a coarse grid of this many tiles per side, and only plan them in full once the boat reaches them. 1 plans every segment in full.",
+		section = pathSection,
+		position = 3
+	)
+	@Range(min = 1, max = 4)
+	default int farSegmentGridSize()
+	{
+		return 1;
+	}
+
+	@ConfigItem(
+		keyName = "shortBaselineSearches",
+		name = "Short Baseline Searches",
+		description = "On routes with a recorded baseline, only search the first stretch of each segment and follow the baseline for the rest. Much cheaper, but the baseline part ignores boosts and turning, and planning stops after the first segment it's used for.",
+		section = pathSection,
+		position = 4
+	)
+	default boolean shortBaselineSearches()
+	{
+		return false;
+	}
+
 	@ConfigItem(
 		keyName = "pathColor",
 		name = "Path Color",
 		description = "Color of the optimal path line",
 		section = pathSection,
-		position = 4
+		position = 5
 	)
 	@Alpha
 	default Color pathColor()
@@ -88,7 +121,7 @@ public interface BarracudaTrialConfig extends Config
 		name = "Path Width",
 		description = "Width of the path line",
 		section = pathSection,
-		position = 5
+		position = 6
 	)
 	@Range(min = 1, max = 10)
 	default int pathWidth()
@@ -101,7 +134,7 @@ public interface BarracudaTrialConfig extends Config
 		name = "Show Path Tiles",
 		description = "Display detailed information for each waypoint and path tile (type, completion status, coordinates)",
 		section = pathSection,
-		position = 6
+		position = 7
 	)
 	default boolean showPathTiles()
 	{
@@ -234,4 +267,40 @@ public interface BarracudaTrialConfig extends Config
 	{
 		return 2;
 	}
+
+	@ConfigItem(
+		keyName = "recordSessions",
+		name = "Record Trial Sessions",
+		description = "Save what the pathfinder sees each tick to .runelite/barracuda-trials/recordings, for offline replay",
+		section = diagnosticsSection,
+		position = 0
+	)
+	default boolean recordSessions()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "showDiagnosticsPanel",
+		name = "Show Pathfinding Stats",
+		description = "Show a panel with planner and scan timings, to see whether the pathfinder is keeping up",
+		section = diagnosticsSection,
+		position = 1
+	)
+	default boolean showDiagnosticsPanel()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "captureRoutes",
+		name = "Capture Routes",
+		description = "Save the objectives you complete each run to .runelite/barracuda-trials/routes/captured; move a file into routes to use it instead of the built-in route",
+		section = diagnosticsSection,
+		position = 2
+	)
+	default boolean captureRoutes()
+	{
+		return false;
+	}
 }
@@ -0,0 +1,117 @@
+package com.barracudatrial;
+
+import com.barracudatrial.diagnostics.PathfindingMetrics;
+import com.barracudatrial.diagnostics.RollingSamples;
+import com.barracudatrial.pathfinding.PathStabilizer;
+import net.runelite.client.ui.overlay.OverlayPanel;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.LineComponent;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+
+import javax.inject.Inject;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional panel with live planner and tracking numbers, to tell whether the pathfinder is keeping up during a run
+ */
+public class BarracudaTrialDiagnosticsOverlay extends OverlayPanel
+{
+	private static final int PANEL_WIDTH = 190;
+	private static final int TOP_TRIGGER_COUNT = 3;
+	// A recalculation slower than a game tick publishes a path that's already a tick stale
+	private static final long GAME_TICK_MICROS = 600_000;
+
+	private final BarracudaTrialPlugin plugin;
+
+	@Inject
+	public BarracudaTrialDiagnosticsOverlay(BarracudaTrialPlugin plugin)
+	{
+		super(plugin);
+		this.plugin = plugin;
+		setPosition(OverlayPosition.TOP_LEFT);
+	}
+
+	@Override
+	public Dimension render(Graphics2D graphics)
+	{
+		CachedConfig cachedConfig = plugin.getCachedConfig();
+		if (cachedConfig == null || !cachedConfig.isShowDiagnosticsPanel() || !plugin.getGameState().isInTrial())
+		{
+			return null;
+		}
+
+		PathfindingMetrics metrics = plugin.getMetrics();
+		var recalculation = metrics.getRecalculationMicros().snapshot();
+		var queueWait = metrics.getQueueWaitMicros().snapshot();
+		var segmentSearch = metrics.getSegmentSearchMicros().snapshot();
+		var nodes = metrics.getNodesExpanded().snapshot();
+		var openSet = metrics.getOpenSetPeak().snapshot();
+		var scan = metrics.getScanMicros().snapshot();
+
+		panelComponent.setPreferredSize(new Dimension(PANEL_WIDTH, 0));
+		panelComponent.getChildren().add(TitleComponent.builder()
+			.text("Pathfinder")
+			.build());
+
+		addLine("Recalcs", metrics.getRecalculationCount()
+			+ " (" + metrics.getCoalescedRequests() + " merged, " + metrics.getDroppedRequests() + " dropped)");
+		addLine("Search p50/p95/max", formatMillis(recalculation.get(0.5)) + " / " + formatMillis(recalculation.get(0.95))
+			+ " / " + formatMillis(recalculation.getMax()), getSearchColor(recalculation));
+		addLine("Queue wait p50/p95", formatMillis(queueWait.get(0.5)) + " / " + formatMillis(queueWait.get(0.95)));
+		addLine("Segment p50/p95", formatMillis(segmentSearch.get(0.5)) + " / " + formatMillis(segmentSearch.get(0.95)));
+		addLine("Nodes p50/p95", nodes.get(0.5) + " / " + nodes.get(0.95));
+		addLine("Open set p95/max", openSet.get(0.95) + " / " + openSet.getMax());
+		addLine("Reached goal", Math.round(metrics.getReachedGoalRate() * 100) + "%");
+		addLine("Reuse/keep/switch", metrics.getStabilizerDecisionCount(PathStabilizer.Decision.REUSED)
+			+ " / " + metrics.getStabilizerDecisionCount(PathStabilizer.Decision.KEPT)
+			+ " / " + (metrics.getStabilizerDecisionCount(PathStabilizer.Decision.SWITCHED)
+				+ metrics.getStabilizerDecisionCount(PathStabilizer.Decision.NEW)));
+		addLine("Path cache", metrics.getPathCacheEntries() + " (" + metrics.getPathCacheHits() + " hit, "
+			+ metrics.getPathCacheMisses() + " miss)");
+		addLine("Evicted route/LRU", metrics.getPathCacheRouteEvictions() + " / " + metrics.getPathCacheCapacityEvictions());
+		addLine("Coarse/memoized", metrics.getCoarseSegmentCount() + " / " + metrics.getMemoizedSegmentCount());
+		addLine("Scan p50/p95", formatMillis(scan.get(0.5)) + " / " + formatMillis(scan.get(0.95)));
+
+		List<Map.Entry<String, Long>> triggers = metrics.getTriggerCounts();
+		for (int i = 0; i < Math.min(TOP_TRIGGER_COUNT, triggers.size()); i++)
+		{
+			var trigger = triggers.get(i);
+			addLine(trigger.getKey(), String.valueOf(trigger.getValue()));
+		}
+
+		return super.render(graphics);
+	}
+
+	private void addLine(String left, String right)
+	{
+		addLine(left, right, Color.WHITE);
+	}
+
+	private void addLine(String left, String right, Color rightColor)
+	{
+		panelComponent.getChildren().add(LineComponent.builder()
+			.left(left)
+			.right(right)
+			.rightColor(rightColor)
+			.build());
+	}
+
+	private static Color getSearchColor(RollingSamples.Percentiles recalculation)
+	{
+		long p95 = recalculation.get(0.95);
+		if (p95 >= GAME_TICK_MICROS)
+		{
+			return Color.RED;
+		}
+		return p95 >= GAME_TICK_MICROS / 2 ? Color.YELLOW : Color.WHITE;
+	}
+
+	private static String formatMillis(long micros)
+	{
+		return String.format("%.1fms", micros / 1000.0);
+	}
+}
@@ -1,5 +1,6 @@
 package com.barracudatrial;
 
+import com.barracudatrial.diagnostics.OverlayFrameEvent;
 import com.barracudatrial.game.route.TrialType;
 import com.barracudatrial.rendering.BoatZoneRenderer;
 import com.barracudatrial.rendering.ObjectHighlightRenderer;
@@ -41,43 +42,91 @@ public class BarracudaTrialOverlay extends Overlay
 
 		CachedConfig cachedConfig = plugin.getCachedConfig();
 
+		// Per-renderer times are only taken when a flight recording has the event enabled
+		var frameEvent = new OverlayFrameEvent();
+		frameEvent.begin();
+		boolean timed = frameEvent.isEnabled();
+		long mark = timed ? System.nanoTime() : 0;
+
 		if (cachedConfig.isShowOptimalPath())
 		{
 			pathRenderer.renderOptimalPath(graphics);
+			if (timed)
+			{
+				long now = System.nanoTime();
+				frameEvent.pathNanos = now - mark;
+				mark = now;
+			}
 		}
 
 		if (cachedConfig.isHighlightObjectives())
 		{
 			highlightRenderer.renderLostSupplies(graphics);
+			if (timed)
+			{
+				long now = System.nanoTime();
+				frameEvent.lostSuppliesNanos = now - mark;
+				mark = now;
+			}
 		}
 
 		var trial = plugin.getGameState().getCurrentTrial();
 		if (cachedConfig.isHighlightClouds() && trial != null && trial.getTrialType() == TrialType.TEMPOR_TANTRUM)
 		{
 			highlightRenderer.renderLightningClouds(graphics);
+			if (timed)
+			{
+				long now = System.nanoTime();
+				frameEvent.cloudsNanos = now - mark;
+				mark = now;
+			}
 		}
 
 		if (cachedConfig.isHighlightObjectives() && trial != null && trial.getTrialType() == TrialType.JUBBLY_JIVE)
 		{
 			highlightRenderer.renderToadPillars(graphics);
 			highlightRenderer.renderToadPickup(graphics);
+			if (timed)
+			{
+				long now = System.nanoTime();
+				frameEvent.toadsNanos = now - mark;
+				mark = now;
+			}
 		}
 
 		if (cachedConfig.isHighlightObjectives() && trial != null && trial.getTrialType() == TrialType.GWENITH_GLIDE)
 		{
 			highlightRenderer.renderPortals(graphics);
+			if (timed)
+			{
+				long now = System.nanoTime();
+				frameEvent.portalsNanos = now - mark;
+				mark = now;
+			}
 		}
 
 		if (cachedConfig.isHighlightSpeedBoosts())
 		{
 			highlightRenderer.renderSpeedBoosts(graphics);
+			if (timed)
+			{
+				long now = System.nanoTime();
+				frameEvent.speedBoostsNanos = now - mark;
+				mark = now;
+			}
 		}
 
 		if (cachedConfig.isHighlightObjectives() && trial != null && trial.getTrialType() == TrialType.TEMPOR_TANTRUM)
 		{
 			highlightRenderer.renderRumLocations(graphics);
+			if (timed)
+			{
+				frameEvent.rumNanos = System.nanoTime() - mark;
+			}
 		}
 
+		frameEvent.commit();
+
 		return null;
 	}
 }
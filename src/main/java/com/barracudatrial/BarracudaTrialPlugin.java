@@ -1,10 +1,17 @@
 package com.barracudatrial;
 
+import com.barracudatrial.atlas.HazardAtlas;
+import com.barracudatrial.atlas.RouteBaselines;
+import com.barracudatrial.diagnostics.PathfindingMetrics;
 import com.barracudatrial.game.*;
 import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.RouteLibrary;
 import com.barracudatrial.game.route.RouteWaypoint;
 import com.barracudatrial.game.route.RouteWaypoint.WaypointType;
 import com.barracudatrial.game.route.TrialType;
+import com.barracudatrial.replay.SessionRecorder;
+import com.barracudatrial.world.RuneLiteTrialWorldView;
+import com.barracudatrial.world.TrialWorldView;
 import com.google.inject.Provides;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -16,9 +23,16 @@ import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
+import net.runelite.client.RuneLite;
 import net.runelite.client.ui.overlay.OverlayManager;
 
 import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @SuppressWarnings("unused")
 @Slf4j
@@ -41,6 +55,9 @@ public class BarracudaTrialPlugin extends Plugin
 	@Inject
 	private BarracudaTrialOverlay overlay;
 
+	@Inject
+	private BarracudaTrialDiagnosticsOverlay diagnosticsOverlay;
+
 	@Inject
 	private ClientThread clientThread;
 
@@ -50,10 +67,26 @@ public class BarracudaTrialPlugin extends Plugin
 	@Getter
 	private CachedConfig cachedConfig;
 
+	@Getter
+	private final PathfindingMetrics metrics = new PathfindingMetrics();
+
 	private ObjectTracker objectTracker;
 	private LocationManager locationManager;
 	private ProgressTracker progressTracker;
 	private PathPlanner pathPlanner;
+	private SessionRecorder sessionRecorder;
+	// Set when writing fails, so a broken disk isn't retried every tick; cleared when the trial ends
+	private boolean sessionRecordingFailed = false;
+	// Static hazards seen in the current trial on any visit; loaded on entry, saved on exit
+	private HazardAtlas hazardAtlas;
+	private File hazardAtlasFile;
+	// Route the planner's baselines belong to (or are being generated for), so each route is only prepared once
+	private List<RouteWaypoint> baselineRoute;
+	private ExecutorService baselineExecutor;
+
+	private TrialWorldView world;
+	private RouteLibrary routeLibrary;
+	private RouteCapture routeCapture;
 
 	@Override
 	@SuppressWarnings("RedundantThrows")
@@ -61,13 +94,23 @@ public class BarracudaTrialPlugin extends Plugin
 	{
 		log.info("Barracuda Trial plugin started!");
 		overlayManager.add(overlay);
+		overlayManager.add(diagnosticsOverlay);
 
 		cachedConfig = new CachedConfig(config);
 
-		objectTracker = new ObjectTracker(client, gameState);
-		locationManager = new LocationManager(client, gameState);
-		progressTracker = new ProgressTracker(client, gameState);
-		pathPlanner = new PathPlanner(client, gameState, cachedConfig, clientThread);
+		world = new RuneLiteTrialWorldView(client);
+		objectTracker = new ObjectTracker(world, gameState);
+		locationManager = new LocationManager(world, gameState);
+		progressTracker = new ProgressTracker(world, gameState);
+		pathPlanner = new PathPlanner(world, gameState, cachedConfig, clientThread, metrics);
+		routeLibrary = new RouteLibrary(new File(RuneLite.RUNELITE_DIR, "barracuda-trials/routes"));
+		pathPlanner.setRouteLibrary(routeLibrary);
+		routeCapture = new RouteCapture(world, gameState);
+		baselineExecutor = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "BarracudaTrial-Baselines");
+			thread.setDaemon(true);
+			return thread;
+		});
 	}
 
 	@Override
@@ -76,8 +119,14 @@ public class BarracudaTrialPlugin extends Plugin
 	{
 		log.info("Barracuda Trial plugin stopped!");
 		overlayManager.remove(overlay);
+		overlayManager.remove(diagnosticsOverlay);
 		gameState.resetAllTemporaryState();
 		pathPlanner.shutdown();
+		baselineExecutor.shutdownNow();
+		baselineRoute = null;
+		stopSessionRecording();
+		saveHazardAtlas();
+		finishRouteCapture();
 	}
 
 	@Subscribe
@@ -87,12 +136,28 @@ public class BarracudaTrialPlugin extends Plugin
 		if (trialAreaStateChanged && !gameState.isInTrial())
 		{
 			pathPlanner.reset();
+			pathPlanner.setRouteBaselines(null);
+			baselineRoute = null;
 		}
 		if (!gameState.isInTrial())
 		{
+			stopSessionRecording();
+			sessionRecordingFailed = false;
+			saveHazardAtlas();
+			finishRouteCapture();
 			return;
 		}
 
+		if (trialAreaStateChanged)
+		{
+			loadHazardAtlas();
+			// Pick up route files added since the last run
+			routeLibrary.invalidate();
+			startRouteCapture();
+		}
+
+		long scanStartNanos = System.nanoTime();
+
 		var trial = gameState.getCurrentTrial();
 		if (trial != null && trial.getTrialType() == TrialType.TEMPOR_TANTRUM
 			&& (cachedConfig.isShowOptimalPath() || cachedConfig.isHighlightClouds()))
@@ -101,14 +166,15 @@ public class BarracudaTrialPlugin extends Plugin
 		}
 
 		if (trial != null && trial.getTrialType() == TrialType.TEMPOR_TANTRUM
-			&& (cachedConfig.isShowOptimalPath() || cachedConfig.isHighlightObjectives()))
+			&& (cachedConfig.isShowOptimalPath() || cachedConfig.isHighlightObjectives() || routeCapture.isCapturing()))
 		{
 			locationManager.updateTemporRumLocations();
 		}
 
 		if (cachedConfig.isShowOptimalPath()
 			|| cachedConfig.isHighlightSpeedBoosts()
-			|| cachedConfig.isHighlightObjectives())
+			|| cachedConfig.isHighlightObjectives()
+			|| routeCapture.isCapturing())
 		{
 			objectTracker.updateHazardsSpeedBoostsAndToadPillars();
 		}
@@ -127,6 +193,24 @@ public class BarracudaTrialPlugin extends Plugin
 
 			checkPortalExitProximity();
 		}
+		else if (routeCapture.isCapturing())
+		{
+			objectTracker.updatePlayerBoatLocation();
+		}
+
+		metrics.recordScan(System.nanoTime() - scanStartNanos);
+
+		captureRouteTick();
+
+		if (hazardAtlas != null)
+		{
+			hazardAtlas.merge(gameState);
+		}
+
+		if (cachedConfig.isShowOptimalPath())
+		{
+			prepareRouteBaselines();
+		}
 
 		if (cachedConfig.isShowOptimalPath())
 		{
@@ -140,6 +224,232 @@ public class BarracudaTrialPlugin extends Plugin
 				pathPlanner.recalculateOptimalPathFromCurrentState("periodic (game tick)");
 			}
 		}
+
+		recordSessionTick();
+	}
+
+	/**
+	 * Appends this tick's planner inputs to the session recording, starting or stopping it as the config changes
+	 */
+	private void recordSessionTick()
+	{
+		if (!cachedConfig.isRecordSessions() || sessionRecordingFailed)
+		{
+			stopSessionRecording();
+			return;
+		}
+
+		try
+		{
+			if (sessionRecorder == null)
+			{
+				var trial = gameState.getCurrentTrial();
+				File directory = new File(RuneLite.RUNELITE_DIR, "barracuda-trials/recordings");
+				sessionRecorder = SessionRecorder.create(directory, trial != null ? trial.getTrialType() : null);
+			}
+
+			sessionRecorder.recordTick(client.getTickCount(), gameState);
+		}
+		catch (IOException e)
+		{
+			log.warn("Failed to record trial session, recording stopped", e);
+			sessionRecordingFailed = true;
+			stopSessionRecording();
+		}
+	}
+
+	private void stopSessionRecording()
+	{
+		if (sessionRecorder == null)
+		{
+			return;
+		}
+
+		try
+		{
+			sessionRecorder.close();
+		}
+		catch (IOException e)
+		{
+			log.warn("Failed to close trial session recording", e);
+		}
+		sessionRecorder = null;
+	}
+
+	/**
+	 * Starts recording the run as a route if route capture is on; only from trial entry, since a route
+	 * picked up part way through would be missing its start
+	 */
+	private void startRouteCapture()
+	{
+		var trial = gameState.getCurrentTrial();
+		if (!cachedConfig.isCaptureRoutes() || trial == null)
+		{
+			return;
+		}
+
+		routeCapture.start(trial.getTrialType(), State.getCurrentDifficulty(world));
+	}
+
+	private void captureRouteTick()
+	{
+		if (routeCapture.isCapturing() && !cachedConfig.isCaptureRoutes())
+		{
+			routeCapture.cancel();
+			return;
+		}
+
+		routeCapture.onTick();
+	}
+
+	private void finishRouteCapture()
+	{
+		try
+		{
+			routeCapture.finish(new File(RuneLite.RUNELITE_DIR, "barracuda-trials/routes/captured"));
+		}
+		catch (IOException e)
+		{
+			log.warn("Failed to save captured route", e);
+		}
+	}
+
+	/**
+	 * Seeds the known hazards with everything seen in this trial before, so the first lap's paths
+	 * already avoid rocks outside the loaded scene
+	 */
+	private void loadHazardAtlas()
+	{
+		var trial = gameState.getCurrentTrial();
+		if (trial == null)
+		{
+			return;
+		}
+
+		File directory = new File(RuneLite.RUNELITE_DIR, "barracuda-trials/hazards");
+		hazardAtlasFile = HazardAtlas.getFile(directory, trial.getTrialType());
+		try
+		{
+			hazardAtlas = HazardAtlas.load(hazardAtlasFile);
+		}
+		catch (IOException e)
+		{
+			log.warn("Failed to load hazard atlas, starting a new one", e);
+			hazardAtlas = new HazardAtlas();
+		}
+		hazardAtlas.applyTo(gameState);
+	}
+
+	private void saveHazardAtlas()
+	{
+		if (hazardAtlas == null)
+		{
+			return;
+		}
+
+		try
+		{
+			hazardAtlas.save(hazardAtlasFile);
+		}
+		catch (IOException e)
+		{
+			log.warn("Failed to save hazard atlas", e);
+		}
+		hazardAtlas = null;
+		hazardAtlasFile = null;
+	}
+
+	/**
+	 * Hands the planner static distance fields for the current route once it's known: the saved ones if they were
+	 * built from the same hazards, otherwise freshly generated in the background and saved for next time
+	 */
+	private void prepareRouteBaselines()
+	{
+		var route = gameState.getCurrentStaticRoute();
+		var trial = gameState.getCurrentTrial();
+		if (route == null || route.isEmpty() || trial == null || route == baselineRoute)
+		{
+			return;
+		}
+		baselineRoute = route;
+
+		// Copied here, since the trackers keep updating State while the fields are loaded or generated
+		var rocks = new HashSet<>(gameState.getKnownRockLocations());
+		var fetidPools = new HashSet<>(gameState.getKnownFetidPoolLocations());
+		var toadPillars = new HashSet<>(gameState.getKnownToadPillarLocations());
+		var routeOptimization = cachedConfig.getRouteOptimization();
+		File file = RouteBaselines.getFile(new File(RuneLite.RUNELITE_DIR, "barracuda-trials/baselines"), trial.getTrialType(), route);
+
+		// A saved file holds a grid per waypoint, so even loading it is kept off the client thread
+		baselineExecutor.submit(() -> {
+			RouteBaselines baselines = loadRouteBaselines(file, RouteBaselines.getHazardSignature(rocks, fetidPools, toadPillars));
+			if (baselines == null)
+			{
+				baselines = RouteBaselines.generate(route, rocks, fetidPools, toadPillars, routeOptimization);
+				if (baselines == null)
+				{
+					return;
+				}
+
+				try
+				{
+					baselines.save(file);
+				}
+				catch (IOException e)
+				{
+					log.warn("Failed to save route baselines", e);
+				}
+				log.debug("Generated {} route baselines", baselines.getFieldCount());
+			}
+
+			RouteBaselines prepared = baselines;
+			clientThread.invoke(() -> {
+				// The trial may have ended or the route changed while we were loading or generating
+				if (baselineRoute == route)
+				{
+					pathPlanner.setRouteBaselines(prepared);
+				}
+			});
+		});
+	}
+
+	/**
+	 * @return The saved baselines if they were built from the same hazards, otherwise null
+	 */
+	private RouteBaselines loadRouteBaselines(File file, long hazardSignature)
+	{
+		try
+		{
+			RouteBaselines saved = RouteBaselines.load(file, hazardSignature);
+			if (saved != null)
+			{
+				log.debug("Loaded {} route baselines from {}", saved.getFieldCount(), file);
+			}
+			return saved;
+		}
+		catch (IOException e)
+		{
+			log.warn("Failed to load route baselines, regenerating them", e);
+			return null;
+		}
+	}
+
+	@Subscribe
+	public void onGameObjectSpawned(GameObjectSpawned event)
+	{
+		if (gameState.isInTrial())
+		{
+			gameState.markSceneObjectsChanged();
+		}
+	}
+
+	@Subscribe
+	public void onGameObjectDespawned(GameObjectDespawned event)
+	{
+		if (gameState.isInTrial())
+		{
+			gameState.markSceneObjectsChanged();
+		}
 	}
 
 	@Subscribe
@@ -157,6 +467,13 @@ public class BarracudaTrialPlugin extends Plugin
 
 		String chatMessage = event.getMessage();
 
+		if (sessionRecorder != null)
+		{
+			sessionRecorder.recordChatMessage(chatMessage);
+		}
+
+		routeCapture.onChatMessage(chatMessage);
+
 		if (chatMessage.contains("You collect the rum"))
 		{
 			log.debug("Rum collected! Message: {}", chatMessage);
@@ -1,5 +1,6 @@
 package com.barracudatrial;
 
+import com.barracudatrial.rendering.RenderPalette;
 import lombok.Getter;
 
 import java.awt.Color;
@@ -18,6 +19,8 @@ public class CachedConfig
 	@Getter private Color pathColor;
 	@Getter private int pathWidth;
 	@Getter private int pathLookahead;
+	@Getter private int farSegmentGridSize;
+	@Getter private boolean shortBaselineSearches;
 	@Getter private boolean showPathTiles;
 
 	// Objective settings
@@ -34,6 +37,14 @@ public class CachedConfig
 	@Getter private Color cloudColor;
 	@Getter private int cloudDangerRadius;
 
+	// Diagnostics settings
+	@Getter private boolean recordSessions;
+	@Getter private boolean showDiagnosticsPanel;
+	@Getter private boolean captureRoutes;
+
+	// Strokes and colors derived from the settings above
+	@Getter private RenderPalette palette;
+
 	public CachedConfig(BarracudaTrialConfig config)
 	{
 		this.config = config;
@@ -51,6 +62,8 @@ public class CachedConfig
 		pathColor = config.pathColor();
 		pathWidth = config.pathWidth();
 		pathLookahead = config.pathLookahead();
+		farSegmentGridSize = config.farSegmentGridSize();
+		shortBaselineSearches = config.shortBaselineSearches();
 		showPathTiles = config.showPathTiles();
 
 		highlightObjectives = config.highlightObjectives();
@@ -64,5 +77,11 @@ public class CachedConfig
 		highlightClouds = config.highlightClouds();
 		cloudColor = config.cloudColor();
 		cloudDangerRadius = config.cloudDangerRadius();
+
+		recordSessions = config.recordSessions();
+		showDiagnosticsPanel = config.showDiagnosticsPanel();
+		captureRoutes = config.captureRoutes();
+
+		palette = new RenderPalette(this);
 	}
 }
@@ -0,0 +1,330 @@
+package com.barracudatrial.atlas;
+
+import com.barracudatrial.game.State;
+import com.barracudatrial.game.route.TrialType;
+import net.runelite.api.coords.WorldPoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Every static hazard tile (rocks, wrecks, fetid pools, toad pillars) ever seen in one trial, kept between sessions.
+ * Those objects never move, so seeding State from the atlas at trial entry lets the first lap plan around hazards
+ * that haven't been loaded into the scene yet, instead of thrashing when they appear.
+ * <p>
+ * On disk each layer is a bit-packed grid over the bounding box of its tiles, one grid per plane:
+ * <pre>
+ * int magic, short version, short gridCount
+ * per grid: byte layer, byte plane, int originX, int originY, int width, int height, long[ceil(width*height/64)] bits
+ * </pre>
+ * Bit (y - originY) * width + (x - originX) is set if the tile is a hazard.
+ */
+public class HazardAtlas
+{
+	static final int MAGIC = 0x42544841; // "BTHA"
+	static final short VERSION = 1;
+	private static final String FILE_EXTENSION = ".atlas";
+	// A corrupt header shouldn't make us allocate gigabytes
+	private static final long MAX_GRID_TILES = 4096L * 4096L;
+
+	public enum Layer
+	{
+		ROCK,
+		FETID_POOL,
+		TOAD_PILLAR
+	}
+
+	private final Map<Layer, Set<WorldPoint>> tilesByLayer = new EnumMap<>(Layer.class);
+	// Size of State's tile set for each layer as of the last merge
+	private final Map<Layer, Integer> mergedSizes = new EnumMap<>(Layer.class);
+	private boolean dirty = false;
+
+	public HazardAtlas()
+	{
+		for (Layer layer : Layer.values())
+		{
+			tilesByLayer.put(layer, new HashSet<>());
+		}
+	}
+
+	public static File getFile(File directory, TrialType trialType)
+	{
+		return new File(directory, trialType.name().toLowerCase() + FILE_EXTENSION);
+	}
+
+	/**
+	 * @return The saved atlas, or an empty one if there's no file yet
+	 * @throws IOException If the file exists but can't be read or isn't an atlas
+	 */
+	public static HazardAtlas load(File file) throws IOException
+	{
+		HazardAtlas atlas = new HazardAtlas();
+		if (!file.isFile())
+		{
+			return atlas;
+		}
+
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			// A few KB per trial; read it in one go rather than mapping, since a live mapping would stop
+			// the file being replaced on save on Windows until the buffer happens to be collected
+			buffer = ByteBuffer.allocate((int) channel.size());
+			while (buffer.hasRemaining())
+			{
+				if (channel.read(buffer) < 0)
+				{
+					break;
+				}
+			}
+			buffer.flip();
+		}
+
+		try
+		{
+			atlas.decode(buffer);
+		}
+		catch (RuntimeException e)
+		{
+			throw new IOException("Corrupt hazard atlas " + file, e);
+		}
+		return atlas;
+	}
+
+	/**
+	 * Writes the atlas if anything was added since it was loaded or last saved.
+	 * The file is replaced atomically, so a crash mid-write leaves the previous atlas intact.
+	 */
+	public void save(File file) throws IOException
+	{
+		if (!dirty)
+		{
+			return;
+		}
+
+		File directory = file.getAbsoluteFile().getParentFile();
+		if (!directory.isDirectory() && !directory.mkdirs())
+		{
+			throw new IOException("Could not create " + directory);
+		}
+
+		ByteBuffer buffer = encode();
+		Path temporary = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+		try
+		{
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+			{
+				while (buffer.hasRemaining())
+				{
+					channel.write(buffer);
+				}
+			}
+			Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally
+		{
+			Files.deleteIfExists(temporary);
+		}
+
+		dirty = false;
+	}
+
+	/**
+	 * Adds any hazard tiles the trackers found that the atlas doesn't have yet.
+	 * Cheap when nothing's new: State only ever adds tiles during a trial, so an unchanged size means nothing changed.
+	 * @return true if anything was added
+	 */
+	public boolean merge(State state)
+	{
+		boolean added = merge(Layer.ROCK, state.getKnownRockLocations());
+		added |= merge(Layer.FETID_POOL, state.getKnownFetidPoolLocations());
+		added |= merge(Layer.TOAD_PILLAR, state.getKnownToadPillarLocations());
+		dirty |= added;
+		return added;
+	}
+
+	private boolean merge(Layer layer, Set<WorldPoint> known)
+	{
+		Integer mergedSize = mergedSizes.put(layer, known.size());
+		if (mergedSize != null && mergedSize == known.size())
+		{
+			return false;
+		}
+		return tilesByLayer.get(layer).addAll(known);
+	}
+
+	/**
+	 * Adds the atlas's tiles to what State already knows
+	 */
+	public void applyTo(State state)
+	{
+		state.updateKnownRockLocations(union(state.getKnownRockLocations(), Layer.ROCK));
+		state.updateKnownFetidPoolLocations(union(state.getKnownFetidPoolLocations(), Layer.FETID_POOL));
+		state.updateKnownToadPillarLocations(union(state.getKnownToadPillarLocations(), Layer.TOAD_PILLAR));
+	}
+
+	private Set<WorldPoint> union(Set<WorldPoint> known, Layer layer)
+	{
+		Set<WorldPoint> tiles = new HashSet<>(known);
+		tiles.addAll(tilesByLayer.get(layer));
+		return tiles;
+	}
+
+	public int getTileCount(Layer layer)
+	{
+		return tilesByLayer.get(layer).size();
+	}
+
+	private ByteBuffer encode()
+	{
+		List<Grid> grids = new ArrayList<>();
+		for (Layer layer : Layer.values())
+		{
+			Map<Integer, List<WorldPoint>> tilesByPlane = new TreeMap<>();
+			for (WorldPoint tile : tilesByLayer.get(layer))
+			{
+				tilesByPlane.computeIfAbsent(tile.getPlane(), k -> new ArrayList<>()).add(tile);
+			}
+			tilesByPlane.forEach((plane, tiles) -> grids.add(Grid.of(layer, plane, tiles)));
+		}
+
+		int size = 4 + 2 + 2;
+		for (Grid grid : grids)
+		{
+			size += Grid.HEADER_BYTES + grid.bits.length * Long.BYTES;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.putInt(MAGIC);
+		buffer.putShort(VERSION);
+		buffer.putShort((short) grids.size());
+		for (Grid grid : grids)
+		{
+			grid.write(buffer);
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	private void decode(ByteBuffer buffer) throws IOException
+	{
+		if (buffer.remaining() < 8 || buffer.getInt() != MAGIC)
+		{
+			throw new IOException("Not a hazard atlas");
+		}
+
+		short version = buffer.getShort();
+		if (version != VERSION)
+		{
+			throw new IOException("Unsupported hazard atlas version " + version);
+		}
+
+		int gridCount = buffer.getShort() & 0xFFFF;
+		Layer[] layers = Layer.values();
+		for (int i = 0; i < gridCount; i++)
+		{
+			int layerIndex = buffer.get();
+			int plane = buffer.get();
+			int originX = buffer.getInt();
+			int originY = buffer.getInt();
+			int width = buffer.getInt();
+			int height = buffer.getInt();
+			if (layerIndex < 0 || layerIndex >= layers.length || width <= 0 || height <= 0 || (long) width * height > MAX_GRID_TILES)
+			{
+				throw new IOException("Bad hazard atlas grid " + i);
+			}
+
+			Set<WorldPoint> tiles = tilesByLayer.get(layers[layerIndex]);
+			int tileCount = width * height;
+			long word = 0;
+			for (int bit = 0; bit < tileCount; bit++)
+			{
+				if ((bit & 63) == 0)
+				{
+					word = buffer.getLong();
+				}
+				if ((word & (1L << (bit & 63))) != 0)
+				{
+					tiles.add(new WorldPoint(originX + bit % width, originY + bit / width, plane));
+				}
+			}
+		}
+	}
+
+	/**
+	 * One layer's tiles on one plane, packed over their bounding box
+	 */
+	private static class Grid
+	{
+		static final int HEADER_BYTES = 1 + 1 + 4 * 4;
+
+		final Layer layer;
+		final int plane;
+		final int originX;
+		final int originY;
+		final int width;
+		final int height;
+		final long[] bits;
+
+		Grid(Layer layer, int plane, int originX, int originY, int width, int height)
+		{
+			this.layer = layer;
+			this.plane = plane;
+			this.originX = originX;
+			this.originY = originY;
+			this.width = width;
+			this.height = height;
+			this.bits = new long[(width * height + 63) / 64];
+		}
+
+		static Grid of(Layer layer, int plane, List<WorldPoint> tiles)
+		{
+			int minX = Integer.MAX_VALUE;
+			int minY = Integer.MAX_VALUE;
+			int maxX = Integer.MIN_VALUE;
+			int maxY = Integer.MIN_VALUE;
+			for (WorldPoint tile : tiles)
+			{
+				minX = Math.min(minX, tile.getX());
+				minY = Math.min(minY, tile.getY());
+				maxX = Math.max(maxX, tile.getX());
+				maxY = Math.max(maxY, tile.getY());
+			}
+
+			Grid grid = new Grid(layer, plane, minX, minY, maxX - minX + 1, maxY - minY + 1);
+			for (WorldPoint tile : tiles)
+			{
+				int bit = (tile.getY() - minY) * grid.width + (tile.getX() - minX);
+				grid.bits[bit >>> 6] |= 1L << (bit & 63);
+			}
+			return grid;
+		}
+
+		void write(ByteBuffer buffer)
+		{
+			buffer.put((byte) layer.ordinal());
+			buffer.put((byte) plane);
+			buffer.putInt(originX);
+			buffer.putInt(originY);
+			buffer.putInt(width);
+			buffer.putInt(height);
+			for (long word : bits)
+			{
+				buffer.putLong(word);
+			}
+		}
+	}
+}
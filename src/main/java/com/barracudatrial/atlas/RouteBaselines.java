@@ -0,0 +1,311 @@
+package com.barracudatrial.atlas;
+
+import com.barracudatrial.RouteOptimization;
+import com.barracudatrial.game.route.RouteWaypoint;
+import com.barracudatrial.game.route.TrialType;
+import com.barracudatrial.pathfinding.BarracudaTileCostCalculator;
+import com.barracudatrial.pathfinding.GoalDistanceField;
+import net.runelite.api.coords.WorldPoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Static goal distance fields for every waypoint of one route, built from the hazard atlas.
+ * The route and its static obstacles don't change between runs, so the fields are generated once, saved, and
+ * read back on later visits instead of being recomputed; see {@link GoalDistanceField} for how they're used.
+ * <p>
+ * One file per route, named after a hash of its waypoints. The header carries a signature of the hazards the
+ * fields were built from, so they're regenerated once the atlas has learned about more obstacles.
+ * <pre>
+ * int magic, short version, short fieldCount, long hazardSignature
+ * per field: int goalX, int goalY, byte plane, byte tolerance, int originX, int originY,
+ *            short width, short height, char[width*height] quantized costs
+ * </pre>
+ */
+public class RouteBaselines
+{
+	static final int MAGIC = 0x42545242; // "BTRB"
+	static final short VERSION = 1;
+	private static final int HEADER_BYTES = 4 + 2 + 2 + 8;
+	private static final int FIELD_HEADER_BYTES = 4 + 4 + 1 + 1 + 4 + 4 + 2 + 2;
+	private static final String FILE_EXTENSION = ".baselines";
+
+	// Room around a segment's waypoints for the boat to swing wide or drift off course and still be covered
+	private static final int FIELD_MARGIN = 24;
+	// Segments spanning more than this (e.g. across a portal) are left to the live search
+	private static final int MAX_FIELD_SIZE = 256;
+
+	private final Map<WorldPoint, GoalDistanceField> fieldsByGoal;
+	private final long hazardSignature;
+
+	private RouteBaselines(Map<WorldPoint, GoalDistanceField> fieldsByGoal, long hazardSignature)
+	{
+		this.fieldsByGoal = Collections.unmodifiableMap(fieldsByGoal);
+		this.hazardSignature = hazardSignature;
+	}
+
+	public static File getFile(File directory, TrialType trialType, List<RouteWaypoint> route)
+	{
+		long routeHash = 1;
+		for (RouteWaypoint waypoint : route)
+		{
+			routeHash = routeHash * 31 + waypoint.getType().ordinal();
+			routeHash = routeHash * 31 + waypoint.getLocation().hashCode();
+		}
+		return new File(directory, trialType.name().toLowerCase() + "-" + Long.toHexString(routeHash) + FILE_EXTENSION);
+	}
+
+	/**
+	 * Order-independent fingerprint of the static hazards the fields are built from
+	 */
+	public static long getHazardSignature(Set<WorldPoint> rocks, Set<WorldPoint> fetidPools, Set<WorldPoint> toadPillars)
+	{
+		return hashTiles(rocks, 1) ^ hashTiles(fetidPools, 2) ^ hashTiles(toadPillars, 3);
+	}
+
+	private static long hashTiles(Set<WorldPoint> tiles, long layer)
+	{
+		long sum = tiles.size() * layer;
+		for (WorldPoint tile : tiles)
+		{
+			sum += mix(((long) tile.getX() << 34) ^ ((long) tile.getY() << 4) ^ tile.getPlane() ^ (layer << 60));
+		}
+		return mix(sum);
+	}
+
+	// SplitMix64 finalizer, so nearby tiles don't cancel out in the sum
+	private static long mix(long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Builds a field for every waypoint the planner paths to, covering the stretch from the waypoint before it
+	 * @return The baselines, or null if the thread was interrupted part way
+	 */
+	public static RouteBaselines generate(List<RouteWaypoint> route, Set<WorldPoint> rocks, Set<WorldPoint> fetidPools,
+		Set<WorldPoint> toadPillars, RouteOptimization routeOptimization)
+	{
+		Map<WorldPoint, GoalDistanceField> fieldsByGoal = new HashMap<>();
+		int routeSize = route.size();
+
+		for (int i = 0; i < routeSize; i++)
+		{
+			if (Thread.currentThread().isInterrupted())
+			{
+				return null;
+			}
+
+			RouteWaypoint waypoint = route.get(i);
+			var type = waypoint.getType();
+			WorldPoint goal = waypoint.getLocation();
+			if (type == RouteWaypoint.WaypointType.PATHFINDING_HINT || type == RouteWaypoint.WaypointType.PORTAL_EXIT
+				|| fieldsByGoal.containsKey(goal))
+			{
+				continue;
+			}
+
+			// The segment runs from the previous waypoint the boat actually reaches, through any hints before this one
+			int minX = goal.getX();
+			int maxX = goal.getX();
+			int minY = goal.getY();
+			int maxY = goal.getY();
+			for (int offset = 1; offset < routeSize; offset++)
+			{
+				RouteWaypoint previous = route.get((i - offset + routeSize) % routeSize);
+				WorldPoint location = previous.getLocation();
+				minX = Math.min(minX, location.getX());
+				maxX = Math.max(maxX, location.getX());
+				minY = Math.min(minY, location.getY());
+				maxY = Math.max(maxY, location.getY());
+				if (previous.getType() != RouteWaypoint.WaypointType.PATHFINDING_HINT)
+				{
+					break;
+				}
+			}
+
+			int width = maxX - minX + 1 + 2 * FIELD_MARGIN;
+			int height = maxY - minY + 1 + 2 * FIELD_MARGIN;
+			if (width > MAX_FIELD_SIZE || height > MAX_FIELD_SIZE)
+			{
+				continue;
+			}
+
+			// Fresh per field: the calculator tracks boost state between calls
+			var staticCosts = BarracudaTileCostCalculator.staticObstacles(rocks, fetidPools, toadPillars, routeOptimization);
+			fieldsByGoal.put(goal, GoalDistanceField.compute(staticCosts, goal, type.getToleranceTiles(),
+				minX - FIELD_MARGIN, minY - FIELD_MARGIN, width, height));
+		}
+
+		return new RouteBaselines(fieldsByGoal, getHazardSignature(rocks, fetidPools, toadPillars));
+	}
+
+	/**
+	 * Reads the whole file onto the heap and decodes the fields from that copy. The file isn't mapped, since saving
+	 * replaces it in place and Windows won't replace a file that's still mapped.
+	 * @return The saved baselines, or null if there's no file or it was built from different hazards
+	 * @throws IOException If the file exists but can't be read or isn't a baselines file
+	 */
+	public static RouteBaselines load(File file, long expectedHazardSignature) throws IOException
+	{
+		if (!file.isFile())
+		{
+			return null;
+		}
+
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			long size = channel.size();
+			if (size < HEADER_BYTES || size > Integer.MAX_VALUE)
+			{
+				throw new IOException("Not a route baselines file " + file);
+			}
+
+			buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining())
+			{
+				if (channel.read(buffer) < 0)
+				{
+					throw new IOException("Truncated route baselines " + file);
+				}
+			}
+			buffer.flip();
+		}
+
+		if (buffer.getInt() != MAGIC)
+		{
+			throw new IOException("Not a route baselines file " + file);
+		}
+		short version = buffer.getShort();
+		buffer.getShort();
+		if (version != VERSION || buffer.getLong() != expectedHazardSignature)
+		{
+			return null;
+		}
+
+		try
+		{
+			return decode(buffer);
+		}
+		catch (RuntimeException e)
+		{
+			throw new IOException("Corrupt route baselines " + file, e);
+		}
+	}
+
+	private static RouteBaselines decode(ByteBuffer buffer)
+	{
+		buffer.position(4 + 2);
+		int fieldCount = buffer.getShort() & 0xFFFF;
+		long hazardSignature = buffer.getLong();
+
+		Map<WorldPoint, GoalDistanceField> fieldsByGoal = new HashMap<>();
+		for (int i = 0; i < fieldCount; i++)
+		{
+			int goalX = buffer.getInt();
+			int goalY = buffer.getInt();
+			int plane = buffer.get();
+			int tolerance = buffer.get();
+			int originX = buffer.getInt();
+			int originY = buffer.getInt();
+			int width = buffer.getShort() & 0xFFFF;
+			int height = buffer.getShort() & 0xFFFF;
+
+			int costBytes = width * height * Character.BYTES;
+			ByteBuffer costSlice = buffer.slice();
+			costSlice.limit(costBytes);
+			CharBuffer costs = costSlice.asCharBuffer();
+			buffer.position(buffer.position() + costBytes);
+
+			WorldPoint goal = new WorldPoint(goalX, goalY, plane);
+			fieldsByGoal.put(goal, new GoalDistanceField(goal, tolerance, originX, originY, width, height, costs));
+		}
+
+		return new RouteBaselines(fieldsByGoal, hazardSignature);
+	}
+
+	/**
+	 * Writes the baselines, replacing the file atomically so a crash mid-write leaves the previous one intact
+	 */
+	public void save(File file) throws IOException
+	{
+		File directory = file.getAbsoluteFile().getParentFile();
+		if (!directory.isDirectory() && !directory.mkdirs())
+		{
+			throw new IOException("Could not create " + directory);
+		}
+
+		int size = HEADER_BYTES;
+		for (GoalDistanceField field : fieldsByGoal.values())
+		{
+			size += FIELD_HEADER_BYTES + field.getWidth() * field.getHeight() * Character.BYTES;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.putInt(MAGIC);
+		buffer.putShort(VERSION);
+		buffer.putShort((short) fieldsByGoal.size());
+		buffer.putLong(hazardSignature);
+		for (GoalDistanceField field : fieldsByGoal.values())
+		{
+			WorldPoint goal = field.getGoal();
+			buffer.putInt(goal.getX());
+			buffer.putInt(goal.getY());
+			buffer.put((byte) goal.getPlane());
+			buffer.put((byte) field.getGoalTolerance());
+			buffer.putInt(field.getOriginX());
+			buffer.putInt(field.getOriginY());
+			buffer.putShort((short) field.getWidth());
+			buffer.putShort((short) field.getHeight());
+			buffer.asCharBuffer().put(field.getCosts());
+			buffer.position(buffer.position() + field.getWidth() * field.getHeight() * Character.BYTES);
+		}
+		buffer.flip();
+
+		Path temporary = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+		try
+		{
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+			{
+				while (buffer.hasRemaining())
+				{
+					channel.write(buffer);
+				}
+			}
+			Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally
+		{
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * @return The field for a waypoint at this location, or null if there isn't one
+	 */
+	public GoalDistanceField getField(WorldPoint goal)
+	{
+		return fieldsByGoal.get(goal);
+	}
+
+	public int getFieldCount()
+	{
+		return fieldsByGoal.size();
+	}
+}
@@ -0,0 +1,46 @@
+package com.barracudatrial.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One frame of the main overlay, with the time spent in each renderer that drew something
+ */
+@Name("barracudatrial.OverlayFrame")
+@Label("Overlay Frame")
+@Category({"Barracuda Trials", "Rendering"})
+@StackTrace(false)
+public class OverlayFrameEvent extends Event
+{
+	@Label("Path")
+	@Timespan(Timespan.NANOSECONDS)
+	public long pathNanos;
+
+	@Label("Lost Supplies")
+	@Timespan(Timespan.NANOSECONDS)
+	public long lostSuppliesNanos;
+
+	@Label("Lightning Clouds")
+	@Timespan(Timespan.NANOSECONDS)
+	public long cloudsNanos;
+
+	@Label("Toads")
+	@Timespan(Timespan.NANOSECONDS)
+	public long toadsNanos;
+
+	@Label("Portals")
+	@Timespan(Timespan.NANOSECONDS)
+	public long portalsNanos;
+
+	@Label("Speed Boosts")
+	@Timespan(Timespan.NANOSECONDS)
+	public long speedBoostsNanos;
+
+	@Label("Rum")
+	@Timespan(Timespan.NANOSECONDS)
+	public long rumNanos;
+}
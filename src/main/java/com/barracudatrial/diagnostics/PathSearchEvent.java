@@ -0,0 +1,46 @@
+package com.barracudatrial.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One A* search, from start to goal
+ */
+@Name("barracudatrial.PathSearch")
+@Label("Path Search")
+@Category({"Barracuda Trials", "Pathfinding"})
+@StackTrace(false)
+public class PathSearchEvent extends Event
+{
+	@Label("Start X")
+	public int startX;
+
+	@Label("Start Y")
+	public int startY;
+
+	@Label("Goal X")
+	public int goalX;
+
+	@Label("Goal Y")
+	public int goalY;
+
+	@Label("Plane")
+	public int plane;
+
+	@Label("Nodes Expanded")
+	public int nodesExpanded;
+
+	@Label("Open Set Peak")
+	public int openSetPeak;
+
+	@Label("Cost")
+	@Description("Path cost; infinite if nothing was found")
+	public double cost;
+
+	@Label("Reached Goal")
+	public boolean reachedGoal;
+}
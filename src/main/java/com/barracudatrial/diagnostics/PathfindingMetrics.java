@@ -0,0 +1,222 @@
+package com.barracudatrial.diagnostics;
+
+import com.barracudatrial.pathfinding.PathStabilizer;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and rolling timings for the planner and per-tick tracking.
+ * Written from the client thread (triggers, scans) and the pathfinding thread (searches) without locking;
+ * read by the diagnostics overlay. Times are kept in microseconds.
+ */
+public class PathfindingMetrics
+{
+	private static final int WINDOW = 256;
+	// Trigger reasons are fixed strings in the plugin, but don't let anything unexpected grow the map forever
+	private static final int MAX_TRIGGER_REASONS = 32;
+	private static final String OTHER_TRIGGER_REASON = "other";
+
+	private final Map<String, LongAdder> triggerCounts = new ConcurrentHashMap<>();
+	private final LongAdder coalescedRequests = new LongAdder();
+	private final LongAdder droppedRequests = new LongAdder();
+	private final LongAdder segments = new LongAdder();
+	private final LongAdder segmentsReachedGoal = new LongAdder();
+	private final LongAdder coarseSegments = new LongAdder();
+	private final LongAdder memoizedSegments = new LongAdder();
+	private final Map<PathStabilizer.Decision, LongAdder> stabilizerDecisions = new EnumMap<>(PathStabilizer.Decision.class);
+	// Stabilizer's path cache as of the end of the last recalculation; its own totals, so only the latest is kept
+	@Getter
+	private volatile int pathCacheEntries;
+	@Getter
+	private volatile long pathCacheHits;
+	@Getter
+	private volatile long pathCacheMisses;
+	@Getter
+	private volatile long pathCacheRouteEvictions;
+	@Getter
+	private volatile long pathCacheCapacityEvictions;
+
+	// Request created to search started
+	@Getter
+	private final RollingSamples queueWaitMicros = new RollingSamples(WINDOW);
+	// Whole recalculation, all segments
+	@Getter
+	private final RollingSamples recalculationMicros = new RollingSamples(WINDOW);
+	// Segments that ran A*; reused paths are left out so they don't drown the real searches
+	@Getter
+	private final RollingSamples segmentSearchMicros = new RollingSamples(WINDOW);
+	@Getter
+	private final RollingSamples nodesExpanded = new RollingSamples(WINDOW);
+	@Getter
+	private final RollingSamples openSetPeak = new RollingSamples(WINDOW);
+	// Object, cloud and boat tracking at the start of each game tick
+	@Getter
+	private final RollingSamples scanMicros = new RollingSamples(WINDOW);
+
+	public PathfindingMetrics()
+	{
+		// Filled up front so the map is never structurally modified once threads are sharing it
+		for (PathStabilizer.Decision decision : PathStabilizer.Decision.values())
+		{
+			stabilizerDecisions.put(decision, new LongAdder());
+		}
+	}
+
+	public void recordTrigger(String reason)
+	{
+		String key = reason;
+		if (key == null || (!triggerCounts.containsKey(key) && triggerCounts.size() >= MAX_TRIGGER_REASONS))
+		{
+			key = OTHER_TRIGGER_REASON;
+		}
+		triggerCounts.computeIfAbsent(key, k -> new LongAdder()).increment();
+	}
+
+	/**
+	 * A queued request was replaced by a newer one before it ran
+	 */
+	public void recordCoalesced()
+	{
+		coalescedRequests.increment();
+	}
+
+	/**
+	 * A request was triggered but there was nothing to plan (no boat location, no waypoints left, not in a trial)
+	 */
+	public void recordDropped()
+	{
+		droppedRequests.increment();
+	}
+
+	public void recordRecalculation(long queueWaitNanos, long searchNanos)
+	{
+		queueWaitMicros.record(TimeUnit.NANOSECONDS.toMicros(queueWaitNanos));
+		recalculationMicros.record(TimeUnit.NANOSECONDS.toMicros(searchNanos));
+	}
+
+	/**
+	 * @param nodesExpanded Ignored if the decision was {@link PathStabilizer.Decision#REUSED}, since nothing was searched
+	 * @param openSetPeak Ignored like nodesExpanded
+	 */
+	public void recordSegment(PathStabilizer.Decision decision, long searchNanos, int nodesExpanded, int openSetPeak, boolean reachedGoal)
+	{
+		segments.increment();
+		if (reachedGoal)
+		{
+			segmentsReachedGoal.increment();
+		}
+
+		if (decision == null)
+		{
+			return;
+		}
+
+		stabilizerDecisions.get(decision).increment();
+		if (decision != PathStabilizer.Decision.REUSED)
+		{
+			segmentSearchMicros.record(TimeUnit.NANOSECONDS.toMicros(searchNanos));
+			this.nodesExpanded.record(nodesExpanded);
+			this.openSetPeak.record(openSetPeak);
+		}
+	}
+
+	/**
+	 * A far segment planned on the coarse grid. Counted as a segment but kept out of the A* timings and decisions.
+	 */
+	public void recordCoarseSegment(boolean reachedGoal)
+	{
+		segments.increment();
+		coarseSegments.increment();
+		if (reachedGoal)
+		{
+			segmentsReachedGoal.increment();
+		}
+	}
+
+	/**
+	 * A later segment answered from an earlier recalculation without searching
+	 */
+	public void recordMemoizedSegment(boolean reachedGoal)
+	{
+		segments.increment();
+		memoizedSegments.increment();
+		if (reachedGoal)
+		{
+			segmentsReachedGoal.increment();
+		}
+	}
+
+	/**
+	 * @param hits Totals since the stabilizer was created, like the other counts
+	 */
+	public void recordPathCache(int entries, long hits, long misses, long routeEvictions, long capacityEvictions)
+	{
+		pathCacheEntries = entries;
+		pathCacheHits = hits;
+		pathCacheMisses = misses;
+		pathCacheRouteEvictions = routeEvictions;
+		pathCacheCapacityEvictions = capacityEvictions;
+	}
+
+	public void recordScan(long scanNanos)
+	{
+		scanMicros.record(TimeUnit.NANOSECONDS.toMicros(scanNanos));
+	}
+
+	public long getRecalculationCount()
+	{
+		return recalculationMicros.getCount();
+	}
+
+	public long getCoalescedRequests()
+	{
+		return coalescedRequests.sum();
+	}
+
+	public long getDroppedRequests()
+	{
+		return droppedRequests.sum();
+	}
+
+	public long getCoarseSegmentCount()
+	{
+		return coarseSegments.sum();
+	}
+
+	public long getMemoizedSegmentCount()
+	{
+		return memoizedSegments.sum();
+	}
+
+	public long getStabilizerDecisionCount(PathStabilizer.Decision decision)
+	{
+		return stabilizerDecisions.get(decision).sum();
+	}
+
+	/**
+	 * @return Fraction of segments whose path reached its goal, or 1 if nothing has been planned yet
+	 */
+	public double getReachedGoalRate()
+	{
+		long total = segments.sum();
+		return total == 0 ? 1 : segmentsReachedGoal.sum() / (double) total;
+	}
+
+	/**
+	 * @return Trigger reasons with how often each fired, most frequent first
+	 */
+	public List<Map.Entry<String, Long>> getTriggerCounts()
+	{
+		List<Map.Entry<String, Long>> counts = new ArrayList<>();
+		triggerCounts.forEach((reason, count) -> counts.add(Map.entry(reason, count.sum())));
+		counts.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+		return counts;
+	}
+}
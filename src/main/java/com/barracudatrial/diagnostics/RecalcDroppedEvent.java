@@ -0,0 +1,24 @@
+package com.barracudatrial.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A path recalculation was triggered but never ran
+ */
+@Name("barracudatrial.RecalcDropped")
+@Label("Recalculation Dropped")
+@Category({"Barracuda Trials", "Pathfinding"})
+public class RecalcDroppedEvent extends Event
+{
+	public static final String NOTHING_TO_PLAN = "nothing to plan";
+	public static final String SUPERSEDED = "superseded";
+
+	@Label("Reason")
+	public String reason;
+
+	@Label("Cause")
+	public String cause;
+}
@@ -0,0 +1,27 @@
+package com.barracudatrial.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A path recalculation was handed to the planner
+ */
+@Name("barracudatrial.RecalcScheduled")
+@Label("Recalculation Scheduled")
+@Category({"Barracuda Trials", "Pathfinding"})
+public class RecalcScheduledEvent extends Event
+{
+	@Label("Reason")
+	public String reason;
+
+	@Label("Queued")
+	@Description("A search was already running, so this one waits for it")
+	public boolean queued;
+
+	@Label("Lead Ticks")
+	@Description("How far ahead the boat's position was extrapolated")
+	public double leadTicks;
+}
@@ -0,0 +1,85 @@
+package com.barracudatrial.diagnostics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The most recent N samples of a measurement, for rolling percentiles.
+ * Recording is lock-free, so the pathfinding thread never waits on the overlay reading it.
+ * A snapshot taken while a sample is being written may see that slot's previous value; for a live readout that's fine.
+ */
+public class RollingSamples
+{
+	private final AtomicLongArray samples;
+	private final AtomicLong recorded = new AtomicLong();
+
+	public RollingSamples(int capacity)
+	{
+		this.samples = new AtomicLongArray(capacity);
+	}
+
+	public void record(long value)
+	{
+		long index = recorded.getAndIncrement();
+		samples.set((int) (index % samples.length()), value);
+	}
+
+	/**
+	 * @return Samples recorded since creation, including the ones that have rolled out of the window
+	 */
+	public long getCount()
+	{
+		return recorded.get();
+	}
+
+	/**
+	 * @return Sorted copy of the samples currently in the window
+	 */
+	public Percentiles snapshot()
+	{
+		int size = (int) Math.min(recorded.get(), samples.length());
+		long[] sorted = new long[size];
+		for (int i = 0; i < size; i++)
+		{
+			sorted[i] = samples.get(i);
+		}
+		Arrays.sort(sorted);
+		return new Percentiles(sorted);
+	}
+
+	public static class Percentiles
+	{
+		private final long[] sorted;
+
+		Percentiles(long[] sorted)
+		{
+			this.sorted = sorted;
+		}
+
+		public boolean isEmpty()
+		{
+			return sorted.length == 0;
+		}
+
+		/**
+		 * @param fraction 0.5 for the median, 0.95 for p95, etc.
+		 * @return Nearest-rank percentile, or 0 if there are no samples
+		 */
+		public long get(double fraction)
+		{
+			if (sorted.length == 0)
+			{
+				return 0;
+			}
+
+			int rank = (int) Math.ceil(fraction * sorted.length) - 1;
+			return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+		}
+
+		public long getMax()
+		{
+			return sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+		}
+	}
+}
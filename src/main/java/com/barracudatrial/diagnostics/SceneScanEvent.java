@@ -0,0 +1,30 @@
+package com.barracudatrial.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One per-tick scan of the scene's objects for rocks, speed boosts, fetid pools and toad pillars
+ */
+@Name("barracudatrial.SceneScan")
+@Label("Scene Scan")
+@Category({"Barracuda Trials", "Tracking"})
+@StackTrace(false)
+public class SceneScanEvent extends Event
+{
+	@Label("Objects Visited")
+	@Description("Game objects in the scene, each counted once on its anchor tile")
+	public int objectsVisited;
+
+	@Label("Objects Classified")
+	@Description("Objects recognised as a hazard, boost or pillar, whether or not they were already known")
+	public int objectsClassified;
+
+	@Label("New Hazard Tiles")
+	@Description("Rock and fetid pool tiles that weren't known before this scan")
+	public int newHazardTiles;
+}
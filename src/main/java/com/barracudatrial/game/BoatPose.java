@@ -0,0 +1,56 @@
+package com.barracudatrial.game;
+
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Snapshot of where the boat is, which way it's pointing and how fast it's going, as of one game tick.
+ * Positions are fractional world tiles; velocity is in tiles per game tick.
+ */
+@Getter
+public class BoatPose
+{
+	public static final int HEADING_COUNT = 24;
+
+	private final int tick;
+	private final double x;
+	private final double y;
+	private final int plane;
+	private final double velocityX;
+	private final double velocityY;
+	// 0..23 in 15° steps counter-clockwise from east, or -1 if unknown
+	private final int headingIdx;
+	private final boolean boosted;
+
+	public BoatPose(int tick, double x, double y, int plane, double velocityX, double velocityY, int headingIdx, boolean boosted)
+	{
+		this.tick = tick;
+		this.x = x;
+		this.y = y;
+		this.plane = plane;
+		this.velocityX = velocityX;
+		this.velocityY = velocityY;
+		this.headingIdx = headingIdx;
+		this.boosted = boosted;
+	}
+
+	public double getSpeed()
+	{
+		return Math.hypot(velocityX, velocityY);
+	}
+
+	/**
+	 * Shifts a tile by how far the boat is expected to travel in the given number of ticks
+	 */
+	public WorldPoint predictOffset(WorldPoint from, double ticksAhead)
+	{
+		int dx = (int) Math.round(velocityX * ticksAhead);
+		int dy = (int) Math.round(velocityY * ticksAhead);
+		if (dx == 0 && dy == 0)
+		{
+			return from;
+		}
+
+		return new WorldPoint(from.getX() + dx, from.getY() + dy, from.getPlane());
+	}
+}
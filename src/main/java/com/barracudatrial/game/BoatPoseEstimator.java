@@ -0,0 +1,131 @@
+package com.barracudatrial.game;
+
+import com.barracudatrial.world.TrialWorldView;
+
+/**
+ * Fuses per-tick boat samples into a BoatPose.
+ * Velocity is a smoothed per-tick displacement; heading comes from the direction of travel while moving
+ * and from the entity's orientation while drifting or stopped.
+ * Boosts aren't exposed by the client, so they're inferred from speed jumping well above the usual cruising speed.
+ */
+public class BoatPoseEstimator
+{
+	// Weight of the newest displacement in the velocity estimate
+	private static final double VELOCITY_SMOOTHING = 0.5;
+	// Weight of a new sample in the cruising speed baseline
+	private static final double CRUISE_SMOOTHING = 0.1;
+	// Below this speed (tiles/tick) the direction of travel is too noisy; use the orientation instead
+	private static final double MIN_SPEED_FOR_TRAVEL_HEADING = 0.3;
+	// A jump further than this in one tick is a teleport (portal, respawn), not movement
+	private static final double MAX_TILES_PER_TICK = 10;
+	private static final double BOOST_SPEED_RATIO = 1.4;
+	private static final double BOOST_MIN_EXTRA_SPEED = 0.5;
+
+	private boolean hasSample = false;
+	private int lastTick;
+	private double lastX;
+	private double lastY;
+	private int lastPlane;
+	private double velocityX;
+	private double velocityY;
+	private double cruiseSpeed = -1;
+
+	/**
+	 * @param tick Current game tick count
+	 * @param boat Where the player's boat is this tick
+	 * @return Updated pose
+	 */
+	public BoatPose update(int tick, TrialWorldView.BoatSample boat)
+	{
+		double x = boat.getX();
+		double y = boat.getY();
+		int plane = boat.getPlane();
+
+		if (hasSample && tick > lastTick && plane == lastPlane)
+		{
+			int elapsedTicks = tick - lastTick;
+			double stepX = (x - lastX) / elapsedTicks;
+			double stepY = (y - lastY) / elapsedTicks;
+
+			if (Math.hypot(stepX, stepY) > MAX_TILES_PER_TICK)
+			{
+				velocityX = 0;
+				velocityY = 0;
+			}
+			else
+			{
+				velocityX += (stepX - velocityX) * VELOCITY_SMOOTHING;
+				velocityY += (stepY - velocityY) * VELOCITY_SMOOTHING;
+			}
+		}
+		else if (!hasSample || plane != lastPlane)
+		{
+			velocityX = 0;
+			velocityY = 0;
+		}
+
+		hasSample = true;
+		lastTick = tick;
+		lastX = x;
+		lastY = y;
+		lastPlane = plane;
+
+		double speed = Math.hypot(velocityX, velocityY);
+		boolean boosted = isBoosted(speed);
+
+		int headingIdx = speed >= MIN_SPEED_FOR_TRAVEL_HEADING
+			? headingFromVector(velocityX, velocityY)
+			: headingFromOrientation(boat.getOrientation());
+
+		return new BoatPose(tick, x, y, plane, velocityX, velocityY, headingIdx, boosted);
+	}
+
+	public void reset()
+	{
+		hasSample = false;
+		velocityX = 0;
+		velocityY = 0;
+		cruiseSpeed = -1;
+	}
+
+	private boolean isBoosted(double speed)
+	{
+		if (speed < MIN_SPEED_FOR_TRAVEL_HEADING)
+		{
+			return false;
+		}
+
+		if (cruiseSpeed < 0)
+		{
+			cruiseSpeed = speed;
+			return false;
+		}
+
+		boolean boosted = speed > cruiseSpeed * BOOST_SPEED_RATIO && speed - cruiseSpeed > BOOST_MIN_EXTRA_SPEED;
+		if (!boosted)
+		{
+			cruiseSpeed += (speed - cruiseSpeed) * CRUISE_SMOOTHING;
+		}
+		return boosted;
+	}
+
+	/**
+	 * @return Heading index (15° steps counter-clockwise from east) closest to the given direction
+	 */
+	static int headingFromVector(double dx, double dy)
+	{
+		double degrees = Math.toDegrees(Math.atan2(dy, dx));
+		int idx = (int) Math.round(degrees / (360.0 / BoatPose.HEADING_COUNT));
+		return (idx % BoatPose.HEADING_COUNT + BoatPose.HEADING_COUNT) % BoatPose.HEADING_COUNT;
+	}
+
+	/**
+	 * Orientation is in JAU (2048 per turn), 0 facing south and increasing towards west
+	 */
+	static int headingFromOrientation(int orientation)
+	{
+		double degrees = 270.0 - (orientation & 2047) * 360.0 / 2048.0;
+		int idx = (int) Math.round(degrees / (360.0 / BoatPose.HEADING_COUNT));
+		return (idx % BoatPose.HEADING_COUNT + BoatPose.HEADING_COUNT) % BoatPose.HEADING_COUNT;
+	}
+}
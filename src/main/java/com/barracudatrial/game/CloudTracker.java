@@ -0,0 +1,187 @@
+package com.barracudatrial.game;
+
+import com.barracudatrial.pathfinding.CloudForecast;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Follows lightning clouds from tick to tick and forecasts their drift and strikes.
+ * Clouds are matched to last tick's by position rather than by NPC, so replayed sessions (which rebuild the NPCs)
+ * track the same way as live ones. Velocity is a smoothed per-tick displacement. Strike cycles are learned from
+ * every phase seen from start to end, pooled over all clouds since they share the same cycle.
+ */
+public class CloudTracker
+{
+	// Weight of the newest displacement in the velocity estimate
+	private static final double VELOCITY_SMOOTHING = 0.3;
+	// Weight of a newly observed phase in the learned phase lengths
+	private static final double PHASE_SMOOTHING = 0.3;
+	// A cloud further than this from where a tracked one was expected is a different cloud
+	private static final int MAX_MATCH_TILES = 2;
+
+	private List<Track> tracks = new ArrayList<>();
+	private double learnedDangerousTicks = -1;
+	private double learnedSafeTicks = -1;
+
+	/**
+	 * @param tick Current game tick count
+	 * @param sightings Every lightning cloud in the scene this tick
+	 * @return Forecast for each sighting, in the same order
+	 */
+	public List<CloudForecast> update(int tick, List<Sighting> sightings)
+	{
+		List<Track> unmatched = new ArrayList<>(tracks);
+		List<Track> nextTracks = new ArrayList<>(sightings.size());
+		List<CloudForecast> forecasts = new ArrayList<>(sightings.size());
+
+		for (Sighting sighting : sightings)
+		{
+			Track track = takeNearest(unmatched, sighting.location, tick);
+			if (track == null)
+			{
+				track = new Track(sighting, tick);
+			}
+			else
+			{
+				observe(track, sighting, tick);
+			}
+			nextTracks.add(track);
+			forecasts.add(forecast(track, tick));
+		}
+
+		tracks = nextTracks;
+		return Collections.unmodifiableList(forecasts);
+	}
+
+	public void reset()
+	{
+		tracks = new ArrayList<>();
+		learnedDangerousTicks = -1;
+		learnedSafeTicks = -1;
+	}
+
+	private Track takeNearest(List<Track> candidates, WorldPoint location, int tick)
+	{
+		Track nearest = null;
+		int nearestDistance = MAX_MATCH_TILES + 1;
+		for (Track track : candidates)
+		{
+			if (track.location.getPlane() != location.getPlane())
+			{
+				continue;
+			}
+
+			int elapsedTicks = tick - track.lastTick;
+			int expectedX = track.location.getX() + (int) Math.round(track.velocityX * elapsedTicks);
+			int expectedY = track.location.getY() + (int) Math.round(track.velocityY * elapsedTicks);
+			int distance = Math.max(Math.abs(location.getX() - expectedX), Math.abs(location.getY() - expectedY));
+			if (distance < nearestDistance)
+			{
+				nearest = track;
+				nearestDistance = distance;
+			}
+		}
+
+		if (nearest != null)
+		{
+			candidates.remove(nearest);
+		}
+		return nearest;
+	}
+
+	private void observe(Track track, Sighting sighting, int tick)
+	{
+		int elapsedTicks = tick - track.lastTick;
+		if (elapsedTicks > 0)
+		{
+			double stepX = (sighting.location.getX() - track.location.getX()) / (double) elapsedTicks;
+			double stepY = (sighting.location.getY() - track.location.getY()) / (double) elapsedTicks;
+			track.velocityX += (stepX - track.velocityX) * VELOCITY_SMOOTHING;
+			track.velocityY += (stepY - track.velocityY) * VELOCITY_SMOOTHING;
+		}
+
+		if (sighting.dangerous != track.dangerous)
+		{
+			// Only phases seen from start to end say how long a phase lasts
+			if (track.phaseStartSeen)
+			{
+				int phaseTicks = tick - track.phaseStartTick;
+				if (track.dangerous)
+				{
+					learnedDangerousTicks = smooth(learnedDangerousTicks, phaseTicks);
+				}
+				else
+				{
+					learnedSafeTicks = smooth(learnedSafeTicks, phaseTicks);
+				}
+			}
+
+			track.dangerous = sighting.dangerous;
+			track.phaseStartTick = tick;
+			track.phaseStartSeen = true;
+		}
+
+		track.location = sighting.location;
+		track.lastTick = tick;
+	}
+
+	private CloudForecast forecast(Track track, int tick)
+	{
+		int dangerousTicks = (int) Math.round(learnedDangerousTicks);
+		int safeTicks = (int) Math.round(learnedSafeTicks);
+
+		int ticksUntilPhaseChange = -1;
+		int phaseTicks = track.dangerous ? dangerousTicks : safeTicks;
+		if (track.phaseStartSeen && phaseTicks > 0)
+		{
+			// A phase running longer than expected is about to end, not over
+			ticksUntilPhaseChange = Math.max(1, phaseTicks - (tick - track.phaseStartTick));
+		}
+
+		return new CloudForecast(track.location, track.velocityX, track.velocityY, track.dangerous,
+			ticksUntilPhaseChange, dangerousTicks, safeTicks);
+	}
+
+	private static double smooth(double learned, int observed)
+	{
+		return learned < 0 ? observed : learned + (observed - learned) * PHASE_SMOOTHING;
+	}
+
+	/**
+	 * One cloud as seen this tick
+	 */
+	public static class Sighting
+	{
+		final WorldPoint location;
+		final boolean dangerous;
+
+		public Sighting(WorldPoint location, boolean dangerous)
+		{
+			this.location = location;
+			this.dangerous = dangerous;
+		}
+	}
+
+	private static class Track
+	{
+		WorldPoint location;
+		int lastTick;
+		double velocityX = 0;
+		double velocityY = 0;
+		boolean dangerous;
+		int phaseStartTick;
+		// False until the cloud has been seen changing phase, since it may have been mid-phase when first seen
+		boolean phaseStartSeen = false;
+
+		Track(Sighting sighting, int tick)
+		{
+			this.location = sighting.location;
+			this.lastTick = tick;
+			this.dangerous = sighting.dangerous;
+			this.phaseStartTick = tick;
+		}
+	}
+}
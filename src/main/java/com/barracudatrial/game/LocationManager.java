@@ -1,8 +1,8 @@
 package com.barracudatrial.game;
 
 import com.barracudatrial.game.route.TemporTantrumConfig;
+import com.barracudatrial.world.TrialWorldView;
 import lombok.extern.slf4j.Slf4j;
-import net.runelite.api.*;
 import net.runelite.api.coords.WorldPoint;
 
 /**
@@ -11,12 +11,12 @@ import net.runelite.api.coords.WorldPoint;
 @Slf4j
 public class LocationManager
 {
-	private final Client client;
+	private final TrialWorldView world;
 	private final State state;
 
-	public LocationManager(Client client, State state)
+	public LocationManager(TrialWorldView world, State state)
 	{
-		this.client = client;
+		this.world = world;
 		this.state = state;
 	}
 
@@ -35,175 +35,62 @@ public class LocationManager
 	}
 
 	private void searchForTemporRumLocationsInWorldEntities()
-	{
-		WorldView topLevelWorldView = client.getTopLevelWorldView();
-		if (topLevelWorldView == null)
-		{
-			return;
-		}
-
-		Player localPlayer = client.getLocalPlayer();
-		if (localPlayer == null || localPlayer.getWorldView() == null)
-		{
-			return;
-		}
-
-		// Scan all WorldEntities to find rum boats (they're on separate boats from player)
-		for (WorldEntity worldEntity : topLevelWorldView.worldEntities())
-		{
-			if (worldEntity == null)
-			{
-				continue;
-			}
-
-			WorldView entityWorldView = worldEntity.getWorldView();
-			if (entityWorldView == null)
-			{
-				continue;
-			}
-
-			Scene entityScene = entityWorldView.getScene();
-			if (entityScene == null)
-			{
-				continue;
-			}
-
-			// Pass the WorldEntity so we can get its real world location
-			scanSceneForTemporRumReturnAndPickupLocations(entityScene, worldEntity);
-		}
-	}
-
-	private void scanSceneForTemporRumReturnAndPickupLocations(Scene scene, WorldEntity worldEntity)
 	{
 		var trial = state.getCurrentTrial();
 		if (!(trial instanceof TemporTantrumConfig)) {
 			return;
 		}
 
-		Tile[][][] tileArray = scene.getTiles();
-		if (tileArray == null)
-		{
-			return;
-		}
+		// Rum boats are separate WorldEntities from the player's; objects on them are located at the boat
+		world.forEachWorldEntityGameObject((boatWorldLocation, gameObject) -> {
+			int objectId = gameObject.getId();
+			boolean isRumReturnObject = false;
+			boolean isRumPickupObject = false;
 
-		// Get the boat's real world location once (it's the same for all objects on this boat)
-		WorldPoint boatWorldLocation = null;
-		try
-		{
-			var boatLocalLocation = worldEntity.getLocalLocation();
-			if (boatLocalLocation != null)
+			if (objectId == TemporTantrumConfig.RUM_DROPOFF_BASE_ID)
 			{
-				boatWorldLocation = WorldPoint.fromLocalInstance(client, boatLocalLocation);
+				isRumReturnObject = true;
 			}
-		}
-		catch (Exception e)
-		{
-			log.debug("Error getting boat world location: {}", e.getMessage());
-		}
-
-		if (boatWorldLocation == null)
-		{
-			return; // Can't determine boat location, skip this entity
-		}
-
-		// Scan all planes in this scene (WorldEntity scenes need all planes scanned)
-		for (int planeIndex = 0; planeIndex < tileArray.length; planeIndex++)
-		{
-			if (tileArray[planeIndex] == null)
+			else if (objectId == TemporTantrumConfig.RUM_PICKUP_BASE_ID)
 			{
-				continue;
+				isRumPickupObject = true;
 			}
-
-			for (int xIndex = 0; xIndex < tileArray[planeIndex].length; xIndex++)
+			else
 			{
-				if (tileArray[planeIndex][xIndex] == null)
+				// Check impostor IDs if not found in base IDs
+				int impostorId = world.getImpostorId(objectId);
+				if (impostorId == TemporTantrumConfig.RUM_DROPOFF_IMPOSTOR_ID)
 				{
-					continue;
+					isRumReturnObject = true;
 				}
-
-				for (int yIndex = 0; yIndex < tileArray[planeIndex][xIndex].length; yIndex++)
+				else if (impostorId == TemporTantrumConfig.RUM_PICKUP_IMPOSTOR_ID)
 				{
-					Tile tile = tileArray[planeIndex][xIndex][yIndex];
-					if (tile == null)
-					{
-						continue;
-					}
-
-					for (GameObject gameObject : tile.getGameObjects())
-					{
-						if (gameObject == null)
-						{
-							continue;
-						}
-
-						int objectId = gameObject.getId();
-						boolean isRumReturnObject = false;
-						boolean isRumPickupObject = false;
-
-						if (objectId == TemporTantrumConfig.RUM_DROPOFF_BASE_ID)
-						{
-							isRumReturnObject = true;
-						}
-						else if (objectId == TemporTantrumConfig.RUM_PICKUP_BASE_ID)
-						{
-							isRumPickupObject = true;
-						}
-
-						// Check impostor IDs if not found in base IDs
-						if (!isRumReturnObject && !isRumPickupObject)
-						{
-							try
-							{
-								ObjectComposition objectComposition = client.getObjectDefinition(objectId);
-								if (objectComposition != null)
-								{
-									ObjectComposition activeImpostor = objectComposition.getImpostor();
-									if (activeImpostor != null)
-									{
-										int impostorId = activeImpostor.getId();
-										if (impostorId == TemporTantrumConfig.RUM_DROPOFF_IMPOSTOR_ID)
-										{
-											isRumReturnObject = true;
-										}
-										else if (impostorId == TemporTantrumConfig.RUM_PICKUP_IMPOSTOR_ID)
-										{
-											isRumPickupObject = true;
-										}
-									}
-								}
-							}
-							catch (Exception e)
-							{
-							}
-						}
+					isRumPickupObject = true;
+				}
+			}
 
-						if (isRumReturnObject)
-						{
-							// Secondary objective (rum dropoff for Tempor, etc.)
-							// Use the boat's real world location, not the gameObject's location
-							if (state.getRumReturnLocation() == null || !state.getRumReturnLocation().equals(boatWorldLocation))
-							{
-								state.setRumReturnLocation(boatWorldLocation);
-								log.info("Found secondary objective location: {} (ObjectID: {}, Plane: {}, SceneTile: [{},{}])",
-									boatWorldLocation, objectId, planeIndex, xIndex, yIndex);
-								calculateTemporExclusionZoneBounds(boatWorldLocation);
-							}
-						}
-						else if (isRumPickupObject)
-						{
-							// Primary objective (rum pickup for Tempor, etc.)
-							// Use the boat's real world location, not the gameObject's location
-							if (state.getRumPickupLocation() == null || !state.getRumPickupLocation().equals(boatWorldLocation))
-							{
-								state.setRumPickupLocation(boatWorldLocation);
-								log.info("Found primary objective location: {} (ObjectID: {}, Plane: {}, SceneTile: [{},{}])",
-									boatWorldLocation, objectId, planeIndex, xIndex, yIndex);
-							}
-						}
-					}
+			if (isRumReturnObject)
+			{
+				// Secondary objective (rum dropoff for Tempor, etc.)
+				// Use the boat's real world location, not the gameObject's location
+				if (state.getRumReturnLocation() == null || !state.getRumReturnLocation().equals(boatWorldLocation))
+				{
+					state.setRumReturnLocation(boatWorldLocation);
+					log.info("Found secondary objective location: {} (ObjectID: {})", boatWorldLocation, objectId);
+					calculateTemporExclusionZoneBounds(boatWorldLocation);
 				}
 			}
-		}
+			else if (isRumPickupObject)
+			{
+				// Primary objective (rum pickup for Tempor, etc.)
+				// Use the boat's real world location, not the gameObject's location
+				if (state.getRumPickupLocation() == null || !state.getRumPickupLocation().equals(boatWorldLocation))
+				{
+					state.setRumPickupLocation(boatWorldLocation);
+					log.info("Found primary objective location: {} (ObjectID: {})", boatWorldLocation, objectId);
+				}
+			}
+		});
 	}
 
 	/**
@@ -1,12 +1,12 @@
 package com.barracudatrial.game;
 
+import com.barracudatrial.diagnostics.SceneScanEvent;
 import com.barracudatrial.game.route.*;
+import com.barracudatrial.world.TrialWorldView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.runelite.api.*;
-import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.GameObject;
 import net.runelite.api.coords.WorldPoint;
-import net.runelite.api.gameval.NpcID;
 import net.runelite.api.gameval.ObjectID;
 
 import java.util.*;
@@ -19,8 +19,10 @@ import java.util.*;
 @RequiredArgsConstructor
 public class ObjectTracker
 {
-	private final Client client;
+	private final TrialWorldView world;
 	private final State state;
+	private final BoatPoseEstimator boatPoseEstimator = new BoatPoseEstimator();
+	private final CloudTracker cloudTracker = new CloudTracker();
 
 	private static final Set<Integer> ROCK_IDS = Set.of(
 		ObjectID.SAILING_CHARTING_GENERIC_DESERT_TROUT,
@@ -73,53 +75,37 @@ public class ObjectTracker
 		ObjectID.SAILING_RAPIDS_POWERFUL, ObjectID.SAILING_RAPIDS_DEADLY
 	);
 
-	private static final Set<Integer> BOAT_NPC_IDS = Set.of(
-			NpcID.BOAT_HP_NPC_TINY,
-			NpcID.BOAT_HP_NPC_SMALL,
-			NpcID.BOAT_HP_NPC_MEDIUM,
-			NpcID.BOAT_HP_NPC_LARGE,
-			NpcID.BOAT_HP_NPC_COLOSSAL
-	);
-
 	/**
 	 * Updates hazard NPC tracking (e.g., lightning clouds for Tempor Tantrum)
 	 */
 	public void updateLightningCloudTracking()
 	{
-		if (!state.isInTrial())
-		{
-			state.clearLightningClouds();
-			state.clearDangerousClouds();
-			return;
-		}
-
 		state.clearLightningClouds();
 		state.clearDangerousClouds();
 
-		WorldView topLevelWorldView = client.getTopLevelWorldView();
-		if (topLevelWorldView == null)
+		if (!state.isInTrial())
 		{
+			cloudTracker.reset();
+			state.setCloudForecasts(List.of());
 			return;
 		}
 
-		for (NPC npc : topLevelWorldView.npcs())
-		{
-			if (npc == null)
-			{
-				continue;
-			}
-
-			int npcId = npc.getId();
-			if (TemporTantrumConfig.LIGHTNING_CLOUD_NPC_IDS.contains(npcId))
+		List<CloudTracker.Sighting> sightings = new ArrayList<>();
+		world.forEachNpc(npc -> {
+			if (TemporTantrumConfig.LIGHTNING_CLOUD_NPC_IDS.contains(npc.getId()))
 			{
 				state.addLightningCloud(npc);
 
-				if (!isCloudSafe(npc.getAnimation()))
+				boolean dangerous = !isCloudSafe(npc.getAnimation());
+				if (dangerous)
 				{
 					state.addDangerousCloud(npc);
 				}
+				sightings.add(new CloudTracker.Sighting(npc.getWorldLocation(), dangerous));
 			}
-		}
+		});
+
+		state.setCloudForecasts(cloudTracker.update(world.getTickCount(), sightings));
 	}
 
 	public static boolean isCloudSafe(int animationId)
@@ -129,39 +115,11 @@ public class ObjectTracker
 
 	public void updateHazardsSpeedBoostsAndToadPillars()
 	{
-		if (!state.isInTrial())
-		{
-			return;
-		}
-
-		WorldView topLevelWorldView = client.getTopLevelWorldView();
-		if (topLevelWorldView == null)
-		{
-			return;
-		}
-
-		Scene scene = topLevelWorldView.getScene();
-		if (scene == null)
+		if (!state.isInTrial() || !world.isSceneLoaded())
 		{
 			return;
 		}
 
-		Tile[][][] regularTiles = scene.getTiles();
-		if (regularTiles != null)
-		{
-			scanTileArrayForHazardsSpeedBoostsAndToadPillars(regularTiles);
-		}
-
-		// Skipping for performance - probably don't need to read extended for this
-		// Tile[][][] extendedTiles = scene.getExtendedTiles();
-		// if (extendedTiles != null)
-		// {
-		// 	scanTileArrayForHazardsSpeedBoostsAndToadPillars(extendedTiles);
-		// }
-	}
-
-	private void scanTileArrayForHazardsSpeedBoostsAndToadPillars(Tile[][][] tileArray)
-	{
 		var trial = state.getCurrentTrial();
 		if (trial == null)
 		{
@@ -178,74 +136,64 @@ public class ObjectTracker
 
 		var knownToadPillarTiles = new HashSet<>(state.getKnownToadPillarLocations());
 
-		for (var plane : tileArray)
-		{
-			if (plane == null) continue;
+		// Counted as we go; only committed if a flight recording has the event enabled
+		var scanEvent = new SceneScanEvent();
+		scanEvent.begin();
+		int knownHazardTileCount = knownRockTiles.size() + knownFetidPoolTiles.size();
+
+		world.forEachGameObject(obj -> {
+			int id = obj.getId();
+			WorldPoint objTile = obj.getWorldLocation();
+			scanEvent.objectsVisited++;
+
+			if (!knownRockTiles.contains(objTile) && ROCK_IDS.contains(id))
+			{
+				scanEvent.objectsClassified++;
+				knownRockTiles.addAll(world.getObjectFootprint(obj));
+				return;
+			}
 
-			for (var column : plane)
+			if (!knownBoostTiles.containsKey(objTile) && SPEED_BOOST_IDS.contains(id))
 			{
-				if (column == null) continue;
+				scanEvent.objectsClassified++;
+				knownBoosts.add(obj);
 
-				for (var tile : column)
+				// The footprint is 5x5, but we want 3x3 to encourage getting closer
+				var speedTilesWithOneTolerance = ObjectTracker.getTilesWithTolerance(objTile, 1);
+				knownBoostTiles.put(objTile, speedTilesWithOneTolerance);
+				return;
+			}
+
+			if (!knownFetidPoolTiles.contains(objTile) && fetidPoolIds.contains(id))
+			{
+				scanEvent.objectsClassified++;
+				knownFetidPoolTiles.addAll(world.getObjectFootprint(obj));
+				return;
+			}
+
+			var matchingToadPillarByParentId =
+					Arrays.stream(JubblyJiveConfig.TOAD_PILLARS)
+							.filter(v -> v.getClickboxParentObjectId() == id)
+							.findFirst()
+							.orElse(null);
+
+			if (matchingToadPillarByParentId != null)
+			{
+				scanEvent.objectsClassified++;
+				if (!knownToadPillarTiles.contains(objTile))
 				{
-					if (tile == null) continue;
-
-					WorldPoint tileWp = tile.getWorldLocation();
-					for (var obj : tile.getGameObjects())
-					{
-						if (obj == null) continue;
-
-						int id = obj.getId();
-						var objTile = obj.getWorldLocation();
-						if (!objTile.equals(tileWp))
-						{
-							// Don't want to re-process multi-tile objects
-							continue;
-						}
-
-						if (!knownRockTiles.contains(tileWp) && ROCK_IDS.contains(id))
-						{
-							knownRockTiles.addAll(ObjectTracker.getObjectTiles(client, obj));
-
-							continue;
-						}
-
-						if (!knownBoostTiles.containsKey(tileWp) && SPEED_BOOST_IDS.contains(id))
-						{
-							knownBoosts.add(obj);
-
-							// getObjectTiles is 5x5, but we want 3x3 to encourage getting closer
-							var speedTilesWithOneTolerance = ObjectTracker.getTilesWithTolerance(objTile, 1);
-							knownBoostTiles.put(objTile, speedTilesWithOneTolerance);
-							continue;
-						}
-
-						if (!knownFetidPoolTiles.contains(tileWp) && fetidPoolIds.contains(id))
-						{
-							knownFetidPoolTiles.addAll(ObjectTracker.getObjectTiles(client, obj));
-
-							continue;
-						}
-
-						var matchingToadPillarByParentId =
-								Arrays.stream(JubblyJiveConfig.TOAD_PILLARS)
-										.filter(v -> v.getClickboxParentObjectId() == id)
-										.findFirst()
-										.orElse(null);
-
-						if (matchingToadPillarByParentId != null)
-						{
-							if (!knownToadPillarTiles.contains(tileWp))
-							{
-								knownToadPillarTiles.addAll(ObjectTracker.getObjectTiles(client, obj));
-							}
-
-							onToadPillarTick(obj, matchingToadPillarByParentId);
-							continue;
-						}
-					}
+					knownToadPillarTiles.addAll(world.getObjectFootprint(obj));
 				}
+
+				onToadPillarTick(obj, matchingToadPillarByParentId);
 			}
+		});
+
+		scanEvent.end();
+		if (scanEvent.shouldCommit())
+		{
+			scanEvent.newHazardTiles = knownRockTiles.size() + knownFetidPoolTiles.size() - knownHazardTileCount;
+			scanEvent.commit();
 		}
 
 		state.updateKnownRockLocations(knownRockTiles);
@@ -257,21 +205,9 @@ public class ObjectTracker
 
 	public void onToadPillarTick(GameObject newToadPillarObj, JubblyJiveToadPillar toadPillar)
 	{
-		var objectComposition = client.getObjectDefinition(newToadPillarObj.getId());
-		if (objectComposition == null)
-			return;
-
-		var isInteractedWith = false;
-
-		var impostorIds = objectComposition.getImpostorIds();
-		if (impostorIds != null)
-		{
-			var impostor = objectComposition.getImpostor();
-			isInteractedWith = impostor.getId() == toadPillar.getClickboxNoopObjectId();
-		}
+		var isInteractedWith = world.getImpostorId(newToadPillarObj.getId()) == toadPillar.getClickboxNoopObjectId();
 
 		var previousIsInteractedWith = state.updateKnownToadPillar(newToadPillarObj.getWorldLocation(), isInteractedWith);
-
 		if (previousIsInteractedWith == null) return; // first time
 		if (previousIsInteractedWith == isInteractedWith) return; // no change
 		if (previousIsInteractedWith && !isInteractedWith) return; // true -> false (reset)
@@ -338,15 +274,8 @@ public class ObjectTracker
 			return false;
 		}
 
-		WorldView worldView = client.getTopLevelWorldView();
-		if (worldView == null)
-		{
-			return false;
-		}
-
-		Scene scene = worldView.getScene();
 		WorldPoint boatLocation = state.getBoatLocation();
-		if (scene == null || boatLocation == null)
+		if (!world.isSceneLoaded() || boatLocation == null)
 		{
 			return false;
 		}
@@ -377,7 +306,7 @@ public class ObjectTracker
 				continue;
 			}
 
-			if (hasBaseShipmentButNoImpostor(scene, location))
+			if (hasBaseShipmentButNoImpostor(location))
 			{
 				state.markWaypointCompleted(i);
 				anyCollected = true;
@@ -392,7 +321,7 @@ public class ObjectTracker
 	 * Checks if a base shipment object exists at a location BUT the impostor ID does not.
 	 * This indicates the shipment has been collected (base remains, impostor disappears).
 	 */
-	private boolean hasBaseShipmentButNoImpostor(Scene scene, WorldPoint worldLocation)
+	private boolean hasBaseShipmentButNoImpostor(WorldPoint worldLocation)
 	{
 		var trial = state.getCurrentTrial();
 		if (trial == null)
@@ -403,37 +332,11 @@ public class ObjectTracker
 		var shipmentIds = trial.getShipmentBaseIds();
 		int shipmentImpostorId = trial.getShipmentImpostorId();
 
-		int plane = worldLocation.getPlane();
-		int sceneX = worldLocation.getX() - scene.getBaseX();
-		int sceneY = worldLocation.getY() - scene.getBaseY();
-
-		if (sceneX < 0 || sceneX >= 104 || sceneY < 0 || sceneY >= 104)
-		{
-			return false;
-		}
-
-		Tile[][][] tiles = scene.getTiles();
-		if (tiles == null || tiles[plane] == null)
-		{
-			return false;
-		}
-
-		Tile tile = tiles[plane][sceneX][sceneY];
-		if (tile == null)
-		{
-			return false;
-		}
-
 		boolean hasBaseShipment = false;
 		boolean hasImpostor = false;
 
-		for (GameObject gameObject : tile.getGameObjects())
+		for (GameObject gameObject : world.getGameObjectsAt(worldLocation))
 		{
-			if (gameObject == null)
-			{
-				continue;
-			}
-
 			int objectId = gameObject.getId();
 
 			if (!shipmentIds.contains(objectId))
@@ -443,26 +346,7 @@ public class ObjectTracker
 
 			hasBaseShipment = true;
 
-			var objectComposition = client.getObjectDefinition(objectId);
-			if (objectComposition == null)
-			{
-				continue;
-			}
-
-			var impostorIds = objectComposition.getImpostorIds();
-			if (impostorIds == null)
-			{
-				continue;
-			}
-
-			var impostor = objectComposition.getImpostor();
-			if (impostor == null)
-			{
-				continue;
-			}
-
-			var impostorId = impostor.getId();
-			if (impostorId == shipmentImpostorId)
+			if (world.getImpostorId(objectId) == shipmentImpostorId)
 			{
 				hasImpostor = true;
 			}
@@ -480,55 +364,23 @@ public class ObjectTracker
 		if (!state.isInTrial())
 		{
 			state.setBoatLocation(null);
+			state.setBoatPose(null);
+			boatPoseEstimator.reset();
 			return;
 		}
 
-		Player localPlayer = client.getLocalPlayer();
-		if (localPlayer == null)
+		var boat = world.getPlayerBoat();
+		if (boat == null)
 		{
-			state.setBoatLocation(null);
+			state.setBoatLocation(world.getPlayerLocation());
 			return;
 		}
 
-		try
-		{
-			WorldView playerWorldView = localPlayer.getWorldView();
-			if (playerWorldView == null)
-			{
-				state.setBoatLocation(localPlayer.getWorldLocation());
-				return;
-			}
-
-			int playerWorldViewId = playerWorldView.getId();
-
-			WorldView topLevelWorldView = client.getTopLevelWorldView();
-			if (topLevelWorldView == null)
-			{
-				state.setBoatLocation(localPlayer.getWorldLocation());
-				return;
-			}
-
-			WorldEntity boatWorldEntity = topLevelWorldView.worldEntities().byIndex(playerWorldViewId);
-			if (boatWorldEntity == null)
-			{
-				state.setBoatLocation(localPlayer.getWorldLocation());
-				return;
-			}
-
-			var boatLocalLocation = boatWorldEntity.getLocalLocation();
-			if (boatLocalLocation != null)
-			{
-				state.setBoatLocation(WorldPoint.fromLocalInstance(client, boatLocalLocation));
-			}
-			else
-			{
-				state.setBoatLocation(localPlayer.getWorldLocation());
-			}
-		}
-		catch (Exception e)
+		state.setBoatPose(boatPoseEstimator.update(world.getTickCount(), boat));
+		state.setBoatLocation(boat.getLocation());
+		if (boat.getSize() != null)
 		{
-			state.setBoatLocation(localPlayer.getWorldLocation());
-			log.debug("Error getting boat location: {}", e.getMessage());
+			state.setBoatSize(boat.getSize());
 		}
 	}
 
@@ -538,199 +390,16 @@ public class ObjectTracker
 	 */
 	public void updateFrontBoatTile()
 	{
-		if (!state.isInTrial())
-		{
-			state.setFrontBoatTileEstimatedActual(null);
-			state.setFrontBoatTileLocal(null);
-			return;
-		}
-
-		Player localPlayer = client.getLocalPlayer();
-		if (localPlayer == null)
+		var boatFront = state.isInTrial() ? world.getBoatFront() : null;
+		if (boatFront == null)
 		{
-			log.warn("Local player is null when updating front boat tile");
 			state.setFrontBoatTileEstimatedActual(null);
 			state.setFrontBoatTileLocal(null);
 			return;
 		}
 
-		try
-		{
-			WorldView playerWorldView = localPlayer.getWorldView();
-			if (playerWorldView == null)
-			{
-				log.warn("Player WorldView is null when updating front boat tile");
-				state.setFrontBoatTileEstimatedActual(null);
-				state.setFrontBoatTileLocal(null);
-				return;
-			}
-
-			WorldView topLevelWorldView = client.getTopLevelWorldView();
-			if (topLevelWorldView == null)
-			{
-				log.warn("Top-level WorldView is null when updating front boat tile");
-				state.setFrontBoatTileEstimatedActual(null);
-				state.setFrontBoatTileLocal(null);
-				return;
-			}
-
-			int playerWorldViewId = playerWorldView.getId();
-			WorldEntity boatWorldEntity = topLevelWorldView.worldEntities().byIndex(playerWorldViewId);
-			if (boatWorldEntity == null)
-			{
-				log.warn("Boat WorldEntity is null when updating front boat tile");
-				state.setFrontBoatTileEstimatedActual(null);
-				state.setFrontBoatTileLocal(null);
-				return;
-			}
-
-			WorldView boatWorldView = boatWorldEntity.getWorldView();
-			if (boatWorldView == null)
-			{
-				log.warn("Boat WorldView is null when updating front boat tile");
-				state.setFrontBoatTileEstimatedActual(null);
-				state.setFrontBoatTileLocal(null);
-				return;
-			}
-
-			Scene boatScene = boatWorldView.getScene();
-			if (boatScene == null)
-			{
-				log.warn("Boat Scene is null when updating front boat tile");
-				state.setFrontBoatTileEstimatedActual(null);
-				state.setFrontBoatTileLocal(null);
-				return;
-			}
-
-			Player boatPlayer = null;
-			for (Player p : boatWorldView.players())
-			{
-				if (p != null && p.equals(localPlayer))
-				{
-					boatPlayer = p;
-					break;
-				}
-			}
-
-			if (boatPlayer == null)
-			{
-				state.setFrontBoatTileEstimatedActual(null);
-				state.setFrontBoatTileLocal(null);
-				return;
-			}
-
-			NPC boatNpc = null;
-			for (NPC npc : boatWorldView.npcs())
-			{
-				if (npc == null || !BOAT_NPC_IDS.contains(npc.getId()))
-					continue;
-				boatNpc = npc;
-				break;
-			}
-
-			if (boatNpc == null)
-			{
-				log.warn("Boat NPC is null when updating front boat tile");
-				state.setFrontBoatTileEstimatedActual(null);
-				state.setFrontBoatTileLocal(null);
-				return;
-			}
-
-			LocalPoint npcLocalPoint = boatNpc.getLocalLocation();
-			LocalPoint boatPlayerLocalPoint = boatPlayer.getLocalLocation();
-
-			if (npcLocalPoint == null || boatPlayerLocalPoint == null)
-			{
-				log.warn("NPC or Boat Player local point is null when updating front boat tile");
-				state.setFrontBoatTileEstimatedActual(null);
-				state.setFrontBoatTileLocal(null);
-				return;
-			}
-
-			// Calculate direction from player (back) to NPC (middle) in scene tiles
-			int npcSceneX = npcLocalPoint.getSceneX();
-			int npcSceneY = npcLocalPoint.getSceneY();
-			int playerSceneX = boatPlayerLocalPoint.getSceneX();
-			int playerSceneY = boatPlayerLocalPoint.getSceneY();
-
-			int deltaX = npcSceneX - playerSceneX;
-			int deltaY = npcSceneY - playerSceneY;
-
-			// Front of boat: extend 3 tiles from NPC
-			int frontSceneX = npcSceneX + (deltaX * 3);
-			int frontSceneY = npcSceneY + (deltaY * 3);
-
-			// Convert to LocalPoint in boat's coordinate system (for rendering)
-			int baseX = boatScene.getBaseX();
-			int baseY = boatScene.getBaseY();
-			LocalPoint frontLocalPoint = LocalPoint.fromScene(baseX + frontSceneX, baseY + frontSceneY, boatScene);
-
-			// Store the boat-relative LocalPoint (smooth sub-tile positioning, for visual rendering)
-			state.setFrontBoatTileLocal(frontLocalPoint);
-
-			// Transform from boat's coordinate system to main world (for tile-based pathfinding)
-			LocalPoint frontMainWorldLocal = boatWorldEntity.transformToMainWorld(frontLocalPoint);
-			if (frontMainWorldLocal == null)
-			{
-				log.warn("Front main world LocalPoint is null when updating front boat tile");
-				state.setFrontBoatTileEstimatedActual(null);
-				return;
-			}
-
-			// Convert to WorldPoint (for pathfinding A* algorithm)
-			WorldPoint frontWorldPoint = WorldPoint.fromLocalInstance(client, frontMainWorldLocal);
-			state.setFrontBoatTileEstimatedActual(frontWorldPoint);
-		}
-		catch (Exception e)
-		{
-			log.error("Error calculating front boat tile: {}", e.getMessage());
-			state.setFrontBoatTileEstimatedActual(null);
-			state.setFrontBoatTileLocal(null);
-		}
-	}
-
-	public static List<WorldPoint> getObjectTiles(Client client, GameObject obj)
-	{
-		Point min = obj.getSceneMinLocation();
-		Point max = obj.getSceneMaxLocation();
-
-		if (min == null || max == null)
-		{
-			// Fallback: treat as 1x1 anchored on world location
-			return Collections.singletonList(obj.getWorldLocation());
-		}
-
-		WorldView worldView = client.getTopLevelWorldView();
-		if (worldView == null)
-		{
-			return Collections.singletonList(obj.getWorldLocation());
-		}
-
-		Scene scene = worldView.getScene();
-		if (scene == null)
-		{
-			return Collections.singletonList(obj.getWorldLocation());
-		}
-
-		int baseX = scene.getBaseX();
-		int baseY = scene.getBaseY();
-		int plane = obj.getPlane();
-
-		int width = max.getX() - min.getX() + 1;
-		int height = max.getY() - min.getY() + 1;
-
-		List<WorldPoint> result = new ArrayList<>(width * height);
-		for (int sx = min.getX(); sx <= max.getX(); sx++)
-		{
-			for (int sy = min.getY(); sy <= max.getY(); sy++)
-			{
-				int worldX = baseX + sx;
-				int worldY = baseY + sy;
-				result.add(new WorldPoint(worldX, worldY, plane));
-			}
-		}
-
-		return result;
+		state.setFrontBoatTileEstimatedActual(boatFront.getWorldLocation());
+		state.setFrontBoatTileLocal(boatFront.getLocalLocation());
 	}
 
 	/**
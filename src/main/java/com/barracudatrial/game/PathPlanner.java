@@ -1,19 +1,27 @@
 package com.barracudatrial.game;
 
 import com.barracudatrial.CachedConfig;
+import com.barracudatrial.atlas.RouteBaselines;
+import com.barracudatrial.diagnostics.PathfindingMetrics;
+import com.barracudatrial.diagnostics.RecalcDroppedEvent;
+import com.barracudatrial.diagnostics.RecalcScheduledEvent;
 import com.barracudatrial.game.route.*;
 import com.barracudatrial.pathfinding.AStarPathfinder;
 import com.barracudatrial.pathfinding.BarracudaTileCostCalculator;
+import com.barracudatrial.pathfinding.CloudDangerTimeline;
+import com.barracudatrial.pathfinding.CloudForecast;
+import com.barracudatrial.pathfinding.CoarseGridPathfinder;
+import com.barracudatrial.pathfinding.GoalDistanceField;
+import com.barracudatrial.pathfinding.HullClearanceMap;
 import com.barracudatrial.pathfinding.PathNode;
 import com.barracudatrial.pathfinding.PathResult;
 import com.barracudatrial.pathfinding.PathStabilizer;
-import com.barracudatrial.rendering.RenderingUtils;
+import com.barracudatrial.pathfinding.SegmentMemo;
+import com.barracudatrial.pathfinding.TileHazards;
+import com.barracudatrial.world.BoatSize;
+import com.barracudatrial.world.TrialWorldView;
 
 import lombok.extern.slf4j.Slf4j;
-import net.runelite.api.Client;
-import net.runelite.api.NPC;
-import net.runelite.api.WorldView;
-import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.client.callback.ClientThread;
 
@@ -26,24 +34,50 @@ import java.util.function.Predicate;
 @Slf4j
 public class PathPlanner
 {
+	private static final double GAME_TICK_MILLIS = 600;
+	// Never extrapolate the boat further than this, so a slow outlier search can't throw the start far ahead
+	private static final double MAX_PREDICTION_TICKS = 2;
+	private static final double SEARCH_TIME_SMOOTHING = 0.3;
+	// With short baseline searches on, the live search only covers the stretch near the start and the baseline the rest
+	private static final int BASELINE_SEARCH_DISTANCE = 35;
+	// Slowest speed cloud arrival times are worked out at, so a boat starting from rest doesn't plan as if clouds were frozen
+	private static final double MIN_CLOUD_FORECAST_TILES_PER_TICK = 1.0;
+
 	private final State state;
 	private final CachedConfig cachedConfig;
-	private final Client client;
+	private final TrialWorldView world;
 	private final ClientThread clientThread;
+	private final PathfindingMetrics metrics;
+	private final AStarPathfinder aStarPathfinder;
+	private final CoarseGridPathfinder coarseGridPathfinder = new CoarseGridPathfinder();
+	private final SegmentMemo segmentMemo = new SegmentMemo();
 	private final PathStabilizer pathStabilizer;
 	private final ExecutorService pathfindingExecutor;
 	private final AtomicBoolean pathfindingInProgress = new AtomicBoolean(false);
 	private final AtomicBoolean pendingRecalculation = new AtomicBoolean(false);
 	private volatile PathfindingRequest pendingRequest;
-
-	public PathPlanner(Client client, State state, CachedConfig cachedConfig, ClientThread clientThread)
+	// Smoothed wall time of recent searches, i.e. how stale the boat position is by the time a path is published
+	private volatile double averageSearchMillis = 0;
+	// Static distance fields for the current route, once they've been loaded or generated
+	private volatile RouteBaselines routeBaselines;
+	private volatile RouteLibrary routeLibrary;
+	// Rocks grown by the current hull, rebuilt when the hull, trial or known rocks change; pathfinding thread only
+	private HullClearanceMap hullClearance;
+	private TrialType hullClearanceTrialType;
+	// Hazards for the current recalculation, and how much of the path was planned before the segment being searched
+	// (pathfinding thread only)
+	private TileHazards hazards;
+	private int tilesPlannedBeforeSegment;
+
+	public PathPlanner(TrialWorldView world, State state, CachedConfig cachedConfig, ClientThread clientThread, PathfindingMetrics metrics)
 	{
-		this.client = client;
+		this.world = world;
 		this.state = state;
 		this.cachedConfig = cachedConfig;
 		this.clientThread = clientThread;
+		this.metrics = metrics;
 
-		AStarPathfinder aStarPathfinder = new AStarPathfinder();
+		this.aStarPathfinder = new AStarPathfinder();
 		this.pathStabilizer = new PathStabilizer(aStarPathfinder);
 		this.pathfindingExecutor = Executors.newSingleThreadExecutor(r -> {
 			Thread thread = new Thread(r, "BarracudaTrial-Pathfinding");
@@ -55,18 +89,26 @@ public class PathPlanner
 	private static class PathfindingRequest
 	{
 		final WorldPoint startLocation;
+		// 24-step heading A* starts in, or -1 if unknown
+		final int startHeadingIdx;
 		final List<RouteWaypoint> waypoints;
 		final int waypointCount;
 		final int startIndex;
 		final String reason;
+		// Copied on the client thread, which replaces the known hazards while searches run
+		final TileHazards hazards;
+		final long createdNanos = System.nanoTime();
 
-		PathfindingRequest(WorldPoint startLocation, List<RouteWaypoint> waypoints, int waypointCount, int startIndex, String reason)
+		PathfindingRequest(WorldPoint startLocation, int startHeadingIdx, List<RouteWaypoint> waypoints, int waypointCount, int startIndex, String reason,
+			TileHazards hazards)
 		{
 			this.startLocation = startLocation;
+			this.startHeadingIdx = startHeadingIdx;
 			this.waypoints = waypoints;
 			this.waypointCount = waypointCount;
 			this.startIndex = startIndex;
 			this.reason = reason;
+			this.hazards = hazards;
 		}
 	}
 
@@ -77,14 +119,75 @@ public class PathPlanner
 	 * @param recalculationTriggerReason Description of what triggered this recalculation (for debugging)
 	 */
 	public void recalculateOptimalPathFromCurrentState(String recalculationTriggerReason)
+	{
+		// The boat keeps moving while we search, so plan from where it will be when the path is published
+		double leadTicks = Math.min(MAX_PREDICTION_TICKS, averageSearchMillis / GAME_TICK_MILLIS);
+		PathfindingRequest request = createRequest(recalculationTriggerReason, leadTicks);
+		if (request == null)
+		{
+			metrics.recordDropped();
+			emitDroppedEvent(recalculationTriggerReason, RecalcDroppedEvent.NOTHING_TO_PLAN);
+			return;
+		}
+
+		boolean queued = pathfindingInProgress.get();
+		emitScheduledEvent(request, queued, leadTicks);
+
+		if (queued)
+		{
+			PathfindingRequest supersededRequest = pendingRequest;
+			pendingRequest = request;
+			if (pendingRecalculation.getAndSet(true) && supersededRequest != null)
+			{
+				metrics.recordCoalesced();
+				emitDroppedEvent(supersededRequest.reason, RecalcDroppedEvent.SUPERSEDED);
+			}
+			log.debug("Pathfinding already running, queued latest request: {}", recalculationTriggerReason);
+			return;
+		}
+
+		executePathfinding(request);
+	}
+
+	/**
+	 * Same as {@link #recalculateOptimalPathFromCurrentState(String)}, but plans on the calling thread and
+	 * publishes the path before returning. The path is ready immediately, so the boat isn't extrapolated.
+	 * Used by headless replay, where there's no client thread and results have to be deterministic.
+	 * @return The published path
+	 */
+	public List<WorldPoint> recalculateOptimalPathNow(String recalculationTriggerReason)
+	{
+		PathfindingRequest request = createRequest(recalculationTriggerReason, 0);
+		if (request == null)
+		{
+			metrics.recordDropped();
+			emitDroppedEvent(recalculationTriggerReason, RecalcDroppedEvent.NOTHING_TO_PLAN);
+			return state.getPath();
+		}
+		emitScheduledEvent(request, false, 0);
+
+		long searchStartNanos = System.nanoTime();
+		List<WorldPoint> fullPath = planPath(request.startLocation, request.startHeadingIdx, request.waypoints, request.hazards);
+		metrics.recordRecalculation(searchStartNanos - request.createdNanos, System.nanoTime() - searchStartNanos);
+		state.setPath(fullPath);
+		return fullPath;
+	}
+
+	/**
+	 * Snapshots everything a recalculation needs from the current state
+	 * @param leadTicks How far ahead to extrapolate the boat's position
+	 * @return Request to plan, or null if there's nothing to plan (the path is cleared where appropriate)
+	 */
+	private PathfindingRequest createRequest(String recalculationTriggerReason, double leadTicks)
 	{
 		state.setLastPathRecalcCaller(recalculationTriggerReason);
+		metrics.recordTrigger(recalculationTriggerReason);
 		log.debug("Path recalculation triggered by: {}", recalculationTriggerReason);
 
 		if (!state.isInTrial())
 		{
 			state.getPath().clear();
-			return;
+			return null;
 		}
 
 		state.setTicksSinceLastPathRecalc(0);
@@ -96,7 +199,13 @@ public class PathPlanner
 		}
 		if (playerBoatLocation == null)
 		{
-			return;
+			return null;
+		}
+
+		BoatPose boatPose = state.getBoatPose();
+		if (boatPose != null && leadTicks > 0)
+		{
+			playerBoatLocation = boatPose.predictOffset(playerBoatLocation, leadTicks);
 		}
 
 		if (state.getCurrentStaticRoute() == null)
@@ -110,26 +219,41 @@ public class PathPlanner
 		{
 			state.setPath(new ArrayList<>());
 			log.debug("No uncompleted waypoints found in static route");
-			return;
+			return null;
 		}
 
-		PathfindingRequest request = new PathfindingRequest(
+		return new PathfindingRequest(
 			playerBoatLocation,
+			calculateStartHeading(boatPose),
 			nextWaypoints,
 			nextWaypoints.size(),
 			state.getNextNavigableWaypointIndex(),
-			recalculationTriggerReason
+			recalculationTriggerReason,
+			snapshotHazards()
 		);
+	}
 
-		if (pathfindingInProgress.get())
+	private void emitScheduledEvent(PathfindingRequest request, boolean queued, double leadTicks)
+	{
+		RecalcScheduledEvent event = new RecalcScheduledEvent();
+		if (event.shouldCommit())
 		{
-			pendingRequest = request;
-			pendingRecalculation.set(true);
-			log.debug("Pathfinding already running, queued latest request: {}", recalculationTriggerReason);
-			return;
+			event.reason = request.reason;
+			event.queued = queued;
+			event.leadTicks = leadTicks;
+			event.commit();
 		}
+	}
 
-		executePathfinding(request);
+	private void emitDroppedEvent(String reason, String cause)
+	{
+		RecalcDroppedEvent event = new RecalcDroppedEvent();
+		if (event.shouldCommit())
+		{
+			event.reason = reason;
+			event.cause = cause;
+			event.commit();
+		}
 	}
 
 	private void executePathfinding(PathfindingRequest request)
@@ -139,7 +263,14 @@ public class PathPlanner
 		pathfindingExecutor.submit(() -> {
 			try
 			{
-				List<WorldPoint> fullPath = pathThroughMultipleWaypoints(request.startLocation, request.waypoints);
+				long searchStartNanos = System.nanoTime();
+				List<WorldPoint> fullPath = planPath(request.startLocation, request.startHeadingIdx, request.waypoints, request.hazards);
+
+				long searchNanos = System.nanoTime() - searchStartNanos;
+				metrics.recordRecalculation(searchStartNanos - request.createdNanos, searchNanos);
+
+				double searchMillis = searchNanos / 1_000_000.0;
+				averageSearchMillis += (searchMillis - averageSearchMillis) * SEARCH_TIME_SMOOTHING;
 
 				clientThread.invoke(() -> {
 					state.setPath(fullPath);
@@ -168,6 +299,59 @@ public class PathPlanner
 		});
 	}
 
+	/**
+	 * Plans through the waypoints on the calling thread as one stabilizer pass, around the hazards known now.
+	 * Package-private so the benchmarks can drive the planner without the executor.
+	 */
+	List<WorldPoint> planPath(WorldPoint start, int headingDx, int headingDy, List<RouteWaypoint> waypoints)
+	{
+		return planPath(start, AStarPathfinder.headingFromDirection(headingDx, headingDy), waypoints, snapshotHazards());
+	}
+
+	private List<WorldPoint> planPath(WorldPoint start, int startHeadingIdx, List<RouteWaypoint> waypoints, TileHazards hazards)
+	{
+		pathStabilizer.beginRecalculation();
+		segmentMemo.beginRecalculation();
+		this.hazards = hazards;
+		List<WorldPoint> fullPath = pathThroughMultipleWaypoints(start, startHeadingIdx, waypoints);
+		pathStabilizer.endRecalculation();
+		segmentMemo.endRecalculation();
+		metrics.recordPathCache(pathStabilizer.getActivePathCount(), pathStabilizer.getCacheHits(), pathStabilizer.getCacheMisses(),
+			pathStabilizer.getRouteEvictions(), pathStabilizer.getCapacityEvictions());
+		return fullPath;
+	}
+
+	/**
+	 * Copies the known hazards and cloud forecast; call on the thread that updates them
+	 */
+	private TileHazards snapshotHazards()
+	{
+		return TileHazards.copyOf(
+			state.getKnownSpeedBoostLocations(),
+			state.getKnownRockLocations(),
+			state.getKnownFetidPoolLocations(),
+			state.getKnownToadPillarLocations(),
+			state.getDangerousClouds(),
+			buildCloudTimeline()
+		);
+	}
+
+	/**
+	 * @return Danger tiles over the next few ticks, or null when there are no forecasts to plan with
+	 */
+	private CloudDangerTimeline buildCloudTimeline()
+	{
+		List<CloudForecast> forecasts = state.getCloudForecasts();
+		if (forecasts.isEmpty())
+		{
+			return null;
+		}
+
+		BoatPose boatPose = state.getBoatPose();
+		double tilesPerTick = boatPose != null ? boatPose.getSpeed() : 0;
+		return CloudDangerTimeline.build(forecasts, Math.max(MIN_CLOUD_FORECAST_TILES_PER_TICK, tilesPerTick));
+	}
+
 	private void loadStaticRouteForCurrentDifficulty()
 	{
 		var trial = state.getCurrentTrial();
@@ -178,8 +362,9 @@ public class PathPlanner
 			return;
 		}
 
-		Difficulty difficulty = State.getCurrentDifficulty(client);
-		List<RouteWaypoint> staticRoute = trial.getRoute(difficulty);
+		Difficulty difficulty = State.getCurrentDifficulty(world);
+		RouteLibrary library = routeLibrary;
+		List<RouteWaypoint> staticRoute = library != null ? library.getRoute(trial, difficulty) : trial.getRoute(difficulty);
 
 		if (staticRoute == null || staticRoute.isEmpty())
 		{
@@ -260,28 +445,6 @@ public class PathPlanner
 		return uncompletedWaypoints;
 	}
 
-	private static class BoatHeading
-	{
-		private final int dx;
-		private final int dy;
-
-		BoatHeading(int dx, int dy)
-		{
-			this.dx = dx;
-			this.dy = dy;
-		}
-
-		int dx()
-		{
-			return dx;
-		}
-
-		int dy()
-		{
-			return dy;
-		}
-	}
-
 	private List<WorldPoint> extendPath(List<WorldPoint> fullPath, List<WorldPoint> segment)
 	{
 		List<WorldPoint> result = new ArrayList<>(fullPath);
@@ -298,35 +461,50 @@ public class PathPlanner
 		return result;
 	}
 
-	private BoatHeading calculateBoatHeading(List<WorldPoint> fullPath)
+	/**
+	 * Heading of the boat when the request is made: the pose estimate's 24-step heading if known,
+	 * otherwise the direction from the boat's center to its front tile, snapped to 8 directions
+	 * @return Heading index, or -1 if unknown
+	 */
+	private int calculateStartHeading(BoatPose boatPose)
 	{
-		if (fullPath.isEmpty())
+		if (boatPose != null && boatPose.getHeadingIdx() >= 0)
 		{
-			WorldPoint frontBoatTile = state.getFrontBoatTileEstimatedActual();
-			WorldPoint backBoatTile = state.getBoatLocation();
+			return boatPose.getHeadingIdx();
+		}
 
-			if (frontBoatTile != null && backBoatTile != null)
-			{
-				return new BoatHeading(
-					frontBoatTile.getX() - backBoatTile.getX(),
-					frontBoatTile.getY() - backBoatTile.getY()
-				);
-			}
+		WorldPoint frontBoatTile = state.getFrontBoatTileEstimatedActual();
+		WorldPoint backBoatTile = state.getBoatLocation();
+
+		if (frontBoatTile != null && backBoatTile != null)
+		{
+			return AStarPathfinder.headingFromDirection(
+				frontBoatTile.getX() - backBoatTile.getX(),
+				frontBoatTile.getY() - backBoatTile.getY()
+			);
+		}
+
+		return -1;
+	}
 
-			return new BoatHeading(0, 0);
+	private int calculateBoatHeading(List<WorldPoint> fullPath, int startHeadingIdx)
+	{
+		if (fullPath.isEmpty())
+		{
+			return startHeadingIdx;
 		}
 
 		if (fullPath.size() >= 2)
 		{
 			WorldPoint prev = fullPath.get(fullPath.size() - 2);
 			WorldPoint last = fullPath.get(fullPath.size() - 1);
-			return new BoatHeading(
+			return AStarPathfinder.headingFromDirection(
 				last.getX() - prev.getX(),
 				last.getY() - prev.getY()
 			);
 		}
 
-		return new BoatHeading(0, 0);
+		return -1;
 	}
 
 	private WorldPoint handlePortalExitTeleport(WorldPoint currentPosition, WorldPoint portalExitLocation)
@@ -361,8 +539,7 @@ public class PathPlanner
 		WorldPoint currentPosition,
 		RouteWaypoint waypoint,
 		boolean isPlayerCurrentlyOnPath,
-		int initialBoatDx,
-		int initialBoatDy,
+		int initialHeadingIdx,
 		Set<WorldPoint> pathfindingHints,
 		boolean stopAfterPathing)
 	{
@@ -372,8 +549,7 @@ public class PathPlanner
 			pathfindingTarget,
 			waypoint.getType().getToleranceTiles(),
 			isPlayerCurrentlyOnPath,
-			initialBoatDx,
-			initialBoatDy,
+			initialHeadingIdx,
 			pathfindingHints
 		);
 
@@ -393,8 +569,7 @@ public class PathPlanner
 		List<RouteWaypoint> waypoints,
 		int currentIndex,
 		boolean isPlayerCurrentlyOnPath,
-		int initialBoatDx,
-		int initialBoatDy,
+		int initialHeadingIdx,
 		Set<WorldPoint> pathfindingHints)
 	{
 		List<RouteWaypoint> windCatcherSequence = collectConsecutiveWindCatchers(waypoints, currentIndex);
@@ -414,8 +589,7 @@ public class PathPlanner
 			windCatcherSequence,
 			destinationAfterWindCatchers,
 			isPlayerCurrentlyOnPath,
-			initialBoatDx,
-			initialBoatDy,
+			initialHeadingIdx,
 			pathfindingHints,
 			hintsAfterWindCatchers
 		);
@@ -429,8 +603,7 @@ public class PathPlanner
 				directTarget,
 				destinationAfterWindCatchers.getType().getToleranceTiles(),
 				isPlayerCurrentlyOnPath,
-				initialBoatDx,
-				initialBoatDy,
+				initialHeadingIdx,
 				hintsAfterWindCatchers
 			);
 		}
@@ -521,10 +694,11 @@ public class PathPlanner
 	/**
 	 * Paths through multiple waypoints in sequence using A*
 	 * @param start Starting position
+	 * @param startHeadingIdx Boat heading at the starting position, or -1 if unknown
 	 * @param waypoints List of waypoints to path through in order
 	 * @return Complete path through all waypoints
 	 */
-	private List<WorldPoint> pathThroughMultipleWaypoints(WorldPoint start, List<RouteWaypoint> waypoints)
+	private List<WorldPoint> pathThroughMultipleWaypoints(WorldPoint start, int startHeadingIdx, List<RouteWaypoint> waypoints)
 	{
 		if (waypoints.isEmpty())
 		{
@@ -540,6 +714,7 @@ public class PathPlanner
 		{
 			RouteWaypoint waypoint = waypoints.get(i);
 			var waypointType = waypoint.getType();
+			tilesPlannedBeforeSegment = fullPath.size();
 
 			if (waypointType == RouteWaypoint.WaypointType.PATHFINDING_HINT)
 			{
@@ -553,9 +728,7 @@ public class PathPlanner
 				continue;
 			}
 
-			BoatHeading heading = calculateBoatHeading(fullPath);
-			int initialBoatDx = heading.dx();
-			int initialBoatDy = heading.dy();
+			int initialHeadingIdx = calculateBoatHeading(fullPath, startHeadingIdx);
 
 			if (waypointType == RouteWaypoint.WaypointType.PORTAL_ENTER)
 			{
@@ -563,8 +736,7 @@ public class PathPlanner
 					currentPosition,
 					waypoint,
 					isPlayerCurrentlyOnPath,
-					initialBoatDx,
-					initialBoatDy,
+					initialHeadingIdx,
 					pathfindingHints,
 					true
 				);
@@ -581,8 +753,7 @@ public class PathPlanner
 					waypoints,
 					i,
 					isPlayerCurrentlyOnPath,
-					initialBoatDx,
-					initialBoatDy,
+					initialHeadingIdx,
 					pathfindingHints
 				);
 
@@ -600,8 +771,7 @@ public class PathPlanner
 				currentPosition,
 				waypoint,
 				isPlayerCurrentlyOnPath,
-				initialBoatDx,
-				initialBoatDy,
+				initialHeadingIdx,
 				pathfindingHints,
 				false
 			);
@@ -646,8 +816,7 @@ public class PathPlanner
 		List<RouteWaypoint> windCatcherSequence,
 		RouteWaypoint nextNormalWaypoint,
 		boolean isPlayerCurrentlyOnPath,
-		int initialBoatDx,
-		int initialBoatDy,
+		int initialHeadingIdx,
 		Set<WorldPoint> pathfindingHints,
 		Set<WorldPoint> postWindCatcherHints)
 	{
@@ -669,8 +838,7 @@ public class PathPlanner
 			firstWindCatcherTarget,
 			1,
 			isPlayerCurrentlyOnPath,
-			initialBoatDx,
-			initialBoatDy,
+			initialHeadingIdx,
 			pathfindingHints
 		);
 
@@ -718,8 +886,7 @@ public class PathPlanner
 				nextTarget,
 				nextNormalWaypoint.getType().getToleranceTiles(),
 				false,
-				nextBoatDx,
-				nextBoatDy,
+				AStarPathfinder.headingFromDirection(nextBoatDx, nextBoatDy),
 				postWindCatcherHints
 			);
 
@@ -749,16 +916,96 @@ public class PathPlanner
 	 * @param pathfindingHints Set of tiles that should have reduced cost during pathfinding
 	 * @return PathResult containing path from start to target and whether goal was reached
 	 */
-	private PathResult pathToSingleTarget(WorldPoint start, WorldPoint target, int goalTolerance, boolean isPlayerCurrentlyOnPath, int initialBoatDx, int initialBoatDy, Set<WorldPoint> pathfindingHints)
+	private PathResult pathToSingleTarget(WorldPoint start, WorldPoint target, int goalTolerance, boolean isPlayerCurrentlyOnPath, int initialHeadingIdx, Set<WorldPoint> pathfindingHints)
 	{
 		var tileCostCalculator = getBarracudaTileCostCalculator(pathfindingHints);
 
+		// Only the first segment starts where the boat is; later ones usually have the same inputs as last recalculation
+		if (isPlayerCurrentlyOnPath)
+		{
+			return searchToSingleTarget(tileCostCalculator, start, target, goalTolerance, true, initialHeadingIdx, pathfindingHints);
+		}
+
+		var memoKey = new SegmentMemo.Key(start, initialHeadingIdx, target, goalTolerance, pathfindingHints,
+			cachedConfig.getFarSegmentGridSize(), cachedConfig.isShortBaselineSearches());
+		PathResult memoized = segmentMemo.get(memoKey, tileCostCalculator);
+		if (memoized != null)
+		{
+			pathStabilizer.markRequested(target);
+			metrics.recordMemoizedSegment(memoized.isReachedGoal());
+			return memoized;
+		}
+
+		PathResult pathResult = startingAt(start,
+			searchToSingleTarget(tileCostCalculator, start, target, goalTolerance, false, initialHeadingIdx, pathfindingHints));
+		segmentMemo.put(memoKey, pathResult, tileCostCalculator);
+		return pathResult;
+	}
+
+	/**
+	 * A reused path may pass beside a later segment's start rather than through it; the segment still has to start
+	 * there to be joined on, and to come out the same whether it was searched, reused or memoized
+	 */
+	private static PathResult startingAt(WorldPoint start, PathResult pathResult)
+	{
+		List<PathNode> pathNodes = pathResult.getPathNodes();
+		if (pathNodes.isEmpty() || pathNodes.get(0).getPosition().equals(start))
+		{
+			return pathResult;
+		}
+
+		List<PathNode> joinedNodes = new ArrayList<>(pathNodes.size() + 1);
+		joinedNodes.add(new PathNode(start, 0));
+		joinedNodes.addAll(pathNodes);
+		return new PathResult(joinedNodes, pathResult.getCost(), pathResult.isReachedGoal());
+	}
+
+	/**
+	 * Forgets memoized segments but not the stabilizer's paths.
+	 * Package-private so tests can check a memoized segment against the same segment planned again.
+	 */
+	void clearSegmentMemo()
+	{
+		segmentMemo.clear();
+	}
+
+	private PathResult searchToSingleTarget(BarracudaTileCostCalculator tileCostCalculator, WorldPoint start, WorldPoint target, int goalTolerance, boolean isPlayerCurrentlyOnPath, int initialHeadingIdx, Set<WorldPoint> pathfindingHints)
+	{
         int tileDistance = start.distanceTo(target); // Chebyshev distance in tiles
 
 		// Never too high, but allow seeking longer on long paths
 		int maximumAStarSearchDistance = Math.max(35, Math.min(80, tileDistance * 8));
 
-		PathResult pathResult = pathStabilizer.findPath(tileCostCalculator, cachedConfig.getRouteOptimization(), start, target, maximumAStarSearchDistance, initialBoatDx, initialBoatDy, goalTolerance, isPlayerCurrentlyOnPath);
+		// Segments past the one the boat is on are replanned in full by the time it gets there, so a rough line will do
+		int farSegmentGridSize = cachedConfig.getFarSegmentGridSize();
+		if (!isPlayerCurrentlyOnPath && farSegmentGridSize > 1)
+		{
+			PathResult coarseResult = coarseGridPathfinder.findPath(tileCostCalculator, start, target, goalTolerance, farSegmentGridSize, maximumAStarSearchDistance);
+			if (coarseResult.isReachedGoal())
+			{
+				metrics.recordCoarseSegment(true);
+				return coarseResult;
+			}
+
+			// No way through at this grid size, e.g. a gap narrower than a cell; the coarse search consumed boosts, so start afresh
+			tileCostCalculator = getBarracudaTileCostCalculator(pathfindingHints);
+		}
+
+		GoalDistanceField baseline = getBaseline(start, target, goalTolerance, pathfindingHints);
+		if (baseline != null && cachedConfig.isShortBaselineSearches())
+		{
+			maximumAStarSearchDistance = BASELINE_SEARCH_DISTANCE;
+		}
+
+		long searchStartNanos = System.nanoTime();
+		PathResult pathResult = pathStabilizer.findPathFromHeading(tileCostCalculator, cachedConfig.getRouteOptimization(), start, target, maximumAStarSearchDistance, initialHeadingIdx, goalTolerance, isPlayerCurrentlyOnPath, baseline);
+		metrics.recordSegment(
+			pathStabilizer.getLastDecision(),
+			System.nanoTime() - searchStartNanos,
+			aStarPathfinder.getLastNodesExplored(),
+			aStarPathfinder.getLastOpenSetPeak(),
+			pathResult.isReachedGoal()
+		);
 
 		if (pathResult.getPath().isEmpty())
 		{
@@ -771,10 +1018,28 @@ public class PathPlanner
 		return pathResult;
 	}
 
-	private BarracudaTileCostCalculator getBarracudaTileCostCalculator(Set<WorldPoint> pathfindingHints)
+	/**
+	 * @return The route baseline for this target if it can stand in for the far end of the search, otherwise null.
+	 * Baselines don't know about pathfinding hints, so segments steered by hints always get a full search.
+	 */
+	private GoalDistanceField getBaseline(WorldPoint start, WorldPoint target, int goalTolerance, Set<WorldPoint> pathfindingHints)
 	{
-		Set<NPC> currentlyDangerousClouds = state.getDangerousClouds();
+		RouteBaselines baselines = routeBaselines;
+		if (baselines == null || !pathfindingHints.isEmpty())
+		{
+			return null;
+		}
+
+		GoalDistanceField field = baselines.getField(target);
+		if (field == null || field.getGoalTolerance() > goalTolerance || !field.covers(start))
+		{
+			return null;
+		}
+		return field;
+	}
 
+	private BarracudaTileCostCalculator getBarracudaTileCostCalculator(Set<WorldPoint> pathfindingHints)
+	{
 		var trial = state.getCurrentTrial();
 		var boatExclusionWidth = trial != null && trial.getTrialType() == TrialType.TEMPOR_TANTRUM
 			? TemporTantrumConfig.BOAT_EXCLUSION_WIDTH
@@ -816,11 +1081,7 @@ public class PathPlanner
 		}
 
 		return new BarracudaTileCostCalculator(
-			state.getKnownSpeedBoostLocations(),
-			state.getKnownRockLocations(),
-			state.getKnownFetidPoolLocations(),
-			state.getKnownToadPillarLocations(),
-			currentlyDangerousClouds,
+			hazards,
 			state.getExclusionZoneMinX(),
 			state.getExclusionZoneMaxX(),
 			state.getExclusionZoneMinY(),
@@ -830,19 +1091,50 @@ public class PathPlanner
 			cachedConfig.getRouteOptimization(),
 			boatExclusionWidth,
 			boatExclusionHeight,
-			pathfindingHints
+			pathfindingHints,
+			getHullClearance(),
+			tilesPlannedBeforeSegment
 		);
 	}
 
+	/**
+	 * @return Rocks grown by the boat's hull, or null while the hull size isn't known
+	 */
+	private HullClearanceMap getHullClearance()
+	{
+		BoatSize boatSize = state.getBoatSize();
+		var trial = state.getCurrentTrial();
+		if (boatSize == null || trial == null)
+		{
+			return null;
+		}
+
+		// Known rocks only ever grow during a trial, so their count is enough to tell the set has changed
+		Set<WorldPoint> rocks = hazards.getRockLocations();
+		HullClearanceMap cached = hullClearance;
+		if (cached != null
+			&& cached.getHullLength() == boatSize.getHullLength()
+			&& cached.getHullWidth() == boatSize.getHullWidth()
+			&& cached.getRockCount() == rocks.size()
+			&& hullClearanceTrialType == trial.getTrialType())
+		{
+			return cached;
+		}
+
+		long startNanos = System.nanoTime();
+		hullClearance = HullClearanceMap.compute(rocks, boatSize.getHullLength(), boatSize.getHullWidth());
+		hullClearanceTrialType = trial.getTrialType();
+		log.debug("Built {} hull clearance for {} rocks in {}ms", boatSize, rocks.size(), (System.nanoTime() - startNanos) / 1_000_000);
+		return hullClearance;
+	}
+
 	private WorldPoint getInSceneTarget(WorldPoint start, RouteWaypoint target)
 	{
-		WorldView worldView = client.getTopLevelWorldView();
-		if (worldView == null)
+		if (!world.isSceneLoaded())
 		{
 			return target.getLocation();
 		}
 
-		int worldPlane = worldView.getPlane();
 		WorldPoint targetLocation = target.getLocation();
 
 		List<WorldPoint> candidates = new ArrayList<>();
@@ -863,12 +1155,7 @@ public class PathPlanner
 		// 1. Prefer same-plane tiles in the normal scene
 		for (WorldPoint p : candidates)
 		{
-			if (p.getPlane() != worldPlane)
-			{
-				continue;
-			}
-
-			if (LocalPoint.fromWorld(worldView, p) != null)
+			if (world.isInScene(p))
 			{
 				return p;
 			}
@@ -877,18 +1164,14 @@ public class PathPlanner
 		// 2. Any tile that exists in the extended scene
 		for (WorldPoint p : candidates)
 		{
-			if (RenderingUtils.localPointFromWorldIncludingExtended(worldView, p) != null)
+			if (world.isInExtendedScene(p))
 			{
 				return p;
 			}
 		}
 
 		// 3. Fall back to nearest valid along the line toward the target
-		return findNearestValidPoint(
-			start,
-			targetLocation,
-			p -> RenderingUtils.localPointFromWorldIncludingExtended(worldView, p) != null
-		);
+		return findNearestValidPoint(start, targetLocation, world::isInExtendedScene);
 	}
 
 	/**
@@ -936,9 +1219,34 @@ public class PathPlanner
 		return bestCandidate;
 	}
 
+	/**
+	 * @return A* nodes expanded by this planner so far, for replay and benchmark reports
+	 */
+	public long getTotalNodesExplored()
+	{
+		return aStarPathfinder.getTotalNodesExplored();
+	}
+
+	/**
+	 * @param routeBaselines Static distance fields for the current route, or null to plan without them
+	 */
+	public void setRouteBaselines(RouteBaselines routeBaselines)
+	{
+		this.routeBaselines = routeBaselines;
+	}
+
+	/**
+	 * @param routeLibrary Route files to prefer over the built-in routes, or null to use the built-in routes only
+	 */
+	public void setRouteLibrary(RouteLibrary routeLibrary)
+	{
+		this.routeLibrary = routeLibrary;
+	}
+
 	public void reset()
 	{
 		pathStabilizer.clearActivePath();
+		segmentMemo.clear();
 		pendingRecalculation.set(false);
 		pendingRequest = null;
 	}
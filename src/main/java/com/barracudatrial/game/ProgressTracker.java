@@ -5,8 +5,8 @@ import com.barracudatrial.game.route.JubblyJiveConfig;
 import com.barracudatrial.game.route.TemporTantrumConfig;
 import com.barracudatrial.game.route.TrialConfig;
 import com.barracudatrial.game.route.TrialType;
+import com.barracudatrial.world.TrialWorldView;
 import lombok.extern.slf4j.Slf4j;
-import net.runelite.api.Client;
 import net.runelite.api.gameval.VarbitID;
 
 /**
@@ -16,12 +16,12 @@ import net.runelite.api.gameval.VarbitID;
 @Slf4j
 public class ProgressTracker
 {
-	private final Client client;
+	private final TrialWorldView world;
 	private final State state;
 
-	public ProgressTracker(Client client, State state)
+	public ProgressTracker(TrialWorldView world, State state)
 	{
-		this.client = client;
+		this.world = world;
 		this.state = state;
 	}
 
@@ -31,15 +31,15 @@ public class ProgressTracker
 	 */
 	public TrialType getCurrentActiveTrialType()
 	{
-		if (client.getVarbitValue(VarbitID.SAILING_BT_TEMPOR_TANTRUM_MASTER_STATE) == 2)
+		if (world.getVarbitValue(VarbitID.SAILING_BT_TEMPOR_TANTRUM_MASTER_STATE) == 2)
 		{
 			return TrialType.TEMPOR_TANTRUM;
 		}
-		else if (client.getVarbitValue(VarbitID.SAILING_BT_JUBBLY_JIVE_MASTER_STATE) == 2)
+		else if (world.getVarbitValue(VarbitID.SAILING_BT_JUBBLY_JIVE_MASTER_STATE) == 2)
 		{
 			return TrialType.JUBBLY_JIVE;
 		}
-		else if (client.getVarbitValue(VarbitID.SAILING_BT_GWENITH_GLIDE_MASTER_STATE) == 2)
+		else if (world.getVarbitValue(VarbitID.SAILING_BT_GWENITH_GLIDE_MASTER_STATE) == 2)
 		{
 			return TrialType.GWENITH_GLIDE;
 		}
@@ -75,7 +75,7 @@ public class ProgressTracker
 		return false;
 	}
 
-	private TrialConfig createTrialConfig(TrialType trialType)
+	public static TrialConfig createTrialConfig(TrialType trialType)
 	{
 		switch (trialType)
 		{
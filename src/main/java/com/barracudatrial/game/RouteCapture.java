@@ -0,0 +1,238 @@
+package com.barracudatrial.game;
+
+import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.RouteData;
+import com.barracudatrial.game.route.RouteWaypoint;
+import com.barracudatrial.game.route.TrialType;
+import com.barracudatrial.world.TrialWorldView;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.GameObject;
+import net.runelite.api.coords.WorldPoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records the objectives the player completes during a run, in order, as a route file.
+ * Captured routes land in their own directory; once one looks right it can be moved into the route directory
+ * (see {@link com.barracudatrial.game.route.RouteLibrary}) to replace the built-in route for that difficulty.
+ * Pathfinding hints and wind catchers can't be inferred from a run and have to be added by hand.
+ */
+@Slf4j
+public class RouteCapture
+{
+	// Shipments are collected from a few tiles away, so only watch the ones around the boat
+	private static final int SHIPMENT_WATCH_RADIUS = 7;
+	// A portal moves the boat further than it can sail in one tick
+	private static final int PORTAL_JUMP_TILES = 10;
+
+	private final TrialWorldView world;
+	private final State state;
+
+	private TrialType trialType;
+	private Difficulty difficulty;
+	private final List<RouteWaypoint> waypoints = new ArrayList<>();
+	// Whether each nearby shipment still showed its impostor last tick
+	private final Map<WorldPoint, Boolean> shipmentsAvailable = new HashMap<>();
+	private final Set<WorldPoint> collectedShipments = new HashSet<>();
+	private final Map<WorldPoint, Boolean> toadPillarsInteracted = new HashMap<>();
+	private WorldPoint lastBoatLocation;
+	private boolean awaitingPortalExit = false;
+
+	public RouteCapture(TrialWorldView world, State state)
+	{
+		this.world = world;
+		this.state = state;
+	}
+
+	public boolean isCapturing()
+	{
+		return trialType != null;
+	}
+
+	public void start(TrialType trialType, Difficulty difficulty)
+	{
+		clear();
+		this.trialType = trialType;
+		this.difficulty = difficulty;
+		log.info("Capturing {} {} route", trialType, difficulty);
+	}
+
+	/**
+	 * Stops capturing without writing anything
+	 */
+	public void cancel()
+	{
+		clear();
+	}
+
+	public void onTick()
+	{
+		if (!isCapturing())
+		{
+			return;
+		}
+
+		WorldPoint boatLocation = state.getBoatLocation();
+		if (boatLocation == null)
+		{
+			return;
+		}
+
+		if (awaitingPortalExit && lastBoatLocation != null && lastBoatLocation.distanceTo2D(boatLocation) > PORTAL_JUMP_TILES)
+		{
+			record(RouteWaypoint.WaypointType.PORTAL_EXIT, boatLocation);
+			awaitingPortalExit = false;
+		}
+		lastBoatLocation = boatLocation;
+
+		captureShipments(boatLocation);
+		captureToadPillars();
+	}
+
+	private void captureShipments(WorldPoint boatLocation)
+	{
+		var trial = state.getCurrentTrial();
+		if (trial == null)
+		{
+			return;
+		}
+
+		var shipmentIds = trial.getShipmentBaseIds();
+		int shipmentImpostorId = trial.getShipmentImpostorId();
+
+		for (int dx = -SHIPMENT_WATCH_RADIUS; dx <= SHIPMENT_WATCH_RADIUS; dx++)
+		{
+			for (int dy = -SHIPMENT_WATCH_RADIUS; dy <= SHIPMENT_WATCH_RADIUS; dy++)
+			{
+				WorldPoint tile = boatLocation.dx(dx).dy(dy);
+				for (GameObject gameObject : world.getGameObjectsAt(tile))
+				{
+					int objectId = gameObject.getId();
+					if (!shipmentIds.contains(objectId))
+					{
+						continue;
+					}
+
+					boolean available = world.getImpostorId(objectId) == shipmentImpostorId;
+					Boolean wasAvailable = shipmentsAvailable.put(tile, available);
+					if (wasAvailable != null && wasAvailable && !available && collectedShipments.add(tile))
+					{
+						record(RouteWaypoint.WaypointType.SHIPMENT, tile);
+					}
+				}
+			}
+		}
+	}
+
+	private void captureToadPillars()
+	{
+		for (var entry : state.getKnownToadPillars().entrySet())
+		{
+			boolean interacted = entry.getValue();
+			Boolean wasInteracted = toadPillarsInteracted.put(entry.getKey(), interacted);
+			if (wasInteracted != null && !wasInteracted && interacted)
+			{
+				record(RouteWaypoint.WaypointType.TOAD_PILLAR, entry.getKey());
+			}
+		}
+	}
+
+	/**
+	 * Picks up the objectives that are only announced in chat; same messages the plugin marks waypoints from
+	 */
+	public void onChatMessage(String chatMessage)
+	{
+		if (!isCapturing())
+		{
+			return;
+		}
+
+		if (chatMessage.contains("You collect the rum"))
+		{
+			record(RouteWaypoint.WaypointType.RUM_PICKUP, orBoatLocation(state.getRumPickupLocation()));
+		}
+		else if (chatMessage.contains("You deliver the rum"))
+		{
+			record(RouteWaypoint.WaypointType.RUM_DROPOFF, orBoatLocation(state.getRumReturnLocation()));
+		}
+		else if (chatMessage.contains("balloon toads. Time to lure"))
+		{
+			record(RouteWaypoint.WaypointType.TOAD_PICKUP, state.getBoatLocation());
+		}
+		else if (chatMessage.contains("through the portal"))
+		{
+			record(RouteWaypoint.WaypointType.PORTAL_ENTER, state.getBoatLocation());
+			awaitingPortalExit = true;
+		}
+	}
+
+	private WorldPoint orBoatLocation(WorldPoint location)
+	{
+		return location != null ? location : state.getBoatLocation();
+	}
+
+	private void record(RouteWaypoint.WaypointType type, WorldPoint location)
+	{
+		if (location == null)
+		{
+			log.debug("Not capturing {}, location unknown", type);
+			return;
+		}
+
+		int lap = state.getCurrentLap();
+		waypoints.add(new RouteWaypoint(lap, type, location));
+		log.debug("Captured {} at {} (lap {})", type, location, lap);
+	}
+
+	/**
+	 * Writes what was captured, if anything, and stops capturing
+	 * @return The file written, or null if nothing was captured
+	 */
+	public File finish(File directory) throws IOException
+	{
+		if (!isCapturing())
+		{
+			return null;
+		}
+
+		try
+		{
+			if (waypoints.isEmpty())
+			{
+				return null;
+			}
+
+			String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+			File file = new File(directory, trialType.name().toLowerCase() + "-" + difficulty.name().toLowerCase()
+				+ "-" + timestamp + RouteData.FILE_EXTENSION);
+			RouteData.fromWaypoints(trialType, difficulty, waypoints).write(file);
+			log.info("Captured {} waypoints for {} {} to {}", waypoints.size(), trialType, difficulty, file);
+			return file;
+		}
+		finally
+		{
+			clear();
+		}
+	}
+
+	private void clear()
+	{
+		trialType = null;
+		difficulty = null;
+		waypoints.clear();
+		shipmentsAvailable.clear();
+		collectedShipments.clear();
+		toadPillarsInteracted.clear();
+		lastBoatLocation = null;
+		awaitingPortalExit = false;
+	}
+}
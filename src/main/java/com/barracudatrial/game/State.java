@@ -3,10 +3,13 @@ package com.barracudatrial.game;
 import com.barracudatrial.game.route.Difficulty;
 import com.barracudatrial.game.route.RouteWaypoint;
 import com.barracudatrial.game.route.TrialConfig;
+import com.barracudatrial.pathfinding.CloudForecast;
+import com.barracudatrial.pathfinding.PathCursor;
+import com.barracudatrial.world.BoatSize;
+import com.barracudatrial.world.TrialWorldView;
 
 import lombok.Getter;
 import lombok.Setter;
-import net.runelite.api.Client;
 import net.runelite.api.GameObject;
 import net.runelite.api.NPC;
 import net.runelite.api.coords.LocalPoint;
@@ -34,6 +37,10 @@ public class State
 
 	private final Set<NPC> dangerousClouds = new HashSet<>();
 
+	// Drift and strike forecast for every lightning cloud, replaced each tick; empty if clouds aren't being tracked
+	@Setter
+	private List<CloudForecast> cloudForecasts = List.of();
+
 	private final Set<GameObject> speedBoosts = new HashSet<>();
 
 	@Setter
@@ -66,12 +73,30 @@ public class State
 	@Setter
 	private LocalPoint frontBoatTileLocal = null;
 
+	// Position, heading and velocity of the boat as of the last tick, or null if unknown
 	@Setter
-	private int currentLap = 1;
+	private BoatPose boatPose = null;
 
+	// Hull of the player's boat, or null if it hasn't been identified
 	@Setter
+	private BoatSize boatSize = null;
+
+	private int currentLap = 1;
+
 	private List<WorldPoint> path = new ArrayList<>();
 
+	// Progress along the current path, shared by everything that needs "closest point on path"
+	private PathCursor pathCursor = null;
+
+	// Bumped whenever the path is replaced, so renderers can cache per-path work
+	private long pathVersion = 0;
+
+	// Bumped whenever route progress changes (route loaded, waypoint completed, lap changed)
+	private long routeProgressVersion = 0;
+
+	// Bumped whenever objects spawn or despawn or a toad pillar changes state, so cached object references can be refreshed
+	private long sceneObjectsVersion = 0;
+
 	@Setter
 	private String lastPathRecalcCaller = "none";
 
@@ -101,7 +126,6 @@ public class State
 	@Setter
 	private int exclusionZoneMaxY = 0;
 
-	@Setter
 	private List<RouteWaypoint> currentStaticRoute = null;
 
 	private final Set<Integer> completedWaypointIndices = new HashSet<>();
@@ -115,6 +139,11 @@ public class State
 		inTrial = false;
 		lightningClouds.clear();
 		dangerousClouds.clear();
+		cloudForecasts = List.of();
+		// Static hazards differ per trial; the hazard atlas restores them on entry
+		knownRockLocations.clear();
+		knownFetidPoolLocations.clear();
+		knownToadPillarLocations.clear();
 		knownToadPillars.clear();
 		rumPickupLocation = null;
 		rumReturnLocation = null;
@@ -123,17 +152,53 @@ public class State
 		lostSuppliesTotal = 0;
 		hasThrowableObjective = false;
 		boatLocation = null;
-		currentLap = 1;
-		path = new ArrayList<>();
+		boatPose = null;
+		boatSize = null;
+		setCurrentLap(1);
+		setPath(new ArrayList<>());
 		ticksSinceLastPathRecalc = 0;
 		exclusionZoneMinX = 0;
 		exclusionZoneMaxX = 0;
 		exclusionZoneMinY = 0;
 		exclusionZoneMaxY = 0;
-		currentStaticRoute = null;
+		setCurrentStaticRoute(null);
 		completedWaypointIndices.clear();
 	}
 
+	public void setPath(List<WorldPoint> path)
+	{
+		this.path = path;
+		this.pathCursor = null;
+		pathVersion++;
+	}
+
+	public void setCurrentLap(int currentLap)
+	{
+		if (this.currentLap != currentLap)
+		{
+			this.currentLap = currentLap;
+			routeProgressVersion++;
+		}
+	}
+
+	public void setCurrentStaticRoute(List<RouteWaypoint> currentStaticRoute)
+	{
+		this.currentStaticRoute = currentStaticRoute;
+		routeProgressVersion++;
+	}
+
+	/**
+	 * @return Cursor tracking progress along the current path, rebuilt whenever the path is replaced or modified
+	 */
+	public PathCursor getPathCursor()
+	{
+		if (pathCursor == null || pathCursor.getPath() != path || pathCursor.getPathSize() != path.size())
+		{
+			pathCursor = new PathCursor(path);
+		}
+		return pathCursor;
+	}
+
 	public void clearLightningClouds()
 	{
 		lightningClouds.clear();
@@ -196,7 +261,17 @@ public class State
 
 	public Boolean updateKnownToadPillar(WorldPoint location, boolean isInteractedWith)
 	{
-		return knownToadPillars.put(location, isInteractedWith);
+		Boolean previous = knownToadPillars.put(location, isInteractedWith);
+		if (previous == null || previous != isInteractedWith)
+		{
+			sceneObjectsVersion++;
+		}
+		return previous;
+	}
+
+	public void markSceneObjectsChanged()
+	{
+		sceneObjectsVersion++;
 	}
 
 	public void updateKnownRockLocations(Set<WorldPoint> locations)
@@ -237,7 +312,8 @@ public class State
 	public void markWaypointCompleted(int waypointIndex)
 	{
 		completedWaypointIndices.add(waypointIndex);
-		
+		routeProgressVersion++;
+
 		var route = getCurrentStaticRoute();
 		if (route == null || waypointIndex <= 0)
 		{
@@ -290,16 +366,10 @@ public class State
 		return 0;
 	}
 
-	public static Difficulty getCurrentDifficulty(Client client)
+	public static Difficulty getCurrentDifficulty(TrialWorldView world)
 	{
-		var widget = client.getWidget(InterfaceID.SailingBtHud.BT_RANK_GFX);
-		if (widget == null || widget.isHidden())
-		{
-			return Difficulty.SWORDFISH;
-		}
+		var spriteId = world.getWidgetSpriteId(InterfaceID.SailingBtHud.BT_RANK_GFX);
 
-		var spriteId = widget.getSpriteId();
-		
 		switch (spriteId)
 		{
 			case 7027:
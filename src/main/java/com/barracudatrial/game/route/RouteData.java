@@ -0,0 +1,360 @@
+package com.barracudatrial.game.route;
+
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One route as parallel arrays, the form route files are read into.
+ * Only {@link #toWaypoints()} builds RouteWaypoint objects, and only for the route that's actually sailed.
+ * <p>
+ * File layout, everything after the trial and difficulty stored column by column:
+ * <pre>
+ * int magic, short version, UTF trialType, UTF difficulty
+ * varint typeCount, UTF[typeCount] type names
+ * varint count, byte[count] type index, byte[count] lap, byte[count] plane,
+ * zigzag varint[count] x delta, zigzag varint[count] y delta
+ * </pre>
+ * Types are stored by name through the table so reordering the enum doesn't break old files.
+ * Deltas are from the previous waypoint; consecutive waypoints are close, so most fit in one byte.
+ */
+public class RouteData
+{
+	static final int MAGIC = 0x42545254; // "BTRT"
+	static final short VERSION = 1;
+	public static final String FILE_EXTENSION = ".route";
+	// Far more than any trial needs; anything bigger is a corrupt count, not a route
+	private static final int MAX_WAYPOINTS = 1 << 16;
+
+	private static final RouteWaypoint.WaypointType[] TYPES = RouteWaypoint.WaypointType.values();
+
+	@Getter
+	private final TrialType trialType;
+	@Getter
+	private final Difficulty difficulty;
+	private final byte[] types;
+	private final byte[] laps;
+	private final byte[] planes;
+	private final int[] xs;
+	private final int[] ys;
+
+	private RouteData(TrialType trialType, Difficulty difficulty, byte[] types, byte[] laps, byte[] planes, int[] xs, int[] ys)
+	{
+		this.trialType = trialType;
+		this.difficulty = difficulty;
+		this.types = types;
+		this.laps = laps;
+		this.planes = planes;
+		this.xs = xs;
+		this.ys = ys;
+	}
+
+	public static RouteData fromWaypoints(TrialType trialType, Difficulty difficulty, List<RouteWaypoint> waypoints)
+	{
+		int count = waypoints.size();
+		byte[] types = new byte[count];
+		byte[] laps = new byte[count];
+		byte[] planes = new byte[count];
+		int[] xs = new int[count];
+		int[] ys = new int[count];
+
+		for (int i = 0; i < count; i++)
+		{
+			RouteWaypoint waypoint = waypoints.get(i);
+			WorldPoint location = waypoint.getLocation();
+			types[i] = (byte) waypoint.getType().ordinal();
+			laps[i] = (byte) waypoint.getLap();
+			planes[i] = (byte) location.getPlane();
+			xs[i] = location.getX();
+			ys[i] = location.getY();
+		}
+
+		return new RouteData(trialType, difficulty, types, laps, planes, xs, ys);
+	}
+
+	public int size()
+	{
+		return types.length;
+	}
+
+	public RouteWaypoint.WaypointType getType(int index)
+	{
+		return TYPES[types[index]];
+	}
+
+	public int getLap(int index)
+	{
+		return laps[index];
+	}
+
+	public WorldPoint getLocation(int index)
+	{
+		return new WorldPoint(xs[index], ys[index], planes[index]);
+	}
+
+	/**
+	 * Builds the waypoints the planner works with.
+	 * Toad pillar waypoints are matched back to their pillar by location, as the hand-written routes reference them.
+	 */
+	public List<RouteWaypoint> toWaypoints()
+	{
+		List<RouteWaypoint> waypoints = new ArrayList<>(size());
+		for (int i = 0; i < size(); i++)
+		{
+			RouteWaypoint.WaypointType type = getType(i);
+			WorldPoint location = getLocation(i);
+
+			JubblyJiveToadPillar pillar = type == RouteWaypoint.WaypointType.TOAD_PILLAR ? findToadPillar(location) : null;
+			if (pillar != null)
+			{
+				waypoints.add(new JubblyJiveToadPillarWaypoint(getLap(i), pillar));
+			}
+			else
+			{
+				waypoints.add(new RouteWaypoint(getLap(i), type, location));
+			}
+		}
+		return Collections.unmodifiableList(waypoints);
+	}
+
+	private static JubblyJiveToadPillar findToadPillar(WorldPoint location)
+	{
+		for (JubblyJiveToadPillar pillar : JubblyJiveConfig.TOAD_PILLARS)
+		{
+			if (pillar.getLocation().equals(location))
+			{
+				return pillar;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reads only the trial and difficulty a route file is for, so a directory can be indexed without loading every route
+	 */
+	public static RouteKey readKey(File file) throws IOException
+	{
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath()))))
+		{
+			return readHeader(in, file);
+		}
+	}
+
+	public static RouteData read(File file) throws IOException
+	{
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath()))))
+		{
+			RouteKey key = readHeader(in, file);
+
+			int typeCount = readCount(in, file);
+			byte[] typeMapping = new byte[typeCount];
+			for (int i = 0; i < typeCount; i++)
+			{
+				typeMapping[i] = (byte) RouteWaypoint.WaypointType.valueOf(in.readUTF()).ordinal();
+			}
+
+			int count = readCount(in, file);
+			byte[] types = new byte[count];
+			byte[] laps = new byte[count];
+			byte[] planes = new byte[count];
+			int[] xs = new int[count];
+			int[] ys = new int[count];
+
+			in.readFully(types);
+			for (int i = 0; i < count; i++)
+			{
+				int typeIndex = types[i] & 0xFF;
+				if (typeIndex >= typeCount)
+				{
+					throw new IOException("Bad waypoint type in " + file);
+				}
+				types[i] = typeMapping[typeIndex];
+			}
+			in.readFully(laps);
+			in.readFully(planes);
+			readDeltas(in, xs);
+			readDeltas(in, ys);
+
+			return new RouteData(key.getTrialType(), key.getDifficulty(), types, laps, planes, xs, ys);
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new IOException("Unknown trial, difficulty or waypoint type in " + file, e);
+		}
+	}
+
+	private static int readCount(DataInput in, File file) throws IOException
+	{
+		int count = readVarInt(in);
+		if (count < 0 || count > MAX_WAYPOINTS)
+		{
+			throw new IOException("Bad count " + count + " in " + file);
+		}
+		return count;
+	}
+
+	private static RouteKey readHeader(DataInput in, File file) throws IOException
+	{
+		if (in.readInt() != MAGIC)
+		{
+			throw new IOException("Not a route file " + file);
+		}
+
+		short version = in.readShort();
+		if (version != VERSION)
+		{
+			throw new IOException("Unsupported route file version " + version + " in " + file);
+		}
+
+		try
+		{
+			return new RouteKey(TrialType.valueOf(in.readUTF()), Difficulty.valueOf(in.readUTF()));
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new IOException("Unknown trial or difficulty in " + file, e);
+		}
+	}
+
+	/**
+	 * Writes the route, replacing the file atomically
+	 */
+	public void write(File file) throws IOException
+	{
+		File directory = file.getAbsoluteFile().getParentFile();
+		if (!directory.isDirectory() && !directory.mkdirs())
+		{
+			throw new IOException("Could not create " + directory);
+		}
+
+		Path temporary = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+		try
+		{
+			try (OutputStream stream = Files.newOutputStream(temporary);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream)))
+			{
+				out.writeInt(MAGIC);
+				out.writeShort(VERSION);
+				out.writeUTF(trialType.name());
+				out.writeUTF(difficulty.name());
+
+				writeVarInt(out, TYPES.length);
+				for (RouteWaypoint.WaypointType type : TYPES)
+				{
+					out.writeUTF(type.name());
+				}
+
+				writeVarInt(out, size());
+				out.write(types);
+				out.write(laps);
+				out.write(planes);
+				writeDeltas(out, xs);
+				writeDeltas(out, ys);
+			}
+			Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally
+		{
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	private static void writeDeltas(DataOutput out, int[] values) throws IOException
+	{
+		int previous = 0;
+		for (int value : values)
+		{
+			int delta = value - previous;
+			writeVarInt(out, (delta << 1) ^ (delta >> 31));
+			previous = value;
+		}
+	}
+
+	private static void readDeltas(DataInput in, int[] values) throws IOException
+	{
+		int previous = 0;
+		for (int i = 0; i < values.length; i++)
+		{
+			int zigzag = readVarInt(in);
+			previous += (zigzag >>> 1) ^ -(zigzag & 1);
+			values[i] = previous;
+		}
+	}
+
+	private static void writeVarInt(DataOutput out, int value) throws IOException
+	{
+		while ((value & ~0x7F) != 0)
+		{
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(DataInput in) throws IOException
+	{
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7)
+		{
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+
+	/**
+	 * Trial and difficulty a route is for
+	 */
+	@Getter
+	public static class RouteKey
+	{
+		private final TrialType trialType;
+		private final Difficulty difficulty;
+
+		public RouteKey(TrialType trialType, Difficulty difficulty)
+		{
+			this.trialType = trialType;
+			this.difficulty = difficulty;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			RouteKey routeKey = (RouteKey) o;
+			return trialType == routeKey.trialType && difficulty == routeKey.difficulty;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return trialType.hashCode() * 31 + difficulty.hashCode();
+		}
+
+		@Override
+		public String toString()
+		{
+			return trialType + " " + difficulty;
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.barracudatrial.game.route;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route files dropped into a directory, used in place of the built-in route for their trial and difficulty.
+ * The directory is indexed from file headers the first time a route is asked for, and only the route that's
+ * actually needed is read in full; anything without a file falls back to the trial's built-in route.
+ */
+@Slf4j
+public class RouteLibrary
+{
+	private final File directory;
+	private Map<RouteData.RouteKey, File> filesByKey;
+	private final Map<RouteData.RouteKey, List<RouteWaypoint>> loadedRoutes = new HashMap<>();
+
+	public RouteLibrary(File directory)
+	{
+		this.directory = directory;
+	}
+
+	/**
+	 * @return The route from file if there is one, otherwise the trial's built-in route
+	 */
+	public synchronized List<RouteWaypoint> getRoute(TrialConfig trial, Difficulty difficulty)
+	{
+		var key = new RouteData.RouteKey(trial.getTrialType(), difficulty);
+		List<RouteWaypoint> loaded = loadedRoutes.get(key);
+		if (loaded != null)
+		{
+			return loaded;
+		}
+
+		File file = getIndex().get(key);
+		if (file != null)
+		{
+			try
+			{
+				List<RouteWaypoint> route = RouteData.read(file).toWaypoints();
+				if (!route.isEmpty())
+				{
+					log.info("Loaded {} route from {}", key, file);
+					loadedRoutes.put(key, route);
+					return route;
+				}
+			}
+			catch (IOException e)
+			{
+				log.warn("Could not read route file {}, using the built-in route", file, e);
+			}
+		}
+
+		List<RouteWaypoint> builtIn = trial.getRoute(difficulty);
+		if (builtIn != null)
+		{
+			loadedRoutes.put(key, builtIn);
+		}
+		return builtIn;
+	}
+
+	/**
+	 * Forgets the index and loaded routes, so files added or edited since are picked up on the next lookup
+	 */
+	public synchronized void invalidate()
+	{
+		filesByKey = null;
+		loadedRoutes.clear();
+	}
+
+	private Map<RouteData.RouteKey, File> getIndex()
+	{
+		if (filesByKey != null)
+		{
+			return filesByKey;
+		}
+
+		filesByKey = new HashMap<>();
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(RouteData.FILE_EXTENSION));
+		if (files == null)
+		{
+			return filesByKey;
+		}
+
+		// Sorted so the same file wins every time if two cover the same route
+		Arrays.sort(files);
+		for (File file : files)
+		{
+			try
+			{
+				var key = RouteData.readKey(file);
+				File previous = filesByKey.put(key, file);
+				if (previous != null)
+				{
+					log.warn("Both {} and {} are {} routes, using {}", previous.getName(), file.getName(), key, file.getName());
+				}
+			}
+			catch (IOException e)
+			{
+				log.warn("Skipping unreadable route file {}", file, e);
+			}
+		}
+		return filesByKey;
+	}
+}
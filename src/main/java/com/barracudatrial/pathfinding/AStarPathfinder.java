@@ -1,6 +1,7 @@
 package com.barracudatrial.pathfinding;
 
 import com.barracudatrial.RouteOptimization;
+import com.barracudatrial.diagnostics.PathSearchEvent;
 import net.runelite.api.coords.WorldPoint;
 
 import java.util.*;
@@ -11,7 +12,50 @@ import java.util.*;
  */
 public class AStarPathfinder
 {
+	// Nodes expanded over every search so far; only touched by the thread running searches
+	private long totalNodesExplored = 0;
+	// Nodes expanded and largest open set size during the most recent search
+	private int lastNodesExplored = 0;
+	private int lastOpenSetPeak = 0;
+
 	public PathResult findPath(BarracudaTileCostCalculator costCalculator, RouteOptimization routeOptimization, WorldPoint start, WorldPoint goal, int maxSearchDistance, int boatDirectionDx, int boatDirectionDy, int goalTolerance)
+	{
+		return findPathFromHeading(costCalculator, routeOptimization, start, goal, maxSearchDistance, headingFromDirection(boatDirectionDx, boatDirectionDy), goalTolerance, null);
+	}
+
+	/**
+	 * @param startHeadingIdx 24-step heading the boat starts in, or -1 if unknown; see {@link #headingFromDirection}
+	 * @param baseline Static distance field for the goal, or null. If the search runs out of budget before reaching
+	 *                 the goal, it stops at the explored tile with the lowest cost so far plus baseline cost, then
+	 *                 follows the baseline the rest of the way, re-costing it against the live hazards.
+	 */
+	public PathResult findPathFromHeading(BarracudaTileCostCalculator costCalculator, RouteOptimization routeOptimization, WorldPoint start, WorldPoint goal, int maxSearchDistance, int startHeadingIdx, int goalTolerance, GoalDistanceField baseline)
+	{
+		// Never escapes, so it costs nothing unless the event is enabled in a flight recording
+		PathSearchEvent event = new PathSearchEvent();
+		event.begin();
+
+		PathResult result = search(costCalculator, routeOptimization, start, goal, maxSearchDistance, startHeadingIdx, goalTolerance, baseline);
+
+		event.end();
+		if (event.shouldCommit())
+		{
+			event.startX = start.getX();
+			event.startY = start.getY();
+			event.goalX = goal.getX();
+			event.goalY = goal.getY();
+			event.plane = start.getPlane();
+			event.nodesExpanded = lastNodesExplored;
+			event.openSetPeak = lastOpenSetPeak;
+			event.cost = result.getCost();
+			event.reachedGoal = result.isReachedGoal();
+			event.commit();
+		}
+
+		return result;
+	}
+
+	private PathResult search(BarracudaTileCostCalculator costCalculator, RouteOptimization routeOptimization, WorldPoint start, WorldPoint goal, int maxSearchDistance, int startHeadingIdx, int goalTolerance, GoalDistanceField baseline)
 	{
 		PriorityQueue<Node> openSet = new PriorityQueue<>(
 			Comparator.comparingDouble((Node n) -> n.fScore)
@@ -22,29 +66,21 @@ public class AStarPathfinder
 		startNode.gScore = 0;
 		startNode.hScore = heuristic(start, goal);
 		startNode.fScore = startNode.hScore;
-		// Start heading: map provided 8-way boat direction into a 24-heading index (15° steps)
-		startNode.headingIdx = -1;
-		if (boatDirectionDx != 0 || boatDirectionDy != 0)
-		{
-			int snappedDx = Integer.signum(boatDirectionDx);
-			int snappedDy = Integer.signum(boatDirectionDy);
-			int baseDir8 = dirIndex(snappedDx, snappedDy);
-			if (baseDir8 != -1)
-			{
-				startNode.headingIdx = DIR8_TO_HEADING24[baseDir8];
-			}
-		}
+		startNode.headingIdx = startHeadingIdx;
 
 		openSet.add(startNode);
 		allNodes.put(new StateKey(start, startNode.headingIdx), startNode);
 
 		Set<StateKey> closedSet = new HashSet<>();
-		int nodesExplored = 0;
+		lastNodesExplored = 0;
+		lastOpenSetPeak = 0;
 		Node bestNodeSoFar = startNode; // Track best node in case we don't reach goal
 		int bestDistanceToGoal = Integer.MAX_VALUE;
+		double bestEstimatedCost = Double.POSITIVE_INFINITY;
 
 		while (!openSet.isEmpty())
 		{
+			lastOpenSetPeak = Math.max(lastOpenSetPeak, openSet.size());
 			Node current = openSet.poll();
 
 			StateKey currentKey = new StateKey(current.position, current.headingIdx);
@@ -63,132 +99,154 @@ public class AStarPathfinder
 				return new PathResult(reconstructPath(current), current.gScore, true);
 			}
 
-			if (distanceToGoal < bestDistanceToGoal)
+			if (baseline != null)
+			{
+				double estimatedCost = current.gScore + baseline.getCostToGoal(current.position);
+				if (estimatedCost < bestEstimatedCost)
+				{
+					bestEstimatedCost = estimatedCost;
+					bestNodeSoFar = current;
+				}
+			}
+			else if (distanceToGoal < bestDistanceToGoal)
 			{
 				bestDistanceToGoal = distanceToGoal;
 				bestNodeSoFar = current;
 			}
 
 			closedSet.add(currentKey);
-			nodesExplored++;
+			lastNodesExplored++;
+			totalNodesExplored++;
 
 			// Prevent runaway search
-			if (nodesExplored > maxSearchDistance * maxSearchDistance)
+			if (lastNodesExplored > maxSearchDistance * maxSearchDistance)
 			{
 				break;
 			}
 
-			// Steering neighbors: delta heading -1,0,+1 (±15°) and move one tile in the heading's dominant 8-way direction
-			for (int deltaH : new int[] { -1, 0, 1 })
+			double turnPenalty = calculateTurningCost(routeOptimization, 1);
+			for (MotionPrimitives.Primitive primitive : MotionPrimitives.from(current.headingIdx))
 			{
-				int currentHeading = current.headingIdx;
+				expand(costCalculator, current, primitive, turnPenalty, goal, closedSet, allNodes, openSet);
+			}
+		}
 
-				// If unknown heading, treat each 8-way direction as a possible base heading
-				if (currentHeading == -1)
-				{
-					for (int baseDir8 = 0; baseDir8 < 8; baseDir8++)
-					{
-						int nextHeading = DIR8_TO_HEADING24[baseDir8];
-						int moveDir = headingToDir8(nextHeading);
-						int nx = current.position.getX() + DIRS[moveDir][0];
-						int ny = current.position.getY() + DIRS[moveDir][1];
-						WorldPoint neighbor = new WorldPoint(nx, ny, current.position.getPlane());
-
-						StateKey neighborKey = new StateKey(neighbor, nextHeading);
-						if (closedSet.contains(neighborKey))
-						{
-							continue;
-						}
-
-						double tileCost = costCalculator.getTileCost(current.position, neighbor);
-						if (tileCost > 50000)
-						{
-							continue;
-						}
-
-						boolean isDiagonal = Math.abs(nx - current.position.getX()) == 1 && Math.abs(ny - current.position.getY()) == 1;
-						double geometricDistance = isDiagonal ? Math.sqrt(2) : 1.0;
-
-						int absDelta = 0; // starting from unknown, count as no extra turning penalty for first move
-						double turningCost = calculateTurningCost(routeOptimization, absDelta);
-
-						double tentativeGScore = current.gScore + (tileCost * geometricDistance) + turningCost;
-
-						Node neighborNode = allNodes.get(neighborKey);
-						if (neighborNode == null)
-						{
-							neighborNode = new Node(neighbor);
-							neighborNode.headingIdx = nextHeading;
-							allNodes.put(neighborKey, neighborNode);
-						}
-
-						if (tentativeGScore < neighborNode.gScore)
-						{
-							neighborNode.parent = current;
-							neighborNode.gScore = tentativeGScore;
-							neighborNode.hScore = heuristic(neighbor, goal);
-							neighborNode.fScore = neighborNode.gScore + neighborNode.hScore;
-
-							openSet.add(neighborNode);
-						}
-					}
-
-					continue; // processed all initial headings
-				}
+		if (baseline != null && bestEstimatedCost < Double.POSITIVE_INFINITY)
+		{
+			return followBaseline(costCalculator, bestNodeSoFar, baseline, goalTolerance);
+		}
 
-				int nextHeading = (currentHeading + deltaH + 24) % 24;
-				int moveDir = headingToDir8(nextHeading);
-				int nx = current.position.getX() + DIRS[moveDir][0];
-				int ny = current.position.getY() + DIRS[moveDir][1];
-				WorldPoint neighbor = new WorldPoint(nx, ny, current.position.getPlane());
+		// If we failed to reach the goal, return the closest path we found
+		if (bestNodeSoFar != startNode)
+		{
+			return new PathResult(reconstructPath(bestNodeSoFar), bestNodeSoFar.gScore, false);
+		}
 
-				StateKey neighborKey = new StateKey(neighbor, nextHeading);
-				if (closedSet.contains(neighborKey))
-				{
-					continue;
-				}
+		return new PathResult(new ArrayList<>(), Double.POSITIVE_INFINITY, false);
+	}
 
-				double tileCost = costCalculator.getTileCost(current.position, neighbor);
-				if (tileCost > 50000)
-				{
-					continue;
-				}
+	/**
+	 * Costs the tile one primitive moves onto from a node and relaxes the node it ends on
+	 */
+	private void expand(BarracudaTileCostCalculator costCalculator, Node current, MotionPrimitives.Primitive primitive,
+		double turnPenalty, WorldPoint goal, Set<StateKey> closedSet, Map<StateKey, Node> allNodes,
+		PriorityQueue<Node> openSet)
+	{
+		// Checked before costing anything: the calculator tracks boosts as tiles are costed, so the order matters
+		WorldPoint next = new WorldPoint(current.position.getX() + primitive.getDx(), current.position.getY() + primitive.getDy(), current.position.getPlane());
+		StateKey neighborKey = new StateKey(next, primitive.getHeading());
+		if (closedSet.contains(neighborKey))
+		{
+			return;
+		}
+
+		double sailed = current.tilesSailed + primitive.getDistance();
+		double tileCost = costCalculator.getTileCost(current.position, next, primitive.getHeading(), sailed);
+		if (tileCost > 50000)
+		{
+			return;
+		}
 
-				boolean isDiagonal = Math.abs(nx - current.position.getX()) == 1 && Math.abs(ny - current.position.getY()) == 1;
-				double geometricDistance = isDiagonal ? Math.sqrt(2) : 1.0;
+		double gScore = current.gScore + (tileCost * primitive.getDistance() + (primitive.isTurn() ? turnPenalty : 0));
 
-				int absDelta = Math.abs(deltaH);
-				double turningCost = calculateTurningCost(routeOptimization, absDelta);
+		Node neighborNode = allNodes.get(neighborKey);
+		if (neighborNode == null)
+		{
+			neighborNode = new Node(next);
+			neighborNode.headingIdx = primitive.getHeading();
+			allNodes.put(neighborKey, neighborNode);
+		}
 
-				double tentativeGScore = current.gScore + (tileCost * geometricDistance) + turningCost;
+		if (gScore < neighborNode.gScore)
+		{
+			neighborNode.parent = current;
+			neighborNode.gScore = gScore;
+			neighborNode.tilesSailed = sailed;
+			neighborNode.hScore = heuristic(next, goal);
+			neighborNode.fScore = neighborNode.gScore + neighborNode.hScore;
 
-				Node neighborNode = allNodes.get(neighborKey);
-				if (neighborNode == null)
-				{
-					neighborNode = new Node(neighbor);
-					neighborNode.headingIdx = nextHeading;
-					allNodes.put(neighborKey, neighborNode);
-				}
+			openSet.add(neighborNode);
+		}
+	}
 
-				if (tentativeGScore < neighborNode.gScore)
-				{
-					neighborNode.parent = current;
-					neighborNode.gScore = tentativeGScore;
-					neighborNode.hScore = heuristic(neighbor, goal);
-					neighborNode.fScore = neighborNode.gScore + neighborNode.hScore;
+	/**
+	 * Extends the path to a node along the baseline. The baseline only knows static obstacles, so each tile is
+	 * re-costed with the live calculator as the search would, and the path stops short of anything blocking it,
+	 * any cloud it would arrive in and any gap the hull wouldn't fit through.
+	 * Turning costs aren't added for the baseline part; it's replanned properly as the boat gets closer.
+	 * The result never counts as reaching the goal, since the tail wasn't searched.
+	 */
+	private PathResult followBaseline(BarracudaTileCostCalculator costCalculator, Node from, GoalDistanceField baseline,
+		int goalTolerance)
+	{
+		List<PathNode> pathNodes = reconstructPath(from);
+		WorldPoint position = from.position;
+		double cost = from.gScore;
+		double sailed = from.tilesSailed;
 
-					openSet.add(neighborNode);
-				}
+		for (WorldPoint next : baseline.descend(position, goalTolerance))
+		{
+			int dx = next.getX() - position.getX();
+			int dy = next.getY() - position.getY();
+			int heading = headingFromDirection(dx, dy);
+			double distance = dx != 0 && dy != 0 ? Math.sqrt(2) : 1.0;
+			if (costCalculator.isAvoidableHazard(next, heading, sailed + distance))
+			{
+				break;
 			}
+
+			double tileCost = costCalculator.getTileCost(position, next, heading, sailed + distance);
+			if (tileCost > 50000)
+			{
+				break;
+			}
+
+			sailed += distance;
+			cost += tileCost * distance;
+			pathNodes.add(new PathNode(next, cost));
+			position = next;
 		}
 
-		// If we failed to reach the goal, return the closest path we found
-		if (bestNodeSoFar != startNode)
+		if (pathNodes.size() < 2)
 		{
-			return new PathResult(reconstructPath(bestNodeSoFar), bestNodeSoFar.gScore, false);
+			return new PathResult(new ArrayList<>(), Double.POSITIVE_INFINITY, false);
 		}
+		return new PathResult(pathNodes, cost, false);
+	}
 
-		return new PathResult(new ArrayList<>(), Double.POSITIVE_INFINITY, false);
+	public long getTotalNodesExplored()
+	{
+		return totalNodesExplored;
+	}
+
+	public int getLastNodesExplored()
+	{
+		return lastNodesExplored;
+	}
+
+	public int getLastOpenSetPeak()
+	{
+		return lastOpenSetPeak;
 	}
 
 	private double calculateTurningCost(RouteOptimization routeOptimization, int absDelta)
@@ -215,7 +273,18 @@ public class AStarPathfinder
 		return 0;
 	}
 
-	private int dirIndex(int dx, int dy)
+	/**
+	 * Maps a boat direction (a path step, or the vector between two boat tiles) to a start heading index (15° steps)
+	 * by snapping it to the nearest of 8 directions, or -1 if there is no direction.
+	 * Finer headings, like the boat pose estimate's, are passed to {@link #findPathFromHeading} as an index instead.
+	 */
+	public static int headingFromDirection(int dx, int dy)
+	{
+		int baseDir8 = dirIndex(Integer.signum(dx), Integer.signum(dy));
+		return baseDir8 != -1 ? MotionPrimitives.dir8ToHeading(baseDir8) : -1;
+	}
+
+	private static int dirIndex(int dx, int dy)
 	{
 		for (int i = 0; i < DIRS.length; i++)
 		{
@@ -227,27 +296,6 @@ public class AStarPathfinder
 		return -1;
 	}
 
-	// Map 24 headings (15° each) to the dominant 8-way movement direction
-	private static final int[] HEADING_TO_DIR8 = {
-		0, 0,    // 0°, 15° -> E
-		1, 1, 1, // 30°,45°,60° -> NE
-		2, 2, 2, // 75°,90°,105° -> N
-		3, 3, 3, // 120°,135°,150° -> NW
-		4, 4, 4, // 165°,180°,195° -> W
-		5, 5, 5, // 210°,225°,240° -> SW
-		6, 6, 6, // 255°,270°,285° -> S
-		7, 7, 7, // 300°,315°,330° -> SE
-		0        // 345° -> E
-	};
-
-	private static final int[] DIR8_TO_HEADING24 = {0, 2, 5, 8, 12, 15, 18, 21};
-
-	private int headingToDir8(int headingIdx)
-	{
-		int idx = (headingIdx % 24 + 24) % 24;
-		return HEADING_TO_DIR8[idx];
-	}
-
 	private List<PathNode> reconstructPath(Node goalNode)
 	{
 		List<PathNode> pathNodes = new ArrayList<>();
@@ -310,6 +358,7 @@ public class AStarPathfinder
 		double gScore = Double.POSITIVE_INFINITY; // Cost from start to this node
 		double hScore = 0; // Heuristic cost from this node to goal
 		double fScore = Double.POSITIVE_INFINITY; // Total cost (g + h)
+		double tilesSailed = 0; // Distance from the start along this node's path, to estimate when the boat gets here
 
 		Node(WorldPoint position)
 		{
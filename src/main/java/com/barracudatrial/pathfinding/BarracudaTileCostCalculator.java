@@ -1,9 +1,9 @@
 package com.barracudatrial.pathfinding;
 
 import com.barracudatrial.RouteOptimization;
-import net.runelite.api.NPC;
 import net.runelite.api.coords.WorldPoint;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -11,6 +11,9 @@ import java.util.Set;
 
 public class BarracudaTileCostCalculator
 {
+	// Same threshold A* uses to treat a tile as impassable
+	private static final double BLOCKED_TILE_COST = 50000;
+
 	private final int exclusionZoneMinX;
 	private final int exclusionZoneMaxX;
 	private final int exclusionZoneMinY;
@@ -21,26 +24,31 @@ public class BarracudaTileCostCalculator
 	private final int boatExclusionWidth;
 	private final int boatExclusionHeight;
 	private final Set<WorldPoint> pathfindingHintTiles;
+	// Null if the hull size isn't known, in which case only the front tile is checked against rocks
+	private final HullClearanceMap hullClearance;
+	// Null if clouds haven't been forecast, in which case the clouds' current danger zones apply along the whole path
+	private final CloudDangerTimeline cloudTimeline;
 
 	private int speedBoostTilesRemaining = 0;
 	private WorldPoint lastTile = null;
 	private final Set<WorldPoint> consumedBoosts = new HashSet<>();
 
-	// Precomputed spatial lookups for O(1) cost checks
+	// Precomputed spatial lookups for O(1) cost checks, shared with every calculator for the same hazards
+	private final TileHazards hazards;
 	private final Set<WorldPoint> rockLocations;
 	private final Set<WorldPoint> closeToRocks;
 	private final Set<WorldPoint> cloudDangerZones;
 	private final Map<WorldPoint, List<WorldPoint>> boostGrabbableTiles;
 	private final Set<WorldPoint> fetidPoolLocations;
 	private final Set<WorldPoint> toadPillarLocations;
-	private Set<WorldPoint> closeToFetidPoolsAndToadPillars = new HashSet<>();
+	private final Set<WorldPoint> closeToFetidPoolsAndToadPillars;
 
+	/**
+	 * @param hazards Hazards of the recalculation, read but never copied; lookups built from them are shared
+	 * @param tilesSailedBefore Tiles planned before this search starts, for when forecast clouds will be met
+	 */
 	public BarracudaTileCostCalculator(
-		Map<WorldPoint, List<WorldPoint>> knownSpeedBoostLocations,
-		Set<WorldPoint> knownRockLocations,
-		Set<WorldPoint> knownFetidPoolLocations,
-		Set<WorldPoint> knownToadPillarLocations,
-		Set<NPC> lightningClouds,
+		TileHazards hazards,
 		int exclusionZoneMinX,
 		int exclusionZoneMaxX,
 		int exclusionZoneMinY,
@@ -50,7 +58,9 @@ public class BarracudaTileCostCalculator
 		RouteOptimization routeOptimization,
 		int boatExclusionWidth,
 		int boatExclusionHeight,
-		Set<WorldPoint> pathfindingHintTiles)
+		Set<WorldPoint> pathfindingHintTiles,
+		HullClearanceMap hullClearance,
+		double tilesSailedBefore)
 	{
 		this.exclusionZoneMinX = exclusionZoneMinX;
 		this.exclusionZoneMaxX = exclusionZoneMaxX;
@@ -61,19 +71,48 @@ public class BarracudaTileCostCalculator
 		this.routeOptimization = routeOptimization;
 		this.boatExclusionWidth = boatExclusionWidth;
 		this.boatExclusionHeight = boatExclusionHeight;
-		this.pathfindingHintTiles = pathfindingHintTiles != null ? pathfindingHintTiles : new HashSet<>();
-
-		this.rockLocations = knownRockLocations;
-		this.closeToRocks = precomputeTileProximity(rockLocations, 1);
-		this.cloudDangerZones = precomputeCloudDangerZones(lightningClouds);
-		this.boostGrabbableTiles = knownSpeedBoostLocations;
-		this.fetidPoolLocations = knownFetidPoolLocations;
-		this.toadPillarLocations = knownToadPillarLocations;
-		this.closeToFetidPoolsAndToadPillars = precomputeTileProximity(fetidPoolLocations, 1);
-		this.closeToFetidPoolsAndToadPillars.addAll(precomputeTileProximity(toadPillarLocations, 1));
+		this.pathfindingHintTiles = pathfindingHintTiles != null ? new HashSet<>(pathfindingHintTiles) : new HashSet<>();
+		this.hullClearance = hullClearance;
+		this.cloudTimeline = hazards.getCloudTimeline() != null ? hazards.getCloudTimeline().afterSailing(tilesSailedBefore) : null;
+
+		this.hazards = hazards;
+		this.rockLocations = hazards.getRockLocations();
+		this.closeToRocks = hazards.getCloseToRocks();
+		this.cloudDangerZones = hazards.getCloudDangerZones();
+		this.boostGrabbableTiles = hazards.getBoostGrabbableTiles();
+		this.fetidPoolLocations = hazards.getFetidPoolLocations();
+		this.toadPillarLocations = hazards.getToadPillarLocations();
+		this.closeToFetidPoolsAndToadPillars = hazards.getCloseToFetidPoolsAndToadPillars();
+	}
+
+	/**
+	 * Calculator for the hazards that don't move during a trial, with no boosts, clouds, objectives, hints or hull,
+	 * for planning ahead of time: route baselines and the route optimizer
+	 */
+	public static BarracudaTileCostCalculator staticObstacles(Set<WorldPoint> rocks, Set<WorldPoint> fetidPools,
+		Set<WorldPoint> toadPillars, RouteOptimization routeOptimization)
+	{
+		return new BarracudaTileCostCalculator(
+			TileHazards.copyOf(Map.of(), rocks, fetidPools, toadPillars, Set.of(), null),
+			0, 0, 0, 0,
+			null, null,
+			routeOptimization,
+			0, 0,
+			Set.of(),
+			null,
+			0
+		);
 	}
 
 	public double getTileCost(WorldPoint from, WorldPoint to)
+	{
+		return getTileCost(from, to, 0.0);
+	}
+
+	/**
+	 * @param tilesSailed Tiles sailed from the search start to reach {@code to}, for when clouds will be there
+	 */
+	private double getTileCost(WorldPoint from, WorldPoint to, double tilesSailed)
 	{
 		if (pathfindingHintTiles.contains(to))
 		{
@@ -119,7 +158,7 @@ public class BarracudaTileCostCalculator
 		{
 			cost = maxTileCost;
 		}
-		else if (cloudDangerZones.contains(to))
+		else if (isCloudDangerous(to, tilesSailed))
 		{
 			cost += 200;
 			speedBoostTilesRemaining = 0;
@@ -156,6 +195,45 @@ public class BarracudaTileCostCalculator
 		return cost;
 	}
 
+	/**
+	 * Cost of moving the front tile onto {@code to} while pointing along {@code headingIdx}, including the rest of
+	 * the hull scraping past rocks
+	 * @param tilesSailed Tiles sailed from the search start to reach {@code to}, for when clouds will be there
+	 */
+	public double getTileCost(WorldPoint from, WorldPoint to, int headingIdx, double tilesSailed)
+	{
+		double cost = getTileCost(from, to, tilesSailed);
+		if (hullClearance != null && cost < BLOCKED_TILE_COST && !pathfindingHintTiles.contains(to)
+			&& hullClearance.isClipped(to, headingIdx))
+		{
+			cost += 100; // Discouraged but allowed; the hull sizes are approximate and hinted gaps are known to fit
+		}
+		return cost;
+	}
+
+	/**
+	 * Whether the front tile on {@code to} would be in a cloud by the time it gets there, or the hull would clip a rock.
+	 * Both are only penalised by {@link #getTileCost}, so callers that can't weigh alternatives use this to stop instead.
+	 */
+	public boolean isAvoidableHazard(WorldPoint to, int headingIdx, double tilesSailed)
+	{
+		if (pathfindingHintTiles.contains(to))
+		{
+			return false;
+		}
+		return isCloudDangerous(to, tilesSailed) || (hullClearance != null && hullClearance.isClipped(to, headingIdx));
+	}
+
+	public Set<WorldPoint> getPathfindingHintTiles()
+	{
+		return pathfindingHintTiles;
+	}
+
+	private boolean isCloudDangerous(WorldPoint tile, double tilesSailed)
+	{
+		return cloudTimeline != null ? cloudTimeline.isDangerous(tile, tilesSailed) : cloudDangerZones.contains(tile);
+	}
+
 	private WorldPoint getUnconsumedBoost(WorldPoint tile)
 	{
 		List<WorldPoint> boosts = boostGrabbableTiles.get(tile);
@@ -167,15 +245,58 @@ public class BarracudaTileCostCalculator
 	}
 
 	/**
-	 * Get a snapshot of all current danger zones for path stability tracking
+	 * Get a snapshot of all current danger zones for path stability tracking.
+	 * Built once per set of hazards, so every segment of a recalculation shares it.
 	 */
-	public Set<WorldPoint> getDangerZoneSnapshot()
+	public DangerZoneSnapshot getDangerZoneSnapshot()
 	{
-		Set<WorldPoint> snapshot = new HashSet<>();
-		snapshot.addAll(cloudDangerZones);
-		snapshot.addAll(rockLocations);
-		snapshot.addAll(fetidPoolLocations);
-		return snapshot;
+		return hazards.getDangerZoneSnapshot();
+	}
+
+	/**
+	 * Everything that sets tile costs inside a box, for telling whether a search there would come out the same as
+	 * before: the settings that apply everywhere, then each rock, pool, pillar, boost and hint tile in the box.
+	 * Compared with {@link Arrays#equals(long[], long[])}, so two different boxes never pass for the same.
+	 * The hazards' tiles come from an index shared by every calculator for them; only the hints are gone through here.
+	 * @return The inputs, or null if a cloud is or will be in the box. Which tiles a cloud covers by the time the
+	 *         boat arrives depends on how far it sailed before, which isn't part of the box.
+	 */
+	public long[] getRegionInputs(int minX, int minY, int maxX, int maxY)
+	{
+		if (!hazards.getCloudIndex().isEmptyInBox(minX, minY, maxX, maxY))
+		{
+			return null;
+		}
+
+		long[] settings = {
+			routeOptimization.ordinal(),
+			exclusionZoneMinX,
+			exclusionZoneMaxX,
+			exclusionZoneMinY,
+			exclusionZoneMaxY,
+			primaryObjectiveLocation != null ? RegionIndex.pack(0, primaryObjectiveLocation) : -1,
+			secondaryObjectiveLocation != null ? RegionIndex.pack(0, secondaryObjectiveLocation) : -1,
+			boatExclusionWidth,
+			boatExclusionHeight,
+			hullClearance != null ? hullClearance.getHullLength() : -1,
+			hullClearance != null ? hullClearance.getHullWidth() : -1
+		};
+		long[] tiles = hazards.getHazardIndex().getTilesInBox(minX, minY, maxX, maxY);
+
+		long[] inputs = Arrays.copyOf(settings, settings.length + tiles.length + pathfindingHintTiles.size());
+		System.arraycopy(tiles, 0, inputs, settings.length, tiles.length);
+		int end = settings.length + tiles.length;
+		for (WorldPoint hint : pathfindingHintTiles)
+		{
+			if (hint.getX() >= minX && hint.getX() <= maxX && hint.getY() >= minY && hint.getY() <= maxY)
+			{
+				inputs[end++] = RegionIndex.pack(4, hint);
+			}
+		}
+
+		// Hints pack above every hazard kind, so sorting them on their own keeps the tiles in order
+		Arrays.sort(inputs, settings.length + tiles.length, end);
+		return Arrays.copyOf(inputs, end);
 	}
 
 	private boolean isInExclusionZone(WorldPoint point)
@@ -231,76 +352,4 @@ public class BarracudaTileCostCalculator
 
 		return Math.sqrt(dx * dx + dy * dy);
 	}
-
-	private Set<WorldPoint> precomputeTileProximity(Set<WorldPoint> locations, int maxDistance)
-	{
-		Set<WorldPoint> proximityTiles = new HashSet<>();
-		int maxDistSq = maxDistance * maxDistance;
-
-		for (WorldPoint location : locations)
-		{
-			int baseX = location.getX();
-			int baseY = location.getY();
-			int plane = location.getPlane();
-
-			for (int dx = -maxDistance; dx <= maxDistance; dx++)
-			{
-				int dxSq = dx * dx;
-
-				for (int dy = -maxDistance; dy <= maxDistance; dy++)
-				{
-					if (dx == 0 && dy == 0)
-					{
-						continue; // skip the location tile itself
-					}
-
-					int distSq = dxSq + dy * dy;
-					if (distSq > maxDistSq)
-					{
-						continue;
-					}
-
-					WorldPoint tile = new WorldPoint(baseX + dx, baseY + dy, plane);
-
-					// Don't consider tiles that are themselves location tiles
-					if (!locations.contains(tile))
-					{
-						proximityTiles.add(tile);
-					}
-				}
-			}
-		}
-
-		return proximityTiles;
-	}
-
-	/**
-	 * Precomputes all tiles within cloud danger zones for O(1) lookup
-	 */
-	private Set<WorldPoint> precomputeCloudDangerZones(Set<NPC> lightningClouds)
-	{
-		Set<WorldPoint> dangerZones = new HashSet<>();
-
-		for (NPC cloud : lightningClouds)
-		{
-			WorldPoint cloudLoc = cloud.getWorldLocation();
-			int plane = cloudLoc.getPlane();
-
-			// Add all tiles within distance 3 of cloud
-			for (int dx = -3; dx <= 3; dx++)
-			{
-				for (int dy = -3; dy <= 3; dy++)
-				{
-					WorldPoint tile = new WorldPoint(cloudLoc.getX() + dx, cloudLoc.getY() + dy, plane);
-					double dist = Math.sqrt(dx * dx + dy * dy);
-					if (dist <= 3)
-					{
-						dangerZones.add(tile);
-					}
-				}
-			}
-		}
-
-		return dangerZones;
-	}
 }
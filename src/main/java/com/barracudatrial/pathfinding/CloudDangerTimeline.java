@@ -0,0 +1,110 @@
+package com.barracudatrial.pathfinding;
+
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cloud danger tiles for each of the next few ticks, so a tile only costs extra if a cloud is expected to be over it
+ * and striking when the boat gets there.
+ * Arrival is estimated from tiles sailed along the path at the boat's current speed. Past the horizon the forecasts
+ * are too rough to plan around, so the last tick's tiles stand in for everything later.
+ */
+public class CloudDangerTimeline
+{
+	public static final int HORIZON_TICKS = 16;
+	public static final int DANGER_RADIUS = 3;
+
+	// Index is ticks from the forecast, 0..HORIZON_TICKS
+	private final List<Set<WorldPoint>> dangerByTick;
+	// Every tile that's dangerous at some point within the horizon, for telling new dangers from predicted ones
+	@Getter
+	private final Set<WorldPoint> allDangerTiles;
+	private final double tilesPerTick;
+	private final double tilesSailedBefore;
+
+	private CloudDangerTimeline(List<Set<WorldPoint>> dangerByTick, Set<WorldPoint> allDangerTiles, double tilesPerTick, double tilesSailedBefore)
+	{
+		this.dangerByTick = dangerByTick;
+		this.allDangerTiles = allDangerTiles;
+		this.tilesPerTick = tilesPerTick;
+		this.tilesSailedBefore = tilesSailedBefore;
+	}
+
+	/**
+	 * @param tilesPerTick Expected boat speed, used to turn tiles sailed into arrival ticks
+	 */
+	public static CloudDangerTimeline build(List<CloudForecast> forecasts, double tilesPerTick)
+	{
+		List<Set<WorldPoint>> dangerByTick = new ArrayList<>(HORIZON_TICKS + 1);
+		Set<WorldPoint> allDangerTiles = new HashSet<>();
+		Set<WorldPoint> previous = null;
+
+		for (int tick = 0; tick <= HORIZON_TICKS; tick++)
+		{
+			Set<WorldPoint> tiles = new HashSet<>();
+			for (CloudForecast forecast : forecasts)
+			{
+				if (forecast.isDangerousAt(tick))
+				{
+					addDangerDisc(tiles, forecast.locationAt(tick));
+				}
+			}
+
+			// Still clouds give the same tiles every tick; share the set rather than keep copies
+			if (tiles.equals(previous))
+			{
+				tiles = previous;
+			}
+			else
+			{
+				tiles = Collections.unmodifiableSet(tiles);
+				allDangerTiles.addAll(tiles);
+			}
+			dangerByTick.add(tiles);
+			previous = tiles;
+		}
+
+		return new CloudDangerTimeline(dangerByTick, Collections.unmodifiableSet(allDangerTiles), tilesPerTick, 0);
+	}
+
+	/**
+	 * @return The same timeline for a search starting this many tiles further along the path
+	 */
+	public CloudDangerTimeline afterSailing(double tiles)
+	{
+		return new CloudDangerTimeline(dangerByTick, allDangerTiles, tilesPerTick, tiles);
+	}
+
+	/**
+	 * @param tilesSailed Tiles sailed from the search start to reach the tile
+	 */
+	public boolean isDangerous(WorldPoint tile, double tilesSailed)
+	{
+		int tick = (int) Math.min(HORIZON_TICKS, Math.round((tilesSailedBefore + tilesSailed) / tilesPerTick));
+		return dangerByTick.get(tick).contains(tile);
+	}
+
+	/**
+	 * Adds every tile within {@link #DANGER_RADIUS} of a cloud
+	 */
+	public static void addDangerDisc(Set<WorldPoint> tiles, WorldPoint cloud)
+	{
+		int plane = cloud.getPlane();
+		for (int dx = -DANGER_RADIUS; dx <= DANGER_RADIUS; dx++)
+		{
+			for (int dy = -DANGER_RADIUS; dy <= DANGER_RADIUS; dy++)
+			{
+				if (dx * dx + dy * dy <= DANGER_RADIUS * DANGER_RADIUS)
+				{
+					tiles.add(new WorldPoint(cloud.getX() + dx, cloud.getY() + dy, plane));
+				}
+			}
+		}
+	}
+}
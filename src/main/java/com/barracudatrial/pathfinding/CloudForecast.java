@@ -0,0 +1,67 @@
+package com.barracudatrial.pathfinding;
+
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Where one lightning cloud is heading and when it will next strike, as of the tick it was observed.
+ * Drift is extrapolated in a straight line; strikes follow the cloud's current phase and then the learned cycle.
+ */
+@Getter
+public class CloudForecast
+{
+	private final WorldPoint location;
+	// Tiles per game tick
+	private final double velocityX;
+	private final double velocityY;
+	private final boolean dangerous;
+	// Ticks until the current phase ends, or -1 if that isn't known yet (the phase is then assumed to last)
+	private final int ticksUntilPhaseChange;
+	// Learned phase lengths in ticks, or -1 if not seen yet
+	private final int dangerousTicks;
+	private final int safeTicks;
+
+	public CloudForecast(WorldPoint location, double velocityX, double velocityY, boolean dangerous,
+		int ticksUntilPhaseChange, int dangerousTicks, int safeTicks)
+	{
+		this.location = location;
+		this.velocityX = velocityX;
+		this.velocityY = velocityY;
+		this.dangerous = dangerous;
+		this.ticksUntilPhaseChange = ticksUntilPhaseChange;
+		this.dangerousTicks = dangerousTicks;
+		this.safeTicks = safeTicks;
+	}
+
+	public WorldPoint locationAt(int ticksAhead)
+	{
+		int dx = (int) Math.round(velocityX * ticksAhead);
+		int dy = (int) Math.round(velocityY * ticksAhead);
+		if (dx == 0 && dy == 0)
+		{
+			return location;
+		}
+		return new WorldPoint(location.getX() + dx, location.getY() + dy, location.getPlane());
+	}
+
+	public boolean isDangerousAt(int ticksAhead)
+	{
+		if (ticksUntilPhaseChange < 0 || ticksAhead < ticksUntilPhaseChange)
+		{
+			return dangerous;
+		}
+
+		boolean phaseDangerous = !dangerous;
+		int remaining = ticksAhead - ticksUntilPhaseChange;
+		while (true)
+		{
+			int phaseTicks = phaseDangerous ? dangerousTicks : safeTicks;
+			if (phaseTicks <= 0 || remaining < phaseTicks)
+			{
+				return phaseDangerous;
+			}
+			remaining -= phaseTicks;
+			phaseDangerous = !phaseDangerous;
+		}
+	}
+}
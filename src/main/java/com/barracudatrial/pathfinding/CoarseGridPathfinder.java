@@ -0,0 +1,265 @@
+package com.barracudatrial.pathfinding;
+
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Rough path over square cells of tiles with no heading, for lookahead segments the boat won't reach for a while.
+ * Those are thrown away and searched again in full once they become the current segment, so only their rough line
+ * and cost matter; a 4x4 grid without headings has hundreds of times fewer states than tiles x 24 headings.
+ * <p>
+ * Each cell is summarised from the same tile costs A* uses: the cost of sailing through it is the mean of its
+ * passable tiles, plus a penalty for the share that's blocked, and the path passes through its cheapest tile
+ * (nearest the centre on ties). Cells with nothing passable are impassable. The returned path is joined up tile by
+ * tile between those points, so it may clip a corner the full search would sail around.
+ */
+public class CoarseGridPathfinder
+{
+	// Same threshold A* uses to treat a tile as impassable
+	private static final double BLOCKED_TILE_COST = 50000;
+	// Extra per-tile cost of a cell that's entirely blocked but one tile, scaled down by the passable share
+	private static final double BLOCKED_SHARE_PENALTY = 100;
+
+	private static final int[][] DIRS = {
+		{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}
+	};
+
+	@Getter
+	private int lastCellsExplored;
+
+	/**
+	 * @param cellSize Tiles per cell side, at least 2
+	 * @param maxSearchDistance Same budget A* is given, in tiles; the cell budget is scaled to match
+	 * @return Path from start to goal; if the goal isn't reached the path is empty, so the caller can search in full
+	 */
+	public PathResult findPath(BarracudaTileCostCalculator costCalculator, WorldPoint start, WorldPoint goal, int goalTolerance,
+		int cellSize, int maxSearchDistance)
+	{
+		var grid = new CellGrid(costCalculator, cellSize, start.getPlane());
+		long startKey = grid.keyOf(start);
+		long goalKey = grid.keyOf(goal);
+		int maxCells = Math.max(16, (2 * maxSearchDistance / cellSize) * (2 * maxSearchDistance / cellSize));
+
+		Map<Long, Double> distances = new HashMap<>();
+		Map<Long, Long> parents = new HashMap<>();
+		// Entries are {distance + estimate, cell key, distance}
+		PriorityQueue<double[]> open = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+		distances.put(startKey, 0.0);
+		open.add(new double[] {estimate(start, goal), startKey, 0});
+		lastCellsExplored = 0;
+
+		while (!open.isEmpty())
+		{
+			double[] entry = open.poll();
+			long key = (long) entry[1];
+			double distanceSoFar = entry[2];
+			if (distanceSoFar > distances.get(key))
+			{
+				continue;
+			}
+
+			if (grid.isWithinTolerance(key, goal, goalTolerance))
+			{
+				return buildPath(grid, start, goal, goalTolerance, key, parents);
+			}
+
+			if (++lastCellsExplored > maxCells)
+			{
+				break;
+			}
+
+			Cell cell = grid.get(key);
+			// The start cell is left from the start tile itself, not its representative
+			WorldPoint from = key == startKey ? start : cell.representative;
+			for (int[] dir : DIRS)
+			{
+				long neighborKey = CellGrid.key(CellGrid.cellX(key) + dir[0], CellGrid.cellY(key) + dir[1]);
+				Cell neighbor = grid.get(neighborKey);
+				boolean isGoalCell = neighborKey == goalKey;
+				// The goal itself may be blocked (a toad pillar); its cell still counts as reached
+				if (neighbor.costPerTile == Double.POSITIVE_INFINITY && !isGoalCell)
+				{
+					continue;
+				}
+
+				WorldPoint to = isGoalCell ? goal : neighbor.representative;
+				double costPerTile = neighbor.costPerTile == Double.POSITIVE_INFINITY ? BLOCKED_SHARE_PENALTY : neighbor.costPerTile;
+				double distance = distanceSoFar + costPerTile * Math.hypot(to.getX() - from.getX(), to.getY() - from.getY());
+				Double known = distances.get(neighborKey);
+				if (known == null || distance < known)
+				{
+					distances.put(neighborKey, distance);
+					parents.put(neighborKey, key);
+					open.add(new double[] {distance + estimate(to, goal), neighborKey, distance});
+				}
+			}
+		}
+
+		return new PathResult(new ArrayList<>(), Double.POSITIVE_INFINITY, false);
+	}
+
+	/**
+	 * Open-water cost of the straight line to the goal. Boosts and hints can beat it, so unlike A*'s this isn't a
+	 * safe lower bound, but a rough path doesn't need to be the cheapest and this keeps the search headed at the goal.
+	 */
+	private static double estimate(WorldPoint from, WorldPoint goal)
+	{
+		int dx = Math.abs(from.getX() - goal.getX());
+		int dy = Math.abs(from.getY() - goal.getY());
+		return Math.max(dx, dy) + (Math.sqrt(2) - 1) * Math.min(dx, dy);
+	}
+
+	private PathResult buildPath(CellGrid grid, WorldPoint start, WorldPoint goal, int goalTolerance, long goalKey, Map<Long, Long> parents)
+	{
+		List<Long> cells = new ArrayList<>();
+		for (Long key = goalKey; key != null; key = parents.get(key))
+		{
+			cells.add(0, key);
+		}
+
+		List<PathNode> pathNodes = new ArrayList<>();
+		pathNodes.add(new PathNode(start, 0));
+		WorldPoint position = start;
+		double cost = 0;
+		// With the goal in the start cell there's no cell to pass through, just the walk within it
+		for (int i = Math.min(1, cells.size() - 1); i < cells.size(); i++)
+		{
+			Cell cell = grid.get(cells.get(i));
+			WorldPoint target = i == cells.size() - 1 ? goal : cell.representative;
+			// Walk diagonally until lined up, then straight, as A* would on open water
+			while (!position.equals(target)
+				&& Math.max(Math.abs(position.getX() - goal.getX()), Math.abs(position.getY() - goal.getY())) > goalTolerance)
+			{
+				int dx = Integer.signum(target.getX() - position.getX());
+				int dy = Integer.signum(target.getY() - position.getY());
+				position = new WorldPoint(position.getX() + dx, position.getY() + dy, position.getPlane());
+				// Charged at the cell being entered, as the search did, even where the line cuts a neighbouring cell
+				cost += cell.costPerTile * (dx != 0 && dy != 0 ? Math.sqrt(2) : 1.0);
+				pathNodes.add(new PathNode(position, cost));
+			}
+		}
+
+		return new PathResult(pathNodes, cost, true);
+	}
+
+	/**
+	 * Lazily summarised cells, keyed by packed cell coordinates. Each tile is costed at most once, since the
+	 * calculator tracks boosts as tiles are costed.
+	 */
+	private static class CellGrid
+	{
+		private final BarracudaTileCostCalculator costCalculator;
+		private final int cellSize;
+		private final int plane;
+		private final Map<Long, Cell> cells = new HashMap<>();
+
+		CellGrid(BarracudaTileCostCalculator costCalculator, int cellSize, int plane)
+		{
+			this.costCalculator = costCalculator;
+			this.cellSize = cellSize;
+			this.plane = plane;
+		}
+
+		long keyOf(WorldPoint tile)
+		{
+			return key(Math.floorDiv(tile.getX(), cellSize), Math.floorDiv(tile.getY(), cellSize));
+		}
+
+		/**
+		 * @return true if any tile of the cell is within the tolerance of the goal, so reaching the cell reaches the goal
+		 */
+		boolean isWithinTolerance(long key, WorldPoint goal, int goalTolerance)
+		{
+			int minX = cellX(key) * cellSize;
+			int minY = cellY(key) * cellSize;
+			int dx = Math.max(0, Math.max(minX - goal.getX(), goal.getX() - (minX + cellSize - 1)));
+			int dy = Math.max(0, Math.max(minY - goal.getY(), goal.getY() - (minY + cellSize - 1)));
+			return Math.max(dx, dy) <= goalTolerance;
+		}
+
+		static long key(int cellX, int cellY)
+		{
+			return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+		}
+
+		static int cellX(long key)
+		{
+			return (int) (key >> 32);
+		}
+
+		static int cellY(long key)
+		{
+			return (int) key;
+		}
+
+		Cell get(long key)
+		{
+			return cells.computeIfAbsent(key, this::summarise);
+		}
+
+		private Cell summarise(long key)
+		{
+			int originX = cellX(key) * cellSize;
+			int originY = cellY(key) * cellSize;
+			double center = (cellSize - 1) / 2.0;
+
+			double totalCost = 0;
+			int passable = 0;
+			WorldPoint representative = null;
+			double representativeCost = Double.POSITIVE_INFINITY;
+			double representativeOffset = Double.POSITIVE_INFINITY;
+			for (int dx = 0; dx < cellSize; dx++)
+			{
+				for (int dy = 0; dy < cellSize; dy++)
+				{
+					WorldPoint tile = new WorldPoint(originX + dx, originY + dy, plane);
+					double tileCost = costCalculator.getTileCost(tile, tile);
+					if (tileCost > BLOCKED_TILE_COST)
+					{
+						continue;
+					}
+
+					totalCost += tileCost;
+					passable++;
+
+					double offset = Math.abs(dx - center) + Math.abs(dy - center);
+					if (tileCost < representativeCost || (tileCost == representativeCost && offset < representativeOffset))
+					{
+						representative = tile;
+						representativeCost = tileCost;
+						representativeOffset = offset;
+					}
+				}
+			}
+
+			if (passable == 0)
+			{
+				return new Cell(null, Double.POSITIVE_INFINITY);
+			}
+
+			int tileCount = cellSize * cellSize;
+			double blockedShare = (tileCount - passable) / (double) (tileCount - 1);
+			// Hints and boosts can make tiles negative; a cell never pays back for being sailed through
+			double costPerTile = Math.max(0, totalCost / passable) + blockedShare * BLOCKED_SHARE_PENALTY;
+			return new Cell(representative, costPerTile);
+		}
+	}
+
+	private static class Cell
+	{
+		final WorldPoint representative;
+		final double costPerTile;
+
+		Cell(WorldPoint representative, double costPerTile)
+		{
+			this.representative = representative;
+			this.costPerTile = costPerTile;
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package com.barracudatrial.pathfinding;
+
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bitset of every danger tile (clouds, rocks, fetid pools) at the moment a path was planned.
+ * Each row is one world Y; each row is split into 64-tile words aligned to world X multiples of 64.
+ * Because the word grid is anchored to world coordinates, two snapshots built from different tile sets
+ * still line up word-for-word, so "what's new since then" is a plain AND-NOT per word.
+ * <p>
+ * The words only cover the bounding box of the tiles, not a fixed grid over the whole trial: the plugin doesn't
+ * know the trial areas' bounds, and the box is far smaller than the scene. Lookups outside the box read as empty.
+ */
+public class DangerZoneSnapshot
+{
+	@Getter
+	private final int tileCount;
+
+	private final int plane;
+	private final int minWordX;
+	private final int minY;
+	private final int wordsPerRow;
+	private final int rows;
+	private final long[] words;
+
+	private DangerZoneSnapshot(int plane, int minWordX, int minY, int wordsPerRow, int rows, long[] words, int tileCount)
+	{
+		this.plane = plane;
+		this.minWordX = minWordX;
+		this.minY = minY;
+		this.wordsPerRow = wordsPerRow;
+		this.rows = rows;
+		this.words = words;
+		this.tileCount = tileCount;
+	}
+
+	/**
+	 * Builds a snapshot covering the union of the given tile sets.
+	 * Tiles on a different plane than the first tile seen are ignored (trials are single-plane).
+	 */
+	@SafeVarargs
+	public static DangerZoneSnapshot fromTileSets(Set<WorldPoint>... tileSets)
+	{
+		int plane = Integer.MIN_VALUE;
+		int minX = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxY = Integer.MIN_VALUE;
+
+		for (Set<WorldPoint> tiles : tileSets)
+		{
+			for (WorldPoint tile : tiles)
+			{
+				if (plane == Integer.MIN_VALUE)
+				{
+					plane = tile.getPlane();
+				}
+				else if (tile.getPlane() != plane)
+				{
+					continue;
+				}
+
+				minX = Math.min(minX, tile.getX());
+				maxX = Math.max(maxX, tile.getX());
+				minY = Math.min(minY, tile.getY());
+				maxY = Math.max(maxY, tile.getY());
+			}
+		}
+
+		if (plane == Integer.MIN_VALUE)
+		{
+			return new DangerZoneSnapshot(0, 0, 0, 0, 0, new long[0], 0);
+		}
+
+		int minWordX = minX >> 6;
+		int wordsPerRow = (maxX >> 6) - minWordX + 1;
+		int rows = maxY - minY + 1;
+		long[] words = new long[wordsPerRow * rows];
+		int tileCount = 0;
+
+		for (Set<WorldPoint> tiles : tileSets)
+		{
+			for (WorldPoint tile : tiles)
+			{
+				if (tile.getPlane() != plane)
+				{
+					continue;
+				}
+
+				int index = (tile.getY() - minY) * wordsPerRow + ((tile.getX() >> 6) - minWordX);
+				long bit = 1L << (tile.getX() & 63);
+				if ((words[index] & bit) == 0)
+				{
+					words[index] |= bit;
+					tileCount++;
+				}
+			}
+		}
+
+		return new DangerZoneSnapshot(plane, minWordX, minY, wordsPerRow, rows, words, tileCount);
+	}
+
+	public boolean contains(WorldPoint tile)
+	{
+		return (wordAt(tile.getPlane(), tile.getX() >> 6, tile.getY()) & (1L << (tile.getX() & 63))) != 0;
+	}
+
+	/**
+	 * @return true if any path tile from fromIndex onward is dangerous now but wasn't in the older snapshot
+	 */
+	public boolean hasNewDangerAlongPath(DangerZoneSnapshot older, List<PathNode> pathNodes, int fromIndex)
+	{
+		if (older == this || tileCount == 0)
+		{
+			return false;
+		}
+
+		// Consecutive path tiles usually share a word, so only recompute the diff when the word changes
+		int cachedWordX = Integer.MIN_VALUE;
+		int cachedY = Integer.MIN_VALUE;
+		int cachedPlane = Integer.MIN_VALUE;
+		long newDangerWord = 0;
+
+		for (int i = Math.max(0, fromIndex); i < pathNodes.size(); i++)
+		{
+			WorldPoint tile = pathNodes.get(i).getPosition();
+			int wordX = tile.getX() >> 6;
+			int y = tile.getY();
+			int tilePlane = tile.getPlane();
+
+			if (wordX != cachedWordX || y != cachedY || tilePlane != cachedPlane)
+			{
+				cachedWordX = wordX;
+				cachedY = y;
+				cachedPlane = tilePlane;
+				newDangerWord = wordAt(tilePlane, wordX, y) & ~older.wordAt(tilePlane, wordX, y);
+			}
+
+			if ((newDangerWord & (1L << (tile.getX() & 63))) != 0)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	public boolean hasSameTilesAs(DangerZoneSnapshot other)
+	{
+		if (other == this)
+		{
+			return true;
+		}
+
+		return other != null
+			&& tileCount == other.tileCount
+			&& plane == other.plane
+			&& minWordX == other.minWordX
+			&& minY == other.minY
+			&& wordsPerRow == other.wordsPerRow
+			&& rows == other.rows
+			&& Arrays.equals(words, other.words);
+	}
+
+	private long wordAt(int tilePlane, int wordX, int y)
+	{
+		if (tilePlane != plane)
+		{
+			return 0;
+		}
+
+		int column = wordX - minWordX;
+		int row = y - minY;
+		if (column < 0 || column >= wordsPerRow || row < 0 || row >= rows)
+		{
+			return 0;
+		}
+
+		return words[row * wordsPerRow + column];
+	}
+}
@@ -0,0 +1,246 @@
+package com.barracudatrial.pathfinding;
+
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Cost from every tile in a box to one route waypoint, considering only static obstacles.
+ * Computed once per waypoint (see {@link #compute}) and kept between sessions, so the live search only has to
+ * handle the stretch near the boat where clouds and boosts matter and can follow the field the rest of the way.
+ * <p>
+ * Costs are quantized to 1/{@link #COST_SCALE} of a tile and rounded down, so a field never overstates a cost.
+ * Tiles that can't reach the goal (or are blocked themselves) hold {@link #UNREACHABLE}.
+ */
+public class GoalDistanceField
+{
+	public static final int COST_SCALE = 4;
+	public static final char UNREACHABLE = 0xFFFF;
+	private static final char MAX_COST = UNREACHABLE - 1;
+	// Same threshold A* uses to treat a tile as impassable
+	private static final double BLOCKED_TILE_COST = 50000;
+
+	private static final int[][] DIRS = {
+		{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}
+	};
+
+	@Getter
+	private final WorldPoint goal;
+	@Getter
+	private final int goalTolerance;
+	@Getter
+	private final int originX;
+	@Getter
+	private final int originY;
+	@Getter
+	private final int width;
+	@Getter
+	private final int height;
+	// Row-major, (y - originY) * width + (x - originX); may be a view of a loaded file
+	private final CharBuffer costs;
+
+	public GoalDistanceField(WorldPoint goal, int goalTolerance, int originX, int originY, int width, int height, CharBuffer costs)
+	{
+		if (costs.remaining() < width * height)
+		{
+			throw new IllegalArgumentException("Expected " + width * height + " costs, got " + costs.remaining());
+		}
+
+		this.goal = goal;
+		this.goalTolerance = goalTolerance;
+		this.originX = originX;
+		this.originY = originY;
+		this.width = width;
+		this.height = height;
+		this.costs = costs;
+	}
+
+	/**
+	 * Runs Dijkstra outward from the goal over the box, with 8-way moves costed the same way A* costs them
+	 * @param staticCosts Calculator built from static obstacles only; no clouds, boosts or hints
+	 */
+	public static GoalDistanceField compute(BarracudaTileCostCalculator staticCosts, WorldPoint goal, int goalTolerance, int originX, int originY, int width, int height)
+	{
+		int plane = goal.getPlane();
+		int tileCount = width * height;
+
+		// Moving onto a tile costs the same whichever neighbour we come from, so look each one up once
+		double[] tileCosts = new double[tileCount];
+		for (int i = 0; i < tileCount; i++)
+		{
+			WorldPoint tile = new WorldPoint(originX + i % width, originY + i / width, plane);
+			tileCosts[i] = staticCosts.getTileCost(tile, tile);
+		}
+
+		double[] distances = new double[tileCount];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		PriorityQueue<double[]> open = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+
+		for (int dx = -goalTolerance; dx <= goalTolerance; dx++)
+		{
+			for (int dy = -goalTolerance; dy <= goalTolerance; dy++)
+			{
+				int x = goal.getX() + dx - originX;
+				int y = goal.getY() + dy - originY;
+				if (x >= 0 && x < width && y >= 0 && y < height && tileCosts[y * width + x] <= BLOCKED_TILE_COST)
+				{
+					distances[y * width + x] = 0;
+					open.add(new double[] {0, y * width + x});
+				}
+			}
+		}
+
+		while (!open.isEmpty())
+		{
+			double[] entry = open.poll();
+			int index = (int) entry[1];
+			if (entry[0] > distances[index])
+			{
+				continue;
+			}
+
+			int x = index % width;
+			int y = index / width;
+			// Reversed edges: a neighbour reaches the goal through this tile by paying this tile's cost
+			double enterCost = tileCosts[index];
+			for (int[] dir : DIRS)
+			{
+				int nx = x + dir[0];
+				int ny = y + dir[1];
+				if (nx < 0 || nx >= width || ny < 0 || ny >= height)
+				{
+					continue;
+				}
+
+				int neighbor = ny * width + nx;
+				if (tileCosts[neighbor] > BLOCKED_TILE_COST)
+				{
+					continue;
+				}
+
+				boolean isDiagonal = dir[0] != 0 && dir[1] != 0;
+				double distance = distances[index] + enterCost * (isDiagonal ? Math.sqrt(2) : 1.0);
+				if (distance < distances[neighbor])
+				{
+					distances[neighbor] = distance;
+					open.add(new double[] {distance, neighbor});
+				}
+			}
+		}
+
+		CharBuffer costs = CharBuffer.allocate(tileCount);
+		for (int i = 0; i < tileCount; i++)
+		{
+			costs.put(i, quantize(distances[i]));
+		}
+		return new GoalDistanceField(goal, goalTolerance, originX, originY, width, height, costs);
+	}
+
+	private static char quantize(double distance)
+	{
+		if (Double.isInfinite(distance))
+		{
+			return UNREACHABLE;
+		}
+		return (char) Math.min(MAX_COST, Math.max(0, (long) Math.floor(distance * COST_SCALE)));
+	}
+
+	public boolean covers(WorldPoint tile)
+	{
+		int x = tile.getX() - originX;
+		int y = tile.getY() - originY;
+		return tile.getPlane() == goal.getPlane() && x >= 0 && x < width && y >= 0 && y < height;
+	}
+
+	/**
+	 * @return Static cost from the tile to the goal, or infinity if it can't reach the goal or isn't covered
+	 */
+	public double getCostToGoal(WorldPoint tile)
+	{
+		if (!covers(tile))
+		{
+			return Double.POSITIVE_INFINITY;
+		}
+
+		char cost = getRaw(tile.getX() - originX, tile.getY() - originY);
+		return cost == UNREACHABLE ? Double.POSITIVE_INFINITY : cost / (double) COST_SCALE;
+	}
+
+	/**
+	 * Follows the field downhill from a tile until it's within the tolerance of the goal
+	 * @return Tiles after {@code from}, in order; stops early if the field has nowhere lower to go
+	 */
+	public List<WorldPoint> descend(WorldPoint from, int tolerance)
+	{
+		List<WorldPoint> tiles = new ArrayList<>();
+		if (!covers(from))
+		{
+			return tiles;
+		}
+
+		int x = from.getX() - originX;
+		int y = from.getY() - originY;
+		int goalX = goal.getX() - originX;
+		int goalY = goal.getY() - originY;
+		int plane = goal.getPlane();
+
+		// Every step is strictly downhill, so this is only a guard against a corrupt field
+		for (int steps = 0; steps < width * height; steps++)
+		{
+			if (Math.max(Math.abs(x - goalX), Math.abs(y - goalY)) <= tolerance)
+			{
+				break;
+			}
+
+			char lowest = getRaw(x, y);
+			int nextX = -1;
+			int nextY = -1;
+			for (int[] dir : DIRS)
+			{
+				int nx = x + dir[0];
+				int ny = y + dir[1];
+				if (nx < 0 || nx >= width || ny < 0 || ny >= height)
+				{
+					continue;
+				}
+
+				char cost = getRaw(nx, ny);
+				if (cost < lowest)
+				{
+					lowest = cost;
+					nextX = nx;
+					nextY = ny;
+				}
+			}
+
+			if (nextX < 0)
+			{
+				break;
+			}
+
+			x = nextX;
+			y = nextY;
+			tiles.add(new WorldPoint(originX + x, originY + y, plane));
+		}
+
+		return tiles;
+	}
+
+	/**
+	 * @return Read-only view of the quantized costs, for writing the field out
+	 */
+	public CharBuffer getCosts()
+	{
+		return costs.asReadOnlyBuffer();
+	}
+
+	private char getRaw(int x, int y)
+	{
+		return costs.get(y * width + x);
+	}
+}
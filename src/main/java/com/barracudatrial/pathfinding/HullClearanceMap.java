@@ -0,0 +1,168 @@
+package com.barracudatrial.pathfinding;
+
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rocks grown by the boat's hull, one map per heading bucket: a set bit means the hull clips a rock if the
+ * front tile is there and the boat points that way. The planner only steers the front tile, so this is what lets a
+ * long or wide hull avoid gaps the front tile alone would fit through.
+ * <p>
+ * Built once per hull size and rock set (see {@link #compute}); checking a tile is then a single bit lookup.
+ */
+public class HullClearanceMap
+{
+	// 45° buckets; the planner's 24 headings round to the nearest
+	public static final int HEADING_BUCKETS = 8;
+	private static final int HEADING_COUNT = 24;
+
+	@Getter
+	private final int hullLength;
+	@Getter
+	private final int hullWidth;
+	@Getter
+	private final int rockCount;
+	private final int originX;
+	private final int originY;
+	private final int minPlane;
+	private final int width;
+	private final int height;
+	private final int planes;
+	// Per bucket, indexed ((plane - minPlane) * height + (y - originY)) * width + (x - originX)
+	private final BitSet[] clippedByBucket;
+
+	private HullClearanceMap(int hullLength, int hullWidth, int rockCount, int originX, int originY, int minPlane,
+		int width, int height, int planes)
+	{
+		this.hullLength = hullLength;
+		this.hullWidth = hullWidth;
+		this.rockCount = rockCount;
+		this.originX = originX;
+		this.originY = originY;
+		this.minPlane = minPlane;
+		this.width = width;
+		this.height = height;
+		this.planes = planes;
+		this.clippedByBucket = new BitSet[HEADING_BUCKETS];
+		for (int i = 0; i < HEADING_BUCKETS; i++)
+		{
+			clippedByBucket[i] = new BitSet();
+		}
+	}
+
+	/**
+	 * Minkowski sum of the rocks and the mirrored hull footprint for each heading bucket
+	 * @param hullLength Tiles from the front tile back to the stern, inclusive
+	 * @param hullWidth Tiles across the hull
+	 */
+	public static HullClearanceMap compute(Set<WorldPoint> rocks, int hullLength, int hullWidth)
+	{
+		if (rocks.isEmpty())
+		{
+			return new HullClearanceMap(hullLength, hullWidth, 0, 0, 0, 0, 0, 0, 0);
+		}
+
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		int minPlane = Integer.MAX_VALUE;
+		int maxPlane = Integer.MIN_VALUE;
+		for (WorldPoint rock : rocks)
+		{
+			minX = Math.min(minX, rock.getX());
+			minY = Math.min(minY, rock.getY());
+			maxX = Math.max(maxX, rock.getX());
+			maxY = Math.max(maxY, rock.getY());
+			minPlane = Math.min(minPlane, rock.getPlane());
+			maxPlane = Math.max(maxPlane, rock.getPlane());
+		}
+
+		// A front tile can clip a rock from up to a hull length away in any direction
+		int reach = hullLength;
+		var map = new HullClearanceMap(hullLength, hullWidth, rocks.size(), minX - reach, minY - reach, minPlane,
+			maxX - minX + 1 + 2 * reach, maxY - minY + 1 + 2 * reach, maxPlane - minPlane + 1);
+
+		for (int bucket = 0; bucket < HEADING_BUCKETS; bucket++)
+		{
+			List<int[]> footprint = footprint(bucket, hullLength, hullWidth);
+			BitSet clipped = map.clippedByBucket[bucket];
+			for (WorldPoint rock : rocks)
+			{
+				for (int[] offset : footprint)
+				{
+					clipped.set(map.index(rock.getX() - offset[0], rock.getY() - offset[1], rock.getPlane()));
+				}
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * @param headingIdx 0..23 as the planner uses them; -1 (unknown) never clips
+	 * @return true if a hull with its front on this tile would overlap a rock
+	 */
+	public boolean isClipped(WorldPoint frontTile, int headingIdx)
+	{
+		if (headingIdx < 0)
+		{
+			return false;
+		}
+
+		int x = frontTile.getX() - originX;
+		int y = frontTile.getY() - originY;
+		int plane = frontTile.getPlane() - minPlane;
+		if (x < 0 || x >= width || y < 0 || y >= height || plane < 0 || plane >= planes)
+		{
+			return false;
+		}
+		return clippedByBucket[headingBucket(headingIdx)].get((plane * height + y) * width + x);
+	}
+
+	static int headingBucket(int headingIdx)
+	{
+		int headingsPerBucket = HEADING_COUNT / HEADING_BUCKETS;
+		return ((headingIdx + headingsPerBucket / 2) / headingsPerBucket) % HEADING_BUCKETS;
+	}
+
+	/**
+	 * Tiles the hull covers relative to its front tile, pointing along the bucket's heading.
+	 * The front tile itself is left out; a rock there is already blocked outright.
+	 */
+	private static List<int[]> footprint(int bucket, int hullLength, int hullWidth)
+	{
+		double radians = Math.toRadians(bucket * (360.0 / HEADING_BUCKETS));
+		double forwardX = Math.cos(radians);
+		double forwardY = Math.sin(radians);
+
+		List<int[]> offsets = new ArrayList<>();
+		for (int dx = -hullLength; dx <= hullLength; dx++)
+		{
+			for (int dy = -hullLength; dy <= hullLength; dy++)
+			{
+				if (dx == 0 && dy == 0)
+				{
+					continue;
+				}
+
+				double behind = -(dx * forwardX + dy * forwardY);
+				double across = -dx * forwardY + dy * forwardX;
+				if (behind > -0.5 && behind < hullLength - 0.5 && Math.abs(across) <= hullWidth / 2.0)
+				{
+					offsets.add(new int[] {dx, dy});
+				}
+			}
+		}
+		return offsets;
+	}
+
+	private int index(int x, int y, int plane)
+	{
+		return ((plane - minPlane) * height + (y - originY)) * width + (x - originX);
+	}
+}
@@ -0,0 +1,118 @@
+package com.barracudatrial.pathfinding;
+
+import lombok.Getter;
+
+/**
+ * Precomputed moves A* can make from each of the 24 headings, so an expansion walks a table instead of working out
+ * directions and distances per neighbour.
+ * <p>
+ * Moves come from a simple turning model: the boat turns at most one heading step (15°) per tile and moves one tile
+ * in its heading's dominant 8-way direction.
+ */
+public final class MotionPrimitives
+{
+	public static final int HEADING_COUNT = 24;
+
+	// Map 24 headings (15° each) to the dominant 8-way movement direction
+	private static final int[] HEADING_TO_DIR8 = {
+		0, 0,    // 0°, 15° -> E
+		1, 1, 1, // 30°,45°,60° -> NE
+		2, 2, 2, // 75°,90°,105° -> N
+		3, 3, 3, // 120°,135°,150° -> NW
+		4, 4, 4, // 165°,180°,195° -> W
+		5, 5, 5, // 210°,225°,240° -> SW
+		6, 6, 6, // 255°,270°,285° -> S
+		7, 7, 7, // 300°,315°,330° -> SE
+		0        // 345° -> E
+	};
+
+	private static final int[] DIR8_TO_HEADING24 = {0, 2, 5, 8, 12, 15, 18, 21};
+
+	private static final int[][] DIRS = {
+		{1, 0},   // 0: E
+		{1, 1},   // 1: NE
+		{0, 1},   // 2: N
+		{-1, 1},  // 3: NW
+		{-1, 0},  // 4: W
+		{-1, -1}, // 5: SW
+		{0, -1},  // 6: S
+		{1, -1}   // 7: SE
+	};
+
+	private static final Primitive[][] BY_HEADING = new Primitive[HEADING_COUNT][];
+	private static final Primitive[] FROM_UNKNOWN_HEADING = new Primitive[DIR8_TO_HEADING24.length];
+
+	static
+	{
+		for (int heading = 0; heading < HEADING_COUNT; heading++)
+		{
+			// Same order steering always expanded in (turn right, straight, turn left), so ties break the same way
+			BY_HEADING[heading] = new Primitive[]{
+				step(heading, -1),
+				step(heading, 0),
+				step(heading, 1)
+			};
+		}
+
+		// With no heading yet, head straight out in each 8-way direction; the first move is free to pick any of them
+		for (int dir = 0; dir < DIR8_TO_HEADING24.length; dir++)
+		{
+			FROM_UNKNOWN_HEADING[dir] = step(DIR8_TO_HEADING24[dir], 0);
+		}
+	}
+
+	private MotionPrimitives()
+	{
+	}
+
+	/**
+	 * @param headingIdx 0..23, or -1 if unknown
+	 */
+	public static Primitive[] from(int headingIdx)
+	{
+		return headingIdx < 0 ? FROM_UNKNOWN_HEADING : BY_HEADING[headingIdx];
+	}
+
+	public static int headingToDir8(int headingIdx)
+	{
+		return HEADING_TO_DIR8[(headingIdx % HEADING_COUNT + HEADING_COUNT) % HEADING_COUNT];
+	}
+
+	public static int dir8ToHeading(int dir8)
+	{
+		return DIR8_TO_HEADING24[dir8];
+	}
+
+	private static Primitive step(int startHeading, int turnDirection)
+	{
+		int heading = (startHeading + turnDirection + HEADING_COUNT) % HEADING_COUNT;
+		int[] dir = DIRS[headingToDir8(heading)];
+		double distance = dir[0] != 0 && dir[1] != 0 ? Math.sqrt(2) : 1.0;
+		return new Primitive(dir[0], dir[1], heading, distance, turnDirection != 0);
+	}
+
+	/**
+	 * One single-tile move
+	 */
+	@Getter
+	public static class Primitive
+	{
+		private final int dx;
+		private final int dy;
+		// Heading the boat points along after the move
+		private final int heading;
+		// Tile distance of the move, sqrt(2) for diagonals
+		private final double distance;
+		// Whether the move turns a heading step, which A* charges the route optimization's turn penalty for
+		private final boolean turn;
+
+		Primitive(int dx, int dy, int heading, double distance, boolean turn)
+		{
+			this.dx = dx;
+			this.dy = dy;
+			this.heading = heading;
+			this.distance = distance;
+			this.turn = turn;
+		}
+	}
+}
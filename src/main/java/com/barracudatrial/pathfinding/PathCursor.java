@@ -0,0 +1,206 @@
+package com.barracudatrial.pathfinding;
+
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.List;
+
+/**
+ * Tracks how far along a fixed path the boat has progressed, for cheap "closest point on path" lookups.
+ * The cursor only moves forward through a small window ahead of the last answer, which is both O(1) and
+ * avoids snapping onto a later part of the path that happens to loop back nearby.
+ * If the boat ends up far from everything in the window (teleport, missed waypoint, heavy swerve),
+ * a coarse grid over the path re-acquires the nearest point without scanning every node.
+ */
+public class PathCursor
+{
+	private static final int SEARCH_WINDOW = 8;
+	private static final double REACQUIRE_DISTANCE = 4.0;
+	private static final int CELL_SHIFT = 3; // 8x8 tile cells
+
+	@Getter
+	private final List<WorldPoint> path;
+
+	private int cursorIndex = 0;
+	private double lastQueryX = Double.NaN;
+	private double lastQueryY = Double.NaN;
+
+	// Lazily built compressed grid: indices of path nodes, bucketed by cell (only needed for re-acquisition)
+	private int minCellX;
+	private int minCellY;
+	private int cellColumns;
+	private int cellRows;
+	private int[] cellStarts;
+	private int[] cellIndices;
+
+	// Size at construction, so owners of a mutable path can tell it changed underneath us
+	@Getter
+	private final int pathSize;
+
+	public PathCursor(List<WorldPoint> path)
+	{
+		this.path = path;
+		this.pathSize = path.size();
+	}
+
+	public int closestIndex(WorldPoint position)
+	{
+		return closestIndex(position.getX(), position.getY());
+	}
+
+	/**
+	 * @param x World X in tiles (may be fractional for sub-tile visual positions)
+	 * @param y World Y in tiles (may be fractional for sub-tile visual positions)
+	 * @return Index of the closest path point (Euclidean), or 0 for an empty path
+	 */
+	public int closestIndex(double x, double y)
+	{
+		if (path.isEmpty())
+		{
+			return 0;
+		}
+
+		if (x == lastQueryX && y == lastQueryY)
+		{
+			return cursorIndex;
+		}
+		lastQueryX = x;
+		lastQueryY = y;
+
+		int windowEnd = Math.min(path.size(), cursorIndex + SEARCH_WINDOW + 1);
+		int bestIndex = cursorIndex;
+		double bestDistanceSq = Double.POSITIVE_INFINITY;
+
+		for (int i = cursorIndex; i < windowEnd; i++)
+		{
+			double distanceSq = distanceSq(path.get(i), x, y);
+			if (distanceSq < bestDistanceSq)
+			{
+				bestDistanceSq = distanceSq;
+				bestIndex = i;
+			}
+		}
+
+		if (bestDistanceSq > REACQUIRE_DISTANCE * REACQUIRE_DISTANCE)
+		{
+			bestIndex = reacquire(x, y, bestIndex, bestDistanceSq);
+		}
+
+		cursorIndex = bestIndex;
+		return bestIndex;
+	}
+
+	private int reacquire(double x, double y, int bestIndex, double bestDistanceSq)
+	{
+		if (cellStarts == null)
+		{
+			buildCellIndex();
+		}
+
+		// Search the 3x3 block of cells around the query first; only scan everything if that finds nothing
+		int queryCellX = ((int) Math.floor(x) >> CELL_SHIFT) - minCellX;
+		int queryCellY = ((int) Math.floor(y) >> CELL_SHIFT) - minCellY;
+		boolean anyNodeNearby = false;
+
+		for (int cx = queryCellX - 1; cx <= queryCellX + 1; cx++)
+		{
+			if (cx < 0 || cx >= cellColumns)
+			{
+				continue;
+			}
+
+			for (int cy = queryCellY - 1; cy <= queryCellY + 1; cy++)
+			{
+				if (cy < 0 || cy >= cellRows)
+				{
+					continue;
+				}
+
+				int cell = cx * cellRows + cy;
+				for (int k = cellStarts[cell]; k < cellStarts[cell + 1]; k++)
+				{
+					int index = cellIndices[k];
+					double distanceSq = distanceSq(path.get(index), x, y);
+					anyNodeNearby = true;
+					if (distanceSq < bestDistanceSq || (distanceSq == bestDistanceSq && index < bestIndex))
+					{
+						bestDistanceSq = distanceSq;
+						bestIndex = index;
+					}
+				}
+			}
+		}
+
+		if (anyNodeNearby)
+		{
+			return bestIndex;
+		}
+
+		for (int i = 0; i < path.size(); i++)
+		{
+			double distanceSq = distanceSq(path.get(i), x, y);
+			if (distanceSq < bestDistanceSq)
+			{
+				bestDistanceSq = distanceSq;
+				bestIndex = i;
+			}
+		}
+
+		return bestIndex;
+	}
+
+	private void buildCellIndex()
+	{
+		int minX = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxY = Integer.MIN_VALUE;
+
+		for (WorldPoint point : path)
+		{
+			minX = Math.min(minX, point.getX() >> CELL_SHIFT);
+			maxX = Math.max(maxX, point.getX() >> CELL_SHIFT);
+			minY = Math.min(minY, point.getY() >> CELL_SHIFT);
+			maxY = Math.max(maxY, point.getY() >> CELL_SHIFT);
+		}
+
+		minCellX = minX;
+		minCellY = minY;
+		cellColumns = maxX - minX + 1;
+		cellRows = maxY - minY + 1;
+
+		// Counting sort of node indices into cells (counts first, then prefix sums, then fill)
+		int[] starts = new int[cellColumns * cellRows + 1];
+		for (WorldPoint point : path)
+		{
+			starts[cellOf(point) + 1]++;
+		}
+		for (int i = 1; i < starts.length; i++)
+		{
+			starts[i] += starts[i - 1];
+		}
+
+		int[] fill = new int[cellColumns * cellRows];
+		int[] indices = new int[path.size()];
+		for (int i = 0; i < path.size(); i++)
+		{
+			int cell = cellOf(path.get(i));
+			indices[starts[cell] + fill[cell]++] = i;
+		}
+
+		cellStarts = starts;
+		cellIndices = indices;
+	}
+
+	private int cellOf(WorldPoint point)
+	{
+		return ((point.getX() >> CELL_SHIFT) - minCellX) * cellRows + ((point.getY() >> CELL_SHIFT) - minCellY);
+	}
+
+	private static double distanceSq(WorldPoint point, double x, double y)
+	{
+		double dx = point.getX() - x;
+		double dy = point.getY() - y;
+		return dx * dx + dy * dy;
+	}
+}
@@ -4,6 +4,7 @@ import lombok.Getter;
 import net.runelite.api.coords.WorldPoint;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class PathResult
@@ -13,6 +14,7 @@ public class PathResult
 	private final double totalCost;
 	@Getter
 	private final boolean reachedGoal;
+	private List<WorldPoint> path;
 
 	public PathResult(List<PathNode> pathNodes, double totalCost, boolean reachedGoal)
 	{
@@ -21,12 +23,19 @@ public class PathResult
 		this.reachedGoal = reachedGoal;
 	}
 
+	/**
+	 * @return Read-only positions of the path nodes, built on first use and shared afterwards
+	 */
 	public List<WorldPoint> getPath()
 	{
-		List<WorldPoint> path = new ArrayList<>();
-		for (PathNode node : pathNodes)
+		if (path == null)
 		{
-			path.add(node.getPosition());
+			List<WorldPoint> positions = new ArrayList<>(pathNodes.size());
+			for (PathNode node : pathNodes)
+			{
+				positions.add(node.getPosition());
+			}
+			path = Collections.unmodifiableList(positions);
 		}
 		return path;
 	}
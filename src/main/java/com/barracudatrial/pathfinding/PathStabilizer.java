@@ -2,11 +2,12 @@ package com.barracudatrial.pathfinding;
 
 import com.barracudatrial.RouteOptimization;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.coords.WorldPoint;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -21,14 +22,56 @@ import java.util.Set;
 class StabilizedPath
 {
 	private final PathResult pathResult;
-	private final Set<WorldPoint> dangerZonesAtCreation;
+	private final DangerZoneSnapshot dangerZonesAtCreation;
+	private final PathCursor cursor;
 
-	public StabilizedPath(PathResult pathResult, Set<WorldPoint> dangerZonesAtCreation)
+	// Settings the search ran with; a path planned under other settings isn't handed out again
+	private final RouteOptimization routeOptimization;
+	private final Set<WorldPoint> pathfindingHints;
+	private final int goalTolerance;
+	private final int maxSearchDistance;
+
+	// Number of times this path was handed out without running a search to double-check it
+	private int reusesSinceLastSearch = 0;
+
+	// Recalculation pass that last asked for this goal, used to drop goals the route has moved past
+	private long lastRequestedPass = 0;
+
+	public StabilizedPath(PathResult pathResult, DangerZoneSnapshot dangerZonesAtCreation, RouteOptimization routeOptimization,
+		Set<WorldPoint> pathfindingHints, int goalTolerance, int maxSearchDistance)
 	{
 		this.pathResult = pathResult;
 		this.dangerZonesAtCreation = dangerZonesAtCreation;
+		this.cursor = new PathCursor(pathResult.getPath());
+		this.routeOptimization = routeOptimization;
+		// The planner reuses its hint set between segments
+		this.pathfindingHints = Set.copyOf(pathfindingHints);
+		this.goalTolerance = goalTolerance;
+		this.maxSearchDistance = maxSearchDistance;
 	}
 
+	boolean isPlannedWith(RouteOptimization routeOptimization, Set<WorldPoint> pathfindingHints, int goalTolerance, int maxSearchDistance)
+	{
+		return this.routeOptimization == routeOptimization
+			&& this.goalTolerance == goalTolerance
+			&& this.maxSearchDistance == maxSearchDistance
+			&& this.pathfindingHints.equals(pathfindingHints);
+	}
+
+	void recordReuse()
+	{
+		reusesSinceLastSearch++;
+	}
+
+	void resetReuseCount()
+	{
+		reusesSinceLastSearch = 0;
+	}
+
+	void markRequested(long pass)
+	{
+		lastRequestedPass = pass;
+	}
 }
 
 /**
@@ -38,42 +81,238 @@ class StabilizedPath
  * - Don't switch for tiny improvements (1 tile difference)
  * - DO switch when world state changes make the old path dangerous (new lightning clouds)
  * - Treat each waypoint segment independently (don't rebuild segment 1->2 because 2->3 improved)
+ * - Don't even search when the active path is still valid; only probe for a better one every few calls
+ * - Forget goals once the route has moved past them, with an LRU cap as a backstop
  */
+@Slf4j
 public class PathStabilizer
 {
+	// Lookahead is at most 10 waypoints, plus the direct alternative for each wind catcher sequence and
+	// the odd moving fallback target, so this is only hit if route-based eviction isn't keeping up
+	private static final int MAX_ACTIVE_PATHS = 32;
+
+	// Every Nth call for a still-valid path runs a full search anyway, so better routes (e.g. a boost
+	// that just came into view) still get picked up
+	private static final int IMPROVEMENT_PROBE_INTERVAL = 3;
+
+	/**
+	 * What {@link #findPath} did with the goal's active path
+	 */
+	public enum Decision
+	{
+		// No usable active path; searched and stored the result
+		NEW,
+		// Active path still valid, handed out without searching
+		REUSED,
+		// Searched, but the active path was good enough to keep
+		KEPT,
+		// Searched and replaced the active path
+		SWITCHED
+	}
+
 	private final AStarPathfinder pathfinder;
-	private final Map<WorldPoint, StabilizedPath> activePathsByGoal;
+	private final LinkedHashMap<WorldPoint, StabilizedPath> activePathsByGoal;
+
+	private long currentPass = 0;
+	// Totals since the stabilizer was created, for the metrics
+	@Getter
+	private long cacheHits = 0;
+	@Getter
+	private long cacheMisses = 0;
+	@Getter
+	private long routeEvictions = 0;
+	@Getter
+	private long capacityEvictions = 0;
+	@Getter
+	private Decision lastDecision;
+
+	// Most recent snapshot handed out; identical follow-ups are swapped for it, so a path checked against unchanged
+	// hazards compares the snapshot with itself and skips the words
+	private DangerZoneSnapshot latestDangerZoneSnapshot;
 
     public PathStabilizer(AStarPathfinder pathfinder)
 	{
 		this.pathfinder = pathfinder;
-		this.activePathsByGoal = new HashMap<>();
+		// Access-ordered so the eldest entry is always the least recently used goal
+		this.activePathsByGoal = new LinkedHashMap<>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<WorldPoint, StabilizedPath> eldest)
+			{
+				if (size() > MAX_ACTIVE_PATHS)
+				{
+					capacityEvictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Marks the start of a recalculation over the upcoming waypoints.
+	 * Every goal requested until {@link #endRecalculation()} counts as still ahead of the boat.
+	 */
+	public void beginRecalculation()
+	{
+		currentPass++;
+	}
+
+	/**
+	 * Drops every cached path whose goal wasn't requested during this recalculation.
+	 * The planner always paths from the boat through the next uncompleted waypoints, so a goal that
+	 * wasn't asked for belongs to a completed waypoint (or a stale fallback target) and won't come back.
+	 */
+	public void endRecalculation()
+	{
+		Iterator<StabilizedPath> iterator = activePathsByGoal.values().iterator();
+		while (iterator.hasNext())
+		{
+			if (iterator.next().getLastRequestedPass() != currentPass)
+			{
+				iterator.remove();
+				routeEvictions++;
+			}
+		}
+
+		log.debug("Path cache: {} entries, {} hits, {} misses, {} route evictions, {} LRU evictions",
+			activePathsByGoal.size(), cacheHits, cacheMisses, routeEvictions, capacityEvictions);
+	}
+
+	public int getActivePathCount()
+	{
+		return activePathsByGoal.size();
+	}
+
+	/**
+	 * Counts a goal as still ahead of the boat this recalculation without searching, for a segment the planner
+	 * answered from elsewhere, so its active path isn't dropped at the end of the pass
+	 */
+	public void markRequested(WorldPoint goal)
+	{
+		StabilizedPath activeStabilizedPath = activePathsByGoal.get(goal);
+		if (activeStabilizedPath != null)
+		{
+			activeStabilizedPath.markRequested(currentPass);
+		}
 	}
 
 	public PathResult findPath(BarracudaTileCostCalculator costCalculator, RouteOptimization routeOptimization, WorldPoint start, WorldPoint goal, int maxSearchDistance,
 	                                  int boatDirectionDx, int boatDirectionDy, int goalTolerance, boolean isPlayerCurrentlyOnPath)
 	{
-		PathResult newPathResult = pathfinder.findPath(costCalculator, routeOptimization, start, goal, maxSearchDistance, boatDirectionDx, boatDirectionDy, goalTolerance);
-		Set<WorldPoint> currentDangerZones = costCalculator.getDangerZoneSnapshot();
+		return findPathFromHeading(costCalculator, routeOptimization, start, goal, maxSearchDistance, AStarPathfinder.headingFromDirection(boatDirectionDx, boatDirectionDy),
+			goalTolerance, isPlayerCurrentlyOnPath, null);
+	}
+
+	/**
+	 * @param startHeadingIdx 24-step heading the boat starts in, or -1 if unknown
+	 * @param baseline Static distance field for the goal, or null; see {@link AStarPathfinder#findPathFromHeading}.
+	 *                 Paths completed along it are stored and checked for new dangers like any other.
+	 */
+	public PathResult findPathFromHeading(BarracudaTileCostCalculator costCalculator, RouteOptimization routeOptimization, WorldPoint start, WorldPoint goal, int maxSearchDistance,
+	                                  int startHeadingIdx, int goalTolerance, boolean isPlayerCurrentlyOnPath, GoalDistanceField baseline)
+	{
+		DangerZoneSnapshot currentDangerZones = internDangerZoneSnapshot(costCalculator.getDangerZoneSnapshot());
 
 		StabilizedPath activeStabilizedPath = activePathsByGoal.get(goal);
+
+		// A path planned under other settings (optimization mode, hints, goal tolerance or search budget) isn't
+		// comparable with a new search, so it's replaced rather than reused or kept
+		if (activeStabilizedPath != null && !activeStabilizedPath.isPlannedWith(routeOptimization, costCalculator.getPathfindingHintTiles(), goalTolerance, maxSearchDistance))
+		{
+			activePathsByGoal.remove(goal);
+			activeStabilizedPath = null;
+		}
+
 		PathResult activePathResult = activeStabilizedPath != null ? activeStabilizedPath.getPathResult() : null;
 
+		if (activeStabilizedPath != null)
+		{
+			activeStabilizedPath.markRequested(currentPass);
+			cacheHits++;
+		}
+		else
+		{
+			cacheMisses++;
+		}
+
+		if (canReuseActivePathWithoutSearch(start, activeStabilizedPath, currentDangerZones))
+		{
+			activeStabilizedPath.recordReuse();
+			lastDecision = Decision.REUSED;
+			return getTrimmedPathResult(start, activeStabilizedPath, isPlayerCurrentlyOnPath);
+		}
+
+		PathResult newPathResult = pathfinder.findPathFromHeading(costCalculator, routeOptimization, start, goal, maxSearchDistance, startHeadingIdx, goalTolerance, baseline);
+
 		if (shouldForceNewPath(activePathResult, newPathResult))
 		{
-			activePathsByGoal.put(goal, new StabilizedPath(newPathResult, currentDangerZones));
+			storeActivePath(goal, newPathResult, currentDangerZones, routeOptimization, costCalculator.getPathfindingHintTiles(), goalTolerance, maxSearchDistance);
+			lastDecision = activePathResult == null ? Decision.NEW : Decision.SWITCHED;
 			return newPathResult;
 		}
 
 		if (shouldKeepActivePath(routeOptimization, start, activeStabilizedPath, newPathResult, currentDangerZones, isPlayerCurrentlyOnPath))
 		{
-			return getTrimmedPathResult(start, activePathResult);
+			activeStabilizedPath.resetReuseCount();
+			lastDecision = Decision.KEPT;
+			return getTrimmedPathResult(start, activeStabilizedPath, isPlayerCurrentlyOnPath);
 		}
 
-		activePathsByGoal.put(goal, new StabilizedPath(newPathResult, currentDangerZones));
+		storeActivePath(goal, newPathResult, currentDangerZones, routeOptimization, costCalculator.getPathfindingHintTiles(), goalTolerance, maxSearchDistance);
+		lastDecision = Decision.SWITCHED;
 		return newPathResult;
 	}
 
+	private void storeActivePath(WorldPoint goal, PathResult pathResult, DangerZoneSnapshot dangerZones, RouteOptimization routeOptimization,
+		Set<WorldPoint> pathfindingHints, int goalTolerance, int maxSearchDistance)
+	{
+		StabilizedPath stabilizedPath = new StabilizedPath(pathResult, dangerZones, routeOptimization, pathfindingHints, goalTolerance, maxSearchDistance);
+		stabilizedPath.markRequested(currentPass);
+		activePathsByGoal.put(goal, stabilizedPath);
+	}
+
+	/**
+	 * Cheap validity check that lets us skip A* entirely.
+	 * The active path is reused only if it reached its goal, we're still close to it, and nothing new
+	 * appeared on the part we haven't sailed yet. Every few reuses we fall through to a real search so
+	 * the usual "significantly better" comparison still gets a chance to switch paths.
+	 */
+	private boolean canReuseActivePathWithoutSearch(WorldPoint start, StabilizedPath activeStabilizedPath, DangerZoneSnapshot currentDangerZones)
+	{
+		if (activeStabilizedPath == null)
+		{
+			return false;
+		}
+
+		PathResult activePathResult = activeStabilizedPath.getPathResult();
+		if (activePathResult.getPathNodes().isEmpty() || !activePathResult.isReachedGoal())
+		{
+			return false;
+		}
+
+		if (activeStabilizedPath.getReusesSinceLastSearch() >= IMPROVEMENT_PROBE_INTERVAL)
+		{
+			return false;
+		}
+
+		// Segments further down the route start where the previous one ended, so the same proximity
+		// rule works for both the segment we're on and the ones after it
+		if (!isWithinProximityOfPath(start, activeStabilizedPath))
+		{
+			return false;
+		}
+
+		int closestIndex = activeStabilizedPath.getCursor().closestIndex(start);
+		if (closestIndex >= activePathResult.getPathNodes().size() - 1)
+		{
+			// Nothing left to follow, let a search decide what comes next
+			return false;
+		}
+
+		return !doesPathIntersectNewDangerZones(activePathResult, closestIndex, activeStabilizedPath.getDangerZonesAtCreation(), currentDangerZones);
+	}
+
 	private boolean shouldForceNewPath(PathResult activePathResult, PathResult newPathResult)
 	{
 		if (activePathResult == null || activePathResult.getPath().isEmpty())
@@ -96,34 +335,36 @@ public class PathStabilizer
         return !activePathEnd.equals(newPathEnd);
     }
 
-	private boolean shouldKeepActivePath(RouteOptimization routeOptimization, WorldPoint start, StabilizedPath activeStabilizedPath, PathResult newPathResult, Set<WorldPoint> currentDangerZones, boolean isPlayerCurrentlyOnPath)
+	private boolean shouldKeepActivePath(RouteOptimization routeOptimization, WorldPoint start, StabilizedPath activeStabilizedPath, PathResult newPathResult, DangerZoneSnapshot currentDangerZones, boolean isPlayerCurrentlyOnPath)
 	{
 		PathResult activePathResult = activeStabilizedPath.getPathResult();
 
 		// If old path goes through NEW danger zones, force new path
-		int closestIndex = findClosestPointOnPath(start, activePathResult.getPath());
-		Set<WorldPoint> oldDangerZones = activeStabilizedPath.getDangerZonesAtCreation();
+		int closestIndex = activeStabilizedPath.getCursor().closestIndex(start);
+		DangerZoneSnapshot oldDangerZones = activeStabilizedPath.getDangerZonesAtCreation();
 		if (doesPathIntersectNewDangerZones(activePathResult, closestIndex, oldDangerZones, currentDangerZones))
 		{
 			return false;
 		}
 
-		if (isPlayerCurrentlyOnPath && !isWithinProximityOfPath(start, activePathResult))
+		if (isPlayerCurrentlyOnPath && !isWithinProximityOfPath(start, activeStabilizedPath))
 		{
 			return false;
 		}
 
-        return !isNewPathSignificantlyBetter(routeOptimization, start, activePathResult, newPathResult);
+        return !isNewPathSignificantlyBetter(routeOptimization, start, activeStabilizedPath, newPathResult);
     }
 
-	private boolean isWithinProximityOfPath(WorldPoint start, PathResult pathResult)
+	private boolean isWithinProximityOfPath(WorldPoint start, StabilizedPath stabilizedPath)
 	{
-		var pathNodes = pathResult.getPathNodes();
+		var pathNodes = stabilizedPath.getPathResult().getPathNodes();
 		if (pathNodes.isEmpty())
 		{
 			return false;
 		}
 
+		// Nearest node by Chebyshev distance over the whole path, not the cursor's Euclidean closest point; the two
+		// can disagree by a tile, which would move the 5/3 tile tolerance boundary
 		int closestIndex = -1;
 		int minDistance = Integer.MAX_VALUE;
 
@@ -149,42 +390,47 @@ public class PathStabilizer
 		return minDistance <= tolerance;
 	}
 
-	private boolean isNewPathSignificantlyBetter(RouteOptimization routeOptimization, WorldPoint start, PathResult activePathResult, PathResult newPathResult)
+	private boolean isNewPathSignificantlyBetter(RouteOptimization routeOptimization, WorldPoint start, StabilizedPath activeStabilizedPath, PathResult newPathResult)
 	{
 		double newCost = newPathResult.getCost();
 
-		int closestIndex = findClosestPointOnPath(start, activePathResult.getPath());
-		double oldRemainingCost = activePathResult.getCostFromIndex(closestIndex);
+		int closestIndex = activeStabilizedPath.getCursor().closestIndex(start);
+		double oldRemainingCost = activeStabilizedPath.getPathResult().getCostFromIndex(closestIndex);
 
 		return newCost <= routeOptimization.getSwitchCostRatio() * oldRemainingCost;
 	}
 
-	private boolean doesPathIntersectNewDangerZones(PathResult pathResult, int fromIndex, Set<WorldPoint> oldDangerZones, Set<WorldPoint> currentDangerZones)
+	private boolean doesPathIntersectNewDangerZones(PathResult pathResult, int fromIndex, DangerZoneSnapshot oldDangerZones, DangerZoneSnapshot currentDangerZones)
 	{
-		// Find danger zones that exist now but didn't exist when the path was created
-		Set<WorldPoint> newDangerZones = new HashSet<>(currentDangerZones);
-		newDangerZones.removeAll(oldDangerZones);
+		// Danger tiles that exist now but didn't exist when the path was created, checked word-by-word along the path
+		return currentDangerZones.hasNewDangerAlongPath(oldDangerZones, pathResult.getPathNodes(), fromIndex);
+	}
 
-		// Check if path intersects any of these NEW danger zones
-		List<PathNode> pathNodes = pathResult.getPathNodes();
-		for (int i = fromIndex; i < pathNodes.size(); i++)
+	private DangerZoneSnapshot internDangerZoneSnapshot(DangerZoneSnapshot snapshot)
+	{
+		if (snapshot.hasSameTilesAs(latestDangerZoneSnapshot))
 		{
-			if (newDangerZones.contains(pathNodes.get(i).getPosition()))
-			{
-				return true;
-			}
+			return latestDangerZoneSnapshot;
 		}
-		return false;
+
+		latestDangerZoneSnapshot = snapshot;
+		return snapshot;
 	}
 
-	private PathResult getTrimmedPathResult(WorldPoint start, PathResult pathResult)
+	/**
+	 * @param isPlayerCurrentlyOnPath Whether start is where the boat is; its own tile is then left off, while a later
+	 *                                segment keeps its start tile like a freshly searched one, which the planner joins on
+	 * @return Remaining path from the node closest to start, costed from that node
+	 */
+	private PathResult getTrimmedPathResult(WorldPoint start, StabilizedPath stabilizedPath, boolean isPlayerCurrentlyOnPath)
 	{
+		PathResult pathResult = stabilizedPath.getPathResult();
 		List<PathNode> fullPathNodes = pathResult.getPathNodes();
 		List<WorldPoint> fullPath = pathResult.getPath();
-		int closestIndex = findClosestPointOnPath(start, fullPath);
+		int closestIndex = stabilizedPath.getCursor().closestIndex(start);
 
 		// If player is exactly on the closest path tile, start from next tile
-		if (closestIndex < fullPath.size() && fullPath.get(closestIndex).equals(start))
+		if (isPlayerCurrentlyOnPath && closestIndex < fullPath.size() && fullPath.get(closestIndex).equals(start))
 		{
 			closestIndex++;
 		}
@@ -195,34 +441,19 @@ public class PathStabilizer
 			return new PathResult(new ArrayList<>(), Double.POSITIVE_INFINITY, pathResult.isReachedGoal());
 		}
 
-		List<PathNode> trimmedNodes = new ArrayList<>(fullPathNodes.subList(closestIndex, fullPathNodes.size()));
-		double trimmedCost = pathResult.getCostFromIndex(closestIndex);
-		return new PathResult(trimmedNodes, trimmedCost, pathResult.isReachedGoal());
-	}
-
-	private int findClosestPointOnPath(WorldPoint position, List<WorldPoint> path)
-	{
-		int closestIndex = 0;
-		double minDistance = Double.POSITIVE_INFINITY;
-
-		for (int i = 0; i < path.size(); i++)
+		double costBefore = fullPathNodes.get(closestIndex).getCumulativeCost();
+		List<PathNode> trimmedNodes = new ArrayList<>(fullPathNodes.size() - closestIndex);
+		for (PathNode node : fullPathNodes.subList(closestIndex, fullPathNodes.size()))
 		{
-			int dx = position.getX() - path.get(i).getX();
-			int dy = position.getY() - path.get(i).getY();
-			double distance = Math.sqrt(dx * dx + dy * dy);
-
-			if (distance < minDistance)
-			{
-				minDistance = distance;
-				closestIndex = i;
-			}
+			trimmedNodes.add(new PathNode(node.getPosition(), node.getCumulativeCost() - costBefore));
 		}
-
-		return closestIndex;
+		double trimmedCost = pathResult.getCostFromIndex(closestIndex);
+		return new PathResult(trimmedNodes, trimmedCost, pathResult.isReachedGoal());
 	}
 
 	public void clearActivePath()
 	{
 		this.activePathsByGoal.clear();
+		this.latestDangerZoneSnapshot = null;
 	}
 }
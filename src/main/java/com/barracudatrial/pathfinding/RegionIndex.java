@@ -0,0 +1,93 @@
+package com.barracudatrial.pathfinding;
+
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tiles of several kinds bucketed into 8x8 chunks, so the ones inside a box are found without going through every
+ * tile. Each tile is packed into a long along with its kind, so two kinds on the same tile stay apart.
+ */
+class RegionIndex
+{
+	private static final int CHUNK_SHIFT = 3;
+
+	private final Map<Long, List<Long>> chunks = new HashMap<>();
+
+	void addTiles(int kind, Collection<WorldPoint> tiles)
+	{
+		for (WorldPoint tile : tiles)
+		{
+			long chunkKey = chunkKey(tile.getX() >> CHUNK_SHIFT, tile.getY() >> CHUNK_SHIFT);
+			chunks.computeIfAbsent(chunkKey, k -> new ArrayList<>()).add(pack(kind, tile));
+		}
+	}
+
+	/**
+	 * @return Packed tiles inside the box (inclusive), sorted so the same tiles always give an equal array
+	 */
+	long[] getTilesInBox(int minX, int minY, int maxX, int maxY)
+	{
+		List<Long> found = new ArrayList<>();
+		for (int chunkX = minX >> CHUNK_SHIFT; chunkX <= maxX >> CHUNK_SHIFT; chunkX++)
+		{
+			for (int chunkY = minY >> CHUNK_SHIFT; chunkY <= maxY >> CHUNK_SHIFT; chunkY++)
+			{
+				List<Long> chunk = chunks.get(chunkKey(chunkX, chunkY));
+				if (chunk == null)
+				{
+					continue;
+				}
+
+				for (long packed : chunk)
+				{
+					int x = unpackX(packed);
+					int y = unpackY(packed);
+					if (x >= minX && x <= maxX && y >= minY && y <= maxY)
+					{
+						found.add(packed);
+					}
+				}
+			}
+		}
+
+		long[] tiles = new long[found.size()];
+		for (int i = 0; i < tiles.length; i++)
+		{
+			tiles[i] = found.get(i);
+		}
+		Arrays.sort(tiles);
+		return tiles;
+	}
+
+	boolean isEmptyInBox(int minX, int minY, int maxX, int maxY)
+	{
+		return getTilesInBox(minX, minY, maxX, maxY).length == 0;
+	}
+
+	private static long chunkKey(int chunkX, int chunkY)
+	{
+		return ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+	}
+
+	// World coordinates fit in 16 bits; the plane and kind sit above them
+	static long pack(int kind, WorldPoint tile)
+	{
+		return ((long) kind << 40) | ((long) tile.getPlane() << 32) | ((long) (tile.getX() & 0xFFFF) << 16) | (tile.getY() & 0xFFFF);
+	}
+
+	private static int unpackX(long packed)
+	{
+		return (int) (packed >>> 16) & 0xFFFF;
+	}
+
+	private static int unpackY(long packed)
+	{
+		return (int) packed & 0xFFFF;
+	}
+}
@@ -0,0 +1,178 @@
+package com.barracudatrial.pathfinding;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Route segments from earlier recalculations, so a segment whose inputs haven't changed isn't searched again.
+ * Only the first segment starts where the boat is; the rest start where the previous one ended and usually come out
+ * the same from one recalculation to the next.
+ * <p>
+ * Entries are keyed by what the search is handed directly, and checked against the hazards around the path that was
+ * found (see {@link BarracudaTileCostCalculator#getRegionInputs}), so hazards changing far from a segment don't cost
+ * it a search. Segments near clouds and segments that didn't reach their goal aren't stored. Entries not asked for
+ * during a recalculation are dropped at its end, as the stabilizer does with its paths.
+ */
+@Slf4j
+public class SegmentMemo
+{
+	// Hazards this close to a path can change its cost or open a better way round
+	private static final int MARGIN_TILES = 8;
+
+	private final Map<Key, Entry> entries = new HashMap<>();
+	private long currentPass = 0;
+	private long hits = 0;
+	private long misses = 0;
+
+	public void beginRecalculation()
+	{
+		currentPass++;
+	}
+
+	public void endRecalculation()
+	{
+		entries.values().removeIf(entry -> entry.lastRequestedPass != currentPass);
+
+		log.debug("Segment memo: {} entries, {} hits, {} misses", entries.size(), hits, misses);
+	}
+
+	/**
+	 * @param costCalculator Calculator the segment would be searched with; only its inputs are read
+	 * @return The stored result if the hazards around it are unchanged, or null
+	 */
+	public PathResult get(Key key, BarracudaTileCostCalculator costCalculator)
+	{
+		Entry entry = entries.get(key);
+		if (entry == null
+			|| !Arrays.equals(costCalculator.getRegionInputs(entry.minX, entry.minY, entry.maxX, entry.maxY), entry.inputs))
+		{
+			misses++;
+			return null;
+		}
+
+		entry.lastRequestedPass = currentPass;
+		hits++;
+		return entry.result;
+	}
+
+	/**
+	 * Stores a segment that reached its goal. One that didn't may have just run out of search budget, and is searched
+	 * again next time rather than given up on until something nearby changes.
+	 * @param result Segment as the planner joins it, starting at the key's start
+	 */
+	public void put(Key key, PathResult result, BarracudaTileCostCalculator costCalculator)
+	{
+		if (!result.isReachedGoal())
+		{
+			entries.remove(key);
+			return;
+		}
+
+		int minX = Math.min(key.start.getX(), key.target.getX());
+		int minY = Math.min(key.start.getY(), key.target.getY());
+		int maxX = Math.max(key.start.getX(), key.target.getX());
+		int maxY = Math.max(key.start.getY(), key.target.getY());
+		for (WorldPoint tile : result.getPath())
+		{
+			minX = Math.min(minX, tile.getX());
+			minY = Math.min(minY, tile.getY());
+			maxX = Math.max(maxX, tile.getX());
+			maxY = Math.max(maxY, tile.getY());
+		}
+		minX -= MARGIN_TILES;
+		minY -= MARGIN_TILES;
+		maxX += MARGIN_TILES;
+		maxY += MARGIN_TILES;
+
+		long[] inputs = costCalculator.getRegionInputs(minX, minY, maxX, maxY);
+		if (inputs == null)
+		{
+			entries.remove(key);
+			return;
+		}
+
+		entries.put(key, new Entry(result, minX, minY, maxX, maxY, inputs, currentPass));
+	}
+
+	public void clear()
+	{
+		entries.clear();
+	}
+
+	/**
+	 * Everything a segment search is given besides the hazards
+	 */
+	public static class Key
+	{
+		private final WorldPoint start;
+		private final int headingIdx;
+		private final WorldPoint target;
+		private final int goalTolerance;
+		private final Set<WorldPoint> hints;
+		private final int farSegmentGridSize;
+		private final boolean shortBaselineSearches;
+
+		public Key(WorldPoint start, int headingIdx, WorldPoint target, int goalTolerance,
+			Set<WorldPoint> hints, int farSegmentGridSize, boolean shortBaselineSearches)
+		{
+			this.start = start;
+			this.headingIdx = headingIdx;
+			this.target = target;
+			this.goalTolerance = goalTolerance;
+			// The planner reuses its hint set between segments
+			this.hints = Set.copyOf(hints);
+			this.farSegmentGridSize = farSegmentGridSize;
+			this.shortBaselineSearches = shortBaselineSearches;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Key key = (Key) o;
+			return headingIdx == key.headingIdx
+				&& goalTolerance == key.goalTolerance
+				&& farSegmentGridSize == key.farSegmentGridSize
+				&& shortBaselineSearches == key.shortBaselineSearches
+				&& start.equals(key.start)
+				&& target.equals(key.target)
+				&& hints.equals(key.hints);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(start, headingIdx, target, goalTolerance, hints, farSegmentGridSize, shortBaselineSearches);
+		}
+	}
+
+	private static class Entry
+	{
+		final PathResult result;
+		// Box the inputs cover: the path, its start and target, and a margin around them
+		final int minX;
+		final int minY;
+		final int maxX;
+		final int maxY;
+		final long[] inputs;
+		long lastRequestedPass;
+
+		Entry(PathResult result, int minX, int minY, int maxX, int maxY, long[] inputs, long lastRequestedPass)
+		{
+			this.result = result;
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+			this.inputs = inputs;
+			this.lastRequestedPass = lastRequestedPass;
+		}
+	}
+}
@@ -0,0 +1,192 @@
+package com.barracudatrial.pathfinding;
+
+import lombok.Getter;
+import net.runelite.api.NPC;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The hazards one recalculation plans around, copied from the game state in one go.
+ * The game thread replaces the known hazards wholesale on every scan, so they're copied there, between scans, and
+ * never read from the pathfinding thread; every segment of the recalculation then sees the same hazards.
+ * <p>
+ * The lookups cost calculators derive from the hazards are built here on first use and shared by every segment,
+ * so only the thread planning around the hazards may read them.
+ */
+public class TileHazards
+{
+	@Getter
+	private final Map<WorldPoint, List<WorldPoint>> boostGrabbableTiles;
+	@Getter
+	private final Set<WorldPoint> rockLocations;
+	@Getter
+	private final Set<WorldPoint> fetidPoolLocations;
+	@Getter
+	private final Set<WorldPoint> toadPillarLocations;
+	// Tiles around the clouds striking right now
+	@Getter
+	private final Set<WorldPoint> cloudDangerZones;
+	// Null if clouds haven't been forecast, in which case the clouds' current danger zones apply along the whole path
+	@Getter
+	private final CloudDangerTimeline cloudTimeline;
+
+	private Set<WorldPoint> closeToRocks;
+	private Set<WorldPoint> closeToFetidPoolsAndToadPillars;
+	private DangerZoneSnapshot dangerZoneSnapshot;
+	private RegionIndex hazardIndex;
+	private RegionIndex cloudIndex;
+
+	private TileHazards(Map<WorldPoint, List<WorldPoint>> boostGrabbableTiles, Set<WorldPoint> rockLocations,
+		Set<WorldPoint> fetidPoolLocations, Set<WorldPoint> toadPillarLocations, Set<WorldPoint> cloudDangerZones,
+		CloudDangerTimeline cloudTimeline)
+	{
+		this.boostGrabbableTiles = boostGrabbableTiles;
+		this.rockLocations = rockLocations;
+		this.fetidPoolLocations = fetidPoolLocations;
+		this.toadPillarLocations = toadPillarLocations;
+		this.cloudDangerZones = cloudDangerZones;
+		this.cloudTimeline = cloudTimeline;
+	}
+
+	/**
+	 * Copies the hazards; call on the thread that updates them
+	 * @param lightningClouds Clouds striking now; their locations are read here
+	 * @param cloudTimeline Forecast danger, or null
+	 */
+	public static TileHazards copyOf(Map<WorldPoint, List<WorldPoint>> speedBoostLocations, Set<WorldPoint> rockLocations,
+		Set<WorldPoint> fetidPoolLocations, Set<WorldPoint> toadPillarLocations, Set<NPC> lightningClouds,
+		CloudDangerTimeline cloudTimeline)
+	{
+		Set<WorldPoint> cloudDangerZones = new HashSet<>();
+		for (NPC cloud : lightningClouds)
+		{
+			CloudDangerTimeline.addDangerDisc(cloudDangerZones, cloud.getWorldLocation());
+		}
+
+		return new TileHazards(
+			Collections.unmodifiableMap(new HashMap<>(speedBoostLocations)),
+			Collections.unmodifiableSet(new HashSet<>(rockLocations)),
+			Collections.unmodifiableSet(new HashSet<>(fetidPoolLocations)),
+			Collections.unmodifiableSet(new HashSet<>(toadPillarLocations)),
+			Collections.unmodifiableSet(cloudDangerZones),
+			cloudTimeline);
+	}
+
+	Set<WorldPoint> getCloseToRocks()
+	{
+		if (closeToRocks == null)
+		{
+			closeToRocks = precomputeTileProximity(rockLocations, 1);
+		}
+		return closeToRocks;
+	}
+
+	Set<WorldPoint> getCloseToFetidPoolsAndToadPillars()
+	{
+		if (closeToFetidPoolsAndToadPillars == null)
+		{
+			Set<WorldPoint> tiles = precomputeTileProximity(fetidPoolLocations, 1);
+			tiles.addAll(precomputeTileProximity(toadPillarLocations, 1));
+			closeToFetidPoolsAndToadPillars = tiles;
+		}
+		return closeToFetidPoolsAndToadPillars;
+	}
+
+	/**
+	 * Every tile a cloud is or is expected to be dangerous on. A forecast's tiles don't depend on how far along the
+	 * path a search starts, so this holds for every segment.
+	 */
+	Set<WorldPoint> getAllCloudDangerTiles()
+	{
+		return cloudTimeline != null ? cloudTimeline.getAllDangerTiles() : cloudDangerZones;
+	}
+
+	/**
+	 * With a cloud forecast, every tile a cloud is expected to cover is included, so a cloud moving as predicted
+	 * doesn't count as a new danger
+	 */
+	DangerZoneSnapshot getDangerZoneSnapshot()
+	{
+		if (dangerZoneSnapshot == null)
+		{
+			dangerZoneSnapshot = DangerZoneSnapshot.fromTileSets(getAllCloudDangerTiles(), rockLocations, fetidPoolLocations);
+		}
+		return dangerZoneSnapshot;
+	}
+
+	/**
+	 * Rocks, pools, pillars and boosts as kinds 0 to 3
+	 */
+	RegionIndex getHazardIndex()
+	{
+		if (hazardIndex == null)
+		{
+			RegionIndex index = new RegionIndex();
+			index.addTiles(0, rockLocations);
+			index.addTiles(1, fetidPoolLocations);
+			index.addTiles(2, toadPillarLocations);
+			index.addTiles(3, boostGrabbableTiles.keySet());
+			hazardIndex = index;
+		}
+		return hazardIndex;
+	}
+
+	RegionIndex getCloudIndex()
+	{
+		if (cloudIndex == null)
+		{
+			RegionIndex index = new RegionIndex();
+			index.addTiles(0, getAllCloudDangerTiles());
+			cloudIndex = index;
+		}
+		return cloudIndex;
+	}
+
+	private static Set<WorldPoint> precomputeTileProximity(Set<WorldPoint> locations, int maxDistance)
+	{
+		Set<WorldPoint> proximityTiles = new HashSet<>();
+		int maxDistSq = maxDistance * maxDistance;
+
+		for (WorldPoint location : locations)
+		{
+			int baseX = location.getX();
+			int baseY = location.getY();
+			int plane = location.getPlane();
+
+			for (int dx = -maxDistance; dx <= maxDistance; dx++)
+			{
+				int dxSq = dx * dx;
+
+				for (int dy = -maxDistance; dy <= maxDistance; dy++)
+				{
+					if (dx == 0 && dy == 0)
+					{
+						continue; // skip the location tile itself
+					}
+
+					int distSq = dxSq + dy * dy;
+					if (distSq > maxDistSq)
+					{
+						continue;
+					}
+
+					WorldPoint tile = new WorldPoint(baseX + dx, baseY + dy, plane);
+
+					// Don't consider tiles that are themselves location tiles
+					if (!locations.contains(tile))
+					{
+						proximityTiles.add(tile);
+					}
+				}
+			}
+		}
+
+		return proximityTiles;
+	}
+}
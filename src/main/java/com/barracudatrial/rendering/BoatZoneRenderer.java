@@ -23,6 +23,9 @@ public class BoatZoneRenderer
 	private final Client client;
 	private final BarracudaTrialPlugin plugin;
 
+	// Reused every call; only read synchronously by renderPolygon
+	private final Polygon rectangleBoundary = new Polygon();
+
 	public void renderBoatZoneRectangle(Graphics2D graphics, WorldPoint center, Color baseColor)
 	{
 		WorldView topLevelWorldView = client.getTopLevelWorldView();
@@ -62,78 +65,40 @@ public class BoatZoneRenderer
 		int minY = center.getY() - halfHeight;
 		int maxY = center.getY() + halfHeight;
 
-		Color fillColor = new Color(baseColor.getRed(), baseColor.getGreen(), baseColor.getBlue(), 150);
+		Color fillColor = plugin.getCachedConfig().getPalette().getBoatZoneFillColor(baseColor);
 
-		Polygon rectangleBoundary = buildPerimeterPolygon(topLevelWorldView, minX, maxX, minY, maxY);
+		buildPerimeterPolygon(topLevelWorldView, minX, maxX, minY, maxY);
 
 		if (rectangleBoundary.npoints > 0)
 		{
-			OverlayUtil.renderPolygon(graphics, rectangleBoundary, fillColor);
+			OverlayUtil.renderPolygon(graphics, rectangleBoundary, fillColor, RenderPalette.TILE_FILL, RenderPalette.TILE_STROKE);
 		}
 	}
 
-	private Polygon buildPerimeterPolygon(WorldView worldView, int minX, int maxX, int minY, int maxY)
+	private void buildPerimeterPolygon(WorldView worldView, int minX, int maxX, int minY, int maxY)
 	{
-		Polygon boundary = new Polygon();
+		rectangleBoundary.reset();
 
-		// Bottom edge (south)
-		for (int x = minX; x <= maxX; x++)
-		{
-			WorldPoint tile = new WorldPoint(x, minY, 0);
-			LocalPoint local = RenderingUtils.localPointFromWorldIncludingExtended(worldView, tile);
-			if (local != null)
-			{
-				Polygon tilePoly = Perspective.getCanvasTilePoly(client, local);
-				if (tilePoly != null && tilePoly.npoints >= 4)
-				{
-					if (x == minX)
-					{
-						boundary.addPoint(tilePoly.xpoints[0], tilePoly.ypoints[0]); // SW corner
-					}
-					if (x == maxX)
-					{
-						boundary.addPoint(tilePoly.xpoints[1], tilePoly.ypoints[1]); // SE corner
-					}
-				}
-			}
-		}
+		// Only the outer corner of each corner tile is needed, so project just those four tiles
+		addTileCorner(worldView, minX, minY, 0); // SW corner
+		addTileCorner(worldView, maxX, minY, 1); // SE corner
+		addTileCorner(worldView, maxX, maxY, 2); // NE corner
+		addTileCorner(worldView, minX, maxY, 3); // NW corner
+	}
 
-		// Right edge (east)
-		for (int y = minY; y <= maxY; y++)
+	private void addTileCorner(WorldView worldView, int x, int y, int cornerIndex)
+	{
+		WorldPoint tile = new WorldPoint(x, y, 0);
+		LocalPoint local = RenderingUtils.localPointFromWorldIncludingExtended(worldView, tile);
+		if (local == null)
 		{
-			WorldPoint tile = new WorldPoint(maxX, y, 0);
-			LocalPoint local = RenderingUtils.localPointFromWorldIncludingExtended(worldView, tile);
-			if (local != null)
-			{
-				Polygon tilePoly = Perspective.getCanvasTilePoly(client, local);
-				if (tilePoly != null && tilePoly.npoints >= 4)
-				{
-					if (y == maxY)
-					{
-						boundary.addPoint(tilePoly.xpoints[2], tilePoly.ypoints[2]); // NE corner
-					}
-				}
-			}
+			return;
 		}
 
-		// Top edge (north)
-		for (int x = maxX; x >= minX; x--)
+		Polygon tilePoly = Perspective.getCanvasTilePoly(client, local);
+		if (tilePoly != null && tilePoly.npoints >= 4)
 		{
-			WorldPoint tile = new WorldPoint(x, maxY, 0);
-			LocalPoint local = RenderingUtils.localPointFromWorldIncludingExtended(worldView, tile);
-			if (local != null)
-			{
-				Polygon tilePoly = Perspective.getCanvasTilePoly(client, local);
-				if (tilePoly != null && tilePoly.npoints >= 4)
-				{
-					if (x == minX)
-					{
-						boundary.addPoint(tilePoly.xpoints[3], tilePoly.ypoints[3]); // NW corner
-					}
-				}
-			}
+			rectangleBoundary.addPoint(tilePoly.xpoints[cornerIndex], tilePoly.ypoints[cornerIndex]);
 		}
-
-		return boundary;
 	}
 }
@@ -0,0 +1,343 @@
+package com.barracudatrial.rendering;
+
+import net.runelite.api.Client;
+import net.runelite.api.Perspective;
+import net.runelite.api.Point;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Stroke;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Path2D;
+import java.util.Arrays;
+
+/**
+ * Merged ground outline of every dangerous cloud's radius.
+ * The union of danger tiles is traced into closed contours (outer boundaries counter-clockwise, holes clockwise)
+ * only when the set of dangerous cloud tiles or the radius changes; each frame just projects the contour corners
+ * into one GeneralPath and draws it with a single fill and a single stroke.
+ * Overlapping clouds share the same tiles, so nothing is drawn twice.
+ */
+class CloudDangerArea
+{
+	private static final int FILL_ALPHA = 30;
+	// Perspective only projects local points from one tile in to two tiles short of the scene's far edge, so tiles
+	// outside this range are left out of the contour rather than leaving it with corners that can't be drawn
+	private static final int MIN_PROJECTED_SCENE_TILE = 1;
+	private static final int PROJECTED_SCENE_TILES_SHORT_OF_EDGE = 3;
+	private static final Stroke OUTLINE_STROKE = new BasicStroke(1f);
+
+	// Sorted packed scene coordinates of the dangerous cloud centers the contour was built for
+	private int[] centers = new int[0];
+	private int centerCount = 0;
+	private int radius = -1;
+	private int baseX = Integer.MIN_VALUE;
+	private int baseY = Integer.MIN_VALUE;
+	private int plane = -1;
+
+	// Contours: corner local points, with loopStarts[i]..loopStarts[i + 1] being one closed loop
+	private LocalPoint[] contourCorners = new LocalPoint[0];
+	private int[] loopStarts = new int[] {0};
+
+	private final GeneralPath fillPath = new GeneralPath(Path2D.WIND_NON_ZERO);
+	private final GeneralPath outlinePath = new GeneralPath();
+
+	private Color outlineColor;
+	private Color fillColor;
+
+	private int[] scratchCenters = new int[0];
+	private Point[] scratchCanvas = new Point[0];
+
+	/**
+	 * @param cloudCenters Local locations of the clouds that are currently dangerous (may contain nulls)
+	 * @param cloudCount Number of entries in cloudCenters to use
+	 */
+	void render(Graphics2D graphics, Client client, WorldView worldView, LocalPoint[] cloudCenters, int cloudCount, int dangerRadius, Color color)
+	{
+		updateContour(worldView, cloudCenters, cloudCount, dangerRadius);
+		if (contourCorners.length == 0)
+		{
+			return;
+		}
+
+		if (!color.equals(outlineColor))
+		{
+			outlineColor = color;
+			fillColor = new Color(color.getRed(), color.getGreen(), color.getBlue(), FILL_ALPHA);
+		}
+
+		fillPath.reset();
+		outlinePath.reset();
+
+		int loopCount = loopStarts.length - 1;
+		for (int loop = 0; loop < loopCount; loop++)
+		{
+			appendLoop(client, loopStarts[loop], loopStarts[loop + 1]);
+		}
+
+		graphics.setColor(fillColor);
+		graphics.fill(fillPath);
+		graphics.setColor(outlineColor);
+		graphics.setStroke(OUTLINE_STROKE);
+		graphics.draw(outlinePath);
+	}
+
+	private void appendLoop(Client client, int start, int end)
+	{
+		int length = end - start;
+		if (scratchCanvas.length < length)
+		{
+			scratchCanvas = new Point[length];
+		}
+
+		int projected = 0;
+		for (int i = 0; i < length; i++)
+		{
+			Point canvas = Perspective.localToCanvas(client, contourCorners[start + i], plane);
+			scratchCanvas[i] = canvas;
+			if (canvas != null)
+			{
+				projected++;
+			}
+		}
+
+		// Corners behind the camera don't project; the fill skips them and joins the projected ones either side,
+		// so the part of the area in view is still filled. The outline keeps every edge with both ends on screen.
+		if (projected >= 3)
+		{
+			boolean fillOpen = false;
+			for (int i = 0; i < length; i++)
+			{
+				Point corner = scratchCanvas[i];
+				if (corner == null)
+				{
+					continue;
+				}
+
+				if (fillOpen)
+				{
+					fillPath.lineTo(corner.getX(), corner.getY());
+				}
+				else
+				{
+					fillPath.moveTo(corner.getX(), corner.getY());
+					fillOpen = true;
+				}
+			}
+			fillPath.closePath();
+		}
+
+		boolean outlineOpen = false;
+		for (int i = 0; i < length; i++)
+		{
+			Point from = scratchCanvas[i];
+			Point to = scratchCanvas[(i + 1) % length];
+			if (from == null || to == null)
+			{
+				outlineOpen = false;
+				continue;
+			}
+
+			if (!outlineOpen)
+			{
+				outlinePath.moveTo(from.getX(), from.getY());
+				outlineOpen = true;
+			}
+			outlinePath.lineTo(to.getX(), to.getY());
+		}
+	}
+
+	private void updateContour(WorldView worldView, LocalPoint[] cloudCenters, int cloudCount, int dangerRadius)
+	{
+		if (scratchCenters.length < cloudCount)
+		{
+			scratchCenters = new int[Math.max(cloudCount, scratchCenters.length * 2)];
+		}
+
+		int count = 0;
+		for (int i = 0; i < cloudCount; i++)
+		{
+			LocalPoint center = cloudCenters[i];
+			if (center != null)
+			{
+				scratchCenters[count++] = (center.getSceneX() << 16) | (center.getSceneY() & 0xFFFF);
+			}
+		}
+		Arrays.sort(scratchCenters, 0, count);
+
+		if (count == centerCount
+			&& dangerRadius == radius
+			&& worldView.getBaseX() == baseX
+			&& worldView.getBaseY() == baseY
+			&& worldView.getPlane() == plane
+			&& Arrays.equals(scratchCenters, 0, count, centers, 0, count))
+		{
+			return;
+		}
+
+		centers = Arrays.copyOf(scratchCenters, count);
+		centerCount = count;
+		radius = dangerRadius;
+		baseX = worldView.getBaseX();
+		baseY = worldView.getBaseY();
+		plane = worldView.getPlane();
+
+		rebuildContour(worldView.getSizeX() - PROJECTED_SCENE_TILES_SHORT_OF_EDGE, worldView.getSizeY() - PROJECTED_SCENE_TILES_SHORT_OF_EDGE, worldView);
+	}
+
+	/**
+	 * @param maxSceneX Furthest scene tile whose corners can be projected, and likewise maxSceneY
+	 */
+	private void rebuildContour(int maxSceneX, int maxSceneY, WorldView worldView)
+	{
+		if (centerCount == 0 || radius < 0)
+		{
+			contourCorners = new LocalPoint[0];
+			loopStarts = new int[] {0};
+			return;
+		}
+
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		for (int i = 0; i < centerCount; i++)
+		{
+			int cx = centers[i] >> 16;
+			int cy = (short) centers[i];
+			minX = Math.min(minX, cx - radius);
+			minY = Math.min(minY, cy - radius);
+			maxX = Math.max(maxX, cx + radius);
+			maxY = Math.max(maxY, cy + radius);
+		}
+
+		// Tile mask with a one-tile empty border so every boundary edge has an empty neighbour inside the grid
+		int originX = minX - 1;
+		int originY = minY - 1;
+		int width = maxX - minX + 3;
+		int height = maxY - minY + 3;
+		boolean[] mask = new boolean[width * height];
+		int radiusSq = radius * radius;
+
+		for (int i = 0; i < centerCount; i++)
+		{
+			int sceneX = centers[i] >> 16;
+			int sceneY = (short) centers[i];
+			int cx = sceneX - originX;
+			int cy = sceneY - originY;
+			for (int dx = -radius; dx <= radius; dx++)
+			{
+				for (int dy = -radius; dy <= radius; dy++)
+				{
+					if (dx * dx + dy * dy <= radiusSq
+						&& sceneX + dx >= MIN_PROJECTED_SCENE_TILE && sceneX + dx <= maxSceneX
+						&& sceneY + dy >= MIN_PROJECTED_SCENE_TILE && sceneY + dy <= maxSceneY)
+					{
+						mask[(cy + dy) * width + (cx + dx)] = true;
+					}
+				}
+			}
+		}
+
+		// Directed boundary edges keyed by start corner, interior on the left.
+		// A corner has two outgoing edges only where two tiles touch diagonally.
+		int cornerColumns = width + 1;
+		int cornerCount = cornerColumns * (height + 1);
+		int[] nextA = new int[cornerCount];
+		int[] nextB = new int[cornerCount];
+		Arrays.fill(nextA, -1);
+		Arrays.fill(nextB, -1);
+		int edgeCount = 0;
+
+		for (int y = 1; y < height - 1; y++)
+		{
+			for (int x = 1; x < width - 1; x++)
+			{
+				if (!mask[y * width + x])
+				{
+					continue;
+				}
+
+				int bottomLeft = y * cornerColumns + x;
+				int bottomRight = bottomLeft + 1;
+				int topLeft = bottomLeft + cornerColumns;
+				int topRight = topLeft + 1;
+
+				if (!mask[(y - 1) * width + x])
+				{
+					edgeCount += addEdge(nextA, nextB, bottomLeft, bottomRight);
+				}
+				if (!mask[y * width + x + 1])
+				{
+					edgeCount += addEdge(nextA, nextB, bottomRight, topRight);
+				}
+				if (!mask[(y + 1) * width + x])
+				{
+					edgeCount += addEdge(nextA, nextB, topRight, topLeft);
+				}
+				if (!mask[y * width + x - 1])
+				{
+					edgeCount += addEdge(nextA, nextB, topLeft, bottomLeft);
+				}
+			}
+		}
+
+		LocalPoint[] corners = new LocalPoint[edgeCount];
+		int[] starts = new int[edgeCount + 1];
+		int written = 0;
+		int loops = 0;
+
+		for (int startCorner = 0; startCorner < cornerCount; startCorner++)
+		{
+			while (nextA[startCorner] != -1 || nextB[startCorner] != -1)
+			{
+				starts[loops++] = written;
+				int corner = startCorner;
+				do
+				{
+					corners[written++] = cornerLocalPoint(worldView, originX, originY, cornerColumns, corner);
+					int next;
+					if (nextA[corner] != -1)
+					{
+						next = nextA[corner];
+						nextA[corner] = -1;
+					}
+					else
+					{
+						next = nextB[corner];
+						nextB[corner] = -1;
+					}
+					corner = next;
+				}
+				while (corner != startCorner && corner != -1);
+			}
+		}
+		starts[loops] = written;
+
+		contourCorners = corners;
+		loopStarts = Arrays.copyOf(starts, loops + 1);
+	}
+
+	private static int addEdge(int[] nextA, int[] nextB, int from, int to)
+	{
+		if (nextA[from] == -1)
+		{
+			nextA[from] = to;
+		}
+		else
+		{
+			nextB[from] = to;
+		}
+		return 1;
+	}
+
+	private static LocalPoint cornerLocalPoint(WorldView worldView, int originX, int originY, int cornerColumns, int corner)
+	{
+		int sceneX = originX + corner % cornerColumns;
+		int sceneY = originY + corner / cornerColumns;
+		return new LocalPoint(sceneX << Perspective.LOCAL_COORD_BITS, sceneY << Perspective.LOCAL_COORD_BITS, worldView);
+	}
+}
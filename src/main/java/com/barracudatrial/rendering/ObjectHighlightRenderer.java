@@ -4,7 +4,6 @@ import com.barracudatrial.BarracudaTrialPlugin;
 import com.barracudatrial.CachedConfig;
 import com.barracudatrial.game.ObjectTracker;
 import com.barracudatrial.game.route.RouteWaypoint;
-import com.barracudatrial.game.route.RouteWaypointFilter;
 import lombok.RequiredArgsConstructor;
 import net.runelite.api.*;
 import net.runelite.api.coords.LocalPoint;
@@ -26,123 +25,57 @@ public class ObjectHighlightRenderer
 	private final BarracudaTrialPlugin plugin;
 	private final ModelOutlineRenderer modelOutlineRenderer;
 	private final BoatZoneRenderer boatZoneRenderer;
+	private final CloudDangerArea cloudDangerArea = new CloudDangerArea();
+	private final ObjectiveHighlights objectiveHighlights = new ObjectiveHighlights();
+	private LocalPoint[] dangerousCloudCenters = new LocalPoint[8];
 
 	public void renderLostSupplies(Graphics2D graphics)
 	{
-		var cachedConfig = plugin.getCachedConfig();
-		var gameState = plugin.getGameState();
-		var route = gameState.getCurrentStaticRoute();
-		var currentLap = gameState.getCurrentLap();
-		var completedWaypointIndices = gameState.getCompletedWaypointIndices();
-
-		if (route == null || route.isEmpty())
-		{
-			return;
-		}
-
-		WorldView worldView = client.getTopLevelWorldView();
-		if (worldView == null)
+		var highlights = getObjectiveHighlights();
+		if (highlights == null)
 		{
 			return;
 		}
 
-		Scene scene = worldView.getScene();
-		if (scene == null)
-		{
-			return;
-		}
-
-		var trial = gameState.getCurrentTrial();
-		if (trial == null)
-		{
-			return;
-		}
-
-		var shipmentIds = trial.getShipmentBaseIds();
-
-		int nextWaypointIndex = gameState.getNextNavigableWaypointIndex();
-		WorldPoint currentWaypointLocation = null;
-
-		if (nextWaypointIndex < route.size())
+		var cachedConfig = plugin.getCachedConfig();
+		for (var highlight : highlights.getLostSupplies())
 		{
-			RouteWaypoint nextWaypoint = route.get(nextWaypointIndex);
-			if (nextWaypoint.getType() == RouteWaypoint.WaypointType.SHIPMENT)
-			{
-				currentWaypointLocation = nextWaypoint.getLocation();
-			}
-		}
-
-		for (int i = 0; i < route.size(); i++)
-		{
-			var waypoint = route.get(i);
-
-			if (waypoint.getType() != RouteWaypoint.WaypointType.SHIPMENT)
-			{
-				continue;
-			}
-
-			if (completedWaypointIndices.contains(i))
-			{
-				continue;
-			}
-
-			WorldPoint location = waypoint.getLocation();
-			GameObject shipmentObject = findShipmentAtLocation(scene, location, shipmentIds);
-			if (shipmentObject == null)
-			{
-				continue;
-			}
-
-			Color renderColor;
-			if (currentWaypointLocation != null && currentWaypointLocation.equals(location))
-			{
-				renderColor = cachedConfig.getObjectivesColorCurrentWaypoint();
-			}
-			else if (waypoint.getLap() != currentLap)
-			{
-				renderColor = cachedConfig.getObjectivesColorLaterLaps();
-			}
-			else
-			{
-				renderColor = cachedConfig.getObjectivesColorCurrentLap();
-			}
-
-			renderGameObjectWithHighlight(graphics, shipmentObject, renderColor, false);
+			renderGameObjectWithHighlight(graphics, highlight.object, getRoleColor(highlight.role, cachedConfig), false);
 		}
 	}
 
-	private GameObject findShipmentAtLocation(Scene scene, WorldPoint worldLocation, Set<Integer> shipmentIds)
+	/**
+	 * @return Highlights for the current route progress, rebuilt only if progress or scene objects changed
+	 */
+	private ObjectiveHighlights getObjectiveHighlights()
 	{
-		int plane = worldLocation.getPlane();
-		int sceneX = worldLocation.getX() - scene.getBaseX();
-		int sceneY = worldLocation.getY() - scene.getBaseY();
-
-		if (sceneX < 0 || sceneX >= 104 || sceneY < 0 || sceneY >= 104)
+		WorldView worldView = client.getTopLevelWorldView();
+		if (worldView == null)
 		{
 			return null;
 		}
 
-		Tile[][][] tiles = scene.getTiles();
-		if (tiles == null || tiles[plane] == null)
+		var gameState = plugin.getGameState();
+		if (objectiveHighlights.isStale(gameState, worldView))
 		{
-			return null;
+			objectiveHighlights.rebuild(client, gameState, worldView);
 		}
 
-		Tile tile = tiles[plane][sceneX][sceneY];
-		if (tile == null)
-		{
-			return null;
-		}
+		return objectiveHighlights;
+	}
 
-		for (GameObject gameObject : tile.getGameObjects())
+	private static Color getRoleColor(ObjectiveHighlights.Role role, CachedConfig cachedConfig)
+	{
+		switch (role)
 		{
-			if (gameObject != null && shipmentIds.contains(gameObject.getId()))
-			{
-				return gameObject;
-			}
+			case CURRENT_WAYPOINT:
+				return cachedConfig.getObjectivesColorCurrentWaypoint();
+			case LATER_LAPS:
+				return cachedConfig.getObjectivesColorLaterLaps();
+			case CURRENT_LAP:
+			default:
+				return cachedConfig.getObjectivesColorCurrentLap();
 		}
-
-		return null;
 	}
 
 	public void renderSpeedBoosts(Graphics2D graphics)
@@ -160,7 +93,15 @@ public class ObjectHighlightRenderer
 	{
 		CachedConfig cachedConfig = plugin.getCachedConfig();
 		Color color = cachedConfig.getCloudColor();
-		for (NPC cloudNpc : plugin.getGameState().getLightningClouds())
+		var lightningClouds = plugin.getGameState().getLightningClouds();
+
+		if (dangerousCloudCenters.length < lightningClouds.size())
+		{
+			dangerousCloudCenters = new LocalPoint[lightningClouds.size()];
+		}
+
+		int dangerousCloudCount = 0;
+		for (NPC cloudNpc : lightningClouds)
 		{
 			int currentAnimation = cloudNpc.getAnimation();
 
@@ -170,213 +111,98 @@ public class ObjectHighlightRenderer
 				continue;
 			}
 
-			renderCloudDangerAreaOnGround(graphics, cloudNpc, color);
-
-			renderNpcWithHighlight(graphics, cloudNpc, color);
+			dangerousCloudCenters[dangerousCloudCount++] = cloudNpc.getLocalLocation();
 		}
-	}
 
-	public void renderToadPickup(Graphics2D graphics)
-	{
-		var cached = plugin.getCachedConfig();
-		var state = plugin.getGameState();
-		var route = state.getCurrentStaticRoute();
-		if (route == null || route.isEmpty())
+		if (dangerousCloudCount == 0)
+		{
 			return;
+		}
 
-		int currentLap = state.getCurrentLap();
-		var completed = state.getCompletedWaypointIndices();
-		int nextWaypointIndex = state.getNextNavigableWaypointIndex();
-
-		for (int i = 0; i < route.size(); i++)
+		// All danger areas go down first as one merged shape, so overlapping clouds don't stack their fill
+		WorldView worldView = client.getTopLevelWorldView();
+		if (worldView != null)
 		{
-			var waypoint = route.get(i);
-			if (waypoint.getType() != RouteWaypoint.WaypointType.TOAD_PICKUP)
-				continue;
-
-			if (completed.contains(i))
-				continue;
-
-			if (waypoint.getLap() != currentLap)
-				continue;
-
-			var loc = waypoint.getLocation();
+			cloudDangerArea.render(graphics, client, worldView, dangerousCloudCenters, dangerousCloudCount, cachedConfig.getCloudDangerRadius(), color);
+		}
 
-			Color color;
-			if (i == nextWaypointIndex)
-			{
-				color = cached.getObjectivesColorCurrentWaypoint();
-			}
-			else
+		for (NPC cloudNpc : lightningClouds)
+		{
+			if (!ObjectTracker.isCloudSafe(cloudNpc.getAnimation()))
 			{
-				color = cached.getObjectivesColorCurrentLap();
+				renderNpcWithHighlight(graphics, cloudNpc, color);
 			}
+		}
+	}
 
-			var toadObject = RenderingUtils.findGameObjectAtWorldPoint(client, loc);
-			if (toadObject == null)
-				continue;
+	public void renderToadPickup(Graphics2D graphics)
+	{
+		var highlights = getObjectiveHighlights();
+		if (highlights == null)
+			return;
 
-			boatZoneRenderer.renderBoatZoneRectangle(graphics, loc, color);
-			renderGameObjectWithHighlight(graphics, toadObject, color, true);
+		var cached = plugin.getCachedConfig();
+		for (var highlight : highlights.getToadPickups())
+		{
+			var color = getRoleColor(highlight.role, cached);
+			boatZoneRenderer.renderBoatZoneRectangle(graphics, highlight.location, color);
+			renderGameObjectWithHighlight(graphics, highlight.object, color, true);
 		}
 	}
 
 	public void renderToadPillars(Graphics2D graphics)
 	{
-		var cached = plugin.getCachedConfig();
-		var state = plugin.getGameState();
-		var route = state.getCurrentStaticRoute();
-		if (route == null)
+		if (!plugin.getGameState().isHasThrowableObjective())
 			return;
 
-		if (!state.isHasThrowableObjective())
+		var highlights = getObjectiveHighlights();
+		if (highlights == null)
 			return;
 
-		int currentLap = state.getCurrentLap();
-		var completed = state.getCompletedWaypointIndices();
-		int currentWaypointIndex = state.getNextNavigableWaypointIndex();
-
-		var currentLapLocations = RouteWaypointFilter.getLocationsByTypeAndLap(
-				route, RouteWaypoint.WaypointType.TOAD_PILLAR, currentLap, completed);
-
-		var laterLapLocations = new HashSet<WorldPoint>();
-		for (int i = 0; i < route.size(); i++)
+		var cached = plugin.getCachedConfig();
+		for (var highlight : highlights.getToadPillars())
 		{
-			if (completed.contains(i))
-				continue;
-
-			var wp = route.get(i);
-			if (wp.getType() == RouteWaypoint.WaypointType.TOAD_PILLAR && wp.getLap() != currentLap)
-			{
-				laterLapLocations.add(wp.getLocation());
-			}
+			renderGameObjectWithHighlight(graphics, highlight.object, getRoleColor(highlight.role, cached), false);
 		}
-
-		List<WorldPoint> currentWaypointLocations = RouteWaypointFilter.findNextNavigableWaypoints(
-				route, currentWaypointIndex, completed, 2);
-
-		state.getKnownToadPillars().entrySet().stream()
-				.filter(e -> !e.getValue())
-				.map(Map.Entry::getKey)
-				.map(p -> RenderingUtils.findGameObjectAtWorldPoint(client, p))
-				.filter(Objects::nonNull)
-				.forEach(pillar -> {
-					var loc = pillar.getWorldLocation();
-
-					Color color;
-					if (currentWaypointLocations.contains(loc))
-					{
-						color = cached.getObjectivesColorCurrentWaypoint();
-					}
-					else if (currentLapLocations.contains(loc))
-					{
-						color = cached.getObjectivesColorCurrentLap();
-					}
-					else if (laterLapLocations.contains(loc))
-					{
-						return;
-					}
-					else
-					{
-						return;
-					}
-
-					renderGameObjectWithHighlight(graphics, pillar, color, false);
-				});
 	}
 
 	public void renderPortals(Graphics2D graphics)
 	{
-		var cached = plugin.getCachedConfig();
-		var state = plugin.getGameState();
-		var route = state.getCurrentStaticRoute();
-		if (route == null)
+		var highlights = getObjectiveHighlights();
+		if (highlights == null)
 			return;
 
-		int currentLap = state.getCurrentLap();
-		var completed = state.getCompletedWaypointIndices();
-		int currentWaypointIndex = state.getNextNavigableWaypointIndex();
-
-		var currentLapPortalLocations = RouteWaypointFilter.getLocationsByTypeAndLap(
-				route, RouteWaypoint.WaypointType.PORTAL_ENTER, currentLap, completed);
-
-		List<WorldPoint> next2WaypointLocations = RouteWaypointFilter.findNextNavigableWaypoints(
-				route, currentWaypointIndex, completed, 2);
-
-		for (WorldPoint portalLocation : currentLapPortalLocations)
+		var cached = plugin.getCachedConfig();
+		for (var highlight : highlights.getPortals())
 		{
-			var portalObject = RenderingUtils.findGameObjectAtWorldPoint(client, portalLocation);
-			if (portalObject == null)
-				continue;
-
-			Color color;
-			if (next2WaypointLocations.contains(portalLocation))
-			{
-				color = cached.getObjectivesColorCurrentWaypoint();
-			}
-			else
-			{
-				color = cached.getObjectivesColorCurrentLap();
-			}
-
-			renderGameObjectWithHighlight(graphics, portalObject, color, true);
+			renderGameObjectWithHighlight(graphics, highlight.object, getRoleColor(highlight.role, cached), true);
 		}
 	}
 
 	public void renderRumLocations(Graphics2D graphics)
 	{
-		var cached = plugin.getCachedConfig();
-		var state = plugin.getGameState();
-		var route = state.getCurrentStaticRoute();
-		if (route == null || route.isEmpty())
+		var highlights = getObjectiveHighlights();
+		if (highlights == null)
 			return;
 
-		int currentLap = state.getCurrentLap();
-		var completed = state.getCompletedWaypointIndices();
-		int nextWaypointIndex = state.getNextNavigableWaypointIndex();
-
-		for (int i = 0; i < route.size(); i++)
+		var cached = plugin.getCachedConfig();
+		for (var highlight : highlights.getRumLocations())
 		{
-			var waypoint = route.get(i);
-			var waypointType = waypoint.getType();
-
-			if (waypointType != RouteWaypoint.WaypointType.RUM_PICKUP &&
-			    waypointType != RouteWaypoint.WaypointType.RUM_DROPOFF)
-				continue;
-
-			if (completed.contains(i))
-				continue;
-
-			if (waypoint.getLap() != currentLap)
-				continue;
-
-			var loc = waypoint.getLocation();
-
-			Color color;
-			if (i == nextWaypointIndex || i == nextWaypointIndex + 1)
-			{
-				color = cached.getObjectivesColorCurrentWaypoint();
-			}
-			else
-			{
-				color = cached.getObjectivesColorCurrentLap();
-			}
-
-			boatZoneRenderer.renderBoatZoneRectangle(graphics, loc, color);
-			renderRumLocationHighlight(graphics, loc, color);
+			var color = getRoleColor(highlight.role, cached);
+			boatZoneRenderer.renderBoatZoneRectangle(graphics, highlight.location, color);
+			renderRumLocationHighlight(graphics, highlight, color);
 		}
 	}
 
-	private void renderRumLocationHighlight(Graphics2D graphics, WorldPoint rumLocationPoint, Color highlightColor)
+	private void renderRumLocationHighlight(Graphics2D graphics, ObjectiveHighlights.Highlight rumHighlight, Color highlightColor)
 	{
-		GameObject rumObjectAtLocation = RenderingUtils.findGameObjectAtWorldPoint(client, rumLocationPoint);
-		if (rumObjectAtLocation != null)
+		if (rumHighlight.object != null)
 		{
-			renderGameObjectWithHighlight(graphics, rumObjectAtLocation, highlightColor, true);
+			renderGameObjectWithHighlight(graphics, rumHighlight.object, highlightColor, true);
 		}
 		else
 		{
-			renderTileHighlightAtWorldPoint(graphics, rumLocationPoint, highlightColor);
+			renderTileHighlightAtWorldPoint(graphics, rumHighlight.location, highlightColor);
 		}
 	}
 
@@ -389,7 +215,7 @@ public class ObjectHighlightRenderer
 			Polygon tilePolygon = Perspective.getCanvasTilePoly(client, objectLocalPoint);
 			if (tilePolygon != null)
 			{
-				OverlayUtil.renderPolygon(graphics, tilePolygon, highlightColor);
+				OverlayUtil.renderPolygon(graphics, tilePolygon, highlightColor, RenderPalette.TILE_FILL, RenderPalette.TILE_STROKE);
 			}
 		}
 
@@ -414,7 +240,7 @@ public class ObjectHighlightRenderer
 		Polygon tilePolygon = Perspective.getCanvasTilePoly(client, npcLocalPoint);
 		if (tilePolygon != null)
 		{
-			OverlayUtil.renderPolygon(graphics, tilePolygon, highlightColor);
+			OverlayUtil.renderPolygon(graphics, tilePolygon, highlightColor, RenderPalette.TILE_FILL, RenderPalette.TILE_STROKE);
 		}
 
 		modelOutlineRenderer.drawOutline(npc, 2, highlightColor, 4);
@@ -422,7 +248,6 @@ public class ObjectHighlightRenderer
 
 	private void drawTileObjectHull(Graphics2D g, TileObject object, Color borderColor)
 	{
-		Stroke stroke = new BasicStroke(2f);
 		Shape poly = null;
 		Shape poly2 = null;
 
@@ -450,59 +275,15 @@ public class ObjectHighlightRenderer
 			poly = object.getCanvasTilePoly();
 		}
 
-		Color fillColor = new Color(borderColor.getRed(), borderColor.getGreen(), borderColor.getBlue(), 50);
+		Color fillColor = plugin.getCachedConfig().getPalette().getHullFillColor(borderColor);
 
 		if (poly != null)
 		{
-			OverlayUtil.renderPolygon(g, poly, borderColor, fillColor, stroke);
+			OverlayUtil.renderPolygon(g, poly, borderColor, fillColor, RenderPalette.HULL_STROKE);
 		}
 		if (poly2 != null)
 		{
-			OverlayUtil.renderPolygon(g, poly2, borderColor, fillColor, stroke);
-		}
-	}
-
-	private void renderCloudDangerAreaOnGround(Graphics2D graphics, NPC cloudNpc, Color dangerAreaColor)
-	{
-		CachedConfig cachedConfig = plugin.getCachedConfig();
-		LocalPoint cloudCenterPoint = cloudNpc.getLocalLocation();
-		if (cloudCenterPoint == null)
-		{
-			return;
-		}
-
-		WorldView worldView = client.getTopLevelWorldView();
-		if (worldView == null)
-		{
-			return;
-		}
-
-		int dangerRadiusInTiles = cachedConfig.getCloudDangerRadius();
-
-		for (int dx = -dangerRadiusInTiles; dx <= dangerRadiusInTiles; dx++)
-		{
-			for (int dy = -dangerRadiusInTiles; dy <= dangerRadiusInTiles; dy++)
-			{
-				boolean isTileWithinCircle = (dx * dx + dy * dy <= dangerRadiusInTiles * dangerRadiusInTiles);
-				if (isTileWithinCircle)
-				{
-					LocalPoint tilePoint = new LocalPoint(
-							cloudCenterPoint.getX() + dx * Perspective.LOCAL_TILE_SIZE,
-							cloudCenterPoint.getY() + dy * Perspective.LOCAL_TILE_SIZE,
-							worldView
-					);
-
-					Polygon tilePolygon = Perspective.getCanvasTilePoly(client, tilePoint);
-					if (tilePolygon != null)
-					{
-						Color transparentFillColor = new Color(dangerAreaColor.getRed(), dangerAreaColor.getGreen(), dangerAreaColor.getBlue(), 30);
-						graphics.setColor(transparentFillColor);
-						graphics.fill(tilePolygon);
-						graphics.setColor(dangerAreaColor);
-						graphics.draw(tilePolygon);
-					}
-				}
-			}
+			OverlayUtil.renderPolygon(g, poly2, borderColor, fillColor, RenderPalette.HULL_STROKE);
 		}
 	}
 
@@ -528,7 +309,7 @@ public class ObjectHighlightRenderer
 		Polygon tilePolygon = Perspective.getCanvasTilePoly(client, tileLocalPoint);
 		if (tilePolygon != null)
 		{
-			OverlayUtil.renderPolygon(graphics, tilePolygon, highlightColor);
+			OverlayUtil.renderPolygon(graphics, tilePolygon, highlightColor, RenderPalette.TILE_FILL, RenderPalette.TILE_STROKE);
 		}
 
 		if (label != null)
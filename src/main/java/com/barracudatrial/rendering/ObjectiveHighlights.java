@@ -0,0 +1,256 @@
+package com.barracudatrial.rendering;
+
+import com.barracudatrial.game.State;
+import com.barracudatrial.game.route.RouteWaypoint;
+import com.barracudatrial.game.route.RouteWaypointFilter;
+import com.barracudatrial.game.route.TrialConfig;
+import lombok.Getter;
+import net.runelite.api.Client;
+import net.runelite.api.GameObject;
+import net.runelite.api.Scene;
+import net.runelite.api.Tile;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ready-to-draw objective highlights for the current trial, lap and route progress.
+ * Scanning the route, filtering by lap and finding scene objects only happens when a waypoint is completed,
+ * the lap or route changes, or objects spawn/despawn; every other frame just iterates these lists.
+ */
+class ObjectiveHighlights
+{
+	enum Role
+	{
+		CURRENT_WAYPOINT,
+		CURRENT_LAP,
+		LATER_LAPS
+	}
+
+	static class Highlight
+	{
+		// Null if the object isn't in the scene (only kept for highlights that fall back to the tile)
+		final GameObject object;
+		final WorldPoint location;
+		final Role role;
+
+		Highlight(GameObject object, WorldPoint location, Role role)
+		{
+			this.object = object;
+			this.location = location;
+			this.role = role;
+		}
+	}
+
+	@Getter
+	private final List<Highlight> lostSupplies = new ArrayList<>();
+	@Getter
+	private final List<Highlight> toadPickups = new ArrayList<>();
+	@Getter
+	private final List<Highlight> toadPillars = new ArrayList<>();
+	@Getter
+	private final List<Highlight> portals = new ArrayList<>();
+	@Getter
+	private final List<Highlight> rumLocations = new ArrayList<>();
+
+	private TrialConfig trial;
+	private List<RouteWaypoint> route;
+	private long routeProgressVersion = -1;
+	private long sceneObjectsVersion = -1;
+	private int baseX = Integer.MIN_VALUE;
+	private int baseY = Integer.MIN_VALUE;
+
+	boolean isStale(State state, WorldView worldView)
+	{
+		return trial != state.getCurrentTrial()
+			|| route != state.getCurrentStaticRoute()
+			|| routeProgressVersion != state.getRouteProgressVersion()
+			|| sceneObjectsVersion != state.getSceneObjectsVersion()
+			|| baseX != worldView.getBaseX()
+			|| baseY != worldView.getBaseY();
+	}
+
+	void rebuild(Client client, State state, WorldView worldView)
+	{
+		trial = state.getCurrentTrial();
+		route = state.getCurrentStaticRoute();
+		routeProgressVersion = state.getRouteProgressVersion();
+		sceneObjectsVersion = state.getSceneObjectsVersion();
+		baseX = worldView.getBaseX();
+		baseY = worldView.getBaseY();
+
+		lostSupplies.clear();
+		toadPickups.clear();
+		toadPillars.clear();
+		portals.clear();
+		rumLocations.clear();
+
+		if (route == null || route.isEmpty() || trial == null)
+		{
+			return;
+		}
+
+		int currentLap = state.getCurrentLap();
+		var completed = state.getCompletedWaypointIndices();
+		int nextWaypointIndex = state.getNextNavigableWaypointIndex();
+		List<WorldPoint> next2WaypointLocations = RouteWaypointFilter.findNextNavigableWaypoints(
+				route, nextWaypointIndex, completed, 2);
+
+		Scene scene = worldView.getScene();
+		if (scene != null)
+		{
+			buildLostSupplies(scene, currentLap, completed, nextWaypointIndex);
+		}
+
+		for (int i = 0; i < route.size(); i++)
+		{
+			var waypoint = route.get(i);
+			if (completed.contains(i) || waypoint.getLap() != currentLap)
+			{
+				continue;
+			}
+
+			var type = waypoint.getType();
+			var loc = waypoint.getLocation();
+
+			if (type == RouteWaypoint.WaypointType.TOAD_PICKUP)
+			{
+				var toadObject = RenderingUtils.findGameObjectAtWorldPoint(client, loc);
+				if (toadObject != null)
+				{
+					var role = i == nextWaypointIndex ? Role.CURRENT_WAYPOINT : Role.CURRENT_LAP;
+					toadPickups.add(new Highlight(toadObject, loc, role));
+				}
+			}
+			else if (type == RouteWaypoint.WaypointType.RUM_PICKUP || type == RouteWaypoint.WaypointType.RUM_DROPOFF)
+			{
+				var role = (i == nextWaypointIndex || i == nextWaypointIndex + 1) ? Role.CURRENT_WAYPOINT : Role.CURRENT_LAP;
+				rumLocations.add(new Highlight(RenderingUtils.findGameObjectAtWorldPoint(client, loc), loc, role));
+			}
+		}
+
+		var currentLapPortalLocations = RouteWaypointFilter.getLocationsByTypeAndLap(
+				route, RouteWaypoint.WaypointType.PORTAL_ENTER, currentLap, completed);
+		for (WorldPoint portalLocation : currentLapPortalLocations)
+		{
+			var portalObject = RenderingUtils.findGameObjectAtWorldPoint(client, portalLocation);
+			if (portalObject != null)
+			{
+				var role = next2WaypointLocations.contains(portalLocation) ? Role.CURRENT_WAYPOINT : Role.CURRENT_LAP;
+				portals.add(new Highlight(portalObject, portalLocation, role));
+			}
+		}
+
+		var currentLapPillarLocations = RouteWaypointFilter.getLocationsByTypeAndLap(
+				route, RouteWaypoint.WaypointType.TOAD_PILLAR, currentLap, completed);
+		for (Map.Entry<WorldPoint, Boolean> entry : state.getKnownToadPillars().entrySet())
+		{
+			if (entry.getValue())
+			{
+				continue;
+			}
+
+			var pillar = RenderingUtils.findGameObjectAtWorldPoint(client, entry.getKey());
+			if (pillar == null)
+			{
+				continue;
+			}
+
+			// Pillars that are only on later laps aren't highlighted
+			var loc = pillar.getWorldLocation();
+			if (next2WaypointLocations.contains(loc))
+			{
+				toadPillars.add(new Highlight(pillar, loc, Role.CURRENT_WAYPOINT));
+			}
+			else if (currentLapPillarLocations.contains(loc))
+			{
+				toadPillars.add(new Highlight(pillar, loc, Role.CURRENT_LAP));
+			}
+		}
+	}
+
+	private void buildLostSupplies(Scene scene, int currentLap, Set<Integer> completed, int nextWaypointIndex)
+	{
+		var shipmentIds = trial.getShipmentBaseIds();
+
+		WorldPoint currentWaypointLocation = null;
+		if (nextWaypointIndex < route.size())
+		{
+			RouteWaypoint nextWaypoint = route.get(nextWaypointIndex);
+			if (nextWaypoint.getType() == RouteWaypoint.WaypointType.SHIPMENT)
+			{
+				currentWaypointLocation = nextWaypoint.getLocation();
+			}
+		}
+
+		for (int i = 0; i < route.size(); i++)
+		{
+			var waypoint = route.get(i);
+			if (waypoint.getType() != RouteWaypoint.WaypointType.SHIPMENT || completed.contains(i))
+			{
+				continue;
+			}
+
+			WorldPoint location = waypoint.getLocation();
+			GameObject shipmentObject = findShipmentAtLocation(scene, location, shipmentIds);
+			if (shipmentObject == null)
+			{
+				continue;
+			}
+
+			Role role;
+			if (currentWaypointLocation != null && currentWaypointLocation.equals(location))
+			{
+				role = Role.CURRENT_WAYPOINT;
+			}
+			else if (waypoint.getLap() != currentLap)
+			{
+				role = Role.LATER_LAPS;
+			}
+			else
+			{
+				role = Role.CURRENT_LAP;
+			}
+
+			lostSupplies.add(new Highlight(shipmentObject, location, role));
+		}
+	}
+
+	private static GameObject findShipmentAtLocation(Scene scene, WorldPoint worldLocation, Set<Integer> shipmentIds)
+	{
+		int plane = worldLocation.getPlane();
+		int sceneX = worldLocation.getX() - scene.getBaseX();
+		int sceneY = worldLocation.getY() - scene.getBaseY();
+
+		if (sceneX < 0 || sceneX >= 104 || sceneY < 0 || sceneY >= 104)
+		{
+			return null;
+		}
+
+		Tile[][][] tiles = scene.getTiles();
+		if (tiles == null || tiles[plane] == null)
+		{
+			return null;
+		}
+
+		Tile tile = tiles[plane][sceneX][sceneY];
+		if (tile == null)
+		{
+			return null;
+		}
+
+		for (GameObject gameObject : tile.getGameObjects())
+		{
+			if (gameObject != null && shipmentIds.contains(gameObject.getId()))
+			{
+				return gameObject;
+			}
+		}
+
+		return null;
+	}
+}
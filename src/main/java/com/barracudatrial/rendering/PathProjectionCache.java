@@ -0,0 +1,360 @@
+package com.barracudatrial.rendering;
+
+import net.runelite.api.Client;
+import net.runelite.api.Perspective;
+import net.runelite.api.Point;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Caches the per-frame work of drawing the optimal path.
+ * Local points, wind catcher membership and level-of-detail decimation only change when the path or route progress changes;
+ * canvas projections only change when the camera (yaw, pitch, zoom, position) or viewport moves,
+ * and are computed lazily so points the LOD pass skips are never projected.
+ */
+class PathProjectionCache
+{
+	// Max distance (in tiles) a point may be from the simplified line before it is kept
+	private static final double LOD_NEAR_TOLERANCE = 0.35;
+	private static final double LOD_FAR_TOLERANCE = 1.5;
+
+	private List<WorldPoint> path;
+	private int pathSize = -1;
+	private long pathVersion = -1;
+	private long routeProgressVersion = -1;
+
+	private LocalPoint[] localPoints = new LocalPoint[0];
+	private int localBaseX;
+	private int localBaseY;
+	private int localPlane;
+
+	// Path indices where each wind catcher group's first location appears, and the last index of its last location
+	private int[][] windCatcherFirstIndices = new int[0][];
+	private int[] windCatcherLastIndex = new int[0];
+	private boolean[] windCatcherFlags = new boolean[0];
+	private int windCatcherFlagsStartIndex = -1;
+
+	// Ramer-Douglas-Peucker keep flags; the far set is always a subset of the near set
+	private boolean[] lodNear = new boolean[0];
+	private boolean[] lodFar = new boolean[0];
+
+	private Point[] canvasPoints = new Point[0];
+	private int[] projectedStamp = new int[0];
+	// Bumped whenever the camera, scene or path changes, so every cached canvas point becomes stale at once
+	private int projectionStamp = 0;
+	private boolean projectionValid = false;
+	private int cameraYaw;
+	private int cameraPitch;
+	private int cameraScale;
+	private int cameraX;
+	private int cameraY;
+	private int cameraZ;
+	private int viewportWidth;
+	private int viewportHeight;
+
+	boolean isStale(List<WorldPoint> path, long pathVersion, long routeProgressVersion)
+	{
+		return this.path != path
+			|| this.pathSize != path.size()
+			|| this.pathVersion != pathVersion
+			|| this.routeProgressVersion != routeProgressVersion;
+	}
+
+	/**
+	 * Recomputes everything that depends on the path and route progress (but not on the camera)
+	 */
+	void rebuild(WorldView worldView, List<WorldPoint> path, long pathVersion, long routeProgressVersion, List<PathRenderer.WindCatcherGroup> windCatcherGroups)
+	{
+		this.path = path;
+		this.pathSize = path.size();
+		this.pathVersion = pathVersion;
+		this.routeProgressVersion = routeProgressVersion;
+
+		if (localPoints.length != pathSize)
+		{
+			localPoints = new LocalPoint[pathSize];
+			canvasPoints = new Point[pathSize];
+			projectedStamp = new int[pathSize];
+			windCatcherFlags = new boolean[pathSize];
+			lodNear = new boolean[pathSize];
+			lodFar = new boolean[pathSize];
+		}
+		rebuildLocalPoints(worldView);
+
+		windCatcherFirstIndices = new int[windCatcherGroups.size()][];
+		windCatcherLastIndex = new int[windCatcherGroups.size()];
+		for (int g = 0; g < windCatcherGroups.size(); g++)
+		{
+			PathRenderer.WindCatcherGroup group = windCatcherGroups.get(g);
+
+			int firstCount = 0;
+			int lastIndex = -1;
+			for (int i = 0; i < pathSize; i++)
+			{
+				WorldPoint point = path.get(i);
+				if (point.equals(group.firstLocation))
+				{
+					firstCount++;
+				}
+				if (point.equals(group.lastLocation))
+				{
+					lastIndex = i;
+				}
+			}
+
+			int[] firstIndices = new int[firstCount];
+			int k = 0;
+			for (int i = 0; i < pathSize && k < firstCount; i++)
+			{
+				if (path.get(i).equals(group.firstLocation))
+				{
+					firstIndices[k++] = i;
+				}
+			}
+
+			windCatcherFirstIndices[g] = firstIndices;
+			windCatcherLastIndex[g] = lastIndex;
+		}
+
+		windCatcherFlagsStartIndex = -1;
+		projectionValid = false;
+
+		rebuildLevelOfDetail();
+	}
+
+	/**
+	 * Re-projects the cached local points to canvas coordinates if the camera or scene moved since last frame
+	 */
+	void updateProjection(Client client, WorldView worldView)
+	{
+		if (worldView.getBaseX() != localBaseX || worldView.getBaseY() != localBaseY || worldView.getPlane() != localPlane)
+		{
+			rebuildLocalPoints(worldView);
+			projectionValid = false;
+		}
+
+		int yaw = client.getCameraYaw();
+		int pitch = client.getCameraPitch();
+		int scale = client.getScale();
+		int x = client.getCameraX();
+		int y = client.getCameraY();
+		int z = client.getCameraZ();
+		int width = client.getViewportWidth();
+		int height = client.getViewportHeight();
+
+		if (projectionValid
+			&& yaw == cameraYaw && pitch == cameraPitch && scale == cameraScale
+			&& x == cameraX && y == cameraY && z == cameraZ
+			&& width == viewportWidth && height == viewportHeight)
+		{
+			return;
+		}
+
+		cameraYaw = yaw;
+		cameraPitch = pitch;
+		cameraScale = scale;
+		cameraX = x;
+		cameraY = y;
+		cameraZ = z;
+		viewportWidth = width;
+		viewportHeight = height;
+
+		projectionStamp++;
+		projectionValid = true;
+	}
+
+	/**
+	 * Changes whenever canvas points may have moved, so callers can cache anything built from them
+	 */
+	int getProjectionStamp()
+	{
+		return projectionStamp;
+	}
+
+	/**
+	 * @return Canvas point for the path index, or null if it's outside the scene or behind the camera
+	 */
+	Point getCanvasPoint(Client client, int index)
+	{
+		if (projectedStamp[index] != projectionStamp)
+		{
+			LocalPoint localPoint = localPoints[index];
+			canvasPoints[index] = localPoint != null
+				? Perspective.localToCanvas(client, localPoint, path.get(index).getPlane(), 0)
+				: null;
+			projectedStamp[index] = projectionStamp;
+		}
+
+		return canvasPoints[index];
+	}
+
+	/**
+	 * @param far Whether the point is far enough away to use the coarser tolerance
+	 * @return Whether the point survives decimation; endpoints and wind catcher boundaries always do
+	 */
+	boolean isLodKept(int index, boolean far)
+	{
+		return far ? lodFar[index] : lodNear[index];
+	}
+
+	/**
+	 * Matches the original indexOf/lastIndexOf semantics on the path trimmed at startIndex:
+	 * a point belongs to a wind catcher group if it lies between the first occurrence of the group's
+	 * first location (at or after startIndex) and the last occurrence of its last location.
+	 */
+	boolean isWindCatcher(int index, int startIndex)
+	{
+		if (startIndex != windCatcherFlagsStartIndex)
+		{
+			Arrays.fill(windCatcherFlags, false);
+
+			for (int g = 0; g < windCatcherFirstIndices.length; g++)
+			{
+				int lastIndex = windCatcherLastIndex[g];
+				if (lastIndex < startIndex)
+				{
+					continue;
+				}
+
+				int firstIndex = -1;
+				for (int candidate : windCatcherFirstIndices[g])
+				{
+					if (candidate >= startIndex)
+					{
+						firstIndex = candidate;
+						break;
+					}
+				}
+
+				for (int i = Math.max(firstIndex, 0); firstIndex != -1 && i <= lastIndex; i++)
+				{
+					windCatcherFlags[i] = true;
+				}
+			}
+
+			windCatcherFlagsStartIndex = startIndex;
+		}
+
+		return windCatcherFlags[index];
+	}
+
+	private void rebuildLevelOfDetail()
+	{
+		Arrays.fill(lodNear, 0, pathSize, false);
+		Arrays.fill(lodFar, 0, pathSize, false);
+		if (pathSize == 0)
+		{
+			return;
+		}
+
+		// Decimate between pinned indices, so color changes at wind catchers stay exactly where they were
+		boolean[] pinned = new boolean[pathSize];
+		pinned[0] = true;
+		pinned[pathSize - 1] = true;
+		for (int g = 0; g < windCatcherFirstIndices.length; g++)
+		{
+			for (int firstIndex : windCatcherFirstIndices[g])
+			{
+				pinned[firstIndex] = true;
+			}
+			if (windCatcherLastIndex[g] >= 0)
+			{
+				pinned[windCatcherLastIndex[g]] = true;
+			}
+		}
+
+		int spanStart = 0;
+		for (int i = 1; i < pathSize; i++)
+		{
+			if (pinned[i])
+			{
+				simplify(spanStart, i, LOD_NEAR_TOLERANCE, lodNear);
+				simplify(spanStart, i, LOD_FAR_TOLERANCE, lodFar);
+				spanStart = i;
+			}
+		}
+		lodNear[0] = true;
+		lodFar[0] = true;
+	}
+
+	/**
+	 * Iterative Ramer-Douglas-Peucker over [start, end] in world tile coordinates; marks start, end and every kept point
+	 */
+	private void simplify(int start, int end, double tolerance, boolean[] keep)
+	{
+		keep[start] = true;
+		keep[end] = true;
+
+		int[] stack = new int[Math.max(2, 2 * (end - start + 1))];
+		int top = 0;
+		stack[top++] = start;
+		stack[top++] = end;
+		double toleranceSq = tolerance * tolerance;
+
+		while (top > 0)
+		{
+			int last = stack[--top];
+			int first = stack[--top];
+			if (last - first < 2)
+			{
+				continue;
+			}
+
+			WorldPoint a = path.get(first);
+			WorldPoint b = path.get(last);
+			double dx = b.getX() - a.getX();
+			double dy = b.getY() - a.getY();
+			double lengthSq = dx * dx + dy * dy;
+
+			int farthest = -1;
+			double farthestDistanceSq = toleranceSq;
+			for (int i = first + 1; i < last; i++)
+			{
+				WorldPoint p = path.get(i);
+				double px = p.getX() - a.getX();
+				double py = p.getY() - a.getY();
+				double distanceSq;
+				if (lengthSq == 0)
+				{
+					distanceSq = px * px + py * py;
+				}
+				else
+				{
+					double cross = px * dy - py * dx;
+					distanceSq = cross * cross / lengthSq;
+				}
+
+				if (distanceSq > farthestDistanceSq)
+				{
+					farthestDistanceSq = distanceSq;
+					farthest = i;
+				}
+			}
+
+			if (farthest != -1)
+			{
+				keep[farthest] = true;
+				stack[top++] = first;
+				stack[top++] = farthest;
+				stack[top++] = farthest;
+				stack[top++] = last;
+			}
+		}
+	}
+
+	private void rebuildLocalPoints(WorldView worldView)
+	{
+		localBaseX = worldView.getBaseX();
+		localBaseY = worldView.getBaseY();
+		localPlane = worldView.getPlane();
+
+		for (int i = 0; i < pathSize; i++)
+		{
+			localPoints[i] = RenderingUtils.localPointFromWorldIncludingExtended(worldView, path.get(i));
+		}
+	}
+}
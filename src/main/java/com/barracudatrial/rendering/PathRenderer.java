@@ -16,9 +16,9 @@ import net.runelite.api.WorldView;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
 
-import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.geom.Path2D;
 import java.util.ArrayList;
 import java.util.List;
@@ -29,6 +29,34 @@ public class PathRenderer
 {
 	private final Client client;
 	private final BarracudaTrialPlugin plugin;
+	private final PathProjectionCache projectionCache = new PathProjectionCache();
+
+	// Points further than this (in tiles) from the start of the drawn path use the coarser LOD tolerance
+	private static final int LOD_FAR_DISTANCE = 24;
+	// Extra canvas margin around the viewport before off-screen path points are culled
+	private static final int VIEWPORT_CULL_MARGIN = 64;
+
+	// Scratch buffers reused whenever the path segments are rebuilt
+	private Point[] scratchCanvasPoints = new Point[0];
+	private boolean[] scratchWindCatcherFlags = new boolean[0];
+	private boolean[] scratchBreakBefore = new boolean[0];
+	private final Rectangle viewportBounds = new Rectangle();
+
+	// Curves from the last rebuild, redrawn as-is while the camera, draw start and colors are unchanged
+	private final List<Path2D.Double> segmentPaths = new ArrayList<>();
+	private final List<Color> segmentColors = new ArrayList<>();
+	private int segmentCount = 0;
+	private int segmentsProjectionStamp = -1;
+	private int segmentsStartIndex = -1;
+	private int segmentsStartCanvasX;
+	private int segmentsStartCanvasY;
+	private Color segmentsPathColor;
+	private Color segmentsWindCatcherColor;
+
+	// Debug waypoint labels only change when the route or its completion does
+	private List<RouteWaypoint> waypointLabelsRoute;
+	private long waypointLabelsVersion = -1;
+	private String[] waypointLabels = new String[0];
 
 	public void renderOptimalPath(Graphics2D graphics)
 	{
@@ -49,9 +77,9 @@ public class PathRenderer
 
 		// Trim the path to start from the closest point to our visual position
 		// This prevents visual lag when the pathfinding position is behind the rendering position
-		List<WorldPoint> trimmedPath = getTrimmedPathForRendering(visualFrontPositionTransformed, path);
+		int renderStartIndex = getRenderStartIndex(visualFrontPositionTransformed, path);
 
-		drawSmoothPathWithBezier(graphics, trimmedPath, visualFrontPositionTransformed);
+		drawSmoothPathWithBezier(graphics, path, renderStartIndex, visualFrontPositionTransformed);
 		renderWindCatcherHighlights(graphics);
 
 		if (cachedConfig.isShowPathTiles())
@@ -96,63 +124,32 @@ public class PathRenderer
 		return boatWorldEntity.transformToMainWorld(frontBoatTileLocal);
 	}
 
-	private List<WorldPoint> getTrimmedPathForRendering(LocalPoint visualPosition, List<WorldPoint> path)
+	private int getRenderStartIndex(LocalPoint visualPosition, List<WorldPoint> path)
 	{
 		if (path.isEmpty() || visualPosition == null)
 		{
-			return path;
+			return 0;
 		}
 
 		WorldView topLevelWorldView = client.getTopLevelWorldView();
 		if (topLevelWorldView == null)
 		{
-			return path;
+			return 0;
 		}
 
-		int closestIndex = findClosestPointOnPath(visualPosition, path, topLevelWorldView);
+		// Path tiles map to the center of their local tile, so undo that to get a fractional world position
+		double visualWorldX = topLevelWorldView.getBaseX() + (visualPosition.getX() - Perspective.LOCAL_HALF_TILE_SIZE) / (double) Perspective.LOCAL_TILE_SIZE;
+		double visualWorldY = topLevelWorldView.getBaseY() + (visualPosition.getY() - Perspective.LOCAL_HALF_TILE_SIZE) / (double) Perspective.LOCAL_TILE_SIZE;
+		int closestIndex = plugin.getGameState().getPathCursor().closestIndex(visualWorldX, visualWorldY);
 
 		// Step forward along the path to bias toward showing "forward progress"
 		int forwardBiasOffset = 2;
-		int startIndex = Math.min(path.size() - 1, closestIndex + forwardBiasOffset);
-
-		if (startIndex >= path.size())
-		{
-			return new ArrayList<>();
-		}
-
-		return new ArrayList<>(path.subList(startIndex, path.size()));
-	}
-
-	private int findClosestPointOnPath(LocalPoint visualPosition, List<WorldPoint> path, WorldView worldView)
-	{
-		int closestIndex = 0;
-		double minDistance = Double.POSITIVE_INFINITY;
-
-		for (int i = 0; i < path.size(); i++)
-		{
-			LocalPoint pathPointLocal = RenderingUtils.localPointFromWorldIncludingExtended(worldView, path.get(i));
-			if (pathPointLocal == null)
-			{
-				continue;
-			}
-
-			int dx = visualPosition.getX() - pathPointLocal.getX();
-			int dy = visualPosition.getY() - pathPointLocal.getY();
-			double distance = Math.sqrt(dx * dx + dy * dy);
-
-			if (distance < minDistance)
-			{
-				minDistance = distance;
-				closestIndex = i;
-			}
-		}
-
-		return closestIndex;
+		return Math.min(path.size() - 1, closestIndex + forwardBiasOffset);
 	}
 
-	private void drawSmoothPathWithBezier(Graphics2D graphics, List<WorldPoint> waypoints, LocalPoint visualStartPosition)
+	private void drawSmoothPathWithBezier(Graphics2D graphics, List<WorldPoint> path, int startIndex, LocalPoint visualStartPosition)
 	{
-		if (waypoints.isEmpty() || visualStartPosition == null)
+		if (path.isEmpty() || visualStartPosition == null)
 		{
 			return;
 		}
@@ -172,114 +169,212 @@ public class PathRenderer
 			return;
 		}
 
-		List<WindCatcherGroup> windCatcherGroups = getWindCatcherGroups();
+		var gameState = plugin.getGameState();
+		if (projectionCache.isStale(path, gameState.getPathVersion(), gameState.getRouteProgressVersion()))
+		{
+			projectionCache.rebuild(topLevelWorldView, path, gameState.getPathVersion(), gameState.getRouteProgressVersion(), getWindCatcherGroups());
+		}
+		projectionCache.updateProjection(client, topLevelWorldView);
+
+		if (segmentsProjectionStamp != projectionCache.getProjectionStamp()
+			|| segmentsStartIndex != startIndex
+			|| segmentsStartCanvasX != startCanvas.getX()
+			|| segmentsStartCanvasY != startCanvas.getY()
+			|| segmentsPathColor != cachedConfig.getPathColor()
+			|| segmentsWindCatcherColor != cachedConfig.getWindCatcherColor())
+		{
+			rebuildSegments(path, startIndex, startCanvas, cachedConfig);
+
+			segmentsProjectionStamp = projectionCache.getProjectionStamp();
+			segmentsStartIndex = startIndex;
+			segmentsStartCanvasX = startCanvas.getX();
+			segmentsStartCanvasY = startCanvas.getY();
+			segmentsPathColor = cachedConfig.getPathColor();
+			segmentsWindCatcherColor = cachedConfig.getWindCatcherColor();
+		}
+
+		if (segmentCount == 0)
+		{
+			return;
+		}
+
+		graphics.setStroke(cachedConfig.getPalette().getPathStroke());
+
+		for (int i = 0; i < segmentCount; i++)
+		{
+			graphics.setColor(segmentColors.get(i));
+			graphics.draw(segmentPaths.get(i));
+		}
+	}
+
+	private void rebuildSegments(List<WorldPoint> path, int startIndex, Point startCanvas, CachedConfig cachedConfig)
+	{
+		segmentCount = 0;
 
-		List<Point> canvasPoints = new ArrayList<>();
-		List<Boolean> isWindCatcherSegment = new ArrayList<>();
+		int pointCount = collectLevelOfDetailPoints(path, startIndex);
+		if (pointCount == 0)
+		{
+			return;
+		}
 
-		for (int wpIdx = 0; wpIdx < waypoints.size(); wpIdx++)
+		// Each run is a connected stretch of on-screen points; culled stretches in between leave a gap
+		int runStart = 0;
+		while (runStart < pointCount)
 		{
-			WorldPoint wp = waypoints.get(wpIdx);
-			LocalPoint lp = RenderingUtils.localPointFromWorldIncludingExtended(topLevelWorldView, wp);
-			if (lp != null)
+			int runEnd = runStart;
+			while (runEnd + 1 < pointCount && !scratchBreakBefore[runEnd + 1])
 			{
-				Point cp = Perspective.localToCanvas(client, lp, wp.getPlane(), 0);
-				if (cp != null)
-				{
-					canvasPoints.add(cp);
+				runEnd++;
+			}
 
-					boolean isWindCatcher = false;
-					for (WindCatcherGroup group : windCatcherGroups)
-					{
-						int firstIdx = waypoints.indexOf(group.firstLocation);
-						int lastIdx = waypoints.lastIndexOf(group.lastLocation);
+			buildColorSegments(runStart, runEnd, runStart == 0 ? startCanvas : null, cachedConfig);
+			runStart = runEnd + 1;
+		}
+	}
 
-						if (firstIdx != -1 && lastIdx != -1 && wpIdx >= firstIdx && wpIdx <= lastIdx)
-						{
-							isWindCatcher = true;
-							break;
-						}
-					}
+	/**
+	 * Fills the scratch buffers with the points worth drawing: decimated in world space (coarser far from the boat),
+	 * then with stretches that never come near the viewport dropped.
+	 * @return Number of points written
+	 */
+	private int collectLevelOfDetailPoints(List<WorldPoint> path, int startIndex)
+	{
+		int remaining = path.size() - startIndex;
+		if (scratchCanvasPoints.length < remaining)
+		{
+			scratchCanvasPoints = new Point[path.size()];
+			scratchWindCatcherFlags = new boolean[path.size()];
+			scratchBreakBefore = new boolean[path.size()];
+		}
 
-					isWindCatcherSegment.add(isWindCatcher);
-				}
+		WorldPoint origin = path.get(startIndex);
+		int lastIndex = path.size() - 1;
+		int pointCount = 0;
+
+		for (int i = startIndex; i <= lastIndex; i++)
+		{
+			WorldPoint point = path.get(i);
+			boolean far = Math.max(Math.abs(point.getX() - origin.getX()), Math.abs(point.getY() - origin.getY())) > LOD_FAR_DISTANCE;
+			if (i != startIndex && i != lastIndex && !projectionCache.isLodKept(i, far))
+			{
+				continue;
+			}
+
+			Point cp = projectionCache.getCanvasPoint(client, i);
+			if (cp != null)
+			{
+				scratchCanvasPoints[pointCount] = cp;
+				scratchWindCatcherFlags[pointCount] = projectionCache.isWindCatcher(i, startIndex);
+				pointCount++;
 			}
 		}
 
-		if (canvasPoints.isEmpty())
+		viewportBounds.setBounds(
+			client.getViewportXOffset() - VIEWPORT_CULL_MARGIN,
+			client.getViewportYOffset() - VIEWPORT_CULL_MARGIN,
+			client.getViewportWidth() + 2 * VIEWPORT_CULL_MARGIN,
+			client.getViewportHeight() + 2 * VIEWPORT_CULL_MARGIN);
+
+		// Keep a point only if a line to one of its neighbours can be on screen (the first always connects to the boat)
+		int kept = 0;
+		boolean droppedSinceLastKept = false;
+		for (int k = 0; k < pointCount; k++)
 		{
-			return;
+			boolean needed = k == 0
+				|| isSegmentNearViewport(scratchCanvasPoints[k - 1], scratchCanvasPoints[k])
+				|| (k + 1 < pointCount && isSegmentNearViewport(scratchCanvasPoints[k], scratchCanvasPoints[k + 1]));
+
+			if (!needed)
+			{
+				droppedSinceLastKept = true;
+				continue;
+			}
+
+			scratchCanvasPoints[kept] = scratchCanvasPoints[k];
+			scratchWindCatcherFlags[kept] = scratchWindCatcherFlags[k];
+			scratchBreakBefore[kept] = droppedSinceLastKept;
+			droppedSinceLastKept = false;
+			kept++;
 		}
 
-		graphics.setStroke(new BasicStroke(cachedConfig.getPathWidth(), BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+		return kept;
+	}
 
-		drawPathSegments(graphics, canvasPoints, isWindCatcherSegment, startCanvas, cachedConfig);
+	private boolean isSegmentNearViewport(Point from, Point to)
+	{
+		return viewportBounds.intersectsLine(from.getX(), from.getY(), to.getX(), to.getY());
 	}
 
-	private void drawPathSegments(Graphics2D graphics, List<Point> canvasPoints, List<Boolean> isWindCatcherSegment, Point startCanvas, CachedConfig cachedConfig)
+	private void buildColorSegments(int runStart, int runEnd, Point startCanvas, CachedConfig cachedConfig)
 	{
 		Color normalColor = cachedConfig.getPathColor();
 		Color windCatcherColor = cachedConfig.getWindCatcherColor();
+		boolean[] isWindCatcherSegment = scratchWindCatcherFlags;
 
-		int segmentStart = -1;
-		Color currentColor = isWindCatcherSegment.get(0) ? windCatcherColor : normalColor;
+		int segmentStart = startCanvas != null ? -1 : runStart;
+		Color currentColor = isWindCatcherSegment[runStart] ? windCatcherColor : normalColor;
 
-		for (int i = 0; i <= canvasPoints.size(); i++)
+		for (int i = runStart; i <= runEnd + 1; i++)
 		{
-			boolean isLastPoint = (i == canvasPoints.size());
-			boolean colorChanged = !isLastPoint && i > 0 &&
-				(!isWindCatcherSegment.get(i).equals(isWindCatcherSegment.get(i - 1)));
+			boolean isLastPoint = (i == runEnd + 1);
+			boolean colorChanged = !isLastPoint && i > runStart &&
+				isWindCatcherSegment[i] != isWindCatcherSegment[i - 1];
 
 			if (colorChanged || isLastPoint)
 			{
 				int segmentEnd = i - 1;
-				drawSinglePathSegment(graphics, canvasPoints, segmentStart, segmentEnd, startCanvas, currentColor);
+				buildSinglePathSegment(segmentStart, segmentEnd, runStart, runEnd, startCanvas, currentColor);
 
 				if (!isLastPoint)
 				{
 					segmentStart = i - 1;
-					currentColor = isWindCatcherSegment.get(i) ? windCatcherColor : normalColor;
+					currentColor = isWindCatcherSegment[i] ? windCatcherColor : normalColor;
 				}
 			}
 		}
 	}
 
-	private void drawSinglePathSegment(Graphics2D graphics, List<Point> canvasPoints, int startIdx, int endIdx,
-	                                    Point startCanvas, Color color)
+	private void buildSinglePathSegment(int startIdx, int endIdx, int runStart, int runEnd, Point startCanvas, Color color)
 	{
 		if (startIdx > endIdx)
 		{
 			return;
 		}
 
-		Path2D.Double path = new Path2D.Double();
+		Point[] canvasPoints = scratchCanvasPoints;
+		if (segmentCount == segmentPaths.size())
+		{
+			segmentPaths.add(new Path2D.Double());
+			segmentColors.add(color);
+		}
+		Path2D.Double path = segmentPaths.get(segmentCount);
+		segmentColors.set(segmentCount, color);
+		segmentCount++;
+		path.reset();
 
 		if (startIdx == -1)
 		{
 			path.moveTo(startCanvas.getX(), startCanvas.getY());
-			if (!canvasPoints.isEmpty())
-			{
-				path.lineTo(canvasPoints.get(0).getX(), canvasPoints.get(0).getY());
-			}
-			startIdx = 0;
+			path.lineTo(canvasPoints[runStart].getX(), canvasPoints[runStart].getY());
+			startIdx = runStart;
 		}
 		else
 		{
-			path.moveTo(canvasPoints.get(startIdx).getX(), canvasPoints.get(startIdx).getY());
+			path.moveTo(canvasPoints[startIdx].getX(), canvasPoints[startIdx].getY());
 		}
 
 		if (endIdx - startIdx == 1)
 		{
-			path.lineTo(canvasPoints.get(endIdx).getX(), canvasPoints.get(endIdx).getY());
+			path.lineTo(canvasPoints[endIdx].getX(), canvasPoints[endIdx].getY());
 		}
 		else
 		{
 			for (int i = startIdx; i < endIdx; i++)
 			{
-				Point p0 = i > 0 ? canvasPoints.get(i - 1) : canvasPoints.get(i);
-				Point p1 = canvasPoints.get(i);
-				Point p2 = canvasPoints.get(i + 1);
-				Point p3 = (i + 2 < canvasPoints.size()) ? canvasPoints.get(i + 2) : p2;
+				Point p0 = i > runStart ? canvasPoints[i - 1] : canvasPoints[i];
+				Point p1 = canvasPoints[i];
+				Point p2 = canvasPoints[i + 1];
+				Point p3 = (i + 2 <= runEnd) ? canvasPoints[i + 2] : p2;
 
 				double tension = 0.1;
 
@@ -292,12 +387,9 @@ public class PathRenderer
 				path.curveTo(cp1x, cp1y, cp2x, cp2y, p2.getX(), p2.getY());
 			}
 		}
-
-		graphics.setColor(color);
-		graphics.draw(path);
 	}
 
-	private static class WindCatcherGroup
+	static class WindCatcherGroup
 	{
 		final WorldPoint firstLocation;
 		final WorldPoint lastLocation;
@@ -416,25 +508,17 @@ public class PathRenderer
 
 		Set<Integer> completedIndices = plugin.getGameState().getCompletedWaypointIndices();
 		List<WorldPoint> currentPath = plugin.getGameState().getPath();
+		String[] labels = getWaypointLabels(staticRoute, completedIndices);
 
 		for (int i = 0; i < staticRoute.size(); i++)
 		{
-			RouteWaypoint waypoint = staticRoute.get(i);
-			WorldPoint location = waypoint.getLocation();
-			boolean completed = completedIndices.contains(i);
-
-			String label = String.format("%s\n\n%s\n\n(%d, %d)",
-				waypoint.getType(),
-				completed ? "✓" : "✗",
-				location.getX(),
-				location.getY()
-			);
+			WorldPoint location = staticRoute.get(i).getLocation();
 
-			Color color = completed
-				? new Color(144, 238, 144, 150)  // light green
-				: new Color(255, 255, 153, 150); // light yellow
+			Color color = completedIndices.contains(i)
+				? RenderPalette.COMPLETED_WAYPOINT_TILE
+				: RenderPalette.PENDING_WAYPOINT_TILE;
 
-			RenderingUtils.renderTileHighlightAtWorldPoint(client, graphics, location, color, label);
+			RenderingUtils.renderTileHighlightAtWorldPoint(client, graphics, location, color, labels[i]);
 		}
 
 		WorldView worldView = client.getTopLevelWorldView();
@@ -442,7 +526,7 @@ public class PathRenderer
 
 		for (WorldPoint pathTile : currentPath)
 		{
-			Color pathTileColor = new Color(0, 255, 255, 100); // light cyan
+			Color pathTileColor = RenderPalette.PATH_TILE;
 
 			String objectIdsLabel = null;
 			if (scene != null)
@@ -480,4 +564,32 @@ public class PathRenderer
 			RenderingUtils.renderTileHighlightAtWorldPoint(client, graphics, pathTile, pathTileColor, objectIdsLabel);
 		}
 	}
+
+	private String[] getWaypointLabels(List<RouteWaypoint> staticRoute, Set<Integer> completedIndices)
+	{
+		long routeProgressVersion = plugin.getGameState().getRouteProgressVersion();
+		if (staticRoute == waypointLabelsRoute && routeProgressVersion == waypointLabelsVersion && waypointLabels.length == staticRoute.size())
+		{
+			return waypointLabels;
+		}
+
+		String[] labels = new String[staticRoute.size()];
+		for (int i = 0; i < staticRoute.size(); i++)
+		{
+			RouteWaypoint waypoint = staticRoute.get(i);
+			WorldPoint location = waypoint.getLocation();
+
+			labels[i] = String.format("%s\n\n%s\n\n(%d, %d)",
+				waypoint.getType(),
+				completedIndices.contains(i) ? "✓" : "✗",
+				location.getX(),
+				location.getY()
+			);
+		}
+
+		waypointLabelsRoute = staticRoute;
+		waypointLabelsVersion = routeProgressVersion;
+		waypointLabels = labels;
+		return labels;
+	}
 }
@@ -0,0 +1,76 @@
+package com.barracudatrial.rendering;
+
+import com.barracudatrial.CachedConfig;
+import lombok.Getter;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Stroke;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Every stroke and color the overlay draws with, so a steady-state frame doesn't allocate any.
+ * Rebuilt alongside CachedConfig when the config changes; translucent variants of each configured
+ * color are derived up front instead of per draw call.
+ */
+public class RenderPalette
+{
+	// Same defaults OverlayUtil.renderPolygon(graphics, shape, color) would allocate on every call
+	public static final Stroke TILE_STROKE = new BasicStroke(2);
+	public static final Color TILE_FILL = new Color(0, 0, 0, 50);
+
+	public static final Stroke HULL_STROKE = new BasicStroke(2f);
+
+	public static final Color COMPLETED_WAYPOINT_TILE = new Color(144, 238, 144, 150); // light green
+	public static final Color PENDING_WAYPOINT_TILE = new Color(255, 255, 153, 150); // light yellow
+	public static final Color PATH_TILE = new Color(0, 255, 255, 100); // light cyan
+
+	private static final int HULL_FILL_ALPHA = 50;
+	private static final int BOAT_ZONE_FILL_ALPHA = 150;
+
+	@Getter
+	private final Stroke pathStroke;
+
+	private final Map<Color, Color> hullFillColors = new HashMap<>();
+	private final Map<Color, Color> boatZoneFillColors = new HashMap<>();
+
+	public RenderPalette(CachedConfig cachedConfig)
+	{
+		pathStroke = new BasicStroke(cachedConfig.getPathWidth(), BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+
+		Color[] configuredColors = {
+			cachedConfig.getPathColor(),
+			cachedConfig.getObjectivesColorCurrentWaypoint(),
+			cachedConfig.getObjectivesColorCurrentLap(),
+			cachedConfig.getObjectivesColorLaterLaps(),
+			cachedConfig.getWindCatcherColor(),
+			cachedConfig.getSpeedBoostColor(),
+			cachedConfig.getCloudColor()
+		};
+
+		for (Color color : configuredColors)
+		{
+			if (color != null)
+			{
+				hullFillColors.put(color, withAlpha(color, HULL_FILL_ALPHA));
+				boatZoneFillColors.put(color, withAlpha(color, BOAT_ZONE_FILL_ALPHA));
+			}
+		}
+	}
+
+	public Color getHullFillColor(Color borderColor)
+	{
+		return hullFillColors.computeIfAbsent(borderColor, c -> withAlpha(c, HULL_FILL_ALPHA));
+	}
+
+	public Color getBoatZoneFillColor(Color baseColor)
+	{
+		return boatZoneFillColors.computeIfAbsent(baseColor, c -> withAlpha(c, BOAT_ZONE_FILL_ALPHA));
+	}
+
+	private static Color withAlpha(Color color, int alpha)
+	{
+		return new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha);
+	}
+}
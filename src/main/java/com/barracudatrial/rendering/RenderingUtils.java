@@ -148,7 +148,7 @@ public class RenderingUtils
 		Polygon tilePolygon = Perspective.getCanvasTilePoly(client, tileLocalPoint);
 		if (tilePolygon != null)
 		{
-			OverlayUtil.renderPolygon(graphics, tilePolygon, highlightColor);
+			OverlayUtil.renderPolygon(graphics, tilePolygon, highlightColor, RenderPalette.TILE_FILL, RenderPalette.TILE_STROKE);
 		}
 
 		if (label != null)
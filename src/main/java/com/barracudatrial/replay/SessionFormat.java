@@ -0,0 +1,99 @@
+package com.barracudatrial.replay;
+
+import net.runelite.api.coords.WorldPoint;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary layout of a recorded trial session.
+ * <p>
+ * A header (magic, version, start time) is followed by one record per game tick:
+ * a varint bitmask of the sections present, the zigzag varint tick delta, then each present section in bit order.
+ * The boat section is written every tick; every other section only when its contents changed since the
+ * last time it was written, so a reader carries the previous value forward. Tiles are packed into one int.
+ */
+final class SessionFormat
+{
+	static final int MAGIC = 0x42545250; // "BTRP"
+	static final int VERSION = 1;
+
+	static final int SECTION_BOAT = 1;
+	static final int SECTION_POSE = 1 << 1;
+	static final int SECTION_CLOUDS = 1 << 2;
+	static final int SECTION_ROCKS = 1 << 3;
+	static final int SECTION_BOOSTS = 1 << 4;
+	static final int SECTION_FETID_POOLS = 1 << 5;
+	static final int SECTION_TOAD_PILLARS = 1 << 6;
+	static final int SECTION_PROGRESS = 1 << 7;
+	static final int SECTION_CHAT = 1 << 8;
+
+	// Sections that are only written when they change, indexed by bit position
+	static final int[] DELTA_SECTIONS = {
+		SECTION_POSE, SECTION_CLOUDS, SECTION_ROCKS, SECTION_BOOSTS, SECTION_FETID_POOLS, SECTION_TOAD_PILLARS, SECTION_PROGRESS
+	};
+
+	static final int NO_POINT = -1;
+
+	private SessionFormat()
+	{
+	}
+
+	/**
+	 * x and y in 15 bits each, plane in the top 2
+	 */
+	static int packPoint(WorldPoint point)
+	{
+		if (point == null)
+		{
+			return NO_POINT;
+		}
+		return (point.getPlane() << 30) | ((point.getY() & 0x7FFF) << 15) | (point.getX() & 0x7FFF);
+	}
+
+	static WorldPoint unpackPoint(int packed)
+	{
+		if (packed == NO_POINT)
+		{
+			return null;
+		}
+		return new WorldPoint(packed & 0x7FFF, (packed >>> 15) & 0x7FFF, packed >>> 30);
+	}
+
+	static void writeVarInt(DataOutput out, int value) throws IOException
+	{
+		while ((value & ~0x7F) != 0)
+		{
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	static int readVarInt(DataInput in) throws IOException
+	{
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7)
+		{
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+
+	static void writeSignedVarInt(DataOutput out, int value) throws IOException
+	{
+		writeVarInt(out, (value << 1) ^ (value >> 31));
+	}
+
+	static int readSignedVarInt(DataInput in) throws IOException
+	{
+		int zigzag = readVarInt(in);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+}
@@ -0,0 +1,264 @@
+package com.barracudatrial.replay;
+
+import com.barracudatrial.game.BoatPose;
+import com.barracudatrial.game.State;
+import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.RouteWaypoint;
+import com.barracudatrial.game.route.TrialConfig;
+import com.barracudatrial.game.route.TrialType;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.NPC;
+import net.runelite.api.coords.WorldPoint;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import static com.barracudatrial.replay.SessionFormat.*;
+
+/**
+ * Writes the planner's inputs to a session file once per game tick, for offline replay with {@code SessionReplayer} (tools source set).
+ * Runs on the client thread; sections are diffed against what was last written so a typical tick is a few dozen bytes.
+ */
+@Slf4j
+public class SessionRecorder implements Closeable
+{
+	private final DataOutputStream out;
+	private final List<String> pendingChatMessages = new ArrayList<>();
+
+	// Encoded contents of each delta section as last written, indexed like DELTA_SECTIONS
+	private final byte[][] lastWrittenSections = new byte[DELTA_SECTIONS.length][];
+	private final ByteArrayOutputStream sectionBytes = new ByteArrayOutputStream(256);
+	private final DataOutputStream sectionOut = new DataOutputStream(sectionBytes);
+	private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(1024);
+	private final DataOutputStream recordOut = new DataOutputStream(recordBytes);
+
+	private int lastTick = 0;
+
+	public SessionRecorder(OutputStream output) throws IOException
+	{
+		out = new DataOutputStream(new BufferedOutputStream(output));
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeLong(System.currentTimeMillis());
+	}
+
+	/**
+	 * Starts a new session file named after the current time and trial
+	 */
+	public static SessionRecorder create(File directory, TrialType trialType) throws IOException
+	{
+		if (!directory.isDirectory() && !directory.mkdirs())
+		{
+			throw new IOException("Could not create " + directory);
+		}
+
+		String name = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date())
+			+ "-" + (trialType != null ? trialType.name().toLowerCase() : "unknown") + ".btrp";
+		File file = new File(directory, name);
+		log.info("Recording trial session to {}", file);
+		return new SessionRecorder(new FileOutputStream(file));
+	}
+
+	/**
+	 * Queues a game message; it's written with the next tick
+	 */
+	public void recordChatMessage(String message)
+	{
+		pendingChatMessages.add(message);
+	}
+
+	public void recordTick(int tick, State state) throws IOException
+	{
+		recordBytes.reset();
+		int sections = SECTION_BOAT;
+
+		writePoint(recordOut, state.getBoatLocation());
+		writePoint(recordOut, state.getFrontBoatTileEstimatedActual());
+
+		for (int i = 0; i < DELTA_SECTIONS.length; i++)
+		{
+			int section = DELTA_SECTIONS[i];
+			sectionBytes.reset();
+			encodeSection(section, state);
+
+			byte[] encoded = sectionBytes.toByteArray();
+			if (!Arrays.equals(encoded, lastWrittenSections[i]))
+			{
+				lastWrittenSections[i] = encoded;
+				recordOut.write(encoded);
+				sections |= section;
+			}
+		}
+
+		if (!pendingChatMessages.isEmpty())
+		{
+			sections |= SECTION_CHAT;
+			writeVarInt(recordOut, pendingChatMessages.size());
+			for (String message : pendingChatMessages)
+			{
+				recordOut.writeUTF(message);
+			}
+			pendingChatMessages.clear();
+		}
+
+		writeVarInt(out, sections);
+		writeSignedVarInt(out, tick - lastTick);
+		recordBytes.writeTo(out);
+		lastTick = tick;
+	}
+
+	private void encodeSection(int section, State state) throws IOException
+	{
+		switch (section)
+		{
+			case SECTION_POSE:
+				encodePose(state.getBoatPose());
+				break;
+			case SECTION_CLOUDS:
+				encodeClouds(state.getLightningClouds());
+				break;
+			case SECTION_ROCKS:
+				writePointSet(sectionOut, state.getKnownRockLocations());
+				break;
+			case SECTION_BOOSTS:
+				writePointSet(sectionOut, state.getKnownSpeedBoostLocations().keySet());
+				break;
+			case SECTION_FETID_POOLS:
+				writePointSet(sectionOut, state.getKnownFetidPoolLocations());
+				break;
+			case SECTION_TOAD_PILLARS:
+				writePointSet(sectionOut, state.getKnownToadPillarLocations());
+				break;
+			case SECTION_PROGRESS:
+				encodeProgress(state);
+				break;
+			default:
+				throw new IllegalArgumentException("Not a delta section: " + section);
+		}
+	}
+
+	private void encodePose(BoatPose pose) throws IOException
+	{
+		sectionOut.writeBoolean(pose != null);
+		if (pose == null)
+		{
+			return;
+		}
+
+		sectionOut.writeFloat((float) pose.getX());
+		sectionOut.writeFloat((float) pose.getY());
+		sectionOut.writeByte(pose.getPlane());
+		sectionOut.writeFloat((float) pose.getVelocityX());
+		sectionOut.writeFloat((float) pose.getVelocityY());
+		sectionOut.writeByte(pose.getHeadingIdx());
+		sectionOut.writeBoolean(pose.isBoosted());
+	}
+
+	private void encodeClouds(Collection<NPC> clouds) throws IOException
+	{
+		long[] samples = new long[clouds.size()];
+		int count = 0;
+		for (NPC cloud : clouds)
+		{
+			WorldPoint location = cloud.getWorldLocation();
+			if (location != null)
+			{
+				samples[count++] = ((long) packPoint(location) << 32) | (cloud.getAnimation() & 0xFFFFFFFFL);
+			}
+		}
+
+		// Sorted so the same clouds always encode the same way, whatever order the scene lists them in
+		Arrays.sort(samples, 0, count);
+		writeVarInt(sectionOut, count);
+		for (int i = 0; i < count; i++)
+		{
+			sectionOut.writeLong(samples[i]);
+		}
+	}
+
+	private void encodeProgress(State state) throws IOException
+	{
+		TrialConfig trial = state.getCurrentTrial();
+		sectionOut.writeByte(trial != null ? trial.getTrialType().ordinal() : -1);
+
+		Difficulty difficulty = findRouteDifficulty(trial, state.getCurrentStaticRoute());
+		sectionOut.writeByte(difficulty != null ? difficulty.ordinal() : -1);
+
+		writeVarInt(sectionOut, state.getCurrentLap());
+
+		int[] completed = state.getCompletedWaypointIndices().stream().mapToInt(Integer::intValue).sorted().toArray();
+		writeVarInt(sectionOut, completed.length);
+		for (int index : completed)
+		{
+			writeVarInt(sectionOut, index);
+		}
+
+		sectionOut.writeBoolean(state.isHasThrowableObjective());
+		writePoint(sectionOut, state.getRumPickupLocation());
+		writePoint(sectionOut, state.getRumReturnLocation());
+		sectionOut.writeInt(state.getExclusionZoneMinX());
+		sectionOut.writeInt(state.getExclusionZoneMaxX());
+		sectionOut.writeInt(state.getExclusionZoneMinY());
+		sectionOut.writeInt(state.getExclusionZoneMaxY());
+	}
+
+	/**
+	 * Routes are shared per difficulty, so the loaded route identifies the difficulty it was loaded for
+	 */
+	private static Difficulty findRouteDifficulty(TrialConfig trial, List<RouteWaypoint> route)
+	{
+		if (trial == null || route == null)
+		{
+			return null;
+		}
+
+		for (Difficulty difficulty : Difficulty.values())
+		{
+			if (route.equals(trial.getRoute(difficulty)))
+			{
+				return difficulty;
+			}
+		}
+		return null;
+	}
+
+	private static void writePoint(DataOutputStream output, WorldPoint point) throws IOException
+	{
+		output.writeInt(packPoint(point));
+	}
+
+	private static void writePointSet(DataOutputStream output, Collection<WorldPoint> points) throws IOException
+	{
+		int[] packed = new int[points.size()];
+		int count = 0;
+		for (WorldPoint point : points)
+		{
+			packed[count++] = packPoint(point);
+		}
+
+		Arrays.sort(packed, 0, count);
+		writeVarInt(output, count);
+		for (int i = 0; i < count; i++)
+		{
+			output.writeInt(packed[i]);
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		out.close();
+	}
+}
@@ -0,0 +1,45 @@
+package com.barracudatrial.world;
+
+import lombok.Getter;
+import net.runelite.api.gameval.NpcID;
+
+/**
+ * Hull sizes, told apart by the boat's hitpoints NPC.
+ * Lengths run back from the front tile the planner steers, so they include the 3 tiles from the front to the middle.
+ * They're approximate footprints in whole tiles, close enough to tell which gaps a hull fits through.
+ */
+@Getter
+public enum BoatSize
+{
+	TINY(NpcID.BOAT_HP_NPC_TINY, 3, 1),
+	SMALL(NpcID.BOAT_HP_NPC_SMALL, 5, 3),
+	MEDIUM(NpcID.BOAT_HP_NPC_MEDIUM, 7, 3),
+	LARGE(NpcID.BOAT_HP_NPC_LARGE, 9, 5),
+	COLOSSAL(NpcID.BOAT_HP_NPC_COLOSSAL, 11, 5);
+
+	private final int npcId;
+	private final int hullLength;
+	private final int hullWidth;
+
+	BoatSize(int npcId, int hullLength, int hullWidth)
+	{
+		this.npcId = npcId;
+		this.hullLength = hullLength;
+		this.hullWidth = hullWidth;
+	}
+
+	/**
+	 * @return Size for a boat hitpoints NPC, or null if the NPC isn't one
+	 */
+	public static BoatSize fromNpcId(int npcId)
+	{
+		for (BoatSize size : values())
+		{
+			if (size.npcId == npcId)
+			{
+				return size;
+			}
+		}
+		return null;
+	}
+}
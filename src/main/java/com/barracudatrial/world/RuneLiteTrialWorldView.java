@@ -0,0 +1,501 @@
+package com.barracudatrial.world;
+
+import com.barracudatrial.rendering.RenderingUtils;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.*;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * TrialWorldView backed by the live client. Must be used from the client thread.
+ */
+@Slf4j
+public class RuneLiteTrialWorldView implements TrialWorldView
+{
+	private static final int SCENE_SIZE = 104;
+
+	private final Client client;
+
+	public RuneLiteTrialWorldView(Client client)
+	{
+		this.client = client;
+	}
+
+	@Override
+	public int getTickCount()
+	{
+		return client.getTickCount();
+	}
+
+	@Override
+	public int getVarbitValue(int varbitId)
+	{
+		return client.getVarbitValue(varbitId);
+	}
+
+	@Override
+	public int getWidgetSpriteId(int componentId)
+	{
+		var widget = client.getWidget(componentId);
+		if (widget == null || widget.isHidden())
+		{
+			return -1;
+		}
+
+		return widget.getSpriteId();
+	}
+
+	@Override
+	public boolean isSceneLoaded()
+	{
+		return getScene() != null;
+	}
+
+	@Override
+	public int getPlane()
+	{
+		WorldView worldView = client.getTopLevelWorldView();
+		return worldView == null ? 0 : worldView.getPlane();
+	}
+
+	@Override
+	public boolean isInScene(WorldPoint point)
+	{
+		WorldView worldView = client.getTopLevelWorldView();
+		return worldView != null
+			&& point.getPlane() == worldView.getPlane()
+			&& LocalPoint.fromWorld(worldView, point) != null;
+	}
+
+	@Override
+	public boolean isInExtendedScene(WorldPoint point)
+	{
+		WorldView worldView = client.getTopLevelWorldView();
+		return worldView != null && RenderingUtils.localPointFromWorldIncludingExtended(worldView, point) != null;
+	}
+
+	@Override
+	public void forEachGameObject(Consumer<GameObject> visitor)
+	{
+		Scene scene = getScene();
+		if (scene == null)
+		{
+			return;
+		}
+
+		// Skipping the extended tiles for performance - hazards out there don't matter yet
+		Tile[][][] tileArray = scene.getTiles();
+		if (tileArray == null)
+		{
+			return;
+		}
+
+		for (var plane : tileArray)
+		{
+			if (plane == null) continue;
+
+			for (var column : plane)
+			{
+				if (column == null) continue;
+
+				for (var tile : column)
+				{
+					if (tile == null) continue;
+
+					WorldPoint tileWp = tile.getWorldLocation();
+					for (var obj : tile.getGameObjects())
+					{
+						if (obj == null) continue;
+
+						if (!obj.getWorldLocation().equals(tileWp))
+						{
+							// Don't want to re-process multi-tile objects
+							continue;
+						}
+
+						visitor.accept(obj);
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public List<GameObject> getGameObjectsAt(WorldPoint point)
+	{
+		Scene scene = getScene();
+		if (scene == null)
+		{
+			return Collections.emptyList();
+		}
+
+		int plane = point.getPlane();
+		int sceneX = point.getX() - scene.getBaseX();
+		int sceneY = point.getY() - scene.getBaseY();
+
+		if (sceneX < 0 || sceneX >= SCENE_SIZE || sceneY < 0 || sceneY >= SCENE_SIZE)
+		{
+			return Collections.emptyList();
+		}
+
+		Tile[][][] tiles = scene.getTiles();
+		if (tiles == null || plane < 0 || plane >= tiles.length || tiles[plane] == null)
+		{
+			return Collections.emptyList();
+		}
+
+		Tile tile = tiles[plane][sceneX][sceneY];
+		if (tile == null)
+		{
+			return Collections.emptyList();
+		}
+
+		List<GameObject> objects = new ArrayList<>();
+		for (GameObject gameObject : tile.getGameObjects())
+		{
+			if (gameObject != null)
+			{
+				objects.add(gameObject);
+			}
+		}
+		return objects;
+	}
+
+	@Override
+	public List<WorldPoint> getObjectFootprint(GameObject obj)
+	{
+		Point min = obj.getSceneMinLocation();
+		Point max = obj.getSceneMaxLocation();
+
+		if (min == null || max == null)
+		{
+			// Fallback: treat as 1x1 anchored on world location
+			return Collections.singletonList(obj.getWorldLocation());
+		}
+
+		Scene scene = getScene();
+		if (scene == null)
+		{
+			return Collections.singletonList(obj.getWorldLocation());
+		}
+
+		int baseX = scene.getBaseX();
+		int baseY = scene.getBaseY();
+		int plane = obj.getPlane();
+
+		int width = max.getX() - min.getX() + 1;
+		int height = max.getY() - min.getY() + 1;
+
+		List<WorldPoint> result = new ArrayList<>(width * height);
+		for (int sx = min.getX(); sx <= max.getX(); sx++)
+		{
+			for (int sy = min.getY(); sy <= max.getY(); sy++)
+			{
+				result.add(new WorldPoint(baseX + sx, baseY + sy, plane));
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public int getImpostorId(int objectId)
+	{
+		ObjectComposition objectComposition = client.getObjectDefinition(objectId);
+		if (objectComposition == null || objectComposition.getImpostorIds() == null)
+		{
+			return -1;
+		}
+
+		ObjectComposition impostor = objectComposition.getImpostor();
+		return impostor == null ? -1 : impostor.getId();
+	}
+
+	@Override
+	public void forEachNpc(Consumer<NPC> visitor)
+	{
+		WorldView topLevelWorldView = client.getTopLevelWorldView();
+		if (topLevelWorldView == null)
+		{
+			return;
+		}
+
+		for (NPC npc : topLevelWorldView.npcs())
+		{
+			if (npc != null)
+			{
+				visitor.accept(npc);
+			}
+		}
+	}
+
+	@Override
+	public void forEachWorldEntityGameObject(BiConsumer<WorldPoint, GameObject> visitor)
+	{
+		WorldView topLevelWorldView = client.getTopLevelWorldView();
+		if (topLevelWorldView == null)
+		{
+			return;
+		}
+
+		Player localPlayer = client.getLocalPlayer();
+		if (localPlayer == null || localPlayer.getWorldView() == null)
+		{
+			return;
+		}
+
+		for (WorldEntity worldEntity : topLevelWorldView.worldEntities())
+		{
+			if (worldEntity == null)
+			{
+				continue;
+			}
+
+			WorldView entityWorldView = worldEntity.getWorldView();
+			if (entityWorldView == null)
+			{
+				continue;
+			}
+
+			Scene entityScene = entityWorldView.getScene();
+			if (entityScene == null || entityScene.getTiles() == null)
+			{
+				continue;
+			}
+
+			// Objects on the entity are in its own coordinate space; the entity's location is where they really are
+			WorldPoint entityWorldLocation = null;
+			try
+			{
+				var entityLocalLocation = worldEntity.getLocalLocation();
+				if (entityLocalLocation != null)
+				{
+					entityWorldLocation = WorldPoint.fromLocalInstance(client, entityLocalLocation);
+				}
+			}
+			catch (Exception e)
+			{
+				log.debug("Error getting world entity location: {}", e.getMessage());
+			}
+
+			if (entityWorldLocation == null)
+			{
+				continue;
+			}
+
+			// WorldEntity scenes need all planes scanned
+			for (var plane : entityScene.getTiles())
+			{
+				if (plane == null) continue;
+
+				for (var column : plane)
+				{
+					if (column == null) continue;
+
+					for (var tile : column)
+					{
+						if (tile == null) continue;
+
+						for (var gameObject : tile.getGameObjects())
+						{
+							if (gameObject != null)
+							{
+								visitor.accept(entityWorldLocation, gameObject);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public WorldPoint getPlayerLocation()
+	{
+		Player localPlayer = client.getLocalPlayer();
+		return localPlayer == null ? null : localPlayer.getWorldLocation();
+	}
+
+	@Override
+	public BoatSample getPlayerBoat()
+	{
+		try
+		{
+			WorldView topLevelWorldView = client.getTopLevelWorldView();
+			WorldEntity boatWorldEntity = getPlayerBoatEntity(topLevelWorldView);
+			if (boatWorldEntity == null)
+			{
+				return null;
+			}
+
+			LocalPoint local = boatWorldEntity.getLocalLocation();
+			if (local == null)
+			{
+				return null;
+			}
+
+			// Local points are tile centers, so undo that to get fractional world tiles
+			double x = topLevelWorldView.getBaseX() + (local.getX() - Perspective.LOCAL_HALF_TILE_SIZE) / (double) Perspective.LOCAL_TILE_SIZE;
+			double y = topLevelWorldView.getBaseY() + (local.getY() - Perspective.LOCAL_HALF_TILE_SIZE) / (double) Perspective.LOCAL_TILE_SIZE;
+
+			NPC boatNpc = findBoatNpc(boatWorldEntity.getWorldView());
+
+			return new BoatSample(
+				WorldPoint.fromLocalInstance(client, local),
+				x,
+				y,
+				topLevelWorldView.getPlane(),
+				boatWorldEntity.getOrientation(),
+				boatNpc != null ? BoatSize.fromNpcId(boatNpc.getId()) : null
+			);
+		}
+		catch (Exception e)
+		{
+			log.debug("Error getting boat location: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	@Override
+	public BoatFront getBoatFront()
+	{
+		Player localPlayer = client.getLocalPlayer();
+		if (localPlayer == null)
+		{
+			log.warn("Local player is null when updating front boat tile");
+			return null;
+		}
+
+		try
+		{
+			WorldEntity boatWorldEntity = getPlayerBoatEntity(client.getTopLevelWorldView());
+			if (boatWorldEntity == null)
+			{
+				log.warn("Boat WorldEntity is null when updating front boat tile");
+				return null;
+			}
+
+			WorldView boatWorldView = boatWorldEntity.getWorldView();
+			if (boatWorldView == null)
+			{
+				log.warn("Boat WorldView is null when updating front boat tile");
+				return null;
+			}
+
+			Scene boatScene = boatWorldView.getScene();
+			if (boatScene == null)
+			{
+				log.warn("Boat Scene is null when updating front boat tile");
+				return null;
+			}
+
+			Player boatPlayer = null;
+			for (Player p : boatWorldView.players())
+			{
+				if (p != null && p.equals(localPlayer))
+				{
+					boatPlayer = p;
+					break;
+				}
+			}
+
+			if (boatPlayer == null)
+			{
+				return null;
+			}
+
+			NPC boatNpc = findBoatNpc(boatWorldView);
+			if (boatNpc == null)
+			{
+				log.warn("Boat NPC is null when updating front boat tile");
+				return null;
+			}
+
+			LocalPoint npcLocalPoint = boatNpc.getLocalLocation();
+			LocalPoint boatPlayerLocalPoint = boatPlayer.getLocalLocation();
+
+			if (npcLocalPoint == null || boatPlayerLocalPoint == null)
+			{
+				log.warn("NPC or Boat Player local point is null when updating front boat tile");
+				return null;
+			}
+
+			// Calculate direction from player (back) to NPC (middle) in scene tiles
+			int npcSceneX = npcLocalPoint.getSceneX();
+			int npcSceneY = npcLocalPoint.getSceneY();
+			int deltaX = npcSceneX - boatPlayerLocalPoint.getSceneX();
+			int deltaY = npcSceneY - boatPlayerLocalPoint.getSceneY();
+
+			// Front of boat: extend 3 tiles from NPC
+			int frontSceneX = npcSceneX + (deltaX * 3);
+			int frontSceneY = npcSceneY + (deltaY * 3);
+
+			// Boat-relative LocalPoint (smooth sub-tile positioning, for visual rendering)
+			LocalPoint frontLocalPoint = LocalPoint.fromScene(boatScene.getBaseX() + frontSceneX, boatScene.getBaseY() + frontSceneY, boatScene);
+
+			// Transform from boat's coordinate system to main world (for tile-based pathfinding)
+			LocalPoint frontMainWorldLocal = boatWorldEntity.transformToMainWorld(frontLocalPoint);
+			if (frontMainWorldLocal == null)
+			{
+				log.warn("Front main world LocalPoint is null when updating front boat tile");
+				return new BoatFront(null, frontLocalPoint);
+			}
+
+			return new BoatFront(WorldPoint.fromLocalInstance(client, frontMainWorldLocal), frontLocalPoint);
+		}
+		catch (Exception e)
+		{
+			log.error("Error calculating front boat tile: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private WorldEntity getPlayerBoatEntity(WorldView topLevelWorldView)
+	{
+		Player localPlayer = client.getLocalPlayer();
+		if (localPlayer == null || topLevelWorldView == null)
+		{
+			return null;
+		}
+
+		WorldView playerWorldView = localPlayer.getWorldView();
+		if (playerWorldView == null)
+		{
+			return null;
+		}
+
+		return topLevelWorldView.worldEntities().byIndex(playerWorldView.getId());
+	}
+
+	/**
+	 * @return The hitpoints NPC that rides on every boat and tells its hull size, or null if there isn't one
+	 */
+	private NPC findBoatNpc(WorldView boatWorldView)
+	{
+		if (boatWorldView == null)
+		{
+			return null;
+		}
+
+		for (NPC npc : boatWorldView.npcs())
+		{
+			if (npc != null && BoatSize.fromNpcId(npc.getId()) != null)
+			{
+				return npc;
+			}
+		}
+		return null;
+	}
+
+	private Scene getScene()
+	{
+		WorldView topLevelWorldView = client.getTopLevelWorldView();
+		return topLevelWorldView == null ? null : topLevelWorldView.getScene();
+	}
+}
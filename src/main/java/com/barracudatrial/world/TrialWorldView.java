@@ -0,0 +1,134 @@
+package com.barracudatrial.world;
+
+import lombok.Getter;
+import net.runelite.api.GameObject;
+import net.runelite.api.NPC;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Everything the trackers and planner read from the game world, and nothing more.
+ * The plugin backs it with the live client; headless tools (replay, benchmarks, load tests) use an in-memory world.
+ * Objects and NPCs are still RuneLite types so the renderers can draw whatever the trackers found.
+ */
+public interface TrialWorldView
+{
+	int getTickCount();
+
+	int getVarbitValue(int varbitId);
+
+	/**
+	 * @return Sprite shown by a widget, or -1 if the widget isn't loaded or is hidden
+	 */
+	int getWidgetSpriteId(int componentId);
+
+	/**
+	 * @return true if there's a top-level scene to read; the scene methods below return nothing otherwise
+	 */
+	boolean isSceneLoaded();
+
+	int getPlane();
+
+	/**
+	 * @return true if the tile is on the current plane and inside the regular (104x104) scene
+	 */
+	boolean isInScene(WorldPoint point);
+
+	/**
+	 * @return true if the tile is inside the scene or its extended border, on any plane
+	 */
+	boolean isInExtendedScene(WorldPoint point);
+
+	/**
+	 * Visits every game object in the regular scene once, on its anchor tile
+	 */
+	void forEachGameObject(Consumer<GameObject> visitor);
+
+	/**
+	 * @return Game objects on a regular scene tile, empty if the tile isn't loaded
+	 */
+	List<GameObject> getGameObjectsAt(WorldPoint point);
+
+	/**
+	 * @return Every world tile the object covers; just its location if the footprint is unknown
+	 */
+	List<WorldPoint> getObjectFootprint(GameObject object);
+
+	/**
+	 * @return Id the object currently shows as, or -1 if it has no active impostor
+	 */
+	int getImpostorId(int objectId);
+
+	/**
+	 * Visits the NPCs of the top-level world view
+	 */
+	void forEachNpc(Consumer<NPC> visitor);
+
+	/**
+	 * Visits the game objects on every world entity (other boats), with that entity's world location
+	 */
+	void forEachWorldEntityGameObject(BiConsumer<WorldPoint, GameObject> visitor);
+
+	/**
+	 * @return Local player's tile, or null if there's no local player
+	 */
+	WorldPoint getPlayerLocation();
+
+	/**
+	 * @return The boat the local player is on, or null if they aren't on one (or it can't be located)
+	 */
+	BoatSample getPlayerBoat();
+
+	/**
+	 * @return Tile 3 ahead of the boat's middle in the direction it's facing, or null if it can't be worked out
+	 */
+	BoatFront getBoatFront();
+
+	/**
+	 * Where the player's boat is this tick
+	 */
+	@Getter
+	class BoatSample
+	{
+		private final WorldPoint location;
+		// Fractional world tiles of the boat's center
+		private final double x;
+		private final double y;
+		private final int plane;
+		// JAU (2048 per turn), 0 facing south and increasing towards west
+		private final int orientation;
+		// Null if the boat's hitpoints NPC wasn't found
+		private final BoatSize size;
+
+		public BoatSample(WorldPoint location, double x, double y, int plane, int orientation, BoatSize size)
+		{
+			this.location = location;
+			this.x = x;
+			this.y = y;
+			this.plane = plane;
+			this.orientation = orientation;
+			this.size = size;
+		}
+	}
+
+	/**
+	 * Front of the player's boat, as a main-world tile for pathfinding and a boat-relative point for rendering
+	 */
+	@Getter
+	class BoatFront
+	{
+		// Null if the boat-relative point couldn't be moved into the main world
+		private final WorldPoint worldLocation;
+		private final LocalPoint localLocation;
+
+		public BoatFront(WorldPoint worldLocation, LocalPoint localLocation)
+		{
+			this.worldLocation = worldLocation;
+			this.localLocation = localLocation;
+		}
+	}
+}
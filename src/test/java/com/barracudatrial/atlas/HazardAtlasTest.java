@@ -0,0 +1,155 @@
+package com.barracudatrial.atlas;
+
+import com.barracudatrial.game.State;
+import com.barracudatrial.game.route.TrialType;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HazardAtlasTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void missingFileLoadsEmpty() throws IOException
+	{
+		HazardAtlas atlas = HazardAtlas.load(new File(folder.getRoot(), "none.atlas"));
+
+		for (HazardAtlas.Layer layer : HazardAtlas.Layer.values())
+		{
+			assertEquals(0, atlas.getTileCount(layer));
+		}
+	}
+
+	@Test
+	public void roundTripsEveryLayerAndPlane() throws IOException
+	{
+		State state = new State();
+		// Tiles at the corners of the bounding box, on two planes, and more than 64 wide so grids span several words
+		state.updateKnownRockLocations(Set.of(
+			new WorldPoint(3000, 3000, 0), new WorldPoint(3100, 3000, 0), new WorldPoint(3000, 3050, 0),
+			new WorldPoint(3100, 3050, 0), new WorldPoint(3050, 3025, 1)));
+		state.updateKnownFetidPoolLocations(Set.of(new WorldPoint(2900, 2800, 0)));
+		state.updateKnownToadPillarLocations(Set.of());
+
+		HazardAtlas atlas = new HazardAtlas();
+		assertTrue(atlas.merge(state));
+		File file = HazardAtlas.getFile(folder.getRoot(), TrialType.TEMPOR_TANTRUM);
+		atlas.save(file);
+
+		HazardAtlas loaded = HazardAtlas.load(file);
+		assertEquals(5, loaded.getTileCount(HazardAtlas.Layer.ROCK));
+		assertEquals(1, loaded.getTileCount(HazardAtlas.Layer.FETID_POOL));
+		assertEquals(0, loaded.getTileCount(HazardAtlas.Layer.TOAD_PILLAR));
+
+		State fresh = new State();
+		loaded.applyTo(fresh);
+		assertEquals(state.getKnownRockLocations(), fresh.getKnownRockLocations());
+		assertEquals(state.getKnownFetidPoolLocations(), fresh.getKnownFetidPoolLocations());
+		assertTrue(fresh.getKnownToadPillarLocations().isEmpty());
+	}
+
+	@Test
+	public void savingAgainReplacesTheFile() throws IOException
+	{
+		File file = new File(folder.getRoot(), "trial.atlas");
+		State state = new State();
+		state.updateKnownRockLocations(Set.of(new WorldPoint(3000, 3000, 0)));
+		HazardAtlas atlas = new HazardAtlas();
+		atlas.merge(state);
+		atlas.save(file);
+
+		HazardAtlas loaded = HazardAtlas.load(file);
+		state.updateKnownRockLocations(Set.of(new WorldPoint(3000, 3000, 0), new WorldPoint(3001, 3000, 0)));
+		assertTrue(loaded.merge(state));
+		loaded.save(file);
+
+		assertEquals(2, HazardAtlas.load(file).getTileCount(HazardAtlas.Layer.ROCK));
+	}
+
+	@Test
+	public void mergeIgnoresAnUnchangedState()
+	{
+		State state = new State();
+		state.updateKnownRockLocations(Set.of(new WorldPoint(3000, 3000, 0)));
+		HazardAtlas atlas = new HazardAtlas();
+
+		assertTrue(atlas.merge(state));
+		assertFalse(atlas.merge(state));
+	}
+
+	@Test
+	public void unchangedAtlasIsNotWritten() throws IOException
+	{
+		File file = new File(folder.getRoot(), "untouched.atlas");
+		new HazardAtlas().save(file);
+
+		assertFalse(file.exists());
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsOtherFiles() throws IOException
+	{
+		File file = new File(folder.getRoot(), "other.atlas");
+		Files.write(file.toPath(), "not an atlas at all".getBytes());
+		HazardAtlas.load(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsOtherVersions() throws IOException
+	{
+		File file = new File(folder.getRoot(), "future.atlas");
+		ByteBuffer buffer = ByteBuffer.allocate(8);
+		buffer.putInt(HazardAtlas.MAGIC);
+		buffer.putShort((short) (HazardAtlas.VERSION + 1));
+		buffer.putShort((short) 0);
+		Files.write(file.toPath(), buffer.array());
+		HazardAtlas.load(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsTruncatedFiles() throws IOException
+	{
+		File file = new File(folder.getRoot(), "truncated.atlas");
+		State state = new State();
+		state.updateKnownRockLocations(Set.of(new WorldPoint(3000, 3000, 0), new WorldPoint(3200, 3100, 0)));
+		HazardAtlas atlas = new HazardAtlas();
+		atlas.merge(state);
+		atlas.save(file);
+
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+		HazardAtlas.load(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsOversizedGrids() throws IOException
+	{
+		File file = new File(folder.getRoot(), "huge.atlas");
+		ByteBuffer buffer = ByteBuffer.allocate(8 + 18);
+		buffer.putInt(HazardAtlas.MAGIC);
+		buffer.putShort(HazardAtlas.VERSION);
+		buffer.putShort((short) 1);
+		buffer.put((byte) 0);
+		buffer.put((byte) 0);
+		buffer.putInt(0);
+		buffer.putInt(0);
+		buffer.putInt(100_000);
+		buffer.putInt(100_000);
+		Files.write(file.toPath(), buffer.array());
+		HazardAtlas.load(file);
+	}
+}
@@ -0,0 +1,137 @@
+package com.barracudatrial.atlas;
+
+import com.barracudatrial.RouteOptimization;
+import com.barracudatrial.game.route.RouteWaypoint;
+import com.barracudatrial.game.route.TrialType;
+import com.barracudatrial.pathfinding.GoalDistanceField;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class RouteBaselinesTest
+{
+	private static final WorldPoint FIRST = new WorldPoint(3000, 3000, 0);
+	private static final WorldPoint SECOND = new WorldPoint(3030, 3010, 0);
+	private static final Set<WorldPoint> ROCKS = Set.of(new WorldPoint(3015, 3005, 0), new WorldPoint(3015, 3006, 0));
+	private static final List<RouteWaypoint> ROUTE = List.of(
+		new RouteWaypoint(RouteWaypoint.WaypointType.SHIPMENT, FIRST),
+		new RouteWaypoint(RouteWaypoint.WaypointType.PATHFINDING_HINT, new WorldPoint(3015, 3020, 0)),
+		new RouteWaypoint(RouteWaypoint.WaypointType.SHIPMENT, SECOND));
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void missingFileLoadsNothing() throws IOException
+	{
+		assertNull(RouteBaselines.load(new File(folder.getRoot(), "none.baselines"), 0));
+	}
+
+	@Test
+	public void roundTripsEveryField() throws IOException
+	{
+		RouteBaselines baselines = generate(ROCKS);
+		assertEquals(2, baselines.getFieldCount());
+
+		File file = RouteBaselines.getFile(folder.getRoot(), TrialType.TEMPOR_TANTRUM, ROUTE);
+		baselines.save(file);
+		RouteBaselines loaded = RouteBaselines.load(file, signature(ROCKS));
+
+		assertNotNull(loaded);
+		assertEquals(2, loaded.getFieldCount());
+		for (WorldPoint goal : List.of(FIRST, SECOND))
+		{
+			GoalDistanceField original = baselines.getField(goal);
+			GoalDistanceField copy = loaded.getField(goal);
+			assertEquals(original.getGoalTolerance(), copy.getGoalTolerance());
+			assertEquals(original.getOriginX(), copy.getOriginX());
+			assertEquals(original.getOriginY(), copy.getOriginY());
+			assertEquals(original.getWidth(), copy.getWidth());
+			assertEquals(original.getHeight(), copy.getHeight());
+			assertEquals(original.getCosts(), copy.getCosts());
+		}
+	}
+
+	@Test
+	public void savingAgainReplacesALoadedFile() throws IOException
+	{
+		File file = new File(folder.getRoot(), "route.baselines");
+		generate(ROCKS).save(file);
+		assertNotNull(RouteBaselines.load(file, signature(ROCKS)));
+
+		generate(Set.of()).save(file);
+
+		assertNull(RouteBaselines.load(file, signature(ROCKS)));
+		assertNotNull(RouteBaselines.load(file, signature(Set.of())));
+	}
+
+	@Test
+	public void hazardSignatureIgnoresOrderButNotLayers()
+	{
+		var rock = Set.of(new WorldPoint(3015, 3005, 0));
+
+		assertEquals(RouteBaselines.getHazardSignature(ROCKS, Set.of(), Set.of()),
+			RouteBaselines.getHazardSignature(Set.copyOf(ROCKS), Set.of(), Set.of()));
+		assertNotEquals(RouteBaselines.getHazardSignature(rock, Set.of(), Set.of()),
+			RouteBaselines.getHazardSignature(Set.of(), rock, Set.of()));
+		assertNotEquals(RouteBaselines.getHazardSignature(Set.of(), Set.of(), Set.of()),
+			RouteBaselines.getHazardSignature(rock, Set.of(), Set.of()));
+	}
+
+	@Test
+	public void otherVersionsLoadNothing() throws IOException
+	{
+		File file = new File(folder.getRoot(), "future.baselines");
+		ByteBuffer buffer = ByteBuffer.allocate(16);
+		buffer.putInt(RouteBaselines.MAGIC);
+		buffer.putShort((short) (RouteBaselines.VERSION + 1));
+		buffer.putShort((short) 0);
+		buffer.putLong(42);
+		Files.write(file.toPath(), buffer.array());
+
+		assertNull(RouteBaselines.load(file, 42));
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsOtherFiles() throws IOException
+	{
+		File file = new File(folder.getRoot(), "other.baselines");
+		Files.write(file.toPath(), "not route baselines at all".getBytes());
+		RouteBaselines.load(file, 0);
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsTruncatedFiles() throws IOException
+	{
+		File file = new File(folder.getRoot(), "truncated.baselines");
+		generate(ROCKS).save(file);
+
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+		RouteBaselines.load(file, signature(ROCKS));
+	}
+
+	private static long signature(Set<WorldPoint> rocks)
+	{
+		return RouteBaselines.getHazardSignature(rocks, Set.of(), Set.of());
+	}
+
+	private static RouteBaselines generate(Set<WorldPoint> rocks)
+	{
+		return RouteBaselines.generate(ROUTE, rocks, Set.of(), Set.of(), RouteOptimization.RELAXED);
+	}
+}
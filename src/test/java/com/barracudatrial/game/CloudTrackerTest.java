@@ -0,0 +1,108 @@
+package com.barracudatrial.game;
+
+import com.barracudatrial.pathfinding.CloudForecast;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CloudTrackerTest
+{
+	private static final WorldPoint CLOUD = new WorldPoint(3000, 3000, 0);
+
+	@Test
+	public void newCloudIsStillWithUnknownPhase()
+	{
+		CloudForecast forecast = new CloudTracker().update(0, List.of(new CloudTracker.Sighting(CLOUD, true))).get(0);
+
+		assertEquals(CLOUD, forecast.getLocation());
+		assertEquals(0, forecast.getVelocityX(), 0);
+		assertEquals(0, forecast.getVelocityY(), 0);
+		assertEquals(-1, forecast.getTicksUntilPhaseChange());
+	}
+
+	@Test
+	public void velocitySettlesOnTheDrift()
+	{
+		var tracker = new CloudTracker();
+		CloudForecast forecast = null;
+		for (int tick = 0; tick < 20; tick++)
+		{
+			var location = new WorldPoint(CLOUD.getX() + tick, CLOUD.getY(), 0);
+			forecast = tracker.update(tick, List.of(new CloudTracker.Sighting(location, false))).get(0);
+		}
+
+		assertTrue(forecast.getVelocityX() > 0.95);
+		assertEquals(0, forecast.getVelocityY(), 0);
+	}
+
+	@Test
+	public void distantOrOtherPlaneCloudsAreNewTracks()
+	{
+		var tracker = new CloudTracker();
+		tracker.update(0, List.of(new CloudTracker.Sighting(CLOUD, false)));
+
+		var jumped = new WorldPoint(CLOUD.getX() + 3, CLOUD.getY(), 0);
+		assertEquals(0, tracker.update(1, List.of(new CloudTracker.Sighting(jumped, false))).get(0).getVelocityX(), 0);
+
+		var abovePlane = new WorldPoint(jumped.getX(), jumped.getY(), 1);
+		assertEquals(0, tracker.update(2, List.of(new CloudTracker.Sighting(abovePlane, false))).get(0).getVelocityX(), 0);
+	}
+
+	@Test
+	public void learnsPhasesSeenFromStartToEnd()
+	{
+		var tracker = new CloudTracker();
+		// Seen mid-phase at first, so the first dangerous phase isn't learned
+		boolean[] dangerousByTick = {true, false, false, false, false, true, true, true, false, false, false, false, true};
+		CloudForecast forecast = null;
+		for (int tick = 0; tick < dangerousByTick.length; tick++)
+		{
+			forecast = tracker.update(tick, List.of(new CloudTracker.Sighting(CLOUD, dangerousByTick[tick]))).get(0);
+		}
+
+		assertEquals(3, forecast.getDangerousTicks());
+		assertEquals(4, forecast.getSafeTicks());
+		// Turned dangerous on the last tick, so it stays dangerous for the whole learned phase
+		assertEquals(3, forecast.getTicksUntilPhaseChange());
+		assertTrue(forecast.isDangerousAt(2));
+		assertFalse(forecast.isDangerousAt(3));
+	}
+
+	@Test
+	public void overduePhaseEndsNextTick()
+	{
+		var tracker = new CloudTracker();
+		boolean[] dangerousByTick = {false, true, true, false, true};
+		for (int tick = 0; tick < dangerousByTick.length; tick++)
+		{
+			tracker.update(tick, List.of(new CloudTracker.Sighting(CLOUD, dangerousByTick[tick])));
+		}
+
+		CloudForecast forecast = tracker.update(20, List.of(new CloudTracker.Sighting(CLOUD, true))).get(0);
+
+		assertEquals(1, forecast.getTicksUntilPhaseChange());
+	}
+
+	@Test
+	public void resetForgetsTracksAndPhases()
+	{
+		var tracker = new CloudTracker();
+		boolean[] dangerousByTick = {false, true, true, false};
+		for (int tick = 0; tick < dangerousByTick.length; tick++)
+		{
+			tracker.update(tick, List.of(new CloudTracker.Sighting(new WorldPoint(3000 + tick, 3000, 0), dangerousByTick[tick])));
+		}
+
+		tracker.reset();
+		CloudForecast forecast = tracker.update(4, List.of(new CloudTracker.Sighting(new WorldPoint(3004, 3000, 0), false))).get(0);
+
+		assertEquals(0, forecast.getVelocityX(), 0);
+		assertEquals(-1, forecast.getDangerousTicks());
+		assertEquals(-1, forecast.getTicksUntilPhaseChange());
+	}
+}
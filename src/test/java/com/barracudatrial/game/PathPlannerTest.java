@@ -0,0 +1,88 @@
+package com.barracudatrial.game;
+
+import com.barracudatrial.BarracudaTrialConfig;
+import com.barracudatrial.CachedConfig;
+import com.barracudatrial.diagnostics.PathfindingMetrics;
+import com.barracudatrial.game.route.RouteWaypoint;
+import com.barracudatrial.game.route.TrialType;
+import com.barracudatrial.world.InMemoryTrialWorldView;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.callback.ClientThread;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PathPlannerTest
+{
+	private static final WorldPoint START = new WorldPoint(3000, 3000, 0);
+	private static final List<RouteWaypoint> WAYPOINTS = List.of(
+		new RouteWaypoint(RouteWaypoint.WaypointType.SHIPMENT, new WorldPoint(3020, 3000, 0)),
+		new RouteWaypoint(RouteWaypoint.WaypointType.SHIPMENT, new WorldPoint(3040, 3010, 0)),
+		new RouteWaypoint(RouteWaypoint.WaypointType.SHIPMENT, new WorldPoint(3060, 3000, 0)),
+		new RouteWaypoint(RouteWaypoint.WaypointType.SHIPMENT, new WorldPoint(3080, 3012, 0))
+	);
+
+	private final PathfindingMetrics metrics = new PathfindingMetrics();
+	private PathPlanner pathPlanner;
+
+	@Before
+	public void createPlanner()
+	{
+		State state = new State();
+		state.setCurrentTrial(ProgressTracker.createTrialConfig(TrialType.TEMPOR_TANTRUM));
+		state.setInTrial(true);
+		state.setCurrentStaticRoute(WAYPOINTS);
+
+		// Walls with a gap at one end between each pair of waypoints, so segments bend round them
+		Set<WorldPoint> rocks = new HashSet<>();
+		for (int y = 2994; y <= 3008; y++)
+		{
+			rocks.add(new WorldPoint(3030, y, 0));
+			rocks.add(new WorldPoint(3070, y, 0));
+		}
+		for (int y = 3003; y <= 3016; y++)
+		{
+			rocks.add(new WorldPoint(3050, y, 0));
+		}
+		state.updateKnownRockLocations(rocks);
+
+		// Full searches for every segment, so later ones go through the stabilizer when not memoized
+		CachedConfig cachedConfig = new CachedConfig(new BarracudaTrialConfig()
+		{
+			@Override
+			public int farSegmentGridSize()
+			{
+				return 1;
+			}
+		});
+		pathPlanner = new PathPlanner(new InMemoryTrialWorldView(), state, cachedConfig, new ClientThread(), metrics);
+	}
+
+	@After
+	public void shutdownPlanner()
+	{
+		pathPlanner.shutdown();
+	}
+
+	@Test
+	public void memoizedSegmentsJoinAsPlannedAgain()
+	{
+		pathPlanner.planPath(START, 1, 0, WAYPOINTS);
+		List<WorldPoint> memoized = pathPlanner.planPath(START, 1, 0, WAYPOINTS);
+		assertTrue(metrics.getMemoizedSegmentCount() > 0);
+
+		pathPlanner.clearSegmentMemo();
+		long memoizedBefore = metrics.getMemoizedSegmentCount();
+		List<WorldPoint> replanned = pathPlanner.planPath(START, 1, 0, WAYPOINTS);
+		assertEquals(memoizedBefore, metrics.getMemoizedSegmentCount());
+
+		assertEquals(replanned, memoized);
+	}
+}
@@ -0,0 +1,179 @@
+package com.barracudatrial.game.route;
+
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RouteDataTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void roundTripsEveryBuiltInRoute() throws IOException
+	{
+		for (Difficulty difficulty : Difficulty.values())
+		{
+			List<RouteWaypoint> route = JubblyJiveRoutes.getRoute(difficulty);
+			if (route == null)
+			{
+				continue;
+			}
+
+			File file = new File(folder.getRoot(), "jubbly-" + difficulty + RouteData.FILE_EXTENSION);
+			RouteData.fromWaypoints(TrialType.JUBBLY_JIVE, difficulty, route).write(file);
+			List<RouteWaypoint> loaded = RouteData.read(file).toWaypoints();
+
+			assertEquals(route.size(), loaded.size());
+			for (int i = 0; i < route.size(); i++)
+			{
+				assertEquals(route.get(i).getType(), loaded.get(i).getType());
+				assertEquals(route.get(i).getLap(), loaded.get(i).getLap());
+				assertEquals(route.get(i).getLocation(), loaded.get(i).getLocation());
+				assertEquals(route.get(i).getClass(), loaded.get(i).getClass());
+			}
+		}
+	}
+
+	@Test
+	public void roundTripsAnEmptyRoute() throws IOException
+	{
+		File file = new File(folder.getRoot(), "empty.route");
+		RouteData.fromWaypoints(TrialType.TEMPOR_TANTRUM, Difficulty.SHARK, List.of()).write(file);
+
+		RouteData loaded = RouteData.read(file);
+		assertEquals(0, loaded.size());
+		assertEquals(new RouteData.RouteKey(TrialType.TEMPOR_TANTRUM, Difficulty.SHARK), RouteData.readKey(file));
+	}
+
+	@Test
+	public void roundTripsLargeJumpsBetweenWaypoints() throws IOException
+	{
+		// Deltas that need several varint bytes, in both directions, and a plane change
+		List<RouteWaypoint> route = List.of(
+			new RouteWaypoint(1, RouteWaypoint.WaypointType.SHIPMENT, new WorldPoint(0, 0, 0)),
+			new RouteWaypoint(2, RouteWaypoint.WaypointType.PORTAL_ENTER, new WorldPoint(300_000, 12_800, 1)),
+			new RouteWaypoint(3, RouteWaypoint.WaypointType.PORTAL_EXIT, new WorldPoint(3, 4, 3)));
+		File file = new File(folder.getRoot(), "jumps.route");
+		RouteData.fromWaypoints(TrialType.GWENITH_GLIDE, Difficulty.MARLIN, route).write(file);
+
+		RouteData loaded = RouteData.read(file);
+		for (int i = 0; i < route.size(); i++)
+		{
+			assertEquals(route.get(i).getLocation(), loaded.getLocation(i));
+			assertEquals(route.get(i).getLap(), loaded.getLap(i));
+			assertEquals(route.get(i).getType(), loaded.getType(i));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsOtherFiles() throws IOException
+	{
+		File file = new File(folder.getRoot(), "other.route");
+		Files.write(file.toPath(), "not a route at all".getBytes());
+		RouteData.readKey(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsOtherVersions() throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(RouteData.MAGIC);
+		out.writeShort(RouteData.VERSION + 1);
+		out.writeUTF(TrialType.TEMPOR_TANTRUM.name());
+		out.writeUTF(Difficulty.SHARK.name());
+		File file = new File(folder.getRoot(), "future.route");
+		Files.write(file.toPath(), bytes.toByteArray());
+
+		RouteData.readKey(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsUnknownTrials() throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(RouteData.MAGIC);
+		out.writeShort(RouteData.VERSION);
+		out.writeUTF("NOT_A_TRIAL");
+		out.writeUTF(Difficulty.SHARK.name());
+		File file = new File(folder.getRoot(), "unknown.route");
+		Files.write(file.toPath(), bytes.toByteArray());
+
+		RouteData.readKey(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsTruncatedFiles() throws IOException
+	{
+		File file = new File(folder.getRoot(), "truncated.route");
+		RouteData.fromWaypoints(TrialType.JUBBLY_JIVE, Difficulty.SWORDFISH, JubblyJiveRoutes.getRoute(Difficulty.SWORDFISH))
+			.write(file);
+
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 3));
+		RouteData.read(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsCorruptCounts() throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(RouteData.MAGIC);
+		out.writeShort(RouteData.VERSION);
+		out.writeUTF(TrialType.TEMPOR_TANTRUM.name());
+		out.writeUTF(Difficulty.SHARK.name());
+		// A varint of -1
+		out.write(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F});
+		File file = new File(folder.getRoot(), "corrupt.route");
+		Files.write(file.toPath(), bytes.toByteArray());
+
+		RouteData.read(file);
+	}
+
+	@Test
+	public void typeIndexOutsideTheTableIsRejected() throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(RouteData.MAGIC);
+		out.writeShort(RouteData.VERSION);
+		out.writeUTF(TrialType.TEMPOR_TANTRUM.name());
+		out.writeUTF(Difficulty.SHARK.name());
+		out.writeByte(1);
+		out.writeUTF(RouteWaypoint.WaypointType.SHIPMENT.name());
+		out.writeByte(1);
+		out.writeByte(1);
+		out.writeByte(0);
+		out.writeByte(0);
+		out.writeByte(0);
+		out.writeByte(0);
+		File file = new File(folder.getRoot(), "badtype.route");
+		Files.write(file.toPath(), bytes.toByteArray());
+
+		try
+		{
+			RouteData.read(file);
+		}
+		catch (IOException e)
+		{
+			assertTrue(e.getMessage().startsWith("Bad waypoint type"));
+			return;
+		}
+		throw new AssertionError("Expected the type index to be rejected");
+	}
+}
@@ -0,0 +1,96 @@
+package com.barracudatrial.game.route;
+
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class RouteLibraryTest
+{
+	private static final List<RouteWaypoint> BUILT_IN = List.of(
+		new RouteWaypoint(RouteWaypoint.WaypointType.SHIPMENT, new WorldPoint(3000, 3000, 0)));
+	private static final List<RouteWaypoint> FROM_FILE = List.of(
+		new RouteWaypoint(RouteWaypoint.WaypointType.SHIPMENT, new WorldPoint(3010, 3000, 0)),
+		new RouteWaypoint(RouteWaypoint.WaypointType.SHIPMENT, new WorldPoint(3020, 3000, 0)));
+
+	private static final TrialConfig TRIAL = new TrialConfig()
+	{
+		@Override
+		public TrialType getTrialType()
+		{
+			return TrialType.TEMPOR_TANTRUM;
+		}
+
+		@Override
+		public Set<Integer> getShipmentBaseIds()
+		{
+			return Set.of();
+		}
+
+		@Override
+		public int getShipmentImpostorId()
+		{
+			return -1;
+		}
+
+		@Override
+		public List<RouteWaypoint> getRoute(Difficulty difficulty)
+		{
+			return BUILT_IN;
+		}
+	};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void fallsBackToTheBuiltInRoute()
+	{
+		var library = new RouteLibrary(new File(folder.getRoot(), "missing"));
+
+		assertSame(BUILT_IN, library.getRoute(TRIAL, Difficulty.SHARK));
+	}
+
+	@Test
+	public void routeFileReplacesOnlyItsDifficulty() throws IOException
+	{
+		RouteData.fromWaypoints(TrialType.TEMPOR_TANTRUM, Difficulty.SHARK, FROM_FILE)
+			.write(new File(folder.getRoot(), "shark" + RouteData.FILE_EXTENSION));
+		var library = new RouteLibrary(folder.getRoot());
+
+		assertEquals(FROM_FILE.size(), library.getRoute(TRIAL, Difficulty.SHARK).size());
+		assertSame(BUILT_IN, library.getRoute(TRIAL, Difficulty.MARLIN));
+	}
+
+	@Test
+	public void unreadableFilesFallBackToTheBuiltInRoute() throws IOException
+	{
+		Files.write(new File(folder.getRoot(), "broken" + RouteData.FILE_EXTENSION).toPath(), "garbage".getBytes());
+		var library = new RouteLibrary(folder.getRoot());
+
+		assertSame(BUILT_IN, library.getRoute(TRIAL, Difficulty.SHARK));
+	}
+
+	@Test
+	public void newFilesArePickedUpOnlyAfterInvalidating() throws IOException
+	{
+		var library = new RouteLibrary(folder.getRoot());
+		assertSame(BUILT_IN, library.getRoute(TRIAL, Difficulty.SHARK));
+
+		RouteData.fromWaypoints(TrialType.TEMPOR_TANTRUM, Difficulty.SHARK, FROM_FILE)
+			.write(new File(folder.getRoot(), "shark" + RouteData.FILE_EXTENSION));
+		assertSame(BUILT_IN, library.getRoute(TRIAL, Difficulty.SHARK));
+
+		library.invalidate();
+		assertEquals(FROM_FILE.size(), library.getRoute(TRIAL, Difficulty.SHARK).size());
+	}
+}
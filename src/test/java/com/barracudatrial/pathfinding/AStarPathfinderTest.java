@@ -0,0 +1,88 @@
+package com.barracudatrial.pathfinding;
+
+import com.barracudatrial.RouteOptimization;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AStarPathfinderTest
+{
+	private static final WorldPoint START = new WorldPoint(3000, 3000, 0);
+	private static final WorldPoint GOAL = new WorldPoint(3040, 3000, 0);
+	private static final WorldPoint CLOUD = new WorldPoint(3025, 3000, 0);
+
+	@Test
+	public void noDirectionHasNoHeading()
+	{
+		assertEquals(-1, AStarPathfinder.headingFromDirection(0, 0));
+	}
+
+	@Test
+	public void singleStepsMapToTheEightCompassHeadings()
+	{
+		assertEquals(0, AStarPathfinder.headingFromDirection(1, 0));
+		assertEquals(2, AStarPathfinder.headingFromDirection(1, 1));
+		assertEquals(5, AStarPathfinder.headingFromDirection(0, 1));
+		assertEquals(12, AStarPathfinder.headingFromDirection(-1, 0));
+		assertEquals(21, AStarPathfinder.headingFromDirection(1, -1));
+	}
+
+	@Test
+	public void longerVectorsSnapBySign()
+	{
+		// A wind catcher jump or the front-minus-back fallback; 3,1 is 18 degrees but still counts as north-east
+		assertEquals(AStarPathfinder.headingFromDirection(1, 1), AStarPathfinder.headingFromDirection(3, 1));
+		assertEquals(AStarPathfinder.headingFromDirection(-1, 0), AStarPathfinder.headingFromDirection(-16, 0));
+		assertEquals(AStarPathfinder.headingFromDirection(1, -1), AStarPathfinder.headingFromDirection(14, -8));
+	}
+
+	@Test
+	public void baselineTailNeverCountsAsReachingTheGoal()
+	{
+		PathResult result = new AStarPathfinder().findPathFromHeading(calculator(null), RouteOptimization.RELAXED,
+			START, GOAL, 2, 0, 0, baseline());
+
+		List<WorldPoint> path = result.getPath();
+		assertEquals(GOAL, path.get(path.size() - 1));
+		assertFalse(result.isReachedGoal());
+	}
+
+	@Test
+	public void baselineTailStopsShortOfACloud()
+	{
+		var timeline = CloudDangerTimeline.build(List.of(new CloudForecast(CLOUD, 0, 0, true, -1, -1, -1)), 1.0);
+		Set<WorldPoint> danger = new HashSet<>();
+		CloudDangerTimeline.addDangerDisc(danger, CLOUD);
+
+		PathResult result = new AStarPathfinder().findPathFromHeading(calculator(timeline), RouteOptimization.RELAXED,
+			START, GOAL, 2, 0, 0, baseline());
+
+		List<WorldPoint> path = result.getPath();
+		assertFalse(path.isEmpty());
+		for (WorldPoint tile : path)
+		{
+			assertFalse(danger.contains(tile));
+		}
+		assertTrue(path.get(path.size() - 1).getX() < CLOUD.getX() - CloudDangerTimeline.DANGER_RADIUS);
+		assertFalse(result.isReachedGoal());
+	}
+
+	private static BarracudaTileCostCalculator calculator(CloudDangerTimeline timeline)
+	{
+		return new BarracudaTileCostCalculator(TileHazards.copyOf(Map.of(), Set.of(), Set.of(), Set.of(), Set.of(), timeline),
+			0, 0, 0, 0, null, null, RouteOptimization.RELAXED, 0, 0, null, null, 0);
+	}
+
+	private static GoalDistanceField baseline()
+	{
+		return GoalDistanceField.compute(calculator(null), GOAL, 0, 2990, 2990, 60, 20);
+	}
+}
@@ -0,0 +1,53 @@
+package com.barracudatrial.pathfinding;
+
+import com.barracudatrial.RouteOptimization;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BarracudaTileCostCalculatorTest
+{
+	private static final WorldPoint ROCK = new WorldPoint(3010, 3000, 0);
+	private static final WorldPoint LATE_ROCK = new WorldPoint(3020, 3000, 0);
+
+	@Test
+	public void hazardsAddedAfterCopyingAreNotSeen()
+	{
+		Set<WorldPoint> rocks = new HashSet<>(Set.of(ROCK));
+		var hazards = TileHazards.copyOf(Map.of(), rocks, Set.of(), Set.of(), Set.of(), null);
+
+		rocks.add(LATE_ROCK);
+		var calculator = new BarracudaTileCostCalculator(hazards,
+			0, 0, 0, 0, null, null, RouteOptimization.RELAXED, 0, 0, null, null, 0);
+
+		DangerZoneSnapshot snapshot = calculator.getDangerZoneSnapshot();
+		assertTrue(snapshot.contains(ROCK));
+		assertFalse(snapshot.contains(LATE_ROCK));
+		assertEquals(1.0, calculator.getTileCost(new WorldPoint(3019, 3000, 0), LATE_ROCK), 0);
+	}
+
+	@Test
+	public void segmentsShareLookupsBuiltFromTheSameHazards()
+	{
+		var hazards = TileHazards.copyOf(Map.of(), Set.of(ROCK), Set.of(), Set.of(), Set.of(), null);
+		var first = new BarracudaTileCostCalculator(hazards,
+			0, 0, 0, 0, null, null, RouteOptimization.RELAXED, 0, 0, Set.of(), null, 0);
+		var second = new BarracudaTileCostCalculator(hazards,
+			0, 0, 0, 0, null, null, RouteOptimization.RELAXED, 0, 0, Set.of(new WorldPoint(3012, 3000, 0)), null, 12);
+
+		assertSame(first.getDangerZoneSnapshot(), second.getDangerZoneSnapshot());
+		assertEquals(4.0, second.getTileCost(new WorldPoint(3010, 3002, 0), new WorldPoint(3010, 3001, 0)), 0);
+		assertArrayEquals(first.getRegionInputs(3000, 2990, 3011, 3010), second.getRegionInputs(3000, 2990, 3011, 3010));
+		assertFalse(Arrays.equals(first.getRegionInputs(3000, 2990, 3020, 3010), second.getRegionInputs(3000, 2990, 3020, 3010)));
+	}
+}
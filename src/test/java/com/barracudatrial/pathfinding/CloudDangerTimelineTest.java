@@ -0,0 +1,130 @@
+package com.barracudatrial.pathfinding;
+
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CloudDangerTimelineTest
+{
+	private static final WorldPoint CLOUD = new WorldPoint(3000, 3000, 0);
+
+	@Test
+	public void forecastDriftsInAStraightLine()
+	{
+		var forecast = new CloudForecast(CLOUD, 0.5, -1, true, -1, -1, -1);
+
+		assertEquals(CLOUD, forecast.locationAt(0));
+		assertEquals(new WorldPoint(3001, 2998, 0), forecast.locationAt(2));
+		assertEquals(new WorldPoint(3005, 2990, 0), forecast.locationAt(10));
+	}
+
+	@Test
+	public void unknownPhaseLengthHoldsTheCurrentPhase()
+	{
+		var forecast = new CloudForecast(CLOUD, 0, 0, false, -1, 3, 5);
+
+		assertFalse(forecast.isDangerousAt(0));
+		assertFalse(forecast.isDangerousAt(100));
+	}
+
+	@Test
+	public void phasesCycleOnceLearned()
+	{
+		// Safe for 2 more ticks, then dangerous for 3 and safe for 4, repeating
+		var forecast = new CloudForecast(CLOUD, 0, 0, false, 2, 3, 4);
+
+		boolean[] expected = {false, false, true, true, true, false, false, false, false, true};
+		for (int tick = 0; tick < expected.length; tick++)
+		{
+			assertEquals("tick " + tick, expected[tick], forecast.isDangerousAt(tick));
+		}
+	}
+
+	@Test
+	public void unlearnedNextPhaseLastsForever()
+	{
+		var forecast = new CloudForecast(CLOUD, 0, 0, true, 2, 3, -1);
+
+		assertTrue(forecast.isDangerousAt(1));
+		assertFalse(forecast.isDangerousAt(2));
+		assertFalse(forecast.isDangerousAt(50));
+	}
+
+	@Test
+	public void noForecastsMeansNoDanger()
+	{
+		var timeline = CloudDangerTimeline.build(List.of(), 1.0);
+
+		assertTrue(timeline.getAllDangerTiles().isEmpty());
+		assertFalse(timeline.isDangerous(CLOUD, 0));
+	}
+
+	@Test
+	public void dangerFollowsArrivalTime()
+	{
+		// Moving one tile east a tick; the boat sails two tiles a tick
+		var timeline = CloudDangerTimeline.build(List.of(new CloudForecast(CLOUD, 1, 0, true, -1, -1, -1)), 2.0);
+		WorldPoint ahead = new WorldPoint(3010, 3000, 0);
+
+		assertTrue(timeline.isDangerous(CLOUD, 0));
+		assertFalse(timeline.isDangerous(ahead, 0));
+		// Ten ticks out the cloud is over the tile
+		assertTrue(timeline.isDangerous(ahead, 20));
+		assertFalse(timeline.isDangerous(CLOUD, 20));
+	}
+
+	@Test
+	public void lastTickStandsInPastTheHorizon()
+	{
+		var timeline = CloudDangerTimeline.build(List.of(new CloudForecast(CLOUD, 1, 0, true, -1, -1, -1)), 1.0);
+		WorldPoint atHorizon = new WorldPoint(CLOUD.getX() + CloudDangerTimeline.HORIZON_TICKS, CLOUD.getY(), 0);
+
+		assertTrue(timeline.isDangerous(atHorizon, CloudDangerTimeline.HORIZON_TICKS));
+		assertTrue(timeline.isDangerous(atHorizon, 1000));
+	}
+
+	@Test
+	public void laterSearchesMeetTheCloudLater()
+	{
+		var timeline = CloudDangerTimeline.build(List.of(new CloudForecast(CLOUD, 1, 0, true, -1, -1, -1)), 1.0);
+		WorldPoint ahead = new WorldPoint(3005, 3000, 0);
+
+		var later = timeline.afterSailing(5);
+
+		assertTrue(later.isDangerous(ahead, 0));
+		assertFalse(later.isDangerous(CLOUD, 0));
+		assertEquals(timeline.getAllDangerTiles(), later.getAllDangerTiles());
+	}
+
+	@Test
+	public void allDangerTilesCoverEveryTickButNotSafeOnes()
+	{
+		// Dangerous for two ticks, then safe for good while it keeps drifting
+		var timeline = CloudDangerTimeline.build(List.of(new CloudForecast(CLOUD, 1, 0, true, 2, -1, -1)), 1.0);
+
+		Set<WorldPoint> expected = new HashSet<>();
+		CloudDangerTimeline.addDangerDisc(expected, CLOUD);
+		CloudDangerTimeline.addDangerDisc(expected, new WorldPoint(3001, 3000, 0));
+		assertEquals(expected, timeline.getAllDangerTiles());
+	}
+
+	@Test
+	public void dangerDiscHasTheDangerRadius()
+	{
+		Set<WorldPoint> tiles = new HashSet<>();
+		CloudDangerTimeline.addDangerDisc(tiles, CLOUD);
+
+		int radius = CloudDangerTimeline.DANGER_RADIUS;
+		assertTrue(tiles.contains(new WorldPoint(3000 + radius, 3000, 0)));
+		assertFalse(tiles.contains(new WorldPoint(3000 + radius + 1, 3000, 0)));
+		assertFalse(tiles.contains(new WorldPoint(3000 + radius, 3000 + radius, 0)));
+		assertTrue(tiles.contains(new WorldPoint(3002, 3002, 0)));
+	}
+}
@@ -0,0 +1,140 @@
+package com.barracudatrial.pathfinding;
+
+import com.barracudatrial.RouteOptimization;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CoarseGridPathfinderTest
+{
+	private static final WorldPoint START = new WorldPoint(3000, 3000, 0);
+	private static final WorldPoint GOAL = new WorldPoint(3030, 3010, 0);
+
+	@Test
+	public void crossesOpenWaterInSingleTileSteps()
+	{
+		PathResult result = new CoarseGridPathfinder().findPath(calculator(Set.of()), START, GOAL, 0, 4, 35);
+
+		assertTrue(result.isReachedGoal());
+		List<WorldPoint> path = result.getPath();
+		assertEquals(START, path.get(0));
+		assertEquals(GOAL, path.get(path.size() - 1));
+		assertSingleTileSteps(path);
+	}
+
+	@Test
+	public void goalInTheStartCellIsStillWalkedTo()
+	{
+		WorldPoint start = new WorldPoint(3000, 3000, 0);
+		WorldPoint goal = new WorldPoint(3003, 3003, 0);
+
+		PathResult result = new CoarseGridPathfinder().findPath(calculator(Set.of()), start, goal, 0, 4, 35);
+
+		assertTrue(result.isReachedGoal());
+		List<WorldPoint> path = result.getPath();
+		assertEquals(goal, path.get(path.size() - 1));
+		assertEquals(4, path.size());
+	}
+
+	@Test
+	public void stopsOnceWithinTolerance()
+	{
+		PathResult result = new CoarseGridPathfinder().findPath(calculator(Set.of()), START, GOAL, 3, 4, 35);
+
+		List<WorldPoint> path = result.getPath();
+		WorldPoint last = path.get(path.size() - 1);
+		assertEquals(3, Math.max(Math.abs(last.getX() - GOAL.getX()), Math.abs(last.getY() - GOAL.getY())));
+	}
+
+	@Test
+	public void goesThroughTheGapInAWall()
+	{
+		// Two tiles thick so the wall fills whole 2x2 cells, with a gap two cells wide
+		Set<WorldPoint> rocks = new HashSet<>();
+		for (int y = 2980; y < 3040; y++)
+		{
+			if (y < 3020 || y >= 3024)
+			{
+				rocks.add(new WorldPoint(3010, y, 0));
+				rocks.add(new WorldPoint(3011, y, 0));
+			}
+		}
+
+		PathResult result = new CoarseGridPathfinder().findPath(calculator(rocks), START, GOAL, 0, 2, 80);
+
+		assertTrue(result.isReachedGoal());
+		for (WorldPoint tile : result.getPath())
+		{
+			assertFalse(rocks.contains(tile));
+		}
+		assertSingleTileSteps(result.getPath());
+	}
+
+	@Test
+	public void blockedGoalIsStillReached()
+	{
+		PathResult result = new CoarseGridPathfinder().findPath(calculator(Set.of(GOAL)), START, GOAL, 0, 4, 35);
+
+		assertTrue(result.isReachedGoal());
+		List<WorldPoint> path = result.getPath();
+		assertEquals(GOAL, path.get(path.size() - 1));
+	}
+
+	@Test
+	public void enclosedGoalIsNotReached()
+	{
+		// A ring of whole blocked cells around the goal's cell
+		Set<WorldPoint> rocks = new HashSet<>();
+		for (int x = 3024; x < 3040; x++)
+		{
+			for (int y = 3004; y < 3020; y++)
+			{
+				boolean inGoalCell = x >= 3028 && x < 3032 && y >= 3008 && y < 3012;
+				if (!inGoalCell)
+				{
+					rocks.add(new WorldPoint(x, y, 0));
+				}
+			}
+		}
+
+		PathResult result = new CoarseGridPathfinder().findPath(calculator(rocks), START, GOAL, 0, 4, 35);
+
+		assertFalse(result.isReachedGoal());
+		assertTrue(result.getPath().isEmpty());
+	}
+
+	@Test
+	public void givesUpPastItsBudget()
+	{
+		var pathfinder = new CoarseGridPathfinder();
+		WorldPoint farGoal = new WorldPoint(3600, 3000, 0);
+
+		PathResult result = pathfinder.findPath(calculator(Set.of()), START, farGoal, 0, 2, 10);
+
+		assertFalse(result.isReachedGoal());
+		assertTrue(result.getPath().isEmpty());
+		assertEquals(101, pathfinder.getLastCellsExplored());
+	}
+
+	private static void assertSingleTileSteps(List<WorldPoint> path)
+	{
+		for (int i = 1; i < path.size(); i++)
+		{
+			WorldPoint from = path.get(i - 1);
+			WorldPoint to = path.get(i);
+			assertEquals(1, Math.max(Math.abs(to.getX() - from.getX()), Math.abs(to.getY() - from.getY())));
+		}
+	}
+
+	private static BarracudaTileCostCalculator calculator(Set<WorldPoint> rocks)
+	{
+		return BarracudaTileCostCalculator.staticObstacles(rocks, Set.of(), Set.of(), RouteOptimization.RELAXED);
+	}
+}
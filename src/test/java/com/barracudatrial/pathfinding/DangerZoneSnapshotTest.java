@@ -0,0 +1,102 @@
+package com.barracudatrial.pathfinding;
+
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DangerZoneSnapshotTest
+{
+	@Test
+	public void emptySnapshotContainsNothing()
+	{
+		DangerZoneSnapshot snapshot = DangerZoneSnapshot.fromTileSets(Set.of(), Set.of());
+
+		assertEquals(0, snapshot.getTileCount());
+		assertFalse(snapshot.contains(new WorldPoint(3000, 3000, 0)));
+		assertFalse(snapshot.hasNewDangerAlongPath(DangerZoneSnapshot.fromTileSets(), line(2990, 3000, 20), 0));
+	}
+
+	@Test
+	public void containsTilesOnBothSidesOfAWordBoundary()
+	{
+		// 3007 and 3008 fall in different 64-tile words (3008 = 47 * 64)
+		WorldPoint left = new WorldPoint(3007, 3000, 0);
+		WorldPoint right = new WorldPoint(3008, 3000, 0);
+		DangerZoneSnapshot snapshot = DangerZoneSnapshot.fromTileSets(Set.of(left), Set.of(right, left));
+
+		assertEquals(2, snapshot.getTileCount());
+		assertTrue(snapshot.contains(left));
+		assertTrue(snapshot.contains(right));
+		assertFalse(snapshot.contains(new WorldPoint(3009, 3000, 0)));
+		assertFalse(snapshot.contains(new WorldPoint(3007, 3001, 0)));
+	}
+
+	@Test
+	public void ignoresTilesOnOtherPlanesAndOutsideTheBox()
+	{
+		DangerZoneSnapshot snapshot = DangerZoneSnapshot.fromTileSets(Set.of(new WorldPoint(3000, 3000, 0)), Set.of(new WorldPoint(3001, 3000, 1)));
+
+		assertEquals(1, snapshot.getTileCount());
+		assertFalse(snapshot.contains(new WorldPoint(3000, 3000, 1)));
+		assertFalse(snapshot.contains(new WorldPoint(2000, 3000, 0)));
+		assertFalse(snapshot.contains(new WorldPoint(3000, 5000, 0)));
+	}
+
+	@Test
+	public void findsOnlyDangerThatIsNewAndAhead()
+	{
+		WorldPoint oldRock = new WorldPoint(3005, 3000, 0);
+		WorldPoint newCloud = new WorldPoint(3010, 3000, 0);
+		DangerZoneSnapshot older = DangerZoneSnapshot.fromTileSets(Set.of(oldRock));
+		DangerZoneSnapshot current = DangerZoneSnapshot.fromTileSets(Set.of(oldRock, newCloud));
+		List<PathNode> path = line(3000, 3000, 20);
+
+		assertFalse(current.hasNewDangerAlongPath(current, path, 0));
+		assertFalse(DangerZoneSnapshot.fromTileSets(Set.of(oldRock)).hasNewDangerAlongPath(older, path, 0));
+		assertTrue(current.hasNewDangerAlongPath(older, path, 0));
+		assertTrue(current.hasNewDangerAlongPath(older, path, 10));
+		assertFalse("Danger behind the boat doesn't count", current.hasNewDangerAlongPath(older, path, 11));
+	}
+
+	@Test
+	public void comparesSnapshotsWithDifferentBoxes()
+	{
+		WorldPoint near = new WorldPoint(3000, 3000, 0);
+		WorldPoint far = new WorldPoint(3200, 3100, 0);
+		DangerZoneSnapshot older = DangerZoneSnapshot.fromTileSets(Set.of(far));
+		DangerZoneSnapshot current = DangerZoneSnapshot.fromTileSets(Set.of(near, far));
+
+		assertTrue(current.hasNewDangerAlongPath(older, line(2995, 3000, 10), 0));
+		assertFalse(older.hasNewDangerAlongPath(current, line(2995, 3000, 10), 0));
+	}
+
+	@Test
+	public void sameTilesFromDifferentSetsAreEqual()
+	{
+		WorldPoint a = new WorldPoint(3000, 3000, 0);
+		WorldPoint b = new WorldPoint(3070, 3010, 0);
+		DangerZoneSnapshot first = DangerZoneSnapshot.fromTileSets(Set.of(a), Set.of(b));
+		DangerZoneSnapshot second = DangerZoneSnapshot.fromTileSets(Set.of(a, b));
+
+		assertTrue(first.hasSameTilesAs(second));
+		assertFalse(first.hasSameTilesAs(DangerZoneSnapshot.fromTileSets(Set.of(a))));
+		assertFalse(first.hasSameTilesAs(null));
+	}
+
+	private static List<PathNode> line(int startX, int y, int length)
+	{
+		List<PathNode> nodes = new ArrayList<>();
+		for (int i = 0; i <= length; i++)
+		{
+			nodes.add(new PathNode(new WorldPoint(startX + i, y, 0), i));
+		}
+		return nodes;
+	}
+}
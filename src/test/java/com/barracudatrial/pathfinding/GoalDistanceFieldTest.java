@@ -0,0 +1,112 @@
+package com.barracudatrial.pathfinding;
+
+import com.barracudatrial.RouteOptimization;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.nio.CharBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GoalDistanceFieldTest
+{
+	private static final int ORIGIN_X = 3000;
+	private static final int ORIGIN_Y = 3000;
+	private static final int SIZE = 20;
+	private static final WorldPoint GOAL = new WorldPoint(3010, 3010, 0);
+
+	@Test
+	public void tilesWithinToleranceCostNothing()
+	{
+		GoalDistanceField field = compute(Set.of(), 2);
+
+		assertEquals(0, field.getCostToGoal(new WorldPoint(3012, 3008, 0)), 0);
+		assertTrue(field.getCostToGoal(new WorldPoint(3013, 3010, 0)) > 0);
+	}
+
+	@Test
+	public void bordersAreCoveredAndOutsideIsUnreachable()
+	{
+		GoalDistanceField field = compute(Set.of(), 0);
+
+		WorldPoint corner = new WorldPoint(ORIGIN_X + SIZE - 1, ORIGIN_Y, 0);
+		assertTrue(field.covers(corner));
+		assertTrue(field.getCostToGoal(corner) < Double.POSITIVE_INFINITY);
+		assertFalse(field.covers(new WorldPoint(ORIGIN_X + SIZE, ORIGIN_Y, 0)));
+		assertFalse(field.covers(new WorldPoint(ORIGIN_X, ORIGIN_Y - 1, 0)));
+		assertFalse(field.covers(new WorldPoint(ORIGIN_X, ORIGIN_Y, 1)));
+		assertEquals(Double.POSITIVE_INFINITY, field.getCostToGoal(new WorldPoint(ORIGIN_X - 1, ORIGIN_Y, 0)), 0);
+		assertTrue(field.descend(new WorldPoint(ORIGIN_X - 1, ORIGIN_Y, 0), 0).isEmpty());
+	}
+
+	@Test
+	public void rocksAndEnclosedTilesAreUnreachable()
+	{
+		WorldPoint enclosed = new WorldPoint(3003, 3003, 0);
+		Set<WorldPoint> ring = new HashSet<>();
+		for (int dx = -1; dx <= 1; dx++)
+		{
+			for (int dy = -1; dy <= 1; dy++)
+			{
+				if (dx != 0 || dy != 0)
+				{
+					ring.add(new WorldPoint(enclosed.getX() + dx, enclosed.getY() + dy, 0));
+				}
+			}
+		}
+		GoalDistanceField field = compute(ring, 0);
+
+		assertEquals(Double.POSITIVE_INFINITY, field.getCostToGoal(enclosed), 0);
+		assertEquals(Double.POSITIVE_INFINITY, field.getCostToGoal(new WorldPoint(3002, 3002, 0)), 0);
+		assertTrue(field.descend(enclosed, 0).isEmpty());
+	}
+
+	@Test
+	public void descendsStrictlyDownhillToTheGoal()
+	{
+		GoalDistanceField field = compute(Set.of(new WorldPoint(3005, 3005, 0), new WorldPoint(3006, 3006, 0)), 1);
+		WorldPoint from = new WorldPoint(ORIGIN_X, ORIGIN_Y, 0);
+
+		List<WorldPoint> tiles = field.descend(from, 1);
+
+		double previous = field.getCostToGoal(from);
+		for (WorldPoint tile : tiles)
+		{
+			double cost = field.getCostToGoal(tile);
+			assertTrue(cost < previous);
+			previous = cost;
+		}
+		WorldPoint last = tiles.get(tiles.size() - 1);
+		assertTrue(Math.max(Math.abs(last.getX() - GOAL.getX()), Math.abs(last.getY() - GOAL.getY())) <= 1);
+	}
+
+	@Test
+	public void copiesThroughItsCostsUnchanged()
+	{
+		GoalDistanceField field = compute(Set.of(new WorldPoint(3005, 3005, 0)), 0);
+		var copy = new GoalDistanceField(GOAL, 0, ORIGIN_X, ORIGIN_Y, SIZE, SIZE, field.getCosts());
+
+		for (int x = ORIGIN_X; x < ORIGIN_X + SIZE; x++)
+		{
+			WorldPoint tile = new WorldPoint(x, 3005, 0);
+			assertEquals(field.getCostToGoal(tile), copy.getCostToGoal(tile), 0);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsTooFewCosts()
+	{
+		new GoalDistanceField(GOAL, 0, ORIGIN_X, ORIGIN_Y, SIZE, SIZE, CharBuffer.allocate(SIZE * SIZE - 1));
+	}
+
+	private static GoalDistanceField compute(Set<WorldPoint> rocks, int tolerance)
+	{
+		var staticCosts = BarracudaTileCostCalculator.staticObstacles(rocks, Set.of(), Set.of(), RouteOptimization.RELAXED);
+		return GoalDistanceField.compute(staticCosts, GOAL, tolerance, ORIGIN_X, ORIGIN_Y, SIZE, SIZE);
+	}
+}
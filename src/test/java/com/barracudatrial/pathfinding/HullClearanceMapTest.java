@@ -0,0 +1,94 @@
+package com.barracudatrial.pathfinding;
+
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HullClearanceMapTest
+{
+	private static final WorldPoint ROCK = new WorldPoint(3000, 3000, 1);
+	private static final int LENGTH = 4;
+	private static final int WIDTH = 3;
+	private static final int EAST = 0;
+	private static final int NORTH = 6;
+
+	@Test
+	public void noRocksNeverClip()
+	{
+		HullClearanceMap map = HullClearanceMap.compute(Set.of(), LENGTH, WIDTH);
+
+		assertEquals(0, map.getRockCount());
+		assertFalse(map.isClipped(ROCK, EAST));
+	}
+
+	@Test
+	public void unknownHeadingNeverClips()
+	{
+		HullClearanceMap map = HullClearanceMap.compute(Set.of(ROCK), LENGTH, WIDTH);
+
+		assertFalse(map.isClipped(at(1, 0), -1));
+	}
+
+	@Test
+	public void onlyTheHullBehindTheFrontClips()
+	{
+		HullClearanceMap map = HullClearanceMap.compute(Set.of(ROCK), LENGTH, WIDTH);
+
+		// The rock itself is left to the tile cost
+		assertFalse(map.isClipped(ROCK, EAST));
+		assertTrue(map.isClipped(at(1, 0), EAST));
+		assertFalse(map.isClipped(at(-1, 0), EAST));
+		assertTrue(map.isClipped(at(0, 1), NORTH));
+		assertFalse(map.isClipped(at(2, 0), NORTH));
+	}
+
+	@Test
+	public void sternReachesExactlyOneHullLengthBack()
+	{
+		HullClearanceMap map = HullClearanceMap.compute(Set.of(ROCK), LENGTH, WIDTH);
+
+		assertTrue(map.isClipped(at(LENGTH - 1, 0), EAST));
+		// The last tile of the grid and the first past it
+		assertFalse(map.isClipped(at(LENGTH, 0), EAST));
+		assertFalse(map.isClipped(at(LENGTH + 1, 0), EAST));
+	}
+
+	@Test
+	public void sidesReachHalfTheWidth()
+	{
+		HullClearanceMap map = HullClearanceMap.compute(Set.of(ROCK), LENGTH, WIDTH);
+
+		assertTrue(map.isClipped(at(1, 1), EAST));
+		assertTrue(map.isClipped(at(1, -1), EAST));
+		assertFalse(map.isClipped(at(1, 2), EAST));
+	}
+
+	@Test
+	public void otherPlanesAreClear()
+	{
+		HullClearanceMap map = HullClearanceMap.compute(Set.of(ROCK), LENGTH, WIDTH);
+
+		assertFalse(map.isClipped(new WorldPoint(ROCK.getX() + 1, ROCK.getY(), 0), EAST));
+		assertFalse(map.isClipped(new WorldPoint(ROCK.getX() + 1, ROCK.getY(), 2), EAST));
+	}
+
+	@Test
+	public void headingsRoundToTheNearestBucket()
+	{
+		assertEquals(0, HullClearanceMap.headingBucket(0));
+		assertEquals(0, HullClearanceMap.headingBucket(1));
+		assertEquals(1, HullClearanceMap.headingBucket(2));
+		assertEquals(2, HullClearanceMap.headingBucket(NORTH));
+		assertEquals(0, HullClearanceMap.headingBucket(23));
+	}
+
+	private static WorldPoint at(int dx, int dy)
+	{
+		return new WorldPoint(ROCK.getX() + dx, ROCK.getY() + dy, ROCK.getPlane());
+	}
+}
@@ -0,0 +1,65 @@
+package com.barracudatrial.pathfinding;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MotionPrimitivesTest
+{
+	@Test
+	public void movesTurnRightHoldOrTurnLeft()
+	{
+		for (int heading = 0; heading < MotionPrimitives.HEADING_COUNT; heading++)
+		{
+			MotionPrimitives.Primitive[] primitives = MotionPrimitives.from(heading);
+
+			assertEquals(3, primitives.length);
+			assertEquals((heading + 23) % 24, primitives[0].getHeading());
+			assertEquals(heading, primitives[1].getHeading());
+			assertEquals((heading + 1) % 24, primitives[2].getHeading());
+			assertFalse(primitives[1].isTurn());
+		}
+	}
+
+	@Test
+	public void unknownHeadingGoesStraightInEveryDirection()
+	{
+		MotionPrimitives.Primitive[] primitives = MotionPrimitives.from(-1);
+
+		assertEquals(8, primitives.length);
+		for (int dir = 0; dir < primitives.length; dir++)
+		{
+			assertEquals(MotionPrimitives.dir8ToHeading(dir), primitives[dir].getHeading());
+			assertEquals(dir, MotionPrimitives.headingToDir8(primitives[dir].getHeading()));
+		}
+	}
+
+	@Test
+	public void movesGoOneTileAlongTheirHeading()
+	{
+		for (int heading = 0; heading < MotionPrimitives.HEADING_COUNT; heading++)
+		{
+			for (MotionPrimitives.Primitive primitive : MotionPrimitives.from(heading))
+			{
+				assertTrue(Math.abs(primitive.getDx()) <= 1 && Math.abs(primitive.getDy()) <= 1);
+				assertTrue(primitive.getDx() != 0 || primitive.getDy() != 0);
+				boolean isDiagonal = primitive.getDx() != 0 && primitive.getDy() != 0;
+				assertEquals(isDiagonal ? Math.sqrt(2) : 1.0, primitive.getDistance(), 0);
+
+				int change = (primitive.getHeading() - heading + 24) % 24;
+				assertTrue(change == 0 || change == 1 || change == 23);
+				assertEquals(change != 0, primitive.isTurn());
+			}
+		}
+	}
+
+	@Test
+	public void headingsWrapAroundToTheDirections()
+	{
+		assertEquals(0, MotionPrimitives.headingToDir8(23));
+		assertEquals(0, MotionPrimitives.headingToDir8(-1));
+		assertEquals(MotionPrimitives.headingToDir8(1), MotionPrimitives.headingToDir8(25));
+	}
+}
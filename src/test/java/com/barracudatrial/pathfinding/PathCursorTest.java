@@ -0,0 +1,79 @@
+package com.barracudatrial.pathfinding;
+
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class PathCursorTest
+{
+	@Test
+	public void emptyPathAnswersZero()
+	{
+		PathCursor cursor = new PathCursor(List.of());
+
+		assertEquals(0, cursor.closestIndex(new WorldPoint(3000, 3000, 0)));
+		assertEquals(0, cursor.getPathSize());
+	}
+
+	@Test
+	public void followsTheBoatForward()
+	{
+		PathCursor cursor = new PathCursor(straightLine(3000, 3000, 30));
+
+		assertEquals(0, cursor.closestIndex(new WorldPoint(2998, 3000, 0)));
+		assertEquals(3, cursor.closestIndex(new WorldPoint(3003, 3001, 0)));
+		assertEquals(7, cursor.closestIndex(3006.6, 3000.2));
+		assertEquals(30, cursor.closestIndex(new WorldPoint(3040, 3000, 0)));
+	}
+
+	@Test
+	public void doesNotSnapBackOntoAnEarlierPartOfALoop()
+	{
+		// Out along y = 3000, up, and back along y = 3002, passing two tiles from where it started
+		List<WorldPoint> path = new ArrayList<>(straightLine(3000, 3000, 10));
+		path.add(new WorldPoint(3010, 3001, 0));
+		for (int x = 3010; x >= 3000; x--)
+		{
+			path.add(new WorldPoint(x, 3002, 0));
+		}
+		PathCursor cursor = new PathCursor(path);
+
+		for (int i = 0; i < path.size(); i++)
+		{
+			assertEquals(i, cursor.closestIndex(path.get(i)));
+		}
+	}
+
+	@Test
+	public void reacquiresAfterAJump()
+	{
+		PathCursor cursor = new PathCursor(straightLine(3000, 3000, 100));
+
+		assertEquals(2, cursor.closestIndex(new WorldPoint(3002, 3000, 0)));
+		assertEquals(80, cursor.closestIndex(new WorldPoint(3080, 3003, 0)));
+		// Re-acquiring can also move backwards, e.g. after a missed waypoint
+		assertEquals(10, cursor.closestIndex(new WorldPoint(3010, 3001, 0)));
+	}
+
+	@Test
+	public void reacquiresFarFromEveryCell()
+	{
+		PathCursor cursor = new PathCursor(straightLine(3000, 3000, 20));
+
+		assertEquals(20, cursor.closestIndex(new WorldPoint(3100, 3050, 0)));
+	}
+
+	private static List<WorldPoint> straightLine(int startX, int y, int length)
+	{
+		List<WorldPoint> path = new ArrayList<>();
+		for (int i = 0; i <= length; i++)
+		{
+			path.add(new WorldPoint(startX + i, y, 0));
+		}
+		return path;
+	}
+}
@@ -0,0 +1,121 @@
+package com.barracudatrial.pathfinding;
+
+import com.barracudatrial.RouteOptimization;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class PathStabilizerTest
+{
+	private static final WorldPoint START = new WorldPoint(3000, 3000, 0);
+	private static final WorldPoint GOAL = new WorldPoint(3012, 3000, 0);
+
+	private final PathStabilizer stabilizer = new PathStabilizer(new AStarPathfinder());
+
+	@Test
+	public void reusesStillValidPathWithoutSearching()
+	{
+		find(RouteOptimization.RELAXED, Set.of(), 40);
+		assertEquals(PathStabilizer.Decision.NEW, stabilizer.getLastDecision());
+
+		find(RouteOptimization.RELAXED, Set.of(), 40);
+		assertEquals(PathStabilizer.Decision.REUSED, stabilizer.getLastDecision());
+	}
+
+	@Test
+	public void reusedLaterSegmentKeepsItsStartTile()
+	{
+		PathResult searched = find(RouteOptimization.RELAXED, Set.of(), 40, false);
+		PathResult reused = find(RouteOptimization.RELAXED, Set.of(), 40, false);
+
+		assertEquals(PathStabilizer.Decision.REUSED, stabilizer.getLastDecision());
+		assertEquals(START, reused.getPath().get(0));
+		assertEquals(searched.getPath(), reused.getPath());
+		assertEquals(searched.getCost(), reused.getCost(), 1e-9);
+	}
+
+	@Test
+	public void reusedCurrentSegmentIsCostedFromTheNextTile()
+	{
+		PathResult searched = find(RouteOptimization.RELAXED, Set.of(), 40);
+		PathResult reused = find(RouteOptimization.RELAXED, Set.of(), 40);
+
+		assertEquals(searched.getPath().subList(1, searched.getPath().size()), reused.getPath());
+		assertEquals(0, reused.getPathNodes().get(0).getCumulativeCost(), 1e-9);
+		assertEquals(searched.getCostFromIndex(1), reused.getCost(), 1e-9);
+	}
+
+	@Test
+	public void replacesPathPlannedUnderOtherOptimization()
+	{
+		find(RouteOptimization.RELAXED, Set.of(), 40);
+		find(RouteOptimization.EFFICIENT, Set.of(), 40);
+		assertEquals(PathStabilizer.Decision.NEW, stabilizer.getLastDecision());
+	}
+
+	@Test
+	public void replacesPathPlannedWithOtherHints()
+	{
+		find(RouteOptimization.RELAXED, Set.of(), 40);
+		find(RouteOptimization.RELAXED, Set.of(new WorldPoint(3006, 3003, 0)), 40);
+		assertEquals(PathStabilizer.Decision.NEW, stabilizer.getLastDecision());
+	}
+
+	@Test
+	public void replacesPathPlannedWithOtherSearchBudget()
+	{
+		find(RouteOptimization.RELAXED, Set.of(), 40);
+		find(RouteOptimization.RELAXED, Set.of(), 35);
+		assertEquals(PathStabilizer.Decision.NEW, stabilizer.getLastDecision());
+	}
+
+	@Test
+	public void dropsGoalsNotRequestedDuringRecalculation()
+	{
+		stabilizer.beginRecalculation();
+		find(RouteOptimization.RELAXED, Set.of(), 40);
+		stabilizer.endRecalculation();
+
+		stabilizer.beginRecalculation();
+		stabilizer.endRecalculation();
+
+		find(RouteOptimization.RELAXED, Set.of(), 40);
+		assertEquals(PathStabilizer.Decision.NEW, stabilizer.getLastDecision());
+	}
+
+	@Test
+	public void countsHitsMissesAndEvictions()
+	{
+		stabilizer.beginRecalculation();
+		find(RouteOptimization.RELAXED, Set.of(), 40);
+		find(RouteOptimization.RELAXED, Set.of(), 40);
+		stabilizer.endRecalculation();
+
+		assertEquals(1, stabilizer.getActivePathCount());
+		assertEquals(1, stabilizer.getCacheHits());
+		assertEquals(1, stabilizer.getCacheMisses());
+
+		stabilizer.beginRecalculation();
+		stabilizer.endRecalculation();
+
+		assertEquals(0, stabilizer.getActivePathCount());
+		assertEquals(1, stabilizer.getRouteEvictions());
+		assertEquals(0, stabilizer.getCapacityEvictions());
+	}
+
+	private PathResult find(RouteOptimization routeOptimization, Set<WorldPoint> hints, int maxSearchDistance)
+	{
+		return find(routeOptimization, hints, maxSearchDistance, true);
+	}
+
+	private PathResult find(RouteOptimization routeOptimization, Set<WorldPoint> hints, int maxSearchDistance, boolean isPlayerCurrentlyOnPath)
+	{
+		var calculator = new BarracudaTileCostCalculator(TileHazards.copyOf(Map.of(), Set.of(), Set.of(), Set.of(), Set.of(), null),
+			0, 0, 0, 0, null, null, routeOptimization, 0, 0, hints, null, 0);
+		return stabilizer.findPath(calculator, routeOptimization, START, GOAL, maxSearchDistance, 1, 0, 0, isPlayerCurrentlyOnPath);
+	}
+}
@@ -0,0 +1,124 @@
+package com.barracudatrial.pathfinding;
+
+import com.barracudatrial.RouteOptimization;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SegmentMemoTest
+{
+	private static final WorldPoint START = new WorldPoint(3000, 3000, 0);
+	private static final WorldPoint TARGET = new WorldPoint(3010, 3000, 0);
+	private static final SegmentMemo.Key KEY = new SegmentMemo.Key(START, 0, TARGET, 0, Set.of(), 1, false);
+
+	private final SegmentMemo memo = new SegmentMemo();
+
+	@Test
+	public void returnsStoredSegmentWhileNothingNearbyChanges()
+	{
+		PathResult segment = straightSegment(true);
+		memo.put(KEY, segment, calculator(Set.of(), RouteOptimization.RELAXED, null));
+
+		assertSame(segment, memo.get(KEY, calculator(Set.of(), RouteOptimization.RELAXED, null)));
+	}
+
+	@Test
+	public void rockNearSegmentInvalidatesIt()
+	{
+		memo.put(KEY, straightSegment(true), calculator(Set.of(), RouteOptimization.RELAXED, null));
+
+		assertNull(memo.get(KEY, calculator(Set.of(new WorldPoint(3005, 3006, 0)), RouteOptimization.RELAXED, null)));
+	}
+
+	@Test
+	public void rockFarFromSegmentKeepsIt()
+	{
+		PathResult segment = straightSegment(true);
+		memo.put(KEY, segment, calculator(Set.of(), RouteOptimization.RELAXED, null));
+
+		assertSame(segment, memo.get(KEY, calculator(Set.of(new WorldPoint(3050, 3050, 0)), RouteOptimization.RELAXED, null)));
+	}
+
+	@Test
+	public void rockMovingWithinBoxInvalidatesSegment()
+	{
+		memo.put(KEY, straightSegment(true), calculator(Set.of(new WorldPoint(3005, 3004, 0)), RouteOptimization.RELAXED, null));
+
+		assertNull(memo.get(KEY, calculator(Set.of(new WorldPoint(3004, 3005, 0)), RouteOptimization.RELAXED, null)));
+	}
+
+	@Test
+	public void changedOptimizationInvalidatesSegment()
+	{
+		memo.put(KEY, straightSegment(true), calculator(Set.of(), RouteOptimization.RELAXED, null));
+
+		assertNull(memo.get(KEY, calculator(Set.of(), RouteOptimization.EFFICIENT, null)));
+	}
+
+	@Test
+	public void doesNotStoreSegmentsThatMissedTheirGoal()
+	{
+		memo.put(KEY, straightSegment(true), calculator(Set.of(), RouteOptimization.RELAXED, null));
+		memo.put(KEY, straightSegment(false), calculator(Set.of(), RouteOptimization.RELAXED, null));
+
+		assertNull(memo.get(KEY, calculator(Set.of(), RouteOptimization.RELAXED, null)));
+	}
+
+	@Test
+	public void doesNotStoreSegmentsNearClouds()
+	{
+		var clouds = cloudsAt(new WorldPoint(3005, 3010, 0));
+		memo.put(KEY, straightSegment(true), calculator(Set.of(), RouteOptimization.RELAXED, clouds));
+
+		assertNull(memo.get(KEY, calculator(Set.of(), RouteOptimization.RELAXED, clouds)));
+	}
+
+	@Test
+	public void cloudArrivingNearSegmentInvalidatesIt()
+	{
+		memo.put(KEY, straightSegment(true), calculator(Set.of(), RouteOptimization.RELAXED, null));
+
+		assertNull(memo.get(KEY, calculator(Set.of(), RouteOptimization.RELAXED, cloudsAt(new WorldPoint(3005, 3010, 0)))));
+	}
+
+	@Test
+	public void dropsSegmentsNotRequestedDuringRecalculation()
+	{
+		memo.beginRecalculation();
+		memo.put(KEY, straightSegment(true), calculator(Set.of(), RouteOptimization.RELAXED, null));
+		memo.endRecalculation();
+
+		memo.beginRecalculation();
+		memo.endRecalculation();
+
+		assertNull(memo.get(KEY, calculator(Set.of(), RouteOptimization.RELAXED, null)));
+	}
+
+	private static PathResult straightSegment(boolean reachedGoal)
+	{
+		List<PathNode> nodes = new ArrayList<>();
+		for (int x = START.getX(); x <= TARGET.getX(); x++)
+		{
+			nodes.add(new PathNode(new WorldPoint(x, START.getY(), 0), x - START.getX()));
+		}
+		return new PathResult(nodes, TARGET.getX() - START.getX(), reachedGoal);
+	}
+
+	private static CloudDangerTimeline cloudsAt(WorldPoint cloud)
+	{
+		return CloudDangerTimeline.build(List.of(new CloudForecast(cloud, 0, 0, true, -1, -1, -1)), 1.0);
+	}
+
+	private static BarracudaTileCostCalculator calculator(Set<WorldPoint> rocks, RouteOptimization routeOptimization, CloudDangerTimeline clouds)
+	{
+		return new BarracudaTileCostCalculator(TileHazards.copyOf(Map.of(), rocks, Set.of(), Set.of(), Set.of(), clouds),
+			0, 0, 0, 0, null, null, routeOptimization, 0, 0, Set.of(), null, 0);
+	}
+}
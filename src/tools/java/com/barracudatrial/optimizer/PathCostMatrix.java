@@ -0,0 +1,155 @@
+package com.barracudatrial.optimizer;
+
+import com.barracudatrial.RouteOptimization;
+import com.barracudatrial.pathfinding.AStarPathfinder;
+import com.barracudatrial.pathfinding.BarracudaTileCostCalculator;
+import com.barracudatrial.pathfinding.PathResult;
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A* cost between pairs of stops over the static obstacle map, searched in parallel one source stop per task.
+ * Costs are directed: a tile's cost is paid on entering it, so a to b and b to a can differ.
+ */
+public class PathCostMatrix
+{
+	// Finite so sums and differences of unreachable legs stay comparable instead of turning into NaN
+	public static final double UNREACHABLE = 1e9;
+	// The search budget is the square of this distance. Heading states make even open water take roughly
+	// 30 * distance^2 expansions, far beyond the live planner's budget, so scale well past the straight-line distance
+	private static final int SEARCH_DISTANCE_FACTOR = 6;
+	private static final int SEARCH_MARGIN = 64;
+
+	private final int size;
+	private final double[] costs;
+	private final int[] tiles;
+	@Getter
+	private long nodesExplored;
+	@Getter
+	private int searches;
+
+	private PathCostMatrix(int size)
+	{
+		this.size = size;
+		this.costs = new double[size * size];
+		this.tiles = new int[size * size];
+		Arrays.fill(costs, UNREACHABLE);
+	}
+
+	/**
+	 * @param locations Stop locations
+	 * @param goalTolerances Tiles from each stop that count as reaching it, as the planner uses them
+	 * @param wanted Which pairs to search, [from][to]; the rest stay {@link #UNREACHABLE}
+	 */
+	public static PathCostMatrix compute(ForkJoinPool pool, List<WorldPoint> locations, int[] goalTolerances, boolean[][] wanted,
+		Set<WorldPoint> rocks, Set<WorldPoint> fetidPools, Set<WorldPoint> toadPillars, RouteOptimization routeOptimization)
+		throws InterruptedException
+	{
+		int size = locations.size();
+		PathCostMatrix matrix = new PathCostMatrix(size);
+
+		List<Callable<Row>> rows = new ArrayList<>();
+		for (int from = 0; from < size; from++)
+		{
+			int source = from;
+			rows.add(() -> matrix.searchRow(source, locations, goalTolerances, wanted[source], rocks, fetidPools, toadPillars, routeOptimization));
+		}
+
+		try
+		{
+			for (Future<Row> future : pool.invokeAll(rows))
+			{
+				Row row = future.get();
+				matrix.nodesExplored += row.nodesExplored;
+				matrix.searches += row.searches;
+			}
+		}
+		catch (ExecutionException e)
+		{
+			throw new IllegalStateException("Path cost search failed", e.getCause());
+		}
+		return matrix;
+	}
+
+	// Each row writes only its own slice of the arrays, and invokeAll waits for all of them before anything reads
+	private Row searchRow(int from, List<WorldPoint> locations, int[] goalTolerances, boolean[] wanted,
+		Set<WorldPoint> rocks, Set<WorldPoint> fetidPools, Set<WorldPoint> toadPillars, RouteOptimization routeOptimization)
+	{
+		// One calculator and pathfinder per task; neither is safe to share between threads
+		var staticCosts = BarracudaTileCostCalculator.staticObstacles(rocks, fetidPools, toadPillars, routeOptimization);
+		var pathfinder = new AStarPathfinder();
+		int searches = 0;
+
+		WorldPoint start = locations.get(from);
+		for (int to = 0; to < size; to++)
+		{
+			WorldPoint goal = locations.get(to);
+			if (to == from || !wanted[to] || goal.getPlane() != start.getPlane())
+			{
+				continue;
+			}
+
+			int distance = Math.max(Math.abs(goal.getX() - start.getX()), Math.abs(goal.getY() - start.getY()));
+			// No heading: a stop is reached from whatever direction the previous leg arrived in
+			PathResult result = pathfinder.findPath(staticCosts, routeOptimization, start, goal,
+				distance * SEARCH_DISTANCE_FACTOR + SEARCH_MARGIN, 0, 0, goalTolerances[to]);
+			searches++;
+
+			if (result.isReachedGoal())
+			{
+				costs[from * size + to] = result.getCost();
+				tiles[from * size + to] = result.getPath().size();
+			}
+		}
+
+		return new Row(pathfinder.getTotalNodesExplored(), searches);
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public double getCost(int from, int to)
+	{
+		return costs[from * size + to];
+	}
+
+	/**
+	 * Overrides a leg's cost, e.g. for a portal hop the pathfinder can't search
+	 */
+	public void setCost(int from, int to, double cost, int tileCount)
+	{
+		costs[from * size + to] = cost;
+		tiles[from * size + to] = tileCount;
+	}
+
+	/**
+	 * @return Tiles along the searched path, 0 if it wasn't searched or didn't reach
+	 */
+	public int getTiles(int from, int to)
+	{
+		return tiles[from * size + to];
+	}
+
+	private static class Row
+	{
+		final long nodesExplored;
+		final int searches;
+
+		Row(long nodesExplored, int searches)
+		{
+			this.nodesExplored = nodesExplored;
+			this.searches = searches;
+		}
+	}
+}
@@ -0,0 +1,456 @@
+package com.barracudatrial.optimizer;
+
+import com.barracudatrial.RouteOptimization;
+import com.barracudatrial.atlas.HazardAtlas;
+import com.barracudatrial.game.ProgressTracker;
+import com.barracudatrial.game.State;
+import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.RouteData;
+import com.barracudatrial.game.route.RouteWaypoint;
+import com.barracudatrial.game.route.TrialType;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.RuneLite;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reorders a route's shipments to shorten it, using A* costs over the static obstacle map.
+ * <p>
+ * The route is split into stops: each waypoint the boat sails to, together with any pathfinding hints or wind
+ * catchers leading into it. Only shipments without leading helpers move; everything else keeps its order, which
+ * keeps rum pickup before dropoff, toad pickup before the pillars and portal enter straight before portal exit.
+ * Hinted stops keep their predecessor too, since the hints trace a passage from that particular stop.
+ * Shipments stay on their lap, and each lap's first and last stop stay put so laps join up as before.
+ * <p>
+ * Each lap is improved with 2-opt (reversing a run of shipments) and Or-opt (moving a run of up to three
+ * shipments elsewhere) until neither finds a shorter order.
+ */
+public class RouteOrderOptimizer
+{
+	// Stops further apart than this are never made neighbours, which keeps the number of searches down
+	private static final int PAIR_RADIUS = 40;
+	private static final int MAX_OR_OPT_RUN = 3;
+	private static final double MIN_IMPROVEMENT = 1e-6;
+
+	private final ForkJoinPool pool;
+	private final Set<WorldPoint> rocks;
+	private final Set<WorldPoint> fetidPools;
+	private final Set<WorldPoint> toadPillars;
+	private final RouteOptimization routeOptimization;
+
+	public RouteOrderOptimizer(ForkJoinPool pool, Set<WorldPoint> rocks, Set<WorldPoint> fetidPools,
+		Set<WorldPoint> toadPillars, RouteOptimization routeOptimization)
+	{
+		this.pool = pool;
+		this.rocks = rocks;
+		this.fetidPools = fetidPools;
+		this.toadPillars = toadPillars;
+		this.routeOptimization = routeOptimization;
+	}
+
+	public RouteOrderReport optimize(TrialType trialType, Difficulty difficulty, List<RouteWaypoint> route) throws InterruptedException
+	{
+		long startMillis = System.currentTimeMillis();
+
+		List<Stop> stops = new ArrayList<>();
+		List<RouteWaypoint> helpers = new ArrayList<>();
+		for (RouteWaypoint waypoint : route)
+		{
+			var type = waypoint.getType();
+			if (type == RouteWaypoint.WaypointType.PATHFINDING_HINT || type == RouteWaypoint.WaypointType.USE_WIND_CATCHER)
+			{
+				helpers.add(waypoint);
+				continue;
+			}
+			stops.add(new Stop(waypoint, helpers));
+			helpers = new ArrayList<>();
+		}
+		// Helpers after the last stop lead back round to the start; they stay at the end
+		List<RouteWaypoint> trailingHelpers = helpers;
+
+		for (int i = 1; i < stops.size(); i++)
+		{
+			if (stops.get(i).fixedEdgeBefore)
+			{
+				stops.get(i - 1).movable = false;
+			}
+		}
+
+		List<Stop> optimizedStops = new ArrayList<>();
+		double originalCost = 0;
+		double optimizedCost = 0;
+		int originalTiles = 0;
+		int optimizedTiles = 0;
+		int unreachedLegs = 0;
+		int searches = 0;
+		long nodesExplored = 0;
+
+		int blockStart = 0;
+		while (blockStart < stops.size())
+		{
+			int blockEnd = blockStart + 1;
+			while (blockEnd < stops.size() && stops.get(blockEnd).waypoint.getLap() == stops.get(blockStart).waypoint.getLap())
+			{
+				blockEnd++;
+			}
+
+			// The stop before the lap only contributes the fixed leg into it, so the totals cover every leg once
+			boolean hasPrevious = blockStart > 0;
+			List<Stop> local = new ArrayList<>(stops.subList(hasPrevious ? blockStart - 1 : blockStart, blockEnd));
+			int offset = hasPrevious ? 1 : 0;
+			int blockSize = blockEnd - blockStart;
+
+			PathCostMatrix matrix = computeCosts(local, offset);
+			searches += matrix.getSearches();
+			nodesExplored += matrix.getNodesExplored();
+
+			int[] original = new int[local.size()];
+			for (int i = 0; i < original.length; i++)
+			{
+				original[i] = i;
+			}
+			int[] order = original.clone();
+			if (blockSize > 2)
+			{
+				improve(order, offset, local, matrix);
+			}
+
+			for (int i = 1; i < order.length; i++)
+			{
+				double originalLeg = matrix.getCost(original[i - 1], original[i]);
+				double optimizedLeg = matrix.getCost(order[i - 1], order[i]);
+				if (originalLeg >= PathCostMatrix.UNREACHABLE || optimizedLeg >= PathCostMatrix.UNREACHABLE)
+				{
+					unreachedLegs++;
+					continue;
+				}
+				originalCost += originalLeg;
+				optimizedCost += optimizedLeg;
+				originalTiles += matrix.getTiles(original[i - 1], original[i]);
+				optimizedTiles += matrix.getTiles(order[i - 1], order[i]);
+			}
+
+			for (int i = offset; i < order.length; i++)
+			{
+				optimizedStops.add(local.get(order[i]));
+			}
+			blockStart = blockEnd;
+		}
+
+		List<RouteWaypoint> optimizedRoute = new ArrayList<>(route.size());
+		int movedStops = 0;
+		for (int i = 0; i < optimizedStops.size(); i++)
+		{
+			Stop stop = optimizedStops.get(i);
+			if (stop != stops.get(i))
+			{
+				movedStops++;
+			}
+			optimizedRoute.addAll(stop.helpers);
+			optimizedRoute.add(stop.waypoint);
+		}
+		optimizedRoute.addAll(trailingHelpers);
+
+		return new RouteOrderReport(trialType, difficulty, optimizedRoute, originalCost, optimizedCost,
+			originalTiles, optimizedTiles, movedStops, unreachedLegs, searches, nodesExplored,
+			System.currentTimeMillis() - startMillis);
+	}
+
+	/**
+	 * Searches every leg the local search could create, plus the route's own legs so the original can be costed
+	 */
+	private PathCostMatrix computeCosts(List<Stop> local, int offset) throws InterruptedException
+	{
+		int size = local.size();
+		List<WorldPoint> locations = new ArrayList<>(size);
+		int[] goalTolerances = new int[size];
+		for (int i = 0; i < size; i++)
+		{
+			RouteWaypoint waypoint = local.get(i).waypoint;
+			locations.add(waypoint.getLocation());
+			goalTolerances[i] = waypoint.getType().getToleranceTiles();
+		}
+
+		boolean[][] wanted = new boolean[size][size];
+		for (int from = 0; from < size; from++)
+		{
+			for (int to = 0; to < size; to++)
+			{
+				Stop target = local.get(to);
+				if (from == to || target.waypoint.getType() == RouteWaypoint.WaypointType.PORTAL_EXIT)
+				{
+					continue;
+				}
+
+				boolean isRouteLeg = to == from + 1;
+				// New legs can't start from the lap's last stop, end at its first, or lead into a stop with a fixed predecessor
+				boolean canBecomeLeg = from >= offset && from < size - 1 && to > offset && !target.fixedEdgeBefore
+					&& locations.get(from).distanceTo2D(locations.get(to)) <= PAIR_RADIUS;
+				wanted[from][to] = isRouteLeg || canBecomeLeg;
+			}
+		}
+
+		PathCostMatrix matrix = PathCostMatrix.compute(pool, locations, goalTolerances, wanted,
+			rocks, fetidPools, toadPillars, routeOptimization);
+
+		// Portals aren't searchable; sailing through one costs nothing beyond reaching it
+		for (int i = 1; i < size; i++)
+		{
+			if (local.get(i - 1).waypoint.getType() == RouteWaypoint.WaypointType.PORTAL_ENTER
+				&& local.get(i).waypoint.getType() == RouteWaypoint.WaypointType.PORTAL_EXIT)
+			{
+				matrix.setCost(i - 1, i, 0, 0);
+			}
+		}
+		return matrix;
+	}
+
+	/**
+	 * Applies improving 2-opt and Or-opt moves to {@code order} until there are none left.
+	 * Positions before {@code offset} and the last position never change.
+	 */
+	private static void improve(int[] order, int offset, List<Stop> local, PathCostMatrix matrix)
+	{
+		boolean improved = true;
+		while (improved)
+		{
+			improved = twoOpt(order, offset, local, matrix) || orOpt(order, offset, local, matrix);
+		}
+	}
+
+	private static boolean twoOpt(int[] order, int offset, List<Stop> local, PathCostMatrix matrix)
+	{
+		int last = order.length - 1;
+		for (int i = Math.max(1, offset + 1); i < last; i++)
+		{
+			if (!local.get(order[i]).movable)
+			{
+				continue;
+			}
+
+			double forward = 0;
+			double reverse = 0;
+			for (int j = i + 1; j < last; j++)
+			{
+				if (!local.get(order[j]).movable)
+				{
+					break;
+				}
+
+				// Costs are directed, so the reversed run's internal legs change too
+				forward += matrix.getCost(order[j - 1], order[j]);
+				reverse += matrix.getCost(order[j], order[j - 1]);
+
+				double before = matrix.getCost(order[i - 1], order[i]) + forward + matrix.getCost(order[j], order[j + 1]);
+				double after = matrix.getCost(order[i - 1], order[j]) + reverse + matrix.getCost(order[i], order[j + 1]);
+				if (after < before - MIN_IMPROVEMENT)
+				{
+					for (int a = i, b = j; a < b; a++, b--)
+					{
+						int swap = order[a];
+						order[a] = order[b];
+						order[b] = swap;
+					}
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean orOpt(int[] order, int offset, List<Stop> local, PathCostMatrix matrix)
+	{
+		int last = order.length - 1;
+		for (int runLength = 1; runLength <= MAX_OR_OPT_RUN; runLength++)
+		{
+			for (int i = Math.max(1, offset + 1); i + runLength - 1 < last; i++)
+			{
+				if (!isMovableRun(order, i, runLength, local))
+				{
+					continue;
+				}
+
+				int runFirst = order[i];
+				int runLast = order[i + runLength - 1];
+				int before = order[i - 1];
+				int after = order[i + runLength];
+				double removalSaving = matrix.getCost(before, runFirst) + matrix.getCost(runLast, after) - matrix.getCost(before, after);
+
+				// Insert between order[p - 1] and order[p]
+				for (int p = Math.max(1, offset + 1); p <= last; p++)
+				{
+					if (p >= i && p <= i + runLength)
+					{
+						continue;
+					}
+					if (local.get(order[p]).fixedEdgeBefore)
+					{
+						continue;
+					}
+
+					double insertionCost = matrix.getCost(order[p - 1], runFirst) + matrix.getCost(runLast, order[p])
+						- matrix.getCost(order[p - 1], order[p]);
+					if (insertionCost < removalSaving - MIN_IMPROVEMENT)
+					{
+						moveRun(order, i, runLength, p);
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean isMovableRun(int[] order, int start, int length, List<Stop> local)
+	{
+		for (int k = start; k < start + length; k++)
+		{
+			if (!local.get(order[k]).movable)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Moves order[start, start + length) so it sits just before what is currently order[insertBefore]
+	 */
+	private static void moveRun(int[] order, int start, int length, int insertBefore)
+	{
+		int[] run = new int[length];
+		System.arraycopy(order, start, run, 0, length);
+		if (insertBefore < start)
+		{
+			System.arraycopy(order, insertBefore, order, insertBefore + length, start - insertBefore);
+			System.arraycopy(run, 0, order, insertBefore, length);
+		}
+		else
+		{
+			int shifted = insertBefore - (start + length);
+			System.arraycopy(order, start + length, order, start, shifted);
+			System.arraycopy(run, 0, order, start + shifted, length);
+		}
+	}
+
+	/**
+	 * A waypoint the boat sails to, with the helper waypoints that lead into it
+	 */
+	private static class Stop
+	{
+		final RouteWaypoint waypoint;
+		final List<RouteWaypoint> helpers;
+		// Must follow the same stop as in the original route
+		final boolean fixedEdgeBefore;
+		boolean movable;
+
+		Stop(RouteWaypoint waypoint, List<RouteWaypoint> helpers)
+		{
+			this.waypoint = waypoint;
+			this.helpers = helpers;
+			this.fixedEdgeBefore = !helpers.isEmpty() || waypoint.getType() == RouteWaypoint.WaypointType.PORTAL_EXIT;
+			this.movable = waypoint.getType() == RouteWaypoint.WaypointType.SHIPMENT && helpers.isEmpty();
+		}
+	}
+
+	/**
+	 * Optimizes the built-in routes against the saved hazard atlases and writes any that improved as route files,
+	 * ready to drop into .runelite/barracuda-trials/routes.
+	 * Usage: RouteOrderOptimizer [--optimization=RELAXED|EFFICIENT] [--parallelism=N] [--atlas=dir] [--out=dir]
+	 * [--trial=TYPE] [--difficulty=DIFFICULTY]
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException
+	{
+		RouteOptimization routeOptimization = RouteOptimization.RELAXED;
+		int parallelism = Runtime.getRuntime().availableProcessors();
+		File atlasDirectory = new File(RuneLite.RUNELITE_DIR, "barracuda-trials/hazards");
+		File outputDirectory = new File("build/optimized-routes");
+		TrialType onlyTrial = null;
+		Difficulty onlyDifficulty = null;
+
+		for (String arg : args)
+		{
+			if (arg.startsWith("--optimization="))
+			{
+				routeOptimization = RouteOptimization.valueOf(arg.substring("--optimization=".length()));
+			}
+			else if (arg.startsWith("--parallelism="))
+			{
+				parallelism = Integer.parseInt(arg.substring("--parallelism=".length()));
+			}
+			else if (arg.startsWith("--atlas="))
+			{
+				atlasDirectory = new File(arg.substring("--atlas=".length()));
+			}
+			else if (arg.startsWith("--out="))
+			{
+				outputDirectory = new File(arg.substring("--out=".length()));
+			}
+			else if (arg.startsWith("--trial="))
+			{
+				onlyTrial = TrialType.valueOf(arg.substring("--trial=".length()));
+			}
+			else if (arg.startsWith("--difficulty="))
+			{
+				onlyDifficulty = Difficulty.valueOf(arg.substring("--difficulty=".length()));
+			}
+			else
+			{
+				throw new IllegalArgumentException("Unknown argument " + arg);
+			}
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try
+		{
+			for (TrialType trialType : TrialType.values())
+			{
+				if (onlyTrial != null && trialType != onlyTrial)
+				{
+					continue;
+				}
+
+				State hazards = new State();
+				File atlasFile = HazardAtlas.getFile(atlasDirectory, trialType);
+				if (!atlasFile.isFile())
+				{
+					System.err.println(trialType + ": no hazard atlas at " + atlasFile + ", costing open water only");
+				}
+				HazardAtlas.load(atlasFile).applyTo(hazards);
+
+				var optimizer = new RouteOrderOptimizer(pool, hazards.getKnownRockLocations(),
+					hazards.getKnownFetidPoolLocations(), hazards.getKnownToadPillarLocations(), routeOptimization);
+				var trial = ProgressTracker.createTrialConfig(trialType);
+
+				for (Difficulty difficulty : Difficulty.values())
+				{
+					List<RouteWaypoint> route = trial.getRoute(difficulty);
+					if ((onlyDifficulty != null && difficulty != onlyDifficulty) || route == null || route.isEmpty())
+					{
+						continue;
+					}
+
+					RouteOrderReport report = optimizer.optimize(trialType, difficulty, route);
+					System.out.println(report);
+
+					if (report.isImproved())
+					{
+						File file = new File(outputDirectory, trialType.name().toLowerCase() + "-"
+							+ difficulty.name().toLowerCase() + RouteData.FILE_EXTENSION);
+						RouteData.fromWaypoints(trialType, difficulty, report.getOptimizedRoute()).write(file);
+						System.out.println("  wrote " + file);
+					}
+				}
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+}
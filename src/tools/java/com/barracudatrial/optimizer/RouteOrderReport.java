@@ -0,0 +1,73 @@
+package com.barracudatrial.optimizer;
+
+import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.RouteWaypoint;
+import com.barracudatrial.game.route.TrialType;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of reordering one route: the new route and what it saves over the original, over the static obstacle map.
+ * Costs are A* path costs (about one per open-water tile, more near hazards and on turns).
+ */
+@Getter
+public class RouteOrderReport
+{
+	private final TrialType trialType;
+	private final Difficulty difficulty;
+	private final List<RouteWaypoint> optimizedRoute;
+	private final double originalCost;
+	private final double optimizedCost;
+	private final int originalTiles;
+	private final int optimizedTiles;
+	// Stops sailed at a different position than in the original route
+	private final int movedStops;
+	// Legs of the original route the search couldn't complete; left out of the costs above
+	private final int unreachedLegs;
+	private final int searches;
+	private final long nodesExplored;
+	private final long elapsedMillis;
+
+	RouteOrderReport(TrialType trialType, Difficulty difficulty, List<RouteWaypoint> optimizedRoute,
+		double originalCost, double optimizedCost, int originalTiles, int optimizedTiles, int movedStops,
+		int unreachedLegs, int searches, long nodesExplored, long elapsedMillis)
+	{
+		this.trialType = trialType;
+		this.difficulty = difficulty;
+		this.optimizedRoute = optimizedRoute;
+		this.originalCost = originalCost;
+		this.optimizedCost = optimizedCost;
+		this.originalTiles = originalTiles;
+		this.optimizedTiles = optimizedTiles;
+		this.movedStops = movedStops;
+		this.unreachedLegs = unreachedLegs;
+		this.searches = searches;
+		this.nodesExplored = nodesExplored;
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	public boolean isImproved()
+	{
+		return movedStops > 0 && optimizedCost < originalCost;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format(
+			"%s %s: cost %.1f -> %.1f (%.1f%% saved) tiles %d -> %d moved=%d unreached=%d searches=%d nodes=%d in %dms",
+			trialType,
+			difficulty,
+			originalCost,
+			optimizedCost,
+			originalCost > 0 ? (originalCost - optimizedCost) / originalCost * 100 : 0,
+			originalTiles,
+			optimizedTiles,
+			movedStops,
+			unreachedLegs,
+			searches,
+			nodesExplored,
+			elapsedMillis);
+	}
+}
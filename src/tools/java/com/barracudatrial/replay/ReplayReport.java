@@ -0,0 +1,65 @@
+package com.barracudatrial.replay;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Planner metrics for one replayed session.
+ * Everything except the latencies depends only on the recording and the planner code,
+ * so two runs of the same build produce the same report and any difference is a behaviour change.
+ */
+@Getter
+public class ReplayReport
+{
+	private final int ticks;
+	private final int recalculations;
+	private final long nodesExplored;
+	// Recalculations whose path didn't continue the previous one from where the boat was
+	private final int pathSwitches;
+	// Order-sensitive hash of every published path
+	private final long pathDigest;
+	private final double[] latencyMillis;
+
+	ReplayReport(int ticks, int recalculations, long nodesExplored, int pathSwitches, long pathDigest, double[] latencyMillis)
+	{
+		this.ticks = ticks;
+		this.recalculations = recalculations;
+		this.nodesExplored = nodesExplored;
+		this.pathSwitches = pathSwitches;
+		this.pathDigest = pathDigest;
+		this.latencyMillis = latencyMillis.clone();
+		Arrays.sort(this.latencyMillis);
+	}
+
+	/**
+	 * @param percentile 0-100, nearest rank
+	 */
+	public double getLatencyPercentile(double percentile)
+	{
+		if (latencyMillis.length == 0)
+		{
+			return 0;
+		}
+
+		int rank = (int) Math.ceil(percentile / 100.0 * latencyMillis.length);
+		return latencyMillis[Math.max(0, Math.min(latencyMillis.length - 1, rank - 1))];
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format(
+			"ticks=%d recalculations=%d nodes=%d (%.0f/recalc) switches=%d digest=%016x latency p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+			ticks,
+			recalculations,
+			nodesExplored,
+			recalculations > 0 ? nodesExplored / (double) recalculations : 0,
+			pathSwitches,
+			pathDigest,
+			getLatencyPercentile(50),
+			getLatencyPercentile(95),
+			getLatencyPercentile(99),
+			getLatencyPercentile(100));
+	}
+}
@@ -0,0 +1,208 @@
+package com.barracudatrial.replay;
+
+import com.barracudatrial.game.BoatPose;
+import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.TrialType;
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.barracudatrial.replay.SessionFormat.*;
+
+/**
+ * Reads a session written by {@link SessionRecorder} back as a sequence of full {@link TickFrame}s
+ */
+public class SessionReader implements Closeable
+{
+	private final DataInputStream in;
+
+	@Getter
+	private final long recordedAtMillis;
+
+	private TickFrame previous = new TickFrame();
+	private int tick = 0;
+
+	public SessionReader(InputStream input) throws IOException
+	{
+		in = new DataInputStream(new BufferedInputStream(input));
+
+		if (in.readInt() != MAGIC)
+		{
+			throw new IOException("Not a trial session recording");
+		}
+
+		int version = in.readUnsignedShort();
+		if (version != VERSION)
+		{
+			throw new IOException("Unsupported session recording version " + version);
+		}
+
+		recordedAtMillis = in.readLong();
+	}
+
+	/**
+	 * @return The next tick, or null at the end of the recording (including a record cut off mid-write)
+	 */
+	public TickFrame next() throws IOException
+	{
+		int sections;
+		try
+		{
+			sections = readVarInt(in);
+		}
+		catch (EOFException e)
+		{
+			return null;
+		}
+
+		try
+		{
+			TickFrame frame = previous.copyForNextTick();
+			tick += readSignedVarInt(in);
+			frame.tick = tick;
+			frame.changedSections = sections;
+
+			frame.boatLocation = unpackPoint(in.readInt());
+			frame.frontBoatTile = unpackPoint(in.readInt());
+
+			if ((sections & SECTION_POSE) != 0)
+			{
+				frame.boatPose = readPose(tick);
+			}
+			else if (frame.boatPose != null)
+			{
+				// Unchanged pose, but it belongs to this tick now
+				BoatPose pose = frame.boatPose;
+				frame.boatPose = new BoatPose(tick, pose.getX(), pose.getY(), pose.getPlane(),
+					pose.getVelocityX(), pose.getVelocityY(), pose.getHeadingIdx(), pose.isBoosted());
+			}
+
+			if ((sections & SECTION_CLOUDS) != 0)
+			{
+				frame.clouds = readClouds();
+			}
+			if ((sections & SECTION_ROCKS) != 0)
+			{
+				frame.rocks = readPointSet();
+			}
+			if ((sections & SECTION_BOOSTS) != 0)
+			{
+				frame.boostCenters = readPointSet();
+			}
+			if ((sections & SECTION_FETID_POOLS) != 0)
+			{
+				frame.fetidPools = readPointSet();
+			}
+			if ((sections & SECTION_TOAD_PILLARS) != 0)
+			{
+				frame.toadPillars = readPointSet();
+			}
+			if ((sections & SECTION_PROGRESS) != 0)
+			{
+				readProgress(frame);
+			}
+			if ((sections & SECTION_CHAT) != 0)
+			{
+				int count = readVarInt(in);
+				List<String> messages = new ArrayList<>(count);
+				for (int i = 0; i < count; i++)
+				{
+					messages.add(in.readUTF());
+				}
+				frame.chatMessages = messages;
+			}
+
+			previous = frame;
+			return frame;
+		}
+		catch (EOFException e)
+		{
+			// The client closed mid-record; everything before it is still usable
+			return null;
+		}
+	}
+
+	private BoatPose readPose(int tick) throws IOException
+	{
+		if (!in.readBoolean())
+		{
+			return null;
+		}
+
+		double x = in.readFloat();
+		double y = in.readFloat();
+		int plane = in.readByte();
+		double velocityX = in.readFloat();
+		double velocityY = in.readFloat();
+		int headingIdx = in.readByte();
+		boolean boosted = in.readBoolean();
+		return new BoatPose(tick, x, y, plane, velocityX, velocityY, headingIdx, boosted);
+	}
+
+	private List<TickFrame.CloudSample> readClouds() throws IOException
+	{
+		int count = readVarInt(in);
+		List<TickFrame.CloudSample> clouds = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+		{
+			long sample = in.readLong();
+			clouds.add(new TickFrame.CloudSample(unpackPoint((int) (sample >>> 32)), (int) sample));
+		}
+		return Collections.unmodifiableList(clouds);
+	}
+
+	private Set<WorldPoint> readPointSet() throws IOException
+	{
+		int count = readVarInt(in);
+		Set<WorldPoint> points = new HashSet<>(count * 2);
+		for (int i = 0; i < count; i++)
+		{
+			points.add(unpackPoint(in.readInt()));
+		}
+		return Collections.unmodifiableSet(points);
+	}
+
+	private void readProgress(TickFrame frame) throws IOException
+	{
+		int trialOrdinal = in.readByte();
+		frame.trialType = trialOrdinal >= 0 ? TrialType.values()[trialOrdinal] : null;
+
+		int difficultyOrdinal = in.readByte();
+		frame.difficulty = difficultyOrdinal >= 0 ? Difficulty.values()[difficultyOrdinal] : null;
+
+		frame.lap = readVarInt(in);
+
+		int completedCount = readVarInt(in);
+		Set<Integer> completed = new HashSet<>(completedCount * 2);
+		for (int i = 0; i < completedCount; i++)
+		{
+			completed.add(readVarInt(in));
+		}
+		frame.completedWaypoints = Collections.unmodifiableSet(completed);
+
+		frame.hasThrowableObjective = in.readBoolean();
+		frame.rumPickupLocation = unpackPoint(in.readInt());
+		frame.rumReturnLocation = unpackPoint(in.readInt());
+		frame.exclusionZoneMinX = in.readInt();
+		frame.exclusionZoneMaxX = in.readInt();
+		frame.exclusionZoneMinY = in.readInt();
+		frame.exclusionZoneMaxY = in.readInt();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		in.close();
+	}
+}
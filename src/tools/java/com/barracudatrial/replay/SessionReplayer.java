@@ -0,0 +1,282 @@
+package com.barracudatrial.replay;
+
+import com.barracudatrial.BarracudaTrialConfig;
+import com.barracudatrial.CachedConfig;
+import com.barracudatrial.diagnostics.PathfindingMetrics;
+import com.barracudatrial.RouteOptimization;
+import com.barracudatrial.game.CloudTracker;
+import com.barracudatrial.game.ObjectTracker;
+import com.barracudatrial.game.PathPlanner;
+import com.barracudatrial.game.ProgressTracker;
+import com.barracudatrial.game.State;
+import com.barracudatrial.game.route.RouteWaypoint;
+import com.barracudatrial.game.route.TrialConfig;
+import com.barracudatrial.world.InMemoryTrialWorldView;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.gameval.NpcID;
+import net.runelite.client.callback.ClientThread;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drives State and PathPlanner from a recorded session, without a game client.
+ * <p>
+ * Each tick the recorded tracker output is applied to a fresh State, then the planner is triggered the way the
+ * plugin triggers it: whenever route progress changes, and every route optimization interval otherwise.
+ * Planning runs synchronously on the calling thread, so the same recording and build always produce the same paths.
+ */
+public class SessionReplayer
+{
+	private final RouteOptimization routeOptimization;
+	private final int pathLookahead;
+
+	public SessionReplayer(RouteOptimization routeOptimization, int pathLookahead)
+	{
+		this.routeOptimization = routeOptimization;
+		this.pathLookahead = pathLookahead;
+	}
+
+	public ReplayReport replay(SessionReader reader) throws IOException
+	{
+		BarracudaTrialConfig config = new BarracudaTrialConfig()
+		{
+			@Override
+			public RouteOptimization routeOptimization()
+			{
+				return routeOptimization;
+			}
+
+			@Override
+			public int pathLookahead()
+			{
+				return pathLookahead;
+			}
+		};
+
+		State state = new State();
+		// No scene is loaded, so the planner targets waypoints at their route locations
+		InMemoryTrialWorldView world = new InMemoryTrialWorldView();
+		PathPlanner pathPlanner = new PathPlanner(world, state, new CachedConfig(config), new ClientThread(), new PathfindingMetrics());
+		CloudTracker cloudTracker = new CloudTracker();
+
+		int ticks = 0;
+		int pathSwitches = 0;
+		long pathDigest = 17;
+		List<Double> latencies = new ArrayList<>();
+		List<WorldPoint> previousPath = new ArrayList<>();
+
+		try
+		{
+			TickFrame frame;
+			while ((frame = reader.next()) != null)
+			{
+				ticks++;
+				long progressVersion = state.getRouteProgressVersion();
+				world.setTickCount(frame.getTick());
+				applyFrame(frame, state, world, cloudTracker);
+
+				String reason = null;
+				if (state.getRouteProgressVersion() != progressVersion)
+				{
+					reason = frame.getChatMessages().isEmpty()
+						? "replay: route progress"
+						: "replay: chat: " + frame.getChatMessages().get(0);
+				}
+				else
+				{
+					int ticksSinceLastPathRecalculation = state.getTicksSinceLastPathRecalc() + 1;
+					state.setTicksSinceLastPathRecalc(ticksSinceLastPathRecalculation);
+					if (ticksSinceLastPathRecalculation >= routeOptimization.getPathRecalcIntervalTicks())
+					{
+						reason = "replay: periodic";
+					}
+				}
+
+				if (reason == null)
+				{
+					continue;
+				}
+
+				long startNanos = System.nanoTime();
+				List<WorldPoint> path = pathPlanner.recalculateOptimalPathNow(reason);
+				latencies.add((System.nanoTime() - startNanos) / 1_000_000.0);
+
+				if (isPathSwitch(previousPath, path))
+				{
+					pathSwitches++;
+				}
+				pathDigest = pathDigest * 31 + path.hashCode();
+				previousPath = new ArrayList<>(path);
+			}
+		}
+		finally
+		{
+			pathPlanner.shutdown();
+		}
+
+		double[] latencyMillis = latencies.stream().mapToDouble(Double::doubleValue).toArray();
+		return new ReplayReport(ticks, latencies.size(), pathPlanner.getTotalNodesExplored(), pathSwitches, pathDigest, latencyMillis);
+	}
+
+	private static void applyFrame(TickFrame frame, State state, InMemoryTrialWorldView world, CloudTracker cloudTracker)
+	{
+		if (frame.getTrialType() == null)
+		{
+			return;
+		}
+
+		TrialConfig trial = state.getCurrentTrial();
+		if (trial == null || trial.getTrialType() != frame.getTrialType())
+		{
+			state.resetAllTemporaryState();
+			cloudTracker.reset();
+			trial = ProgressTracker.createTrialConfig(frame.getTrialType());
+			state.setCurrentTrial(trial);
+		}
+		state.setInTrial(true);
+
+		if (frame.isChanged(SessionFormat.SECTION_PROGRESS))
+		{
+			List<RouteWaypoint> route = frame.getDifficulty() != null ? trial.getRoute(frame.getDifficulty()) : null;
+			if (route != state.getCurrentStaticRoute())
+			{
+				state.setCurrentStaticRoute(route);
+			}
+
+			state.setCurrentLap(frame.getLap());
+			for (int index : frame.getCompletedWaypoints())
+			{
+				if (!state.isWaypointCompleted(index))
+				{
+					state.markWaypointCompleted(index);
+				}
+			}
+
+			state.setHasThrowableObjective(frame.isHasThrowableObjective());
+			state.setRumPickupLocation(frame.getRumPickupLocation());
+			state.setRumReturnLocation(frame.getRumReturnLocation());
+			state.setExclusionZoneMinX(frame.getExclusionZoneMinX());
+			state.setExclusionZoneMaxX(frame.getExclusionZoneMaxX());
+			state.setExclusionZoneMinY(frame.getExclusionZoneMinY());
+			state.setExclusionZoneMaxY(frame.getExclusionZoneMaxY());
+		}
+
+		if (frame.isChanged(SessionFormat.SECTION_ROCKS))
+		{
+			state.updateKnownRockLocations(frame.getRocks());
+		}
+		if (frame.isChanged(SessionFormat.SECTION_BOOSTS))
+		{
+			Map<WorldPoint, List<WorldPoint>> boosts = new HashMap<>();
+			for (WorldPoint center : frame.getBoostCenters())
+			{
+				boosts.put(center, ObjectTracker.getTilesWithTolerance(center, 1));
+			}
+			state.updateKnownSpeedBoostLocations(boosts);
+		}
+		if (frame.isChanged(SessionFormat.SECTION_FETID_POOLS))
+		{
+			state.updateKnownFetidPoolLocations(frame.getFetidPools());
+		}
+		if (frame.isChanged(SessionFormat.SECTION_TOAD_PILLARS))
+		{
+			state.updateKnownToadPillarLocations(frame.getToadPillars());
+		}
+		if (frame.isChanged(SessionFormat.SECTION_CLOUDS))
+		{
+			state.clearLightningClouds();
+			state.clearDangerousClouds();
+			world.clearNpcs();
+			for (TickFrame.CloudSample sample : frame.getClouds())
+			{
+				var cloud = world.addNpc(NpcID.SAILING_SEA_STORMY_CLOUD, sample.getLocation(), sample.getAnimation());
+				state.addLightningCloud(cloud);
+				if (!ObjectTracker.isCloudSafe(sample.getAnimation()))
+				{
+					state.addDangerousCloud(cloud);
+				}
+			}
+		}
+
+		// Every frame, not just changed ones: a cloud staying put is part of its drift too
+		List<CloudTracker.Sighting> sightings = new ArrayList<>(frame.getClouds().size());
+		for (TickFrame.CloudSample sample : frame.getClouds())
+		{
+			sightings.add(new CloudTracker.Sighting(sample.getLocation(), !ObjectTracker.isCloudSafe(sample.getAnimation())));
+		}
+		state.setCloudForecasts(cloudTracker.update(frame.getTick(), sightings));
+
+		state.setBoatLocation(frame.getBoatLocation());
+		state.setFrontBoatTileEstimatedActual(frame.getFrontBoatTile());
+		state.setBoatPose(frame.getBoatPose());
+	}
+
+	/**
+	 * A path is a switch unless it picks up the previous path where the boat now is and follows it
+	 * for as long as both go (the new one may run further, as the lookahead moves on)
+	 */
+	private static boolean isPathSwitch(List<WorldPoint> previousPath, List<WorldPoint> path)
+	{
+		if (previousPath.isEmpty() || path.isEmpty())
+		{
+			return false;
+		}
+
+		int offset = previousPath.indexOf(path.get(0));
+		if (offset < 0)
+		{
+			return true;
+		}
+
+		int overlap = Math.min(previousPath.size() - offset, path.size());
+		for (int i = 0; i < overlap; i++)
+		{
+			if (!previousPath.get(offset + i).equals(path.get(i)))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Replays each session file given and prints its report.
+	 * Usage: SessionReplayer [--optimization=RELAXED|EFFICIENT] [--lookahead=N] session.btrp...
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		RouteOptimization routeOptimization = RouteOptimization.RELAXED;
+		int pathLookahead = 3;
+		List<String> files = new ArrayList<>();
+
+		for (String arg : args)
+		{
+			if (arg.startsWith("--optimization="))
+			{
+				routeOptimization = RouteOptimization.valueOf(arg.substring("--optimization=".length()));
+			}
+			else if (arg.startsWith("--lookahead="))
+			{
+				pathLookahead = Integer.parseInt(arg.substring("--lookahead=".length()));
+			}
+			else
+			{
+				files.add(arg);
+			}
+		}
+
+		SessionReplayer replayer = new SessionReplayer(routeOptimization, pathLookahead);
+		for (String file : files)
+		{
+			try (SessionReader reader = new SessionReader(new FileInputStream(file)))
+			{
+				System.out.println(file + ": " + replayer.replay(reader));
+			}
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.barracudatrial.replay;
+
+import com.barracudatrial.game.BoatPose;
+import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.TrialType;
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Everything the planner reads from the game as of one recorded tick.
+ * Sections that weren't written this tick carry the previous frame's value; {@link #isChanged} tells them apart.
+ */
+@Getter
+public class TickFrame
+{
+	@Getter
+	public static class CloudSample
+	{
+		private final WorldPoint location;
+		private final int animation;
+
+		public CloudSample(WorldPoint location, int animation)
+		{
+			this.location = location;
+			this.animation = animation;
+		}
+	}
+
+	int tick;
+	int changedSections;
+
+	WorldPoint boatLocation;
+	WorldPoint frontBoatTile;
+	BoatPose boatPose;
+
+	List<CloudSample> clouds = Collections.emptyList();
+	Set<WorldPoint> rocks = Collections.emptySet();
+	// Boost centers; the grabbable tiles around them are derived the same way the tracker does
+	Set<WorldPoint> boostCenters = Collections.emptySet();
+	Set<WorldPoint> fetidPools = Collections.emptySet();
+	Set<WorldPoint> toadPillars = Collections.emptySet();
+
+	// Null until the trial is known
+	TrialType trialType;
+	// Null until a route has been loaded
+	Difficulty difficulty;
+	int lap = 1;
+	Set<Integer> completedWaypoints = Collections.emptySet();
+	boolean hasThrowableObjective;
+	WorldPoint rumPickupLocation;
+	WorldPoint rumReturnLocation;
+	int exclusionZoneMinX;
+	int exclusionZoneMaxX;
+	int exclusionZoneMinY;
+	int exclusionZoneMaxY;
+
+	// Game messages received since the previous tick
+	List<String> chatMessages = Collections.emptyList();
+
+	boolean isChanged(int section)
+	{
+		return (changedSections & section) != 0;
+	}
+
+	TickFrame copyForNextTick()
+	{
+		TickFrame next = new TickFrame();
+		next.boatPose = boatPose;
+		next.clouds = clouds;
+		next.rocks = rocks;
+		next.boostCenters = boostCenters;
+		next.fetidPools = fetidPools;
+		next.toadPillars = toadPillars;
+		next.trialType = trialType;
+		next.difficulty = difficulty;
+		next.lap = lap;
+		next.completedWaypoints = completedWaypoints;
+		next.hasThrowableObjective = hasThrowableObjective;
+		next.rumPickupLocation = rumPickupLocation;
+		next.rumReturnLocation = rumReturnLocation;
+		next.exclusionZoneMinX = exclusionZoneMinX;
+		next.exclusionZoneMaxX = exclusionZoneMaxX;
+		next.exclusionZoneMinY = exclusionZoneMinY;
+		next.exclusionZoneMaxY = exclusionZoneMaxY;
+		return next;
+	}
+}
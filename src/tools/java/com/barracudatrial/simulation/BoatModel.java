@@ -0,0 +1,135 @@
+package com.barracudatrial.simulation;
+
+import com.barracudatrial.game.BoatPose;
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How fast the boat covers a path: cruising speed, the 15-tile boost doubling that BarracudaTileCostCalculator
+ * assumes, and a turn rate limit in the planner's 24 heading steps.
+ * <p>
+ * A tile step takes whichever is longer, sailing its distance or turning to the heading it needs. Headings are taken
+ * over a few tiles ahead rather than per step, so an 8-way staircase along a shallow angle counts as a straight line,
+ * the way the boat actually sails it.
+ */
+@Getter
+public class BoatModel
+{
+	// Matches BarracudaTileCostCalculator: a boost doubles speed for this many tiles
+	public static final int BOOST_TILES = 15;
+	private static final int HEADING_LOOKAHEAD_TILES = 4;
+
+	private final double tilesPerTick;
+	private final double headingStepsPerTick;
+
+	public BoatModel(double tilesPerTick, double headingStepsPerTick)
+	{
+		this.tilesPerTick = tilesPerTick;
+		this.headingStepsPerTick = headingStepsPerTick;
+	}
+
+	/**
+	 * The boat partway along a path. Not thread-safe; one per simulated run.
+	 */
+	public class Motion
+	{
+		@Getter
+		private WorldPoint location;
+		@Getter
+		private int headingIdx;
+		@Getter
+		private double ticks = 0;
+		private int boostTilesRemaining = 0;
+
+		public Motion(WorldPoint location, int headingIdx)
+		{
+			this.location = location;
+			this.headingIdx = headingIdx;
+		}
+
+		/**
+		 * Moves onto {@code path.get(index)}, which must neighbour the current location
+		 * @param boosts Boost tiles by grabbable tile, as in State; grabbed boosts are not removed
+		 * @return Ticks the step took
+		 */
+		public double step(List<WorldPoint> path, int index, Map<WorldPoint, List<WorldPoint>> boosts)
+		{
+			WorldPoint next = path.get(index);
+			boolean isDiagonal = next.getX() != location.getX() && next.getY() != location.getY();
+			double distance = isDiagonal ? Math.sqrt(2) : 1.0;
+
+			double speed = tilesPerTick;
+			if (boosts.containsKey(next))
+			{
+				boostTilesRemaining = BOOST_TILES;
+			}
+			if (boostTilesRemaining > 0)
+			{
+				speed *= 2;
+				boostTilesRemaining--;
+			}
+
+			WorldPoint ahead = path.get(Math.min(path.size() - 1, index + HEADING_LOOKAHEAD_TILES - 1));
+			int nextHeading = headingOf(ahead.getX() - location.getX(), ahead.getY() - location.getY());
+			double turnTicks = 0;
+			if (headingIdx >= 0 && nextHeading >= 0)
+			{
+				int turnSteps = Math.abs(nextHeading - headingIdx);
+				turnSteps = Math.min(turnSteps, BoatPose.HEADING_COUNT - turnSteps);
+				turnTicks = turnSteps / headingStepsPerTick;
+			}
+
+			double stepTicks = Math.max(distance / speed, turnTicks);
+			ticks += stepTicks;
+			location = next;
+			if (nextHeading >= 0)
+			{
+				headingIdx = nextHeading;
+			}
+			return stepTicks;
+		}
+
+		/**
+		 * Moves the boat without sailing, e.g. through a portal
+		 */
+		public void teleport(WorldPoint destination)
+		{
+			location = destination;
+			boostTilesRemaining = 0;
+		}
+
+		/**
+		 * @return Pose to hand the planner, so it plans from the boat's current heading
+		 */
+		public BoatPose toPose(int tick)
+		{
+			double velocityX = 0;
+			double velocityY = 0;
+			if (headingIdx >= 0)
+			{
+				double radians = Math.toRadians(headingIdx * (360.0 / BoatPose.HEADING_COUNT));
+				velocityX = Math.cos(radians) * tilesPerTick;
+				velocityY = Math.sin(radians) * tilesPerTick;
+			}
+			return new BoatPose(tick, location.getX(), location.getY(), location.getPlane(), velocityX, velocityY,
+				headingIdx, boostTilesRemaining > 0);
+		}
+	}
+
+	/**
+	 * Same 15° buckets as the planner, counter-clockwise from east
+	 * @return 0..23, or -1 for no movement
+	 */
+	static int headingOf(int dx, int dy)
+	{
+		if (dx == 0 && dy == 0)
+		{
+			return -1;
+		}
+		int idx = (int) Math.round(Math.toDegrees(Math.atan2(dy, dx)) / (360.0 / BoatPose.HEADING_COUNT));
+		return (idx % BoatPose.HEADING_COUNT + BoatPose.HEADING_COUNT) % BoatPose.HEADING_COUNT;
+	}
+}
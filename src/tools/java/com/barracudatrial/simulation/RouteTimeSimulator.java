@@ -0,0 +1,470 @@
+package com.barracudatrial.simulation;
+
+import com.barracudatrial.BarracudaTrialConfig;
+import com.barracudatrial.CachedConfig;
+import com.barracudatrial.RouteOptimization;
+import com.barracudatrial.atlas.HazardAtlas;
+import com.barracudatrial.diagnostics.PathfindingMetrics;
+import com.barracudatrial.game.PathPlanner;
+import com.barracudatrial.game.ProgressTracker;
+import com.barracudatrial.game.State;
+import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.RouteWaypoint;
+import com.barracudatrial.game.route.TrialConfig;
+import com.barracudatrial.game.route.TrialType;
+import com.barracudatrial.world.BoatSize;
+import com.barracudatrial.world.InMemoryTrialWorldView;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.RuneLite;
+import net.runelite.client.callback.ClientThread;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Sails a whole route through PathPlanner without a game client and estimates how long it takes.
+ * <p>
+ * Each recalculation plans from where the simulated boat is, then the boat follows that path under the
+ * {@link BoatModel} until it reaches the next waypoint or the route optimization's recalculation interval is up,
+ * the same triggers the plugin recalculates on. Waypoints complete when the boat comes within their tolerance,
+ * and portals move the boat to their exit.
+ * <p>
+ * Only static hazards are simulated: no clouds, and no boosts unless the hazards passed in include them.
+ */
+public class RouteTimeSimulator
+{
+	// About three hours; a run this long has gone wrong
+	private static final double MAX_TICKS = 18000;
+	// Recalculations in a row that neither move the boat nor complete a waypoint before giving up
+	private static final int MAX_STALLED_RECALCULATIONS = 3;
+	// Ten minutes without completing a waypoint; the planner is going in circles
+	private static final double MAX_TICKS_BETWEEN_WAYPOINTS = 1000;
+	// Furthest the boat will cut across to pick up a path that doesn't start where it is
+	private static final int MAX_JOIN_TILES = 5;
+	// Longest straight gap in a path the boat sails across; portal hops are much longer
+	private static final int MAX_GAP_TILES = 16;
+
+	private final BoatModel boatModel;
+	private final int pathLookahead;
+	private final int farSegmentGridSize;
+	private final State hazards;
+
+	/**
+	 * @param farSegmentGridSize Grid size for segments past the current one, as the config option does; 1 plans them in full
+	 * @param hazards State holding the known rocks, fetid pools, toad pillars and boosts to plan against, and the
+	 *                boat size if hulls should be checked against rocks
+	 */
+	public RouteTimeSimulator(BoatModel boatModel, int pathLookahead, int farSegmentGridSize, State hazards)
+	{
+		this.boatModel = boatModel;
+		this.pathLookahead = pathLookahead;
+		this.farSegmentGridSize = farSegmentGridSize;
+		this.hazards = hazards;
+	}
+
+	public SimulationReport simulate(TrialType trialType, Difficulty difficulty, List<RouteWaypoint> route, RouteOptimization routeOptimization)
+	{
+		BarracudaTrialConfig config = new BarracudaTrialConfig()
+		{
+			@Override
+			public RouteOptimization routeOptimization()
+			{
+				return routeOptimization;
+			}
+
+			@Override
+			public int pathLookahead()
+			{
+				return pathLookahead;
+			}
+
+			@Override
+			public int farSegmentGridSize()
+			{
+				return farSegmentGridSize;
+			}
+		};
+
+		TrialConfig trial = ProgressTracker.createTrialConfig(trialType);
+		State state = new State();
+		state.setCurrentTrial(trial);
+		state.setInTrial(true);
+		state.updateKnownRockLocations(hazards.getKnownRockLocations());
+		state.updateKnownFetidPoolLocations(hazards.getKnownFetidPoolLocations());
+		state.updateKnownToadPillarLocations(hazards.getKnownToadPillarLocations());
+		state.updateKnownSpeedBoostLocations(hazards.getKnownSpeedBoostLocations());
+		state.setBoatSize(hazards.getBoatSize());
+		state.setCurrentStaticRoute(route);
+
+		// No scene is loaded, so the planner targets waypoints at their route locations
+		PathPlanner pathPlanner = new PathPlanner(new InMemoryTrialWorldView(), state, new CachedConfig(config), new ClientThread(), new PathfindingMetrics());
+		try
+		{
+			return new Run(trialType, difficulty, route, routeOptimization, state, pathPlanner).sail();
+		}
+		finally
+		{
+			pathPlanner.shutdown();
+		}
+	}
+
+	/**
+	 * One simulated run; tracks route progress the way the plugin's trackers would
+	 */
+	private class Run
+	{
+		final TrialType trialType;
+		final Difficulty difficulty;
+		final List<RouteWaypoint> route;
+		final RouteOptimization routeOptimization;
+		final State state;
+		final PathPlanner pathPlanner;
+		final Map<Integer, Integer> lastNavigableIndexByLap = new HashMap<>();
+		final List<Double> lapEndTicks = new ArrayList<>();
+		final int navigableWaypoints;
+		int completedWaypoints = 0;
+		BoatModel.Motion motion;
+
+		Run(TrialType trialType, Difficulty difficulty, List<RouteWaypoint> route, RouteOptimization routeOptimization, State state, PathPlanner pathPlanner)
+		{
+			this.trialType = trialType;
+			this.difficulty = difficulty;
+			this.route = route;
+			this.routeOptimization = routeOptimization;
+			this.state = state;
+			this.pathPlanner = pathPlanner;
+
+			int navigable = 0;
+			for (int i = 0; i < route.size(); i++)
+			{
+				RouteWaypoint waypoint = route.get(i);
+				if (!waypoint.getType().isNonNavigableHelper())
+				{
+					navigable++;
+					lastNavigableIndexByLap.put(waypoint.getLap(), i);
+				}
+			}
+			this.navigableWaypoints = navigable;
+		}
+
+		SimulationReport sail()
+		{
+			int recalculations = 0;
+			if (navigableWaypoints > 0)
+			{
+				// The run starts at the first waypoint; the trial's spawn point isn't part of the route
+				int first = state.getNextNavigableWaypointIndex();
+				motion = boatModel.new Motion(route.get(first).getLocation(), -1);
+				complete(first);
+
+				int stalledRecalculations = 0;
+				double lastCompletionTicks = 0;
+				while (completedWaypoints < navigableWaypoints && motion.getTicks() < MAX_TICKS
+					&& stalledRecalculations < MAX_STALLED_RECALCULATIONS
+					&& motion.getTicks() - lastCompletionTicks < MAX_TICKS_BETWEEN_WAYPOINTS)
+				{
+					state.setBoatLocation(motion.getLocation());
+					state.setBoatPose(motion.toPose((int) motion.getTicks()));
+					List<WorldPoint> path = pathPlanner.recalculateOptimalPathNow("simulation");
+					recalculations++;
+
+					int completedBefore = completedWaypoints;
+					boolean moved = follow(path);
+					stalledRecalculations = moved || completedWaypoints > completedBefore ? 0 : stalledRecalculations + 1;
+					if (completedWaypoints > completedBefore)
+					{
+						lastCompletionTicks = motion.getTicks();
+					}
+				}
+			}
+
+			double[] lapEnds = new double[lapEndTicks.size()];
+			for (int i = 0; i < lapEnds.length; i++)
+			{
+				lapEnds[i] = lapEndTicks.get(i);
+			}
+			return new SimulationReport(trialType, difficulty, routeOptimization, motion != null ? motion.getTicks() : 0,
+				lapEnds, completedWaypoints, navigableWaypoints, recalculations, completedWaypoints == navigableWaypoints);
+		}
+
+		/**
+		 * Sails the path until a waypoint completes or it's time to recalculate
+		 * @return true if the boat moved
+		 */
+		boolean follow(List<WorldPoint> path)
+		{
+			List<WorldPoint> sailed = joinPath(path);
+			double startTicks = motion.getTicks();
+			int interval = routeOptimization.getPathRecalcIntervalTicks();
+			boolean moved = false;
+
+			for (int i = 0; i < sailed.size(); i++)
+			{
+				WorldPoint next = sailed.get(i);
+				// Paths are contiguous, so a gap means something the boat can't sail, like a portal hop
+				if (next.getPlane() != motion.getLocation().getPlane() || next.distanceTo2D(motion.getLocation()) > 1)
+				{
+					break;
+				}
+
+				motion.step(sailed, i, state.getKnownSpeedBoostLocations());
+				moved = true;
+
+				if (checkArrival() || motion.getTicks() - startTicks >= interval)
+				{
+					break;
+				}
+			}
+			return moved;
+		}
+
+		/**
+		 * The tiles to sail: straight to the nearest tile of the path, then along the rest of it, straight across any short gaps.
+		 * A kept path can start a few tiles behind or beside the boat; the overlay follows it from its nearest tile too.
+		 */
+		List<WorldPoint> joinPath(List<WorldPoint> path)
+		{
+			WorldPoint location = motion.getLocation();
+			int nearest = -1;
+			int nearestDistance = Integer.MAX_VALUE;
+			for (int i = 0; i < path.size(); i++)
+			{
+				WorldPoint tile = path.get(i);
+				int distance = tile.getPlane() == location.getPlane() ? tile.distanceTo2D(location) : Integer.MAX_VALUE;
+				// Later tiles win ties, so the boat never sails back along a path it's already on
+				if (distance <= nearestDistance)
+				{
+					nearest = i;
+					nearestDistance = distance;
+				}
+				if (distance > nearestDistance + MAX_JOIN_TILES)
+				{
+					break;
+				}
+			}
+
+			List<WorldPoint> sailed = new ArrayList<>();
+			if (nearest < 0 || nearestDistance > MAX_JOIN_TILES)
+			{
+				return sailed;
+			}
+
+			WorldPoint previous = location;
+			for (int i = nearest; i < path.size(); i++)
+			{
+				WorldPoint tile = path.get(i);
+				// A failed search falls back to a straight line to the goal, which the overlay draws and the boat sails
+				if (tile.getPlane() == previous.getPlane() && tile.distanceTo2D(previous) <= MAX_GAP_TILES)
+				{
+					sailStraight(previous, tile, sailed);
+				}
+				else
+				{
+					sailed.add(tile);
+				}
+				previous = tile;
+			}
+			return sailed;
+		}
+
+		void sailStraight(WorldPoint from, WorldPoint to, List<WorldPoint> sailed)
+		{
+			int x = from.getX();
+			int y = from.getY();
+			while (x != to.getX() || y != to.getY())
+			{
+				x += Integer.signum(to.getX() - x);
+				y += Integer.signum(to.getY() - y);
+				sailed.add(new WorldPoint(x, y, from.getPlane()));
+			}
+		}
+
+		boolean checkArrival()
+		{
+			int index = state.getNextNavigableWaypointIndex();
+			RouteWaypoint waypoint = route.get(index);
+			if (state.isWaypointCompleted(index)
+				|| motion.getLocation().getPlane() != waypoint.getLocation().getPlane()
+				|| motion.getLocation().distanceTo2D(waypoint.getLocation()) > waypoint.getType().getToleranceTiles())
+			{
+				return false;
+			}
+
+			complete(index);
+			return true;
+		}
+
+		void complete(int index)
+		{
+			RouteWaypoint waypoint = route.get(index);
+			state.markWaypointCompleted(index);
+			completedWaypoints++;
+
+			switch (waypoint.getType())
+			{
+				case RUM_PICKUP:
+				case TOAD_PICKUP:
+					state.setHasThrowableObjective(true);
+					break;
+				case RUM_DROPOFF:
+					state.setHasThrowableObjective(false);
+					state.setCurrentLap(waypoint.getLap() + 1);
+					break;
+				case PORTAL_ENTER:
+					if (index + 1 < route.size() && route.get(index + 1).getType() == RouteWaypoint.WaypointType.PORTAL_EXIT)
+					{
+						state.markWaypointCompleted(index + 1);
+						motion.teleport(route.get(index + 1).getLocation());
+					}
+					break;
+				default:
+					break;
+			}
+
+			if (waypoint.getLap() > state.getCurrentLap())
+			{
+				state.setCurrentLap(waypoint.getLap());
+			}
+
+			Integer lastOfLap = lastNavigableIndexByLap.get(waypoint.getLap());
+			if (lastOfLap != null && lastOfLap == index)
+			{
+				lapEndTicks.add(motion.getTicks());
+			}
+		}
+	}
+
+	/**
+	 * Simulates every route and difficulty under each route optimization in parallel and prints the estimated times.
+	 * Usage: RouteTimeSimulator [--tiles-per-tick=X] [--turn-rate=HEADING_STEPS_PER_TICK] [--lookahead=N]
+	 * [--parallelism=N] [--atlas=dir] [--optimization=RELAXED|EFFICIENT] [--trial=TYPE] [--difficulty=DIFFICULTY]
+	 * [--boat-size=SIZE] [--far-segment-grid=N]
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException
+	{
+		double tilesPerTick = 2.0;
+		double headingStepsPerTick = 2.0;
+		int pathLookahead = 3;
+		int parallelism = Runtime.getRuntime().availableProcessors();
+		File atlasDirectory = new File(RuneLite.RUNELITE_DIR, "barracuda-trials/hazards");
+		List<RouteOptimization> optimizations = new ArrayList<>(List.of(RouteOptimization.values()));
+		TrialType onlyTrial = null;
+		Difficulty onlyDifficulty = null;
+		BoatSize boatSize = null;
+		int farSegmentGridSize = 1;
+
+		for (String arg : args)
+		{
+			if (arg.startsWith("--tiles-per-tick="))
+			{
+				tilesPerTick = Double.parseDouble(arg.substring("--tiles-per-tick=".length()));
+			}
+			else if (arg.startsWith("--turn-rate="))
+			{
+				headingStepsPerTick = Double.parseDouble(arg.substring("--turn-rate=".length()));
+			}
+			else if (arg.startsWith("--lookahead="))
+			{
+				pathLookahead = Integer.parseInt(arg.substring("--lookahead=".length()));
+			}
+			else if (arg.startsWith("--parallelism="))
+			{
+				parallelism = Integer.parseInt(arg.substring("--parallelism=".length()));
+			}
+			else if (arg.startsWith("--atlas="))
+			{
+				atlasDirectory = new File(arg.substring("--atlas=".length()));
+			}
+			else if (arg.startsWith("--optimization="))
+			{
+				optimizations = List.of(RouteOptimization.valueOf(arg.substring("--optimization=".length())));
+			}
+			else if (arg.startsWith("--trial="))
+			{
+				onlyTrial = TrialType.valueOf(arg.substring("--trial=".length()));
+			}
+			else if (arg.startsWith("--difficulty="))
+			{
+				onlyDifficulty = Difficulty.valueOf(arg.substring("--difficulty=".length()));
+			}
+			else if (arg.startsWith("--boat-size="))
+			{
+				boatSize = BoatSize.valueOf(arg.substring("--boat-size=".length()));
+			}
+			else if (arg.startsWith("--far-segment-grid="))
+			{
+				farSegmentGridSize = Integer.parseInt(arg.substring("--far-segment-grid=".length()));
+			}
+			else
+			{
+				throw new IllegalArgumentException("Unknown argument " + arg);
+			}
+		}
+
+		BoatModel boatModel = new BoatModel(tilesPerTick, headingStepsPerTick);
+		List<Callable<SimulationReport>> runs = new ArrayList<>();
+		for (TrialType trialType : TrialType.values())
+		{
+			if (onlyTrial != null && trialType != onlyTrial)
+			{
+				continue;
+			}
+
+			State hazards = new State();
+			File atlasFile = HazardAtlas.getFile(atlasDirectory, trialType);
+			if (!atlasFile.isFile())
+			{
+				System.err.println(trialType + ": no hazard atlas at " + atlasFile + ", sailing open water only");
+			}
+			HazardAtlas.load(atlasFile).applyTo(hazards);
+			hazards.setBoatSize(boatSize);
+			var simulator = new RouteTimeSimulator(boatModel, pathLookahead, farSegmentGridSize, hazards);
+			var trial = ProgressTracker.createTrialConfig(trialType);
+
+			for (Difficulty difficulty : Difficulty.values())
+			{
+				List<RouteWaypoint> route = trial.getRoute(difficulty);
+				if ((onlyDifficulty != null && difficulty != onlyDifficulty) || route == null || route.isEmpty())
+				{
+					continue;
+				}
+
+				for (RouteOptimization routeOptimization : optimizations)
+				{
+					runs.add(() -> simulator.simulate(trialType, difficulty, route, routeOptimization));
+				}
+			}
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try
+		{
+			Map<RouteOptimization, Double> totalSeconds = new EnumMap<>(RouteOptimization.class);
+			for (Future<SimulationReport> future : pool.invokeAll(runs))
+			{
+				SimulationReport report = future.get();
+				System.out.println(report);
+				totalSeconds.merge(report.getRouteOptimization(), report.getSeconds(), Double::sum);
+			}
+			totalSeconds.forEach((routeOptimization, seconds) ->
+				System.out.printf("%s total: %.1fs%n", routeOptimization, seconds));
+		}
+		catch (ExecutionException e)
+		{
+			throw new IllegalStateException("Simulation failed", e.getCause());
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.barracudatrial.simulation;
+
+import com.barracudatrial.RouteOptimization;
+import com.barracudatrial.game.route.Difficulty;
+import com.barracudatrial.game.route.TrialType;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Estimated time for one simulated run of a route.
+ * Everything here depends only on the route, hazards, boat model and planner code, so two runs of the same build
+ * produce the same report and any difference is a behaviour change.
+ */
+@Getter
+public class SimulationReport
+{
+	private static final double SECONDS_PER_TICK = 0.6;
+
+	private final TrialType trialType;
+	private final Difficulty difficulty;
+	private final RouteOptimization routeOptimization;
+	private final double ticks;
+	// Ticks from the start to finishing each lap
+	private final double[] lapEndTicks;
+	private final int completedWaypoints;
+	private final int navigableWaypoints;
+	private final int recalculations;
+	private final boolean finished;
+
+	SimulationReport(TrialType trialType, Difficulty difficulty, RouteOptimization routeOptimization, double ticks,
+		double[] lapEndTicks, int completedWaypoints, int navigableWaypoints, int recalculations, boolean finished)
+	{
+		this.trialType = trialType;
+		this.difficulty = difficulty;
+		this.routeOptimization = routeOptimization;
+		this.ticks = ticks;
+		this.lapEndTicks = lapEndTicks.clone();
+		this.completedWaypoints = completedWaypoints;
+		this.navigableWaypoints = navigableWaypoints;
+		this.recalculations = recalculations;
+		this.finished = finished;
+	}
+
+	public double getSeconds()
+	{
+		return ticks * SECONDS_PER_TICK;
+	}
+
+	public double getSecondsPerLap()
+	{
+		return lapEndTicks.length > 0 ? getSeconds() / lapEndTicks.length : getSeconds();
+	}
+
+	@Override
+	public String toString()
+	{
+		double[] lapSeconds = new double[lapEndTicks.length];
+		for (int i = 0; i < lapEndTicks.length; i++)
+		{
+			lapSeconds[i] = Math.round((lapEndTicks[i] - (i > 0 ? lapEndTicks[i - 1] : 0)) * SECONDS_PER_TICK * 10) / 10.0;
+		}
+
+		return String.format(
+			"%s %s %s: %s %.1fs (%.0f ticks, %.1fs/lap) laps=%s waypoints=%d/%d recalculations=%d",
+			trialType,
+			difficulty,
+			routeOptimization,
+			finished ? "finished" : "STUCK",
+			getSeconds(),
+			ticks,
+			getSecondsPerLap(),
+			Arrays.toString(lapSeconds),
+			completedWaypoints,
+			navigableWaypoints,
+			recalculations);
+	}
+}
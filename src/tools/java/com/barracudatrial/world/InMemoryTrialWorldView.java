@@ -0,0 +1,372 @@
+package com.barracudatrial.world;
+
+import net.runelite.api.GameObject;
+import net.runelite.api.NPC;
+import net.runelite.api.coords.WorldPoint;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * TrialWorldView that holds its world in plain collections, for running the trackers and planner without a game:
+ * replaying recordings, benchmarks, and load tests on synthetic worlds far busier than a real trial.
+ * Objects and NPCs it hands out only answer their id, location, plane and (NPCs) animation.
+ * Not thread-safe; change it between ticks, as the client would.
+ */
+public class InMemoryTrialWorldView implements TrialWorldView
+{
+	private static final int SCENE_SIZE = 104;
+	// The extended scene reaches this far past each edge of the regular one
+	private static final int EXTENDED_BORDER = 40;
+
+	private static final Map<Class<?>, Object> PRIMITIVE_DEFAULTS = Map.of(
+		boolean.class, false,
+		byte.class, (byte) 0,
+		short.class, (short) 0,
+		char.class, (char) 0,
+		int.class, 0,
+		long.class, 0L,
+		float.class, 0f,
+		double.class, 0d
+	);
+
+	private final Map<Integer, Integer> varbits = new HashMap<>();
+	private final Map<Integer, Integer> widgetSprites = new HashMap<>();
+	private final Map<Integer, Integer> impostors = new HashMap<>();
+	// Insertion order, so scans visit objects in the same order every run
+	private final Map<GameObject, List<WorldPoint>> footprints = new LinkedHashMap<>();
+	private final Map<WorldPoint, List<GameObject>> objectsByTile = new HashMap<>();
+	private final List<NPC> npcs = new ArrayList<>();
+	private final Map<GameObject, WorldPoint> worldEntityObjects = new IdentityHashMap<>();
+
+	private int tickCount;
+	private boolean sceneLoaded;
+	private int baseX;
+	private int baseY;
+	private int plane;
+	private WorldPoint playerLocation;
+	private BoatSample playerBoat;
+	private BoatFront boatFront;
+
+	/**
+	 * Loads a regular scene with its south-west corner at the given tile
+	 */
+	public void loadScene(int baseX, int baseY, int plane)
+	{
+		this.sceneLoaded = true;
+		this.baseX = baseX;
+		this.baseY = baseY;
+		this.plane = plane;
+	}
+
+	/**
+	 * Loads the scene so the given tile is in its middle, as the client does around the player
+	 */
+	public void loadSceneAround(WorldPoint center)
+	{
+		loadScene(center.getX() - SCENE_SIZE / 2, center.getY() - SCENE_SIZE / 2, center.getPlane());
+	}
+
+	public void unloadScene()
+	{
+		sceneLoaded = false;
+	}
+
+	public void setTickCount(int tickCount)
+	{
+		this.tickCount = tickCount;
+	}
+
+	public void setVarbitValue(int varbitId, int value)
+	{
+		varbits.put(varbitId, value);
+	}
+
+	/**
+	 * @param spriteId Sprite to show, or -1 to hide the widget
+	 */
+	public void setWidgetSpriteId(int componentId, int spriteId)
+	{
+		widgetSprites.put(componentId, spriteId);
+	}
+
+	/**
+	 * @param impostorId Id the object should show as, or -1 to clear it
+	 */
+	public void setImpostorId(int objectId, int impostorId)
+	{
+		if (impostorId < 0)
+		{
+			impostors.remove(objectId);
+		}
+		else
+		{
+			impostors.put(objectId, impostorId);
+		}
+	}
+
+	/**
+	 * Adds an object covering a width x height block of tiles, anchored on its south-west tile
+	 */
+	public GameObject addGameObject(int id, WorldPoint anchor, int width, int height)
+	{
+		GameObject object = stub(GameObject.class, Map.of(
+			"getId", id,
+			"getWorldLocation", anchor,
+			"getPlane", anchor.getPlane()
+		));
+
+		List<WorldPoint> footprint = new ArrayList<>(width * height);
+		for (int dx = 0; dx < width; dx++)
+		{
+			for (int dy = 0; dy < height; dy++)
+			{
+				WorldPoint tile = new WorldPoint(anchor.getX() + dx, anchor.getY() + dy, anchor.getPlane());
+				footprint.add(tile);
+				objectsByTile.computeIfAbsent(tile, k -> new ArrayList<>()).add(object);
+			}
+		}
+		footprints.put(object, footprint);
+		return object;
+	}
+
+	public void removeGameObject(GameObject object)
+	{
+		List<WorldPoint> footprint = footprints.remove(object);
+		if (footprint == null)
+		{
+			return;
+		}
+
+		for (WorldPoint tile : footprint)
+		{
+			List<GameObject> onTile = objectsByTile.get(tile);
+			if (onTile != null)
+			{
+				onTile.remove(object);
+				if (onTile.isEmpty())
+				{
+					objectsByTile.remove(tile);
+				}
+			}
+		}
+	}
+
+	public NPC addNpc(int id, WorldPoint location, int animation)
+	{
+		NPC npc = stub(NPC.class, Map.of(
+			"getId", id,
+			"getWorldLocation", location,
+			"getAnimation", animation
+		));
+		npcs.add(npc);
+		return npc;
+	}
+
+	public void clearNpcs()
+	{
+		npcs.clear();
+	}
+
+	/**
+	 * Adds an object on a world entity (another boat) located at the given tile
+	 */
+	public GameObject addWorldEntityObject(int id, WorldPoint entityLocation)
+	{
+		GameObject object = stub(GameObject.class, Map.of(
+			"getId", id,
+			"getWorldLocation", entityLocation,
+			"getPlane", entityLocation.getPlane()
+		));
+		worldEntityObjects.put(object, entityLocation);
+		return object;
+	}
+
+	public void clearWorldEntityObjects()
+	{
+		worldEntityObjects.clear();
+	}
+
+	public void setPlayerLocation(WorldPoint playerLocation)
+	{
+		this.playerLocation = playerLocation;
+	}
+
+	public void setPlayerBoat(BoatSample playerBoat)
+	{
+		this.playerBoat = playerBoat;
+	}
+
+	public void setBoatFront(BoatFront boatFront)
+	{
+		this.boatFront = boatFront;
+	}
+
+	@Override
+	public int getTickCount()
+	{
+		return tickCount;
+	}
+
+	@Override
+	public int getVarbitValue(int varbitId)
+	{
+		return varbits.getOrDefault(varbitId, 0);
+	}
+
+	@Override
+	public int getWidgetSpriteId(int componentId)
+	{
+		return widgetSprites.getOrDefault(componentId, -1);
+	}
+
+	@Override
+	public boolean isSceneLoaded()
+	{
+		return sceneLoaded;
+	}
+
+	@Override
+	public int getPlane()
+	{
+		return plane;
+	}
+
+	@Override
+	public boolean isInScene(WorldPoint point)
+	{
+		return point.getPlane() == plane && isWithinScene(point, 0);
+	}
+
+	@Override
+	public boolean isInExtendedScene(WorldPoint point)
+	{
+		return isWithinScene(point, EXTENDED_BORDER);
+	}
+
+	@Override
+	public void forEachGameObject(Consumer<GameObject> visitor)
+	{
+		if (!sceneLoaded)
+		{
+			return;
+		}
+
+		for (GameObject object : footprints.keySet())
+		{
+			if (isWithinScene(object.getWorldLocation(), 0))
+			{
+				visitor.accept(object);
+			}
+		}
+	}
+
+	@Override
+	public List<GameObject> getGameObjectsAt(WorldPoint point)
+	{
+		if (!isWithinScene(point, 0))
+		{
+			return Collections.emptyList();
+		}
+
+		return objectsByTile.getOrDefault(point, Collections.emptyList());
+	}
+
+	@Override
+	public List<WorldPoint> getObjectFootprint(GameObject object)
+	{
+		List<WorldPoint> footprint = footprints.get(object);
+		return footprint != null ? footprint : Collections.singletonList(object.getWorldLocation());
+	}
+
+	@Override
+	public int getImpostorId(int objectId)
+	{
+		return impostors.getOrDefault(objectId, -1);
+	}
+
+	@Override
+	public void forEachNpc(Consumer<NPC> visitor)
+	{
+		if (sceneLoaded)
+		{
+			npcs.forEach(visitor);
+		}
+	}
+
+	@Override
+	public void forEachWorldEntityGameObject(BiConsumer<WorldPoint, GameObject> visitor)
+	{
+		if (sceneLoaded && playerLocation != null)
+		{
+			worldEntityObjects.forEach((object, entityLocation) -> visitor.accept(entityLocation, object));
+		}
+	}
+
+	@Override
+	public WorldPoint getPlayerLocation()
+	{
+		return playerLocation;
+	}
+
+	@Override
+	public BoatSample getPlayerBoat()
+	{
+		return playerLocation != null ? playerBoat : null;
+	}
+
+	@Override
+	public BoatFront getBoatFront()
+	{
+		return playerLocation != null ? boatFront : null;
+	}
+
+	private boolean isWithinScene(WorldPoint point, int border)
+	{
+		if (!sceneLoaded)
+		{
+			return false;
+		}
+
+		int sceneX = point.getX() - baseX;
+		int sceneY = point.getY() - baseY;
+		return sceneX >= -border && sceneX < SCENE_SIZE + border
+			&& sceneY >= -border && sceneY < SCENE_SIZE + border;
+	}
+
+	/**
+	 * Answers the given methods by name and everything else with null/0/false; equality is identity
+	 */
+	private static <T> T stub(Class<T> type, Map<String, Object> returnValues)
+	{
+		Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+			String name = method.getName();
+			if (name.equals("equals") && args != null && args.length == 1)
+			{
+				return self == args[0];
+			}
+			if (name.equals("hashCode") && args == null)
+			{
+				return System.identityHashCode(self);
+			}
+			if (name.equals("toString") && args == null)
+			{
+				return "InMemory" + type.getSimpleName() + returnValues;
+			}
+			if (returnValues.containsKey(name))
+			{
+				return returnValues.get(name);
+			}
+			return PRIMITIVE_DEFAULTS.get(method.getReturnType());
+		});
+		return type.cast(proxy);
+	}
+}